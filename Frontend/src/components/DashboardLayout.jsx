@@ -18,8 +18,15 @@ export default function DashboardLayout() {
 
     const fetchEspecialistas = async () => {
         try {
-            const res = await fetch(`${API}/especialistas`, { headers: { Authorization: `Bearer ${token}` }});
-            const data = await res.json();
+            // A listagem vem em páginas: segue o X-Next-Cursor até a última
+            const data = [];
+            let cursor = null;
+            do {
+                const url = cursor ? `${API}/especialistas?cursor=${cursor}` : `${API}/especialistas`;
+                const res = await fetch(url, { headers: { Authorization: `Bearer ${token}` }});
+                data.push(...await res.json());
+                cursor = res.headers.get('X-Next-Cursor');
+            } while (cursor);
             setEspecialistas(data);
             if (data.length) setSelectedEsp(data[0]);
         } catch (e) { console.error(e); }
@@ -76,20 +76,72 @@ export default function SessionPage() {
         } 
     };
 
+    // Recebe as mensagens da análise por SSE assim que ficam prontas.
+    // Abre o stream antes do envio do áudio para não perder nenhum evento.
+    const ouvirEventos = (id) => {
+        const fonte = new EventSource(`${API}/api/sessao-treino/${id}/eventos`);
+        const recebidas = [];
+        const resultado = new Promise((resolve, reject) => {
+            const receber = (e) => {
+                const m = JSON.parse(e.data);
+                recebidas.push(m);
+                if (m.tipo === 'ERRO' || m.sessaoFinalizada) {
+                    fonte.close();
+                    resolve(recebidas);
+                }
+            };
+            fonte.addEventListener('FEEDBACK_ANALISE', e => {
+                const m = JSON.parse(e.data);
+                if (!m.parcial) {
+                    recebidas.push(m);
+                    return;
+                }
+                // Palavras já avaliadas: substitui o parcial anterior até chegar a análise completa
+                const parcial = { id: 'parcial', type: 'bot', ...m, ts: new Date() };
+                setMsgs(p => [...p.filter(x => !x.parcial), parcial]);
+            });
+            fonte.addEventListener('RESUMO_FINAL', receber);
+            fonte.addEventListener('ERRO', receber);
+            fonte.onerror = () => { fonte.close(); reject(new Error('stream encerrado')); };
+        });
+        return { resultado, fechar: () => fonte.close() };
+    };
+
+    // Alternativa ao SSE: consulta o job até ele terminar
+    const aguardarJob = async (linkEstado) => {
+        while (true) {
+            await new Promise(r => setTimeout(r, 1500));
+            const res = await fetch(`${API}${linkEstado}`, { headers: { Authorization: `Bearer ${token}` } });
+            const job = await res.json();
+            if (!res.ok) throw new Error(job.erro || 'Erro ao consultar a análise');
+            if (job.status === 'CONCLUIDO' || job.status === 'ERRO') return job;
+        }
+    };
+
     const sendAudio = async () => {
         if (!audioBlob || !sessaoId) return;
         setLoading(true);
         setMsgs(p => [...p, { id: Math.random(), type: 'user', mensagem: '🎤 Áudio enviado', ts: new Date() }]);
+        const eventos = ouvirEventos(sessaoId);
         try {
             const fd = new FormData();
             fd.append('audio', audioBlob, 'audio.webm');
             const res = await fetch(`${API}/api/sessao-treino/${sessaoId}/audio?usarGemini=true`, {
                 method: 'POST', headers: { Authorization: `Bearer ${token}` }, body: fd
             });
-            const data = await res.json();
-            if (!res.ok) throw new Error(data.erro || 'Erro');
+            const aceito = await res.json();
+            if (!res.ok) throw new Error(aceito.erro || 'Erro');
+            let data;
+            try {
+                data = await eventos.resultado;
+            } catch {
+                // Stream caiu antes do fim: busca o resultado pelo job
+                const job = await aguardarJob(aceito.linkEstado);
+                data = job.resultado;
+                if (job.status === 'ERRO' && !Array.isArray(data)) throw new Error(job.erro || 'Erro na análise');
+            }
             if (Array.isArray(data)) {
-                setMsgs(p => [...p, ...data.map(m => ({ id: Math.random(), type: 'bot', ...m, ts: new Date() }))]);
+                setMsgs(p => [...p.filter(x => !x.parcial), ...data.map(m => ({ id: Math.random(), type: 'bot', ...m, ts: new Date() }))]);
                 const finalMsg = data.find(m => m.sessaoFinalizada);
                 if (finalMsg) {
                     setResultado(finalMsg);
@@ -98,7 +150,8 @@ export default function SessionPage() {
             }
             setAudioBlob(null);
         } catch (e) {
-            setMsgs(p => [...p, { id: Math.random(), type: 'error', mensagem: e.message, ts: new Date() }]);
+            eventos.fechar();
+            setMsgs(p => [...p.filter(x => !x.parcial), { id: Math.random(), type: 'error', mensagem: e.message, ts: new Date() }]);
         }
         setLoading(false);
     };
@@ -225,7 +278,7 @@ export default function SessionPage() {
                                     <div style={{marginTop:16,background:'rgba(0,0,0,0.2)',borderRadius:12,padding:16}}>
                                         <div style={{display:'flex',justifyContent:'space-between',marginBottom:12}}>
                                             <span style={{color:'#a5b4fc',fontWeight:600}}>📊 Análise</span>
-                                            <span style={{background:'#6366f1',padding:'4px 12px',borderRadius:20,color:'#fff',fontWeight:700}}>{(m.analise.pontuacaoGeral || 0).toFixed(0)}%</span>
+                                            <span style={{background:'#6366f1',padding:'4px 12px',borderRadius:20,color:'#fff',fontWeight:700}}>{m.parcial ? '...' : `${(m.analise.pontuacaoGeral || 0).toFixed(0)}%`}</span>
                                         </div>
                                         {m.analise.resultados?.map((r, i) => (
                                             <div key={i} style={{display:'flex',alignItems:'center',gap:12,padding:'10px 0',borderBottom:'1px solid rgba(255,255,255,0.05)'}}>
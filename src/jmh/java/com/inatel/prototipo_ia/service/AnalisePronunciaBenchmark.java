@@ -0,0 +1,65 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.audio.SegmentadorVoz;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.upstream.CotaGemini;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de CPU da parte local das análises de pronúncia:
+ * comparação da transcrição do Deepgram e leitura da resposta do Gemini.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalisePronunciaBenchmark {
+
+    @Param({"5", "20", "60"})
+    private int palavras;
+
+    private PronunciationAnalysisService pronunciationService;
+    private GeminiAudioAnalysisService geminiService;
+
+    private List<String> palavrasEsperadas;
+    private String transcricao;
+    private String respostaGemini;
+
+    @Setup
+    public void setUp() {
+        NormalizadorFonetico normalizador = new NormalizadorFonetico();
+        pronunciationService = new PronunciationAnalysisService(new OkHttpClient(), new AlinhadorPalavras(), normalizador,
+                SegmentadorVoz.desligado(), Runnable::run);
+        geminiService = new GeminiAudioAnalysisService(new OkHttpClient(), normalizador, CotaGemini.semLimite());
+
+        palavrasEsperadas = CenariosBenchmark.palavrasEsperadas(palavras, 42L);
+        transcricao = CenariosBenchmark.transcricaoComErros(palavrasEsperadas, 7L);
+        respostaGemini = CenariosBenchmark.respostaGemini(palavrasEsperadas, 7L);
+    }
+
+    @Benchmark
+    public BatchPronunciationAnalysisDTO avaliarTranscricao() {
+        return pronunciationService.avaliarTranscricao(transcricao, palavrasEsperadas);
+    }
+
+    @Benchmark
+    public BatchPronunciationAnalysisDTO parsearRespostaGemini() {
+        return geminiService.parsearRespostaBatch(respostaGemini, palavrasEsperadas);
+    }
+}
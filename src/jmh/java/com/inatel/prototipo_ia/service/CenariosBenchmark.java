@@ -0,0 +1,97 @@
+package com.inatel.prototipo_ia.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Dados de entrada dos benchmarks: frases de trava-língua e falas com os erros típicos
+ * das crianças (troca de letra, sílaba engolida, palavra pulada ou repetida).
+ *
+ * A semente é fixa para que toda execução meça exatamente a mesma entrada.
+ */
+final class CenariosBenchmark {
+
+    private static final String[] VOCABULARIO = {
+            "o", "rato", "roeu", "a", "roupa", "do", "rei", "de", "roma", "três", "pratos",
+            "trigo", "para", "tigres", "tristes", "sabiá", "sabia", "assobiar", "paralelepípedo",
+            "chuva", "chegou", "chinelo", "palha", "ninho", "caçador", "carroça", "carro",
+            "barata", "brincadeira", "prateleira", "pedro", "pregou", "prego", "porta", "bela",
+            "borboleta", "lhama", "unha", "bicho", "massa", "pássaro", "peixe", "frade", "flor"
+    };
+
+    private CenariosBenchmark() {
+    }
+
+    static List<String> palavrasEsperadas(int quantidade, long semente) {
+        Random random = new Random(semente);
+        List<String> palavras = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            palavras.add(VOCABULARIO[random.nextInt(VOCABULARIO.length)]);
+        }
+        return palavras;
+    }
+
+    /**
+     * Monta a transcrição como o Deepgram devolveria: a maioria das palavras certas,
+     * algumas com um erro de pronúncia, algumas puladas e algumas repetidas.
+     */
+    static String transcricaoComErros(List<String> esperadas, long semente) {
+        Random random = new Random(semente);
+        StringBuilder fala = new StringBuilder();
+        for (String palavra : esperadas) {
+            int sorteio = random.nextInt(100);
+            if (sorteio < 5) {
+                continue;
+            }
+            String falada = sorteio < 25 ? comErro(palavra, random) : palavra;
+            fala.append(falada).append(' ');
+            if (sorteio >= 95) {
+                fala.append(falada).append(' ');
+            }
+        }
+        if (fala.length() > 0) {
+            fala.setCharAt(fala.length() - 1, '.');
+        }
+        return fala.toString();
+    }
+
+    /**
+     * Resposta do Gemini no formato pedido pelo prompt, dentro do bloco de markdown
+     * que o modelo costuma devolver.
+     */
+    static String respostaGemini(List<String> esperadas, long semente) {
+        Random random = new Random(semente);
+        StringBuilder json = new StringBuilder("```json\n{\n  \"resultados\": [\n");
+        int acertos = 0;
+        for (int i = 0; i < esperadas.size(); i++) {
+            String palavra = esperadas.get(i);
+            boolean acertou = random.nextInt(100) >= 20;
+            if (acertou) acertos++;
+            json.append("    { \"palavraEsperada\": \"").append(palavra)
+                    .append("\", \"palavraTranscrita\": \"").append(acertou ? palavra : comErro(palavra, random))
+                    .append("\", \"acertou\": ").append(acertou)
+                    .append(", \"similaridade\": ").append(acertou ? 100 : 60 + random.nextInt(20))
+                    .append(", \"feedback\": \"").append(acertou ? "Muito bem!" : "Tente falar devagar, separando as sílabas.")
+                    .append("\" }").append(i < esperadas.size() - 1 ? ",\n" : "\n");
+        }
+        double pontuacao = esperadas.isEmpty() ? 0.0 : acertos * 100.0 / esperadas.size();
+        json.append("  ],\n  \"feedbackGeral\": \"Você foi muito bem! Continue praticando os sons mais difíceis.\",\n")
+                .append("  \"pontuacaoGeral\": ").append(pontuacao).append("\n}\n```");
+        return json.toString();
+    }
+
+    private static String comErro(String palavra, Random random) {
+        if (palavra.length() < 3) {
+            return palavra;
+        }
+        StringBuilder alterada = new StringBuilder(palavra);
+        int posicao = 1 + random.nextInt(palavra.length() - 2);
+        if (random.nextBoolean()) {
+            alterada.deleteCharAt(posicao);
+        } else {
+            alterada.setCharAt(posicao, palavra.charAt(posicao) == 'r' ? 'l' : 'r');
+        }
+        return alterada.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.inatel.prototipo_ia.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.inatel.prototipo_ia.adapter.LocalDateTimeAdapter;
+import com.inatel.prototipo_ia.audio.SegmentadorVoz;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity;
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity.TipoEvento;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do que a sessão de treino faz a cada mensagem: gravar o resultado da análise
+ * em JSON e acrescentar a mensagem à conversa. A conversa não fica mais na sessão (vai para
+ * sessao_evento), então o custo de acrescentar não depende do tamanho do histórico.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessaoTreinoBenchmark {
+
+    private Gson gson;
+    private BatchPronunciationAnalysisDTO resultado;
+
+    private SessaoTreinoEntity sessao;
+
+    @Setup
+    public void setUp() {
+        // Mesma configuração do Gson usada pelo SessaoTreinoService
+        gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .create();
+
+        List<String> palavras = CenariosBenchmark.palavrasEsperadas(20, 42L);
+        NormalizadorFonetico normalizador = new NormalizadorFonetico();
+        PronunciationAnalysisService analise = new PronunciationAnalysisService(new OkHttpClient(), new AlinhadorPalavras(), normalizador,
+                SegmentadorVoz.desligado(), Runnable::run);
+        resultado = analise.avaliarTranscricao(CenariosBenchmark.transcricaoComErros(palavras, 7L), palavras);
+
+        sessao = new SessaoTreinoEntity();
+        sessao.setId(1L);
+    }
+
+    @Benchmark
+    public String serializarResultado() {
+        return gson.toJson(resultado);
+    }
+
+    // Acrescenta e retira como o serviço faz a cada gravação da sessão
+    @Benchmark
+    public List<SessaoEventoEntity> adicionarAoHistorico() {
+        sessao.adicionarAoHistorico("SISTEMA", TipoEvento.INSTRUCAO, "Muito bem! Agora grave o áudio falando o trava-língua.");
+        return sessao.retirarEventosPendentes();
+    }
+}
@@ -0,0 +1,48 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da validação do JWT feita pelo SecurityFilter em toda requisição autenticada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", "segredo-benchmark");
+        ReflectionTestUtils.setField(tokenService, "expiration", 3_600_000L);
+
+        UsuarioEntity usuario = new UsuarioEntity();
+        usuario.setId(1L);
+        usuario.setLogin("benchmark@pronus.com");
+        token = tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String getSubject() {
+        return tokenService.getSubject(token);
+    }
+}
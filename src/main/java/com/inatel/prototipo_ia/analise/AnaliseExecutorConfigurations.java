@@ -0,0 +1,59 @@
+package com.inatel.prototipo_ia.analise;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor das análises de áudio (Gemini/Deepgram).
+ *
+ * As chamadas às IAs podem levar dezenas de segundos, então rodam aqui e não nas threads
+ * do Tomcat. O executor é limitado: com todas as threads ocupadas e a fila cheia, o envio
+ * é recusado ({@link org.springframework.core.task.TaskRejectedException}) e o cliente
+ * recebe 503 para tentar de novo, em vez de acumular trabalho sem limite.
+ *
+ * O {@code segmentosExecutor} transcreve em paralelo os trechos de um mesmo áudio. Ele é
+ * separado do {@code analiseExecutor} para uma análise nunca esperar por tarefas presas na
+ * própria fila; lotado, o trecho roda na thread da análise que o pediu.
+ *
+ * Também habilita o {@code @Scheduled} usado pelas rotinas de fundo (ex.: reabastecer o pool
+ * de trava-línguas).
+ */
+@Configuration
+@EnableScheduling
+public class AnaliseExecutorConfigurations {
+
+    @Bean
+    public ThreadPoolTaskExecutor analiseExecutor(
+            @Value("${analise.executor.threads:4}") int threads,
+            @Value("${analise.executor.fila:50}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("analise-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor segmentosExecutor(
+            @Value("${analise.segmentos.threads:8}") int threads,
+            @Value("${analise.segmentos.fila:32}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("segmento-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,251 @@
+package com.inatel.prototipo_ia.analise;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.inatel.prototipo_ia.adapter.LocalDateTimeAdapter;
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.entity.ResultadoAnaliseCacheEntity;
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+import com.inatel.prototipo_ia.repository.ResultadoAnaliseCacheRepository;
+import com.inatel.prototipo_ia.service.NormalizadorFonetico;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de resultados de análise endereçado pelo conteúdo.
+ *
+ * A chave é o SHA-256 do resumo do áudio, das palavras esperadas normalizadas e do motor usado, então
+ * o reenvio do mesmo áudio (ex.: o cliente tentou de novo após um timeout) devolve o resultado
+ * anterior sem chamar a IA. A primeira camada fica em memória (LRU limitado por tamanho e
+ * validade); a segunda, opcional, fica no Postgres e sobrevive a reinícios.
+ *
+ * Os resultados são guardados em JSON: cada acerto devolve uma cópia nova do DTO.
+ */
+@Component
+public class CacheResultadosAnalise {
+
+    // A cada quantas gravações a camada persistente remove as entradas vencidas
+    private static final int GRAVACOES_ENTRE_LIMPEZAS = 100;
+
+    private final NormalizadorFonetico normalizador;
+    private final ResultadoAnaliseCacheRepository repository;
+    private final Gson gson;
+
+    private final int maxEntradas;
+    private final long ttlMillis;
+    private final boolean persistente;
+    private final Duration ttlPersistente;
+
+    private final Map<String, Entrada> memoria;
+    private final AtomicLong gravacoes = new AtomicLong();
+
+    private final Counter acertosMemoria;
+    private final Counter acertosBanco;
+    private final Counter falhas;
+
+    public CacheResultadosAnalise(
+            NormalizadorFonetico normalizador,
+            ResultadoAnaliseCacheRepository repository,
+            MeterRegistry registry,
+            @Value("${analise.cache.max-entradas:500}") int maxEntradas,
+            @Value("${analise.cache.ttl:6h}") Duration ttl,
+            @Value("${analise.cache.persistente.habilitado:false}") boolean persistente,
+            @Value("${analise.cache.persistente.ttl:7d}") Duration ttlPersistente) {
+        this.normalizador = normalizador;
+        this.repository = repository;
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .create();
+        this.maxEntradas = maxEntradas;
+        this.ttlMillis = ttl.toMillis();
+        this.persistente = persistente;
+        this.ttlPersistente = ttlPersistente;
+
+        // accessOrder = true: a entrada menos usada recentemente sai primeiro
+        this.memoria = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                return size() > CacheResultadosAnalise.this.maxEntradas;
+            }
+        };
+
+        this.acertosMemoria = Counter.builder("analise.cache.requisicoes")
+                .description("Consultas ao cache de resultados de análise")
+                .tags("resultado", "acerto", "camada", "memoria")
+                .register(registry);
+        this.acertosBanco = Counter.builder("analise.cache.requisicoes")
+                .description("Consultas ao cache de resultados de análise")
+                .tags("resultado", "acerto", "camada", "banco")
+                .register(registry);
+        this.falhas = Counter.builder("analise.cache.requisicoes")
+                .description("Consultas ao cache de resultados de análise")
+                .tags("resultado", "falha", "camada", "nenhuma")
+                .register(registry);
+        Gauge.builder("analise.cache.entradas", this, CacheResultadosAnalise::tamanhoMemoria)
+                .description("Resultados guardados no cache em memória")
+                .register(registry);
+    }
+
+    /**
+     * Chave do resultado: SHA-256 (hex) do resumo do áudio + palavras normalizadas + motor.
+     * Para vários motores com o mesmo áudio, calcule {@link #resumoAudio} uma vez e use
+     * {@link #chave(String, List, MotorAnalise)}.
+     */
+    public String chave(AudioArquivo audio, List<String> palavrasEsperadas, MotorAnalise motor) throws IOException {
+        return chave(resumoAudio(audio), palavrasEsperadas, motor);
+    }
+
+    /**
+     * SHA-256 (hex) do conteúdo do áudio. É a parte cara da chave: lê o arquivo inteiro.
+     */
+    public String resumoAudio(AudioArquivo audio) throws IOException {
+        MessageDigest sha256 = novoSha256();
+        // O áudio é lido do arquivo em blocos, sem carregar tudo no heap
+        byte[] bloco = new byte[8192];
+        try (InputStream entrada = audio.abrir()) {
+            int lidos;
+            while ((lidos = entrada.read(bloco)) != -1) {
+                sha256.update(bloco, 0, lidos);
+            }
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    /**
+     * Chave a partir de um resumo de áudio já calculado; não toca no arquivo.
+     */
+    public String chave(String resumoAudio, List<String> palavrasEsperadas, MotorAnalise motor) {
+        MessageDigest sha256 = novoSha256();
+        sha256.update(resumoAudio.getBytes(StandardCharsets.US_ASCII));
+        sha256.update((byte) 0);
+        for (String palavra : palavrasEsperadas) {
+            sha256.update(normalizador.normalizar(palavra).getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) ' ');
+        }
+        sha256.update((byte) 0);
+        sha256.update(motor.name().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    public Optional<BatchPronunciationAnalysisDTO> buscar(String chave) {
+        String json = buscarNaMemoria(chave);
+        if (json != null) {
+            acertosMemoria.increment();
+            return Optional.of(gson.fromJson(json, BatchPronunciationAnalysisDTO.class));
+        }
+
+        if (persistente) {
+            json = buscarNoBanco(chave);
+            if (json != null) {
+                acertosBanco.increment();
+                guardarNaMemoria(chave, json);
+                return Optional.of(gson.fromJson(json, BatchPronunciationAnalysisDTO.class));
+            }
+        }
+
+        falhas.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Guarda o resultado. Análises sem nenhuma palavra avaliada (ex.: resposta da IA que não
+     * pôde ser lida) não são guardadas, para que a próxima tentativa chame a IA de novo.
+     */
+    public void guardar(String chave, MotorAnalise motor, BatchPronunciationAnalysisDTO resultado) {
+        if (resultado == null || resultado.getResultados() == null || resultado.getResultados().isEmpty()) {
+            return;
+        }
+        String json = gson.toJson(resultado);
+        guardarNaMemoria(chave, json);
+
+        if (persistente) {
+            guardarNoBanco(chave, motor, json);
+        }
+    }
+
+    public synchronized int tamanhoMemoria() {
+        return memoria.size();
+    }
+
+    private synchronized String buscarNaMemoria(String chave) {
+        Entrada entrada = memoria.get(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.expiraEm <= System.currentTimeMillis()) {
+            memoria.remove(chave);
+            return null;
+        }
+        return entrada.json;
+    }
+
+    private synchronized void guardarNaMemoria(String chave, String json) {
+        memoria.put(chave, new Entrada(json, System.currentTimeMillis() + ttlMillis));
+    }
+
+    private String buscarNoBanco(String chave) {
+        try {
+            return repository.findById(chave)
+                    .filter(r -> r.getCriadoEm().isAfter(LocalDateTime.now().minus(ttlPersistente)))
+                    .map(ResultadoAnaliseCacheEntity::getResultado)
+                    .orElse(null);
+        } catch (Exception e) {
+            // O cache nunca deve derrubar a análise
+            System.err.println("Falha ao consultar o cache persistente: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void guardarNoBanco(String chave, MotorAnalise motor, String json) {
+        try {
+            ResultadoAnaliseCacheEntity entidade = new ResultadoAnaliseCacheEntity();
+            entidade.setChave(chave);
+            entidade.setMotor(motor);
+            entidade.setResultado(json);
+            entidade.setCriadoEm(LocalDateTime.now());
+            repository.save(entidade);
+
+            if (gravacoes.incrementAndGet() % GRAVACOES_ENTRE_LIMPEZAS == 0) {
+                repository.removerCriadosAntesDe(LocalDateTime.now().minus(ttlPersistente));
+            }
+        } catch (Exception e) {
+            System.err.println("Falha ao gravar no cache persistente: " + e.getMessage());
+        }
+    }
+
+    private static MessageDigest novoSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    private static final class Entrada {
+        private final String json;
+        private final long expiraEm;
+
+        private Entrada(String json, long expiraEm) {
+            this.json = json;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.inatel.prototipo_ia.analise;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Uma análise de áudio enviada para processamento assíncrono.
+ *
+ * É atualizada pela thread do executor e lida pelas requisições de consulta,
+ * por isso os campos mutáveis são voláteis.
+ */
+public class JobAnalise {
+
+    public enum TipoJob {
+        SESSAO_TREINO,
+        PRONUNCIA_DEEPGRAM,
+        PRONUNCIA_GEMINI
+    }
+
+    public enum StatusJob {
+        PENDENTE,
+        PROCESSANDO,
+        CONCLUIDO,
+        ERRO
+    }
+
+    private final String id;
+    private final TipoJob tipo;
+    private final Long sessaoId;
+    private final LocalDateTime criadoEm;
+
+    private volatile StatusJob status;
+    private volatile Object resultado;
+    private volatile String erro;
+    private volatile LocalDateTime concluidoEm;
+
+    public JobAnalise(TipoJob tipo, Long sessaoId) {
+        this.id = UUID.randomUUID().toString();
+        this.tipo = tipo;
+        this.sessaoId = sessaoId;
+        this.criadoEm = LocalDateTime.now();
+        this.status = StatusJob.PENDENTE;
+    }
+
+    public void iniciar() {
+        this.status = StatusJob.PROCESSANDO;
+    }
+
+    public void concluir(Object resultado) {
+        this.resultado = resultado;
+        this.concluidoEm = LocalDateTime.now();
+        this.status = StatusJob.CONCLUIDO;
+    }
+
+    public void falhar(String erro, Object resultado) {
+        this.erro = erro;
+        this.resultado = resultado;
+        this.concluidoEm = LocalDateTime.now();
+        this.status = StatusJob.ERRO;
+    }
+
+    public boolean isFinalizado() {
+        return status == StatusJob.CONCLUIDO || status == StatusJob.ERRO;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TipoJob getTipo() {
+        return tipo;
+    }
+
+    public Long getSessaoId() {
+        return sessaoId;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public StatusJob getStatus() {
+        return status;
+    }
+
+    public Object getResultado() {
+        return resultado;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public LocalDateTime getConcluidoEm() {
+        return concluidoEm;
+    }
+}
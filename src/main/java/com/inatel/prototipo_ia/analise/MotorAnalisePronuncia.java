@@ -0,0 +1,33 @@
+package com.inatel.prototipo_ia.analise;
+
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Motor de análise de pronúncia em lote (Gemini, Deepgram...).
+ *
+ * Todos devolvem o mesmo {@link BatchPronunciationAnalysisDTO}, então o
+ * {@link RoteadorMotoresAnalise} pode escolher qualquer um e trocar de motor quando um deles
+ * estiver lento ou falhando. Falhas saem como exceção (nunca como resultado nulo); um resultado
+ * sem nenhuma palavra avaliada também é tratado como falha pelo roteador.
+ */
+public interface MotorAnalisePronuncia {
+
+    MotorAnalise getMotor();
+
+    /**
+     * Custo de uma análise em relação aos outros motores (1 = referência); entra no roteamento.
+     */
+    double getCustoRelativo();
+
+    /**
+     * @param aoAvaliarPalavra recebe as palavras já avaliadas antes do resultado completo, se o
+     *                         motor souber fazer isso (nulo = sem parciais)
+     */
+    BatchPronunciationAnalysisDTO analisar(AudioArquivo audio, List<String> palavrasEsperadas,
+                                           Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliarPalavra);
+}
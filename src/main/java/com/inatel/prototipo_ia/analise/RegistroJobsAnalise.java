@@ -0,0 +1,47 @@
+package com.inatel.prototipo_ia.analise;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guarda em memória os jobs de análise para que o cliente consulte o andamento.
+ *
+ * Jobs finalizados ficam disponíveis pelo tempo de retenção configurado e são removidos
+ * quando novos jobs são registrados. Por ficarem em memória, os jobs se perdem se a
+ * aplicação reiniciar (ver {@code ProcessamentoAudioService#liberarSessoesPresas}).
+ */
+@Component
+public class RegistroJobsAnalise {
+
+    private final Map<String, JobAnalise> jobs = new ConcurrentHashMap<>();
+    private final Duration retencao;
+
+    public RegistroJobsAnalise(@Value("${analise.jobs.retencao:10m}") Duration retencao) {
+        this.retencao = retencao;
+    }
+
+    public JobAnalise registrar(JobAnalise job) {
+        removerExpirados();
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public Optional<JobAnalise> buscar(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public void remover(String jobId) {
+        jobs.remove(jobId);
+    }
+
+    private void removerExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        jobs.values().removeIf(job -> job.isFinalizado() && job.getConcluidoEm().isBefore(limite));
+    }
+}
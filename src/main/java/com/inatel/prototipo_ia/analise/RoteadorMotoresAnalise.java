@@ -0,0 +1,248 @@
+package com.inatel.prototipo_ia.analise;
+
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+import com.inatel.prototipo_ia.upstream.UpstreamIndisponivelException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Escolhe o motor de análise de pronúncia e troca de motor quando um deles falha.
+ *
+ * Para cada motor são mantidas médias móveis exponenciais da latência e da taxa de erro.
+ * A taxa de erro também cai pela metade a cada {@code meiaVidaErro} sem chamadas, para que um
+ * motor que ficou ruim volte a ser tentado depois que o problema passa. A ordem de tentativa é:
+ * <ol>
+ *     <li>motores saudáveis antes dos degradados (taxa de erro acima do limite ou upstream
+ *     recusando chamadas, ver {@link UpstreamIndisponivelException});</li>
+ *     <li>o motor preferido pelo cliente, se houver;</li>
+ *     <li>o menor tempo esperado até um resultado válido, ponderado pelo custo relativo.</li>
+ * </ol>
+ * Se o motor escolhido falhar, o próximo da lista é tentado na mesma requisição. Um resultado
+ * sem nenhuma palavra avaliada (ex.: resposta da IA que não pôde ser lida) conta como falha.
+ * O motor que produziu o resultado fica registrado em {@link BatchPronunciationAnalysisDTO#getMotorAnalise()}.
+ *
+ * O {@link CacheResultadosAnalise} é consultado antes de qualquer chamada: um resultado já
+ * guardado para o mesmo áudio e palavras serve, seja qual for o motor que o produziu.
+ * Métricas: analise.motor.duracao, analise.motor.failover, analise.motor.latencia e
+ * analise.motor.taxa_erro.
+ */
+@Component
+public class RoteadorMotoresAnalise {
+
+    // Peso da observação mais recente nas médias móveis
+    private static final double ALFA = 0.2;
+
+    // Teto do divisor (1 - taxa de erro), para a pontuação não explodir
+    private static final double SUCESSO_MINIMO = 0.05;
+
+    private final Map<MotorAnalise, MotorAnalisePronuncia> motores = new EnumMap<>(MotorAnalise.class);
+    private final Map<MotorAnalise, Saude> saude = new EnumMap<>(MotorAnalise.class);
+    private final CacheResultadosAnalise cache;
+    private final MeterRegistry registry;
+    private final double limiteTaxaErro;
+    private final long meiaVidaErroNanos;
+    private final LongSupplier relogio;
+
+    @Autowired
+    public RoteadorMotoresAnalise(
+            List<MotorAnalisePronuncia> motores,
+            CacheResultadosAnalise cache,
+            MeterRegistry registry,
+            @Value("${analise.roteador.limite-taxa-erro:0.5}") double limiteTaxaErro,
+            @Value("${analise.roteador.meia-vida-erro:2m}") Duration meiaVidaErro) {
+        this(motores, cache, registry, limiteTaxaErro, meiaVidaErro, System::nanoTime);
+    }
+
+    RoteadorMotoresAnalise(List<MotorAnalisePronuncia> motores, CacheResultadosAnalise cache, MeterRegistry registry,
+                           double limiteTaxaErro, Duration meiaVidaErro, LongSupplier relogio) {
+        this.cache = cache;
+        this.registry = registry;
+        this.limiteTaxaErro = limiteTaxaErro;
+        this.meiaVidaErroNanos = Math.max(1, meiaVidaErro.toNanos());
+        this.relogio = relogio;
+
+        for (MotorAnalisePronuncia motor : motores) {
+            Saude estado = new Saude();
+            this.motores.put(motor.getMotor(), motor);
+            this.saude.put(motor.getMotor(), estado);
+
+            String nome = motor.getMotor().name().toLowerCase();
+            Gauge.builder("analise.motor.latencia", estado, Saude::getLatenciaMs)
+                    .description("Média móvel da latência do motor de análise (ms)")
+                    .tag("motor", nome)
+                    .register(registry);
+            Gauge.builder("analise.motor.taxa_erro", estado, s -> s.taxaErro(relogio.getAsLong()))
+                    .description("Média móvel da taxa de erro do motor de análise")
+                    .tag("motor", nome)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Analisa com o melhor motor disponível, trocando de motor se ele falhar.
+     *
+     * @param preferido motor pedido pelo cliente (nulo = sem preferência); só é usado se estiver saudável
+     */
+    public BatchPronunciationAnalysisDTO analisar(MotorAnalise preferido, AudioArquivo audio, List<String> palavrasEsperadas,
+                                                  Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliarPalavra)
+            throws IOException {
+        return executar(ordenar(preferido), audio, palavrasEsperadas, aoAvaliarPalavra);
+    }
+
+    /**
+     * Analisa só com o motor pedido, sem troca (endpoints em que o cliente escolhe o motor).
+     */
+    public BatchPronunciationAnalysisDTO analisarCom(MotorAnalise motor, AudioArquivo audio, List<String> palavrasEsperadas)
+            throws IOException {
+        MotorAnalisePronuncia escolhido = motores.get(motor);
+        if (escolhido == null) {
+            throw new IllegalArgumentException("Motor de análise não disponível: " + motor);
+        }
+        return executar(List.of(escolhido), audio, palavrasEsperadas, null);
+    }
+
+    List<MotorAnalisePronuncia> ordenar(MotorAnalise preferido) {
+        if (motores.isEmpty()) {
+            throw new IllegalStateException("Nenhum motor de análise configurado");
+        }
+        long agora = relogio.getAsLong();
+        List<MotorAnalisePronuncia> ordem = new ArrayList<>(motores.values());
+        ordem.sort(Comparator
+                .comparing((MotorAnalisePronuncia m) -> saude.get(m.getMotor()).degradado(agora))
+                .thenComparing(m -> m.getMotor() != preferido)
+                .thenComparingDouble(m -> saude.get(m.getMotor()).pontuacao(agora, m.getCustoRelativo())));
+        return ordem;
+    }
+
+    private BatchPronunciationAnalysisDTO executar(List<MotorAnalisePronuncia> candidatos, AudioArquivo audio,
+                                                   List<String> palavrasEsperadas,
+                                                   Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliarPalavra)
+            throws IOException {
+        // O áudio é lido e resumido uma vez só; as chaves de cada motor saem desse resumo
+        String resumoAudio = cache.resumoAudio(audio);
+        for (MotorAnalisePronuncia motor : candidatos) {
+            Optional<BatchPronunciationAnalysisDTO> emCache = cache.buscar(cache.chave(resumoAudio, palavrasEsperadas, motor.getMotor()));
+            if (emCache.isPresent()) {
+                return emCache.get();
+            }
+        }
+
+        RuntimeException ultimaFalha = null;
+        for (int i = 0; i < candidatos.size(); i++) {
+            MotorAnalisePronuncia motor = candidatos.get(i);
+            Saude estado = saude.get(motor.getMotor());
+            long inicio = relogio.getAsLong();
+            try {
+                BatchPronunciationAnalysisDTO resultado = motor.analisar(audio, palavrasEsperadas, aoAvaliarPalavra);
+                if (semPalavrasAvaliadas(resultado, palavrasEsperadas)) {
+                    throw new IllegalStateException("Motor " + motor.getMotor() + " não avaliou nenhuma palavra"
+                            + (resultado != null && resultado.getFeedbackGeral() != null ? ": " + resultado.getFeedbackGeral() : ""));
+                }
+                long fim = relogio.getAsLong();
+                estado.registrarSucesso(fim, fim - inicio);
+                cronometrar(motor.getMotor(), "sucesso", fim - inicio);
+
+                resultado.setMotorAnalise(motor.getMotor());
+                cache.guardar(cache.chave(resumoAudio, palavrasEsperadas, motor.getMotor()), motor.getMotor(), resultado);
+                return resultado;
+            } catch (RuntimeException e) {
+                long fim = relogio.getAsLong();
+                estado.registrarFalha(fim, UpstreamIndisponivelException.naCausa(e)
+                        .map(UpstreamIndisponivelException::getTentarNovamenteEm)
+                        .orElse(null));
+                cronometrar(motor.getMotor(), "falha", fim - inicio);
+                ultimaFalha = e;
+
+                if (i + 1 < candidatos.size()) {
+                    MotorAnalise proximo = candidatos.get(i + 1).getMotor();
+                    System.err.println("Motor " + motor.getMotor() + " falhou (" + e.getMessage() + "), tentando " + proximo);
+                    registry.counter("analise.motor.failover",
+                            "de", motor.getMotor().name().toLowerCase(),
+                            "para", proximo.name().toLowerCase()).increment();
+                }
+            }
+        }
+        throw ultimaFalha;
+    }
+
+    private static boolean semPalavrasAvaliadas(BatchPronunciationAnalysisDTO resultado, List<String> palavrasEsperadas) {
+        return resultado == null
+                || !palavrasEsperadas.isEmpty() && (resultado.getResultados() == null || resultado.getResultados().isEmpty());
+    }
+
+    private void cronometrar(MotorAnalise motor, String resultado, long nanos) {
+        registry.timer("analise.motor.duracao", "motor", motor.name().toLowerCase(), "resultado", resultado)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Latência e taxa de erro observadas de um motor.
+     */
+    private final class Saude {
+
+        // Negativa enquanto o motor não tiver nenhum sucesso
+        private double latenciaMs = -1;
+        private double taxaErro;
+        private long atualizadoEm;
+
+        private boolean recusando;
+        private long recusandoAte;
+
+        synchronized void registrarSucesso(long agora, long duracaoNanos) {
+            double ms = duracaoNanos / 1_000_000.0;
+            latenciaMs = latenciaMs < 0 ? ms : latenciaMs + ALFA * (ms - latenciaMs);
+            taxaErro = taxaErro(agora) * (1 - ALFA);
+            atualizadoEm = agora;
+            recusando = false;
+        }
+
+        synchronized void registrarFalha(long agora, Duration tentarNovamenteEm) {
+            taxaErro = taxaErro(agora) * (1 - ALFA) + ALFA;
+            atualizadoEm = agora;
+            if (tentarNovamenteEm != null) {
+                recusando = true;
+                recusandoAte = agora + Math.max(tentarNovamenteEm.toNanos(), TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+
+        synchronized double taxaErro(long agora) {
+            if (taxaErro == 0) return 0;
+            double meiasVidas = (double) (agora - atualizadoEm) / meiaVidaErroNanos;
+            return taxaErro * Math.pow(0.5, Math.max(0, meiasVidas));
+        }
+
+        synchronized boolean degradado(long agora) {
+            return recusando && agora - recusandoAte < 0 || taxaErro(agora) >= limiteTaxaErro;
+        }
+
+        /**
+         * Tempo esperado até um resultado válido vezes o custo; menor é melhor. Motor ainda sem
+         * histórico conta como latência zero, então é experimentado logo.
+         */
+        synchronized double pontuacao(long agora, double custoRelativo) {
+            double latencia = Math.max(0, latenciaMs) + 1;
+            return latencia * custoRelativo / Math.max(SUCESSO_MINIMO, 1 - taxaErro(agora));
+        }
+
+        synchronized double getLatenciaMs() {
+            return Math.max(0, latenciaMs);
+        }
+    }
+}
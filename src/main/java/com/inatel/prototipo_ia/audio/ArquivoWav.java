@@ -0,0 +1,318 @@
+package com.inatel.prototipo_ia.audio;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Formato de um WAV com PCM inteiro (8, 16, 24 ou 32 bits) ou float de 32 bits, e as
+ * leituras e gravações em fluxo usadas pelo {@link PreprocessadorAudio} e pelo
+ * {@link SegmentadorVoz}. As amostras são entregues já em mono (média dos canais), entre -1 e 1.
+ */
+final class ArquivoWav {
+
+    static final int PCM = 1;
+    static final int FLOAT = 3;
+    static final int EXTENSIVEL = 0xFFFE;
+
+    private static final int TAMANHO_CABECALHO = 44;
+    private static final int QUADROS_POR_LEITURA = 4096;
+
+    final int codificacao;
+    final int canais;
+    final int taxa;
+    final int bytesPorAmostra;
+    final int bytesPorQuadro;
+    final long inicioDados;
+    final long tamanhoDados;
+
+    private ArquivoWav(int codificacao, int canais, int taxa, int bitsPorAmostra, long inicioDados, long tamanhoDados) {
+        this.codificacao = codificacao;
+        this.canais = canais;
+        this.taxa = taxa;
+        this.bytesPorAmostra = bitsPorAmostra / 8;
+        this.bytesPorQuadro = canais * bytesPorAmostra;
+        this.inicioDados = inicioDados;
+        this.tamanhoDados = tamanhoDados;
+    }
+
+    long totalQuadros() {
+        return tamanhoDados / bytesPorQuadro;
+    }
+
+    long emMs(long quadros) {
+        return quadros * 1000 / taxa;
+    }
+
+    long emQuadros(long ms) {
+        return ms * taxa / 1000;
+    }
+
+    /**
+     * Lê o cabeçalho do áudio.
+     *
+     * @return o formato, ou null se não for um WAV suportado
+     */
+    static ArquivoWav ler(AudioArquivo audio) throws IOException {
+        try (InputStream entrada = new BufferedInputStream(audio.abrir())) {
+            return ler(entrada, audio.getTamanho());
+        }
+    }
+
+    /**
+     * Percorre os quadros {@code [inicio, fim)} entregando a amostra mono de cada um.
+     */
+    void percorrer(AudioArquivo audio, long inicio, long fim, ConsumidorAmostras destino) throws IOException {
+        byte[] bloco = new byte[QUADROS_POR_LEITURA * bytesPorQuadro];
+        try (InputStream entrada = audio.abrir()) {
+            entrada.skipNBytes(inicioDados + inicio * bytesPorQuadro);
+            long restantes = fim - inicio;
+            while (restantes > 0) {
+                int pedidos = (int) Math.min(QUADROS_POR_LEITURA, restantes);
+                int lidos = entrada.readNBytes(bloco, 0, pedidos * bytesPorQuadro) / bytesPorQuadro;
+                for (int q = 0; q < lidos; q++) {
+                    destino.aceitar(amostraMono(bloco, q * bytesPorQuadro));
+                }
+                if (lidos < pedidos) break;
+                restantes -= lidos;
+            }
+        }
+    }
+
+    /**
+     * Energia (RMS) de cada janela de {@code quadrosPorJanela}: o bit fica ligado nas janelas que
+     * passam de {@code limiarRms} (amplitude relativa ao fundo de escala).
+     */
+    BitSet janelasComFala(AudioArquivo audio, int quadrosPorJanela, double limiarRms) throws IOException {
+        MedidorEnergia medidor = new MedidorEnergia(quadrosPorJanela, limiarRms);
+        percorrer(audio, 0, totalQuadros(), medidor);
+        medidor.fecharJanela();
+        return medidor.comFala;
+    }
+
+    /**
+     * Grava os quadros {@code [inicio, fim)} num novo WAV mono PCM de 16 bits em
+     * {@code taxaSaida} (no máximo a taxa original), decimando pela média das amostras de cada
+     * intervalo, que já serve de filtro passa-baixa para voz.
+     */
+    AudioArquivo gravarMono16(AudioArquivo audio, long inicio, long fim, int taxaSaida) throws IOException {
+        int taxaFinal = Math.min(taxaSaida, taxa);
+        Path destino = Files.createTempFile(AudioArquivo.PREFIXO, ".wav");
+        try {
+            Decimador decimador;
+            try (OutputStream saida = new BufferedOutputStream(Files.newOutputStream(destino))) {
+                saida.write(new byte[TAMANHO_CABECALHO]);
+                decimador = new Decimador(saida, (double) taxa / taxaFinal);
+                percorrer(audio, inicio, fim, decimador);
+                decimador.terminar();
+            }
+            try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.WRITE)) {
+                canal.write(cabecalhoPcm16Mono(taxaFinal, decimador.amostras * 2), 0);
+            }
+            return AudioArquivo.deArquivo(destino, AudioArquivo.TIPO_WAV);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(destino);
+            throw e;
+        }
+    }
+
+    static ByteBuffer cabecalhoPcm16Mono(int taxa, long bytesDados) {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+        cabecalho.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        cabecalho.putInt((int) (36 + bytesDados));
+        cabecalho.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        cabecalho.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        cabecalho.putInt(16);
+        cabecalho.putShort((short) PCM);
+        cabecalho.putShort((short) 1);
+        cabecalho.putInt(taxa);
+        cabecalho.putInt(taxa * 2);
+        cabecalho.putShort((short) 2);
+        cabecalho.putShort((short) 16);
+        cabecalho.put("data".getBytes(StandardCharsets.US_ASCII));
+        cabecalho.putInt((int) bytesDados);
+        cabecalho.flip();
+        return cabecalho;
+    }
+
+    /**
+     * Média dos canais do quadro, entre -1 e 1.
+     */
+    private double amostraMono(byte[] dados, int posicao) {
+        double soma = 0;
+        for (int c = 0; c < canais; c++) {
+            soma += amostra(dados, posicao + c * bytesPorAmostra);
+        }
+        return soma / canais;
+    }
+
+    private double amostra(byte[] d, int p) {
+        switch (bytesPorAmostra) {
+            case 1:
+                return ((d[p] & 0xFF) - 128) / 128.0;
+            case 2:
+                return (short) ((d[p] & 0xFF) | (d[p + 1] << 8)) / 32768.0;
+            case 3:
+                return ((d[p] & 0xFF) | ((d[p + 1] & 0xFF) << 8) | (d[p + 2] << 16)) / 8388608.0;
+            default:
+                int bits = (d[p] & 0xFF) | ((d[p + 1] & 0xFF) << 8) | ((d[p + 2] & 0xFF) << 16) | (d[p + 3] << 24);
+                return codificacao == FLOAT ? Float.intBitsToFloat(bits) : bits / 2147483648.0;
+        }
+    }
+
+    /**
+     * Lê os chunks até o "data".
+     */
+    static ArquivoWav ler(InputStream entrada, long tamanhoArquivo) throws IOException {
+        byte[] riff = entrada.readNBytes(12);
+        if (riff.length < 12 || !ascii(riff, 0).equals("RIFF") || !ascii(riff, 8).equals("WAVE")) {
+            return null;
+        }
+
+        long posicao = 12;
+        int codificacao = -1, canais = 0, taxa = 0, bits = 0, bytesPorQuadro = 0;
+        while (true) {
+            byte[] chunk = entrada.readNBytes(8);
+            if (chunk.length < 8) return null;
+            String id = ascii(chunk, 0);
+            long tamanho = Integer.toUnsignedLong(inteiro(chunk, 4, 4));
+            posicao += 8;
+
+            if (id.equals("data")) {
+                boolean suportado = (codificacao == PCM && (bits == 8 || bits == 16 || bits == 24 || bits == 32))
+                        || (codificacao == FLOAT && bits == 32);
+                if (!suportado || canais <= 0 || taxa <= 0 || bytesPorQuadro != canais * bits / 8) {
+                    return null;
+                }
+                // Gravadores em fluxo costumam deixar o tamanho zerado ou no máximo
+                long disponivel = tamanhoArquivo - posicao;
+                long tamanhoDados = tamanho == 0 || tamanho > disponivel ? disponivel : tamanho;
+                return new ArquivoWav(codificacao, canais, taxa, bits, posicao, tamanhoDados);
+            }
+
+            if (id.equals("fmt ")) {
+                if (tamanho < 16) return null;
+                byte[] fmt = entrada.readNBytes((int) Math.min(tamanho, 40));
+                if (fmt.length < 16) return null;
+                codificacao = inteiro(fmt, 0, 2);
+                canais = inteiro(fmt, 2, 2);
+                taxa = inteiro(fmt, 4, 4);
+                bytesPorQuadro = inteiro(fmt, 12, 2);
+                bits = inteiro(fmt, 14, 2);
+                if (codificacao == EXTENSIVEL) {
+                    // O formato de verdade está nos 2 primeiros bytes do GUID do subformato
+                    codificacao = fmt.length >= 26 ? inteiro(fmt, 24, 2) : -1;
+                }
+                entrada.skipNBytes(tamanho - fmt.length);
+            } else {
+                entrada.skipNBytes(tamanho);
+            }
+            posicao += tamanho;
+            if (tamanho % 2 == 1) {
+                entrada.skipNBytes(1);
+                posicao++;
+            }
+        }
+    }
+
+    private static String ascii(byte[] dados, int posicao) {
+        return new String(dados, posicao, 4, StandardCharsets.US_ASCII);
+    }
+
+    private static int inteiro(byte[] dados, int posicao, int bytes) {
+        int valor = 0;
+        for (int i = bytes - 1; i >= 0; i--) {
+            valor = (valor << 8) | (dados[posicao + i] & 0xFF);
+        }
+        return valor;
+    }
+
+    @FunctionalInterface
+    interface ConsumidorAmostras {
+        void aceitar(double amostra) throws IOException;
+    }
+
+    private static final class MedidorEnergia implements ConsumidorAmostras {
+
+        private final int quadrosPorJanela;
+        private final double limiarRms;
+        private final BitSet comFala = new BitSet();
+        private double soma;
+        private int quadros;
+        private int janela;
+
+        private MedidorEnergia(int quadrosPorJanela, double limiarRms) {
+            this.quadrosPorJanela = quadrosPorJanela;
+            this.limiarRms = limiarRms;
+        }
+
+        @Override
+        public void aceitar(double amostra) {
+            soma += amostra * amostra;
+            if (++quadros == quadrosPorJanela) {
+                fecharJanela();
+            }
+        }
+
+        void fecharJanela() {
+            if (quadros == 0) return;
+            if (Math.sqrt(soma / quadros) >= limiarRms) {
+                comFala.set(janela);
+            }
+            janela++;
+            soma = 0;
+            quadros = 0;
+        }
+    }
+
+    private static final class Decimador implements ConsumidorAmostras {
+
+        private final OutputStream saida;
+        private final double razao;
+        private double limite;
+        private long lidas;
+        private double soma;
+        private int acumuladas;
+        private long amostras;
+
+        private Decimador(OutputStream saida, double razao) {
+            this.saida = saida;
+            this.razao = razao;
+            this.limite = razao;
+        }
+
+        @Override
+        public void aceitar(double amostra) throws IOException {
+            soma += amostra;
+            acumuladas++;
+            if (++lidas >= limite) {
+                emitir();
+                limite += razao;
+            }
+        }
+
+        void terminar() throws IOException {
+            if (acumuladas > 0) emitir();
+        }
+
+        private void emitir() throws IOException {
+            double media = soma / acumuladas;
+            int valor = (int) Math.round(Math.max(-1.0, Math.min(1.0, media)) * Short.MAX_VALUE);
+            saida.write(valor & 0xFF);
+            saida.write((valor >> 8) & 0xFF);
+            amostras++;
+            soma = 0;
+            acumuladas = 0;
+        }
+    }
+}
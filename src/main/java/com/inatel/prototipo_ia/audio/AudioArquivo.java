@@ -0,0 +1,122 @@
+package com.inatel.prototipo_ia.audio;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Áudio enviado pelo usuário, guardado em um arquivo temporário próprio.
+ *
+ * O arquivo temporário do multipart é apagado quando a requisição HTTP termina, mas a análise
+ * roda depois, no {@code analiseExecutor}; por isso o upload é transferido para cá
+ * ({@link MultipartFile#transferTo}, que move ou copia em disco, sem passar pelo heap).
+ * Quem recebe o áudio é dono do arquivo e deve chamar {@link #close()} ao terminar.
+ *
+ * Não há leitura do áudio inteiro para um {@code byte[]}: quem envia aos upstreams usa o
+ * {@link #getCaminho() caminho} (corpo de requisição lido do arquivo) ou {@link #abrir()}.
+ */
+public final class AudioArquivo implements AutoCloseable {
+
+    public static final String TIPO_WAV = "audio/wav";
+
+    static final String PREFIXO = "pronus-audio-";
+
+    // Formatos que Gemini e Deepgram aceitam declarados no Content-Type / mime_type
+    private static final Set<String> TIPOS_CONHECIDOS = Set.of(
+            TIPO_WAV, "audio/mpeg", "audio/mp3", "audio/ogg", "audio/flac", "audio/aac");
+
+    private final Path caminho;
+    private final long tamanho;
+    private final String tipoConteudo;
+
+    private AudioArquivo(Path caminho, String tipoConteudo) throws IOException {
+        this.caminho = caminho;
+        this.tamanho = Files.size(caminho);
+        this.tipoConteudo = tipoConteudo;
+    }
+
+    public static AudioArquivo de(MultipartFile arquivo) throws IOException {
+        return de(arquivo, arquivo.getContentType());
+    }
+
+    /**
+     * Upload com o tipo já detectado pelo conteúdo (ver {@link RecepcaoAudio}).
+     */
+    static AudioArquivo de(MultipartFile arquivo, String tipoConteudo) throws IOException {
+        Path destino = Files.createTempFile(PREFIXO, ".upload");
+        try {
+            arquivo.transferTo(destino);
+            return new AudioArquivo(destino, tipoConteudo);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(destino);
+            throw e;
+        }
+    }
+
+    /**
+     * Para áudios que já estão em memória (testes e benchmarks).
+     */
+    public static AudioArquivo de(byte[] bytes) throws IOException {
+        Path destino = Files.createTempFile(PREFIXO, ".bin");
+        try {
+            Files.write(destino, bytes);
+            return new AudioArquivo(destino, null);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(destino);
+            throw e;
+        }
+    }
+
+    /**
+     * Arquivo gerado aqui mesmo (ex.: pelo {@link PreprocessadorAudio}); passa a ser deste objeto.
+     */
+    static AudioArquivo deArquivo(Path caminho, String tipoConteudo) throws IOException {
+        return new AudioArquivo(caminho, tipoConteudo);
+    }
+
+    public Path getCaminho() {
+        return caminho;
+    }
+
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Content-Type informado no upload (pode ser nulo).
+     */
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    /**
+     * Tipo do áudio para declarar ao upstream: o Content-Type do upload quando é um formato
+     * conhecido (sem parâmetros como {@code ;codecs=}), senão {@code padrao}.
+     */
+    public String tipoMime(String padrao) {
+        if (tipoConteudo == null) return padrao;
+        String tipo = tipoConteudo.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        if (tipo.equals("audio/x-wav") || tipo.equals("audio/wave")) {
+            tipo = TIPO_WAV;
+        }
+        return TIPOS_CONHECIDOS.contains(tipo) ? tipo : padrao;
+    }
+
+    public InputStream abrir() throws IOException {
+        return Files.newInputStream(caminho);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(caminho);
+        } catch (IOException e) {
+            System.err.println("Não foi possível apagar o áudio temporário " + caminho + ": " + e.getMessage());
+        }
+    }
+}
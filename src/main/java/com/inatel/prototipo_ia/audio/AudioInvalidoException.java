@@ -0,0 +1,12 @@
+package com.inatel.prototipo_ia.audio;
+
+/**
+ * Upload recusado antes de qualquer processamento: grande demais ou com conteúdo que não é
+ * de um formato de áudio reconhecido. Os controllers respondem 400 com a mensagem.
+ */
+public class AudioInvalidoException extends IllegalArgumentException {
+
+    public AudioInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,89 @@
+package com.inatel.prototipo_ia.audio;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Corpo JSON de requisição com o áudio embutido em Base64, escrito direto no socket.
+ *
+ * O envelope é montado normalmente (Gson) com um marcador no lugar do Base64; aqui ele é
+ * dividido em início e fim, e o áudio é lido do arquivo e codificado em blocos entre os dois.
+ * Nem o áudio, nem o Base64, nem o JSON completo chegam a existir inteiros no heap.
+ *
+ * O tamanho é conhecido antes de enviar (sem chunked) e o corpo pode ser reenviado,
+ * já que o arquivo é relido a cada escrita.
+ */
+public final class CorpoJsonComAudio extends RequestBody {
+
+    public static final String MARCADOR_AUDIO = "__AUDIO_BASE64__";
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private final byte[] inicio;
+    private final byte[] fim;
+    private final AudioArquivo audio;
+
+    /**
+     * @param envelopeJson JSON completo com {@link #MARCADOR_AUDIO} como valor do campo de dados
+     */
+    public CorpoJsonComAudio(String envelopeJson, AudioArquivo audio) {
+        int posicao = envelopeJson.indexOf(MARCADOR_AUDIO);
+        if (posicao < 0) {
+            throw new IllegalArgumentException("Envelope JSON sem o marcador do áudio.");
+        }
+        this.inicio = envelopeJson.substring(0, posicao).getBytes(StandardCharsets.UTF_8);
+        this.fim = envelopeJson.substring(posicao + MARCADOR_AUDIO.length()).getBytes(StandardCharsets.UTF_8);
+        this.audio = audio;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public long contentLength() {
+        long base64 = 4 * ((audio.getTamanho() + 2) / 3);
+        return inicio.length + base64 + fim.length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        sink.write(inicio);
+        OutputStream base64 = Base64.getEncoder().wrap(new SemFechar(sink.outputStream()));
+        try (InputStream entrada = audio.abrir()) {
+            entrada.transferTo(base64);
+        }
+        // Grava o padding final; o sink continua aberto
+        base64.close();
+        sink.write(fim);
+    }
+
+    /**
+     * O close do encoder Base64 fecharia o sink do OkHttp junto.
+     */
+    private static final class SemFechar extends FilterOutputStream {
+
+        private SemFechar(OutputStream destino) {
+            super(destino);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.inatel.prototipo_ia.audio;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.BitSet;
+
+/**
+ * Prepara o áudio antes de ele ir para as IAs (Gemini e Deepgram), que cobram e demoram
+ * pelo tamanho do que recebem.
+ *
+ * Uploads WAV/PCM são decodificados em fluxo, sem carregar o arquivo no heap: o silêncio do
+ * começo e do fim é cortado pela energia de janelas de 20 ms, os canais viram mono e a taxa
+ * cai para 16 kHz (suficiente para fala), em PCM de 16 bits. Outros formatos (MP3, WebM, OGG)
+ * seguem como vieram, já que decodificá-los exigiria uma biblioteca nativa.
+ *
+ * Quem chama passa a ser dono do áudio devolvido; quando um novo arquivo é gerado, o original
+ * é apagado. Qualquer falha aqui só faz o original seguir sem alteração.
+ */
+@Component
+public class PreprocessadorAudio {
+
+    private static final int JANELA_MS = 20;
+
+    private final boolean habilitado;
+    private final int taxaAlvo;
+    private final double limiarRms;
+    private final long margemMs;
+    private final MeterRegistry registry;
+
+    private final DistributionSummary bytesOriginais;
+    private final DistributionSummary bytesEnviados;
+
+    @Autowired
+    public PreprocessadorAudio(MeterRegistry registry,
+                               @Value("${audio.preprocessamento.habilitado:true}") boolean habilitado,
+                               @Value("${audio.preprocessamento.taxa-amostragem:16000}") int taxaAlvo,
+                               @Value("${audio.preprocessamento.limiar-silencio-db:-45}") double limiarSilencioDb,
+                               @Value("${audio.preprocessamento.margem:250ms}") Duration margem) {
+        this.registry = registry;
+        this.habilitado = habilitado;
+        this.taxaAlvo = Math.max(8000, taxaAlvo);
+        // dBFS -> amplitude RMS relativa ao fundo de escala
+        this.limiarRms = Math.pow(10, limiarSilencioDb / 20);
+        this.margemMs = Math.max(0, margem.toMillis());
+
+        this.bytesOriginais = DistributionSummary.builder("audio.preprocessamento.bytes")
+                .description("Tamanho do áudio antes e depois do pré-processamento")
+                .baseUnit("bytes")
+                .tag("etapa", "original")
+                .register(registry);
+        this.bytesEnviados = DistributionSummary.builder("audio.preprocessamento.bytes")
+                .description("Tamanho do áudio antes e depois do pré-processamento")
+                .baseUnit("bytes")
+                .tag("etapa", "enviado")
+                .register(registry);
+    }
+
+    /**
+     * @return o áudio pronto para envio: um novo arquivo WAV mono de 16 kHz, ou o próprio
+     *         {@code audio} quando não é WAV, não tem fala detectada ou não ficaria menor
+     */
+    public AudioArquivo preparar(AudioArquivo audio) {
+        if (!habilitado) {
+            return audio;
+        }
+        bytesOriginais.record(audio.getTamanho());
+        try {
+            ArquivoWav wav = ArquivoWav.ler(audio);
+            if (wav == null) {
+                return manter(audio, "nao_wav");
+            }
+
+            long[] trecho = localizarFala(audio, wav);
+            if (trecho == null) {
+                return manter(audio, "sem_fala");
+            }
+
+            AudioArquivo preparado = wav.gravarMono16(audio, trecho[0], trecho[1], taxaAlvo);
+            if (preparado.getTamanho() >= audio.getTamanho()) {
+                preparado.close();
+                return manter(audio, "mantido");
+            }
+            contar("reduzido");
+            bytesEnviados.record(preparado.getTamanho());
+            audio.close();
+            return preparado;
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Pré-processamento do áudio falhou, enviando o original: " + e.getMessage());
+            return manter(audio, "erro");
+        }
+    }
+
+    private AudioArquivo manter(AudioArquivo audio, String resultado) {
+        contar(resultado);
+        bytesEnviados.record(audio.getTamanho());
+        return audio;
+    }
+
+    private void contar(String resultado) {
+        Counter.builder("audio.preprocessamento")
+                .description("Áudios pré-processados, por resultado")
+                .tag("resultado", resultado)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Energia (RMS) de cada janela de 20 ms, já em mono.
+     *
+     * @return {@code [inicio, fim)} em quadros, com a margem em volta da fala, ou null se
+     *         nenhuma janela passar do limiar
+     */
+    private long[] localizarFala(AudioArquivo audio, ArquivoWav wav) throws IOException {
+        int quadrosPorJanela = (int) Math.max(1, wav.emQuadros(JANELA_MS));
+        BitSet comFala = wav.janelasComFala(audio, quadrosPorJanela, limiarRms);
+        if (comFala.isEmpty()) {
+            return null;
+        }
+        long margem = wav.emQuadros(margemMs);
+        long inicio = Math.max(0, (long) comFala.nextSetBit(0) * quadrosPorJanela - margem);
+        long fim = Math.min(wav.totalQuadros(), (long) comFala.length() * quadrosPorJanela + margem);
+        return new long[]{inicio, fim};
+    }
+}
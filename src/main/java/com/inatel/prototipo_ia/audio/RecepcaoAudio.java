@@ -0,0 +1,116 @@
+package com.inatel.prototipo_ia.audio;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Porta de entrada dos uploads de áudio nos controllers.
+ *
+ * O multipart fica em disco desde o início ({@code spring.servlet.multipart.file-size-threshold=0}),
+ * e aqui o upload é validado sem ser carregado: o tamanho vem dos metadados da parte e o formato
+ * é reconhecido pelos bytes mágicos do cabeçalho, lidos do próprio arquivo. Só depois disso ele
+ * é movido para um {@link AudioArquivo}, já com o tipo detectado (o Content-Type enviado pelo
+ * navegador costuma vir genérico ou errado).
+ */
+@Component
+public class RecepcaoAudio {
+
+    // O suficiente para todos os formatos abaixo ("ftyp" do MP4 está no byte 4)
+    private static final int TAMANHO_CABECALHO = 12;
+
+    private final long tamanhoMaximo;
+    private final MeterRegistry registry;
+
+    @Autowired
+    public RecepcaoAudio(MeterRegistry registry,
+                         @Value("${audio.upload.tamanho-maximo:10MB}") DataSize tamanhoMaximo) {
+        this.registry = registry;
+        this.tamanhoMaximo = tamanhoMaximo.toBytes();
+    }
+
+    /**
+     * @return o áudio validado; quem chama passa a ser dono dele
+     * @throws AudioInvalidoException se estiver vazio, passar do limite ou não for áudio
+     */
+    public AudioArquivo receber(MultipartFile arquivo) throws IOException {
+        if (arquivo == null || arquivo.isEmpty()) {
+            throw recusar("vazio", "Arquivo de áudio não pode estar vazio");
+        }
+        if (arquivo.getSize() > tamanhoMaximo) {
+            throw recusar("grande_demais", "Arquivo de áudio maior que o limite de " + emTexto(tamanhoMaximo));
+        }
+
+        byte[] cabecalho;
+        try (InputStream entrada = arquivo.getInputStream()) {
+            cabecalho = entrada.readNBytes(TAMANHO_CABECALHO);
+        }
+        String tipo = detectarTipo(cabecalho);
+        if (tipo == null) {
+            throw recusar("formato_desconhecido",
+                    "Formato de áudio não reconhecido. Envie WAV, MP3, OGG, FLAC, AAC, WebM ou MP4");
+        }
+
+        Counter.builder("audio.upload")
+                .description("Uploads de áudio aceitos, por formato detectado")
+                .tag("formato", tipo)
+                .register(registry)
+                .increment();
+        return AudioArquivo.de(arquivo, tipo);
+    }
+
+    /**
+     * @return o tipo MIME indicado pelos bytes mágicos, ou null se não for um áudio conhecido
+     */
+    static String detectarTipo(byte[] c) {
+        if (c.length >= 12 && ascii(c, 0).equals("RIFF") && ascii(c, 8).equals("WAVE")) {
+            return AudioArquivo.TIPO_WAV;
+        }
+        if (c.length >= 4 && ascii(c, 0).equals("OggS")) {
+            return "audio/ogg";
+        }
+        if (c.length >= 4 && ascii(c, 0).equals("fLaC")) {
+            return "audio/flac";
+        }
+        if (c.length >= 4 && (c[0] & 0xFF) == 0x1A && (c[1] & 0xFF) == 0x45
+                && (c[2] & 0xFF) == 0xDF && (c[3] & 0xFF) == 0xA3) {
+            return "audio/webm";
+        }
+        if (c.length >= 8 && ascii(c, 4).equals("ftyp")) {
+            return "audio/mp4";
+        }
+        if (c.length >= 3 && c[0] == 'I' && c[1] == 'D' && c[2] == '3') {
+            return "audio/mpeg";
+        }
+        if (c.length >= 2 && (c[0] & 0xFF) == 0xFF && (c[1] & 0xE0) == 0xE0) {
+            // Sincronismo de quadro MPEG: a camada 00 é ADTS (AAC), as demais são MP3
+            return (c[1] & 0x06) == 0 ? "audio/aac" : "audio/mpeg";
+        }
+        return null;
+    }
+
+    private AudioInvalidoException recusar(String motivo, String mensagem) {
+        Counter.builder("audio.upload.recusas")
+                .description("Uploads de áudio recusados antes da análise, por motivo")
+                .tag("motivo", motivo)
+                .register(registry)
+                .increment();
+        return new AudioInvalidoException(mensagem);
+    }
+
+    private static String emTexto(long bytes) {
+        return bytes >= 1024 * 1024 ? bytes / (1024 * 1024) + " MB" : bytes / 1024 + " KB";
+    }
+
+    private static String ascii(byte[] dados, int posicao) {
+        return new String(dados, posicao, 4, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,129 @@
+package com.inatel.prototipo_ia.audio;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Divide uma gravação WAV nos trechos de fala separados por pausas (detecção de voz pela
+ * energia de janelas de 20 ms), para cada trecho ser analisado à parte e em paralelo, e cada
+ * palavra avaliada saber em que momento do áudio foi dita.
+ *
+ * Pausas mais curtas que {@code pausaMinima} não separam trechos (uma palavra tem oclusivas e
+ * respirações no meio) e rajadas mais curtas que {@code duracaoMinima} são descartadas como
+ * ruído. Com trechos demais, os separados pelas menores pausas são juntados até sobrar
+ * {@code maxTrechos}, para não trocar uma chamada por dezenas.
+ */
+@Component
+public class SegmentadorVoz {
+
+    private static final int JANELA_MS = 20;
+
+    private final boolean habilitado;
+    private final double limiarRms;
+    private final long pausaMinimaMs;
+    private final long duracaoMinimaMs;
+    private final long margemMs;
+    private final int maxTrechos;
+
+    public SegmentadorVoz(@Value("${audio.segmentacao.habilitada:true}") boolean habilitado,
+                          @Value("${audio.preprocessamento.limiar-silencio-db:-45}") double limiarSilencioDb,
+                          @Value("${audio.segmentacao.pausa-minima:200ms}") Duration pausaMinima,
+                          @Value("${audio.segmentacao.duracao-minima:80ms}") Duration duracaoMinima,
+                          @Value("${audio.segmentacao.margem:60ms}") Duration margem,
+                          @Value("${audio.segmentacao.max-trechos:8}") int maxTrechos) {
+        this.habilitado = habilitado;
+        this.limiarRms = Math.pow(10, limiarSilencioDb / 20);
+        this.pausaMinimaMs = Math.max(JANELA_MS, pausaMinima.toMillis());
+        this.duracaoMinimaMs = Math.max(0, duracaoMinima.toMillis());
+        this.margemMs = Math.max(0, margem.toMillis());
+        this.maxTrechos = Math.max(2, maxTrechos);
+    }
+
+    /**
+     * Segmentador que nunca divide, para testes e benchmarks que montam os serviços na mão.
+     */
+    public static SegmentadorVoz desligado() {
+        return new SegmentadorVoz(false, -45, Duration.ofMillis(200), Duration.ofMillis(80), Duration.ofMillis(60), 8);
+    }
+
+    /**
+     * @return os trechos em ordem, cada um num WAV mono de 16 bits próprio; vazia quando o
+     *         áudio não é WAV ou não tem pelo menos dois trechos de fala (aí não há o que dividir)
+     */
+    public List<TrechoAudio> dividir(AudioArquivo audio) throws IOException {
+        if (!habilitado) {
+            return List.of();
+        }
+        ArquivoWav wav = ArquivoWav.ler(audio);
+        if (wav == null) {
+            return List.of();
+        }
+
+        int quadrosPorJanela = (int) Math.max(1, wav.emQuadros(JANELA_MS));
+        List<long[]> faixas = localizarTrechos(wav.janelasComFala(audio, quadrosPorJanela, limiarRms));
+        if (faixas.size() < 2) {
+            return List.of();
+        }
+
+        List<TrechoAudio> trechos = new ArrayList<>(faixas.size());
+        try {
+            long margem = wav.emQuadros(margemMs);
+            for (int i = 0; i < faixas.size(); i++) {
+                long inicio = faixas.get(i)[0] * quadrosPorJanela;
+                long fim = faixas.get(i)[1] * quadrosPorJanela;
+                // A margem não invade o meio da pausa com o trecho vizinho
+                long limiteAnterior = i == 0 ? 0 : (faixas.get(i - 1)[1] * quadrosPorJanela + inicio) / 2;
+                long limitePosterior = i == faixas.size() - 1
+                        ? wav.totalQuadros()
+                        : (fim + faixas.get(i + 1)[0] * quadrosPorJanela) / 2;
+                inicio = Math.max(limiteAnterior, inicio - margem);
+                fim = Math.min(limitePosterior, Math.min(wav.totalQuadros(), fim + margem));
+
+                AudioArquivo recorte = wav.gravarMono16(audio, inicio, fim, wav.taxa);
+                trechos.add(new TrechoAudio(recorte, wav.emMs(inicio), wav.emMs(fim)));
+            }
+            return trechos;
+        } catch (IOException | RuntimeException e) {
+            trechos.forEach(TrechoAudio::close);
+            throw e;
+        }
+    }
+
+    /**
+     * Agrupa as janelas com fala em faixas {@code [inicio, fim)} de janelas.
+     */
+    List<long[]> localizarTrechos(BitSet comFala) {
+        long pausaMinima = Math.max(1, pausaMinimaMs / JANELA_MS);
+        long duracaoMinima = duracaoMinimaMs / JANELA_MS;
+
+        List<long[]> faixas = new ArrayList<>();
+        for (int inicio = comFala.nextSetBit(0); inicio >= 0; ) {
+            int fim = comFala.nextClearBit(inicio);
+            long[] ultima = faixas.isEmpty() ? null : faixas.get(faixas.size() - 1);
+            if (ultima != null && inicio - ultima[1] < pausaMinima) {
+                ultima[1] = fim;
+            } else {
+                faixas.add(new long[]{inicio, fim});
+            }
+            inicio = comFala.nextSetBit(fim);
+        }
+        faixas.removeIf(faixa -> faixa[1] - faixa[0] < duracaoMinima);
+
+        while (faixas.size() > maxTrechos) {
+            int menorPausa = 1;
+            for (int i = 2; i < faixas.size(); i++) {
+                if (faixas.get(i)[0] - faixas.get(i - 1)[1] < faixas.get(menorPausa)[0] - faixas.get(menorPausa - 1)[1]) {
+                    menorPausa = i;
+                }
+            }
+            faixas.get(menorPausa - 1)[1] = faixas.remove(menorPausa)[1];
+        }
+        return faixas;
+    }
+}
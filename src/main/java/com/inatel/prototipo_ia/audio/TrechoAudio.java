@@ -0,0 +1,35 @@
+package com.inatel.prototipo_ia.audio;
+
+/**
+ * Trecho de fala recortado de um áudio maior pelo {@link SegmentadorVoz}, com a posição dele
+ * no áudio original. O arquivo do trecho é temporário: quem recebe deve chamar {@link #close()}.
+ */
+public final class TrechoAudio implements AutoCloseable {
+
+    private final AudioArquivo audio;
+    private final long inicioMs;
+    private final long fimMs;
+
+    public TrechoAudio(AudioArquivo audio, long inicioMs, long fimMs) {
+        this.audio = audio;
+        this.inicioMs = inicioMs;
+        this.fimMs = fimMs;
+    }
+
+    public AudioArquivo getAudio() {
+        return audio;
+    }
+
+    public long getInicioMs() {
+        return inicioMs;
+    }
+
+    public long getFimMs() {
+        return fimMs;
+    }
+
+    @Override
+    public void close() {
+        audio.close();
+    }
+}
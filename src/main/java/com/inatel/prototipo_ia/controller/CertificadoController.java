@@ -3,10 +3,12 @@ package com.inatel.prototipo_ia.controller;
 import com.inatel.prototipo_ia.dto.in.CertificadoDtoIn;
 import com.inatel.prototipo_ia.dto.out.CertificadoDtoOut;
 import com.inatel.prototipo_ia.service.CertificadoService;
+import com.inatel.prototipo_ia.service.Paginacao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,6 +21,9 @@ public class CertificadoController {
     @Autowired
     private CertificadoService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @PostMapping
     public ResponseEntity<CertificadoDtoOut> criar(@RequestBody CertificadoDtoIn certificado) {
         CertificadoDtoOut criado = service.criar(certificado);
@@ -26,9 +31,14 @@ public class CertificadoController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CertificadoDtoOut>> buscarTodos() {
-        List<CertificadoDtoOut> lista = service.buscarTodos();
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<List<CertificadoDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/{id}")
@@ -3,9 +3,11 @@ package com.inatel.prototipo_ia.controller;
 import com.inatel.prototipo_ia.dto.in.ChatDtoIn;
 import com.inatel.prototipo_ia.dto.out.ChatDtoOut;
 import com.inatel.prototipo_ia.service.ChatService;
+import com.inatel.prototipo_ia.service.Paginacao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,6 +19,9 @@ public class ChatController {
     @Autowired
     private ChatService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @PostMapping
     public ResponseEntity<ChatDtoOut> criar(@RequestBody ChatDtoIn chat) {
         return ResponseEntity.ok(service.criar(chat));
@@ -27,6 +32,17 @@ public class ChatController {
         return ResponseEntity.ok(service.atualizar(id, chat));
     }
 
+    @GetMapping
+    public ResponseEntity<List<ChatDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
+    }
+
     @GetMapping("/cliente/{clienteId}")
     public ResponseEntity<List<ChatDtoOut>> buscarPorClienteId(@PathVariable Long clienteId) {
         return ResponseEntity.ok(service.buscarPorClienteId(clienteId));
@@ -10,11 +10,13 @@ import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.service.ChatService;
 import com.inatel.prototipo_ia.service.ClienteService;
 import com.inatel.prototipo_ia.service.ConsultaService;
+import com.inatel.prototipo_ia.service.Paginacao;
 import com.inatel.prototipo_ia.service.RelatorioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +29,9 @@ public class ClienteController {
     @Autowired
     private ClienteService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @Autowired
     private ClienteRepository clienteRepository;
 
@@ -54,9 +59,14 @@ public class ClienteController {
 
     // Buscar todos os clientes (DTO Out)
     @GetMapping
-    public ResponseEntity<List<ClienteDtoOut>> buscarTodos() {
-        List<ClienteDtoOut> clientes = service.buscarTodos();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<List<ClienteDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/me")
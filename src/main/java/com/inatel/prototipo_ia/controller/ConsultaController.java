@@ -3,10 +3,12 @@ package com.inatel.prototipo_ia.controller;
 import com.inatel.prototipo_ia.dto.in.ConsultaDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
 import com.inatel.prototipo_ia.service.ConsultaService;
+import com.inatel.prototipo_ia.service.Paginacao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,6 +21,9 @@ public class ConsultaController {
     @Autowired
     private ConsultaService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @PostMapping
     public ResponseEntity<ConsultaDtoOut> criar(@RequestBody ConsultaDtoIn consulta) {
         ConsultaDtoOut criado = service.criar(consulta);
@@ -26,9 +31,14 @@ public class ConsultaController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ConsultaDtoOut>> buscarTodos() {
-        List<ConsultaDtoOut> consultas = service.buscarTodos();
-        return ResponseEntity.ok(consultas);
+    public ResponseEntity<List<ConsultaDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/{id}")
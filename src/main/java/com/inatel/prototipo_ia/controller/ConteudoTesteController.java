@@ -3,9 +3,11 @@ package com.inatel.prototipo_ia.controller;
 import com.inatel.prototipo_ia.dto.in.ConteudoTesteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConteudoTesteDtoOut;
 import com.inatel.prototipo_ia.service.ConteudoTesteService;
+import com.inatel.prototipo_ia.service.Paginacao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +19,9 @@ public class ConteudoTesteController {
     @Autowired
     private ConteudoTesteService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @PostMapping
     public ResponseEntity<ConteudoTesteDtoOut> criar(@RequestBody ConteudoTesteDtoIn conteudo) {
         ConteudoTesteDtoOut criado = service.criar(conteudo);
@@ -24,9 +29,14 @@ public class ConteudoTesteController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ConteudoTesteDtoOut>> buscarTodos() {
-        List<ConteudoTesteDtoOut> conteudos = service.buscarTodos();
-        return ResponseEntity.ok(conteudos);
+    public ResponseEntity<List<ConteudoTesteDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/{id}")
@@ -3,9 +3,11 @@ package com.inatel.prototipo_ia.controller;
 import com.inatel.prototipo_ia.dto.in.DetalheErroDtoIn;
 import com.inatel.prototipo_ia.dto.out.DetalheErroDtoOut;
 import com.inatel.prototipo_ia.service.DetalheErroService;
+import com.inatel.prototipo_ia.service.Paginacao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +19,9 @@ public class DetalheErroController {
     @Autowired
     private DetalheErroService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @PostMapping
     public ResponseEntity<DetalheErroDtoOut> criar(@RequestBody DetalheErroDtoIn detalhe) {
         DetalheErroDtoOut criado = service.criar(detalhe);
@@ -24,9 +29,14 @@ public class DetalheErroController {
     }
 
     @GetMapping
-    public ResponseEntity<List<DetalheErroDtoOut>> buscarTodos() {
-        List<DetalheErroDtoOut> detalhes = service.buscarTodos();
-        return ResponseEntity.ok(detalhes);
+    public ResponseEntity<List<DetalheErroDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/{id}")
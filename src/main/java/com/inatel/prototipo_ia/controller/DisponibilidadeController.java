@@ -3,10 +3,12 @@ package com.inatel.prototipo_ia.controller;
 import com.inatel.prototipo_ia.dto.in.DisponibilidadeDtoIn;
 import com.inatel.prototipo_ia.dto.out.DisponibilidadeDtoOut;
 import com.inatel.prototipo_ia.service.DisponibilidadeService;
+import com.inatel.prototipo_ia.service.Paginacao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,6 +21,9 @@ public class DisponibilidadeController {
     @Autowired
     private DisponibilidadeService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @PostMapping
     public ResponseEntity<DisponibilidadeDtoOut> criar(@RequestBody DisponibilidadeDtoIn disponibilidade) {
         DisponibilidadeDtoOut criado = service.criar(disponibilidade);
@@ -26,9 +31,14 @@ public class DisponibilidadeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<DisponibilidadeDtoOut>> buscarTodos() {
-        List<DisponibilidadeDtoOut> disponibilidades = service.buscarTodos();
-        return ResponseEntity.ok(disponibilidades);
+    public ResponseEntity<List<DisponibilidadeDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/{id}")
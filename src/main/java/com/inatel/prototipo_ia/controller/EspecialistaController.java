@@ -10,10 +10,12 @@ import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import com.inatel.prototipo_ia.service.ClienteService;
 import com.inatel.prototipo_ia.service.ConsultaService;
 import com.inatel.prototipo_ia.service.EspecialistaService;
+import com.inatel.prototipo_ia.service.Paginacao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +27,9 @@ public class EspecialistaController {
     @Autowired
     private EspecialistaService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @Autowired
     private EspecialistaRepository especialistaRepository;
 
@@ -50,9 +55,14 @@ public class EspecialistaController {
     }
 
     @GetMapping
-    public ResponseEntity<List<EspecialistaDtoOut>> buscarTodos() {
-        List<EspecialistaDtoOut> especialistas = service.buscarTodos();
-        return ResponseEntity.ok(especialistas);
+    public ResponseEntity<List<EspecialistaDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/me")
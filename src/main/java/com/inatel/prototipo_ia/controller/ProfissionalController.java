@@ -6,6 +6,7 @@ import com.inatel.prototipo_ia.dto.out.ProfissionalDtoOut;
 import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
 import com.inatel.prototipo_ia.entity.UsuarioEntity;
 import com.inatel.prototipo_ia.repository.ProfissionalRepository;
+import com.inatel.prototipo_ia.service.Paginacao;
 import com.inatel.prototipo_ia.service.ProfissionalService;
 import com.inatel.prototipo_ia.service.ChatService;
 import com.inatel.prototipo_ia.service.RelatorioService;
@@ -13,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +26,9 @@ public class ProfissionalController {
     @Autowired
     private ProfissionalService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @Autowired
     private ProfissionalRepository profissionalRepository;
 
@@ -42,9 +47,14 @@ public class ProfissionalController {
 
     // Buscar todos os profissionais
     @GetMapping
-    public ResponseEntity<List<ProfissionalDtoOut>> buscarTodos() {
-        List<ProfissionalDtoOut> profissionais = service.buscarTodos();
-        return ResponseEntity.ok(profissionais);
+    public ResponseEntity<List<ProfissionalDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/me")
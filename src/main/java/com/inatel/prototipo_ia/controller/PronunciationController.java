@@ -1,21 +1,26 @@
 package com.inatel.prototipo_ia.controller;
 
-import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
-import com.inatel.prototipo_ia.service.PronunciationAnalysisService;
+import com.inatel.prototipo_ia.analise.JobAnalise;
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.audio.AudioInvalidoException;
+import com.inatel.prototipo_ia.audio.RecepcaoAudio;
+import com.inatel.prototipo_ia.dto.out.JobAnaliseDtoOut;
 import com.inatel.prototipo_ia.service.AIWordGeneratorService;
-import com.inatel.prototipo_ia.service.GeminiAudioAnalysisService;
+import com.inatel.prototipo_ia.service.ProcessamentoAudioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,13 +34,13 @@ import java.util.stream.Collectors;
 public class PronunciationController {
 
     @Autowired
-    private PronunciationAnalysisService pronunciationService;
+    private ProcessamentoAudioService processamentoAudioService;
 
     @Autowired
     private AIWordGeneratorService aiWordGeneratorService;
 
     @Autowired
-    private GeminiAudioAnalysisService geminiAudioAnalysisService;
+    private RecepcaoAudio recepcaoAudio;
 
     /**
      * Endpoint para analisar pronúncia em lote usando DEEPGRAM
@@ -43,11 +48,12 @@ public class PronunciationController {
      */
     @Operation(
             summary = "Analisar pronúncia em lote (Deepgram)",
-            description = "Usa Deepgram para transcrever e analisar múltiplas palavras"
+            description = "Usa Deepgram para transcrever e analisar múltiplas palavras. Retorna o job; o resultado sai em GET /api/pronunciation/jobs/{jobId}"
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Análise em lote realizada com sucesso"),
-            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "202", description = "Áudio aceito, análise em andamento"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou áudio em formato não reconhecido"),
+            @ApiResponse(responseCode = "503", description = "Muitas análises em andamento, tente novamente"),
             @ApiResponse(responseCode = "500", description = "Erro no processamento")
     })
     @PostMapping(value = "/analyze-batch-deepgram", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -60,11 +66,6 @@ public class PronunciationController {
             @RequestParam("palavrasEsperadas") String palavrasEsperadas) {
 
         try {
-            if (audioFile == null || audioFile.isEmpty()) {
-                return ResponseEntity.badRequest()
-                        .body(criarErro("Arquivo de áudio não pode estar vazio"));
-            }
-
             if (palavrasEsperadas == null || palavrasEsperadas.trim().isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(criarErro("Lista de palavras não pode estar vazia"));
@@ -80,13 +81,16 @@ public class PronunciationController {
                         .body(criarErro("Nenhuma palavra válida foi fornecida"));
             }
 
-            byte[] audioBytes = audioFile.getBytes();
+            // Tamanho e formato conferidos pelo cabeçalho; o áudio segue em disco
+            AudioArquivo audio = recepcaoAudio.receber(audioFile);
 
-            BatchPronunciationAnalysisDTO resultado = pronunciationService
-                    .analisarPronunciaEmLote(audioBytes, listaPalavras);
-
-            return ResponseEntity.ok(resultado);
+            return aceitarJob(processamentoAudioService.analisarDeepgram(audio, listaPalavras));
 
+        } catch (AudioInvalidoException e) {
+            return ResponseEntity.badRequest().body(criarErro(e.getMessage()));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(criarErro("Muitas análises em andamento. Tente novamente em instantes."));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(criarErro("Erro ao processar áudio com Deepgram: " + e.getMessage()));
@@ -99,11 +103,12 @@ public class PronunciationController {
      */
     @Operation(
             summary = "Analisar pronúncia em lote (Gemini)",
-            description = "Usa Gemini AI para analisar múltiplas palavras diretamente do áudio (análise mais rica)"
+            description = "Usa Gemini AI para analisar múltiplas palavras diretamente do áudio (análise mais rica). Retorna o job; o resultado sai em GET /api/pronunciation/jobs/{jobId}"
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Análise em lote realizada com sucesso"),
-            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "202", description = "Áudio aceito, análise em andamento"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou áudio em formato não reconhecido"),
+            @ApiResponse(responseCode = "503", description = "Muitas análises em andamento, tente novamente"),
             @ApiResponse(responseCode = "500", description = "Erro no processamento")
     })
     @PostMapping(value = "/analyze-batch-gemini", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -116,11 +121,6 @@ public class PronunciationController {
             @RequestParam("palavrasEsperadas") String palavrasEsperadas) {
 
         try {
-            if (audioFile == null || audioFile.isEmpty()) {
-                return ResponseEntity.badRequest()
-                        .body(criarErro("Arquivo de áudio não pode estar vazio"));
-            }
-
             if (palavrasEsperadas == null || palavrasEsperadas.trim().isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(criarErro("Lista de palavras não pode estar vazia"));
@@ -136,19 +136,39 @@ public class PronunciationController {
                         .body(criarErro("Nenhuma palavra válida foi fornecida"));
             }
 
-            byte[] audioBytes = audioFile.getBytes();
+            // Tamanho e formato conferidos pelo cabeçalho; o áudio segue em disco
+            AudioArquivo audio = recepcaoAudio.receber(audioFile);
 
-            BatchPronunciationAnalysisDTO resultado = geminiAudioAnalysisService
-                    .analisarPronunciaEmLote(audioBytes, listaPalavras);
-
-            return ResponseEntity.ok(resultado);
+            return aceitarJob(processamentoAudioService.analisarGemini(audio, listaPalavras));
 
+        } catch (AudioInvalidoException e) {
+            return ResponseEntity.badRequest().body(criarErro(e.getMessage()));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(criarErro("Muitas análises em andamento. Tente novamente em instantes."));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(criarErro("Erro ao processar áudio com Gemini: " + e.getMessage()));
         }
     }
 
+    /**
+     * Consultar o andamento de uma análise em lote
+     * GET /api/pronunciation/jobs/{jobId}
+     */
+    @Operation(
+            summary = "Consultar análise em lote",
+            description = "Retorna o status do job (PENDENTE, PROCESSANDO, CONCLUIDO, ERRO) e, quando concluído, o resultado da análise"
+    )
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> buscarJob(@PathVariable String jobId) {
+        return processamentoAudioService.buscarJob(jobId)
+                .filter(job -> job.getTipo() != JobAnalise.TipoJob.SESSAO_TREINO)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(JobAnaliseDtoOut.de(job, linkDoJob(job))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(criarErro("Análise não encontrada ou expirada: " + jobId)));
+    }
+
     /**
      * Endpoint para gerar palavras personalizadas
      * GET /api/pronunciation/words
@@ -218,6 +238,17 @@ public class PronunciationController {
         return ResponseEntity.ok(status);
     }
 
+    private ResponseEntity<?> aceitarJob(JobAnalise job) {
+        String linkEstado = linkDoJob(job);
+        return ResponseEntity.accepted()
+                .location(URI.create(linkEstado))
+                .body(JobAnaliseDtoOut.de(job, linkEstado));
+    }
+
+    private String linkDoJob(JobAnalise job) {
+        return "/api/pronunciation/jobs/" + job.getId();
+    }
+
     /**
      * Helper para criar mensagens de erro padronizadas
      */
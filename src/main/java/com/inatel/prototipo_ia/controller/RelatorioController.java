@@ -2,10 +2,12 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.RelatorioDtoIn;
 import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
+import com.inatel.prototipo_ia.service.Paginacao;
 import com.inatel.prototipo_ia.service.RelatorioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +19,9 @@ public class RelatorioController {
     @Autowired
     private RelatorioService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     // Criar relatório
     @PostMapping
     public ResponseEntity<RelatorioDtoOut> criar(@RequestBody RelatorioDtoIn relatorio) {
@@ -26,9 +31,14 @@ public class RelatorioController {
 
     // Buscar todos os relatórios
     @GetMapping
-    public ResponseEntity<List<RelatorioDtoOut>> buscarTodos() {
-        List<RelatorioDtoOut> relatorios = service.buscarTodos();
-        return ResponseEntity.ok(relatorios);
+    public ResponseEntity<List<RelatorioDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     // Buscar relatório por ID
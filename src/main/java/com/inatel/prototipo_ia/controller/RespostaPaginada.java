@@ -0,0 +1,85 @@
+package com.inatel.prototipo_ia.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
+import com.inatel.prototipo_ia.service.Paginacao;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Respostas das listagens paginadas por id e das exportações em NDJSON, iguais em todos os
+ * controllers.
+ *
+ * Todo {@code GET} de listagem aceita {@code ?cursor=<último id recebido>&limite=N} (sem limite,
+ * {@link Paginacao#LIMITE_PADRAO} itens) e continua devolvendo um array JSON no corpo; a próxima
+ * página é indicada por {@code Link: <...?cursor=N&limite=M>; rel="next"} e por
+ * {@code X-Next-Cursor}, ausentes na última página. Ao lado de cada listagem, {@code /exportar}
+ * entrega todos os itens em NDJSON (um JSON por linha), lidos do banco página a página.
+ */
+@Component
+public class RespostaPaginada {
+
+    public static final String CABECALHO_PROXIMO_CURSOR = "X-Next-Cursor";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Itens escritos entre um flush e outro na exportação
+    private static final int ITENS_POR_FLUSH = 100;
+
+    private final ObjectWriter escritor;
+
+    public RespostaPaginada(ObjectMapper objectMapper) {
+        this.escritor = objectMapper.writer();
+    }
+
+    public <T> ResponseEntity<List<T>> pagina(PaginaDtoOut<T> pagina) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.temProxima()) {
+            String proxima = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", pagina.getProximoCursor())
+                    .replaceQueryParam("limite", pagina.getLimite())
+                    .toUriString();
+            resposta.header(HttpHeaders.LINK, "<" + proxima + ">; rel=\"next\"")
+                    .header(CABECALHO_PROXIMO_CURSOR, String.valueOf(pagina.getProximoCursor()));
+        }
+        return resposta.body(pagina.getItens());
+    }
+
+    /**
+     * Exporta todos os itens, um JSON por linha, escrevendo enquanto as páginas chegam.
+     *
+     * @param buscarPagina em geral {@code cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO)}
+     */
+    public <T> ResponseEntity<StreamingResponseBody> ndjson(LongFunction<PaginaDtoOut<T>> buscarPagina) {
+        StreamingResponseBody corpo = saida -> {
+            try (Stream<T> itens = Paginacao.emFluxo(buscarPagina)) {
+                escrever(itens.iterator(), saida);
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(corpo);
+    }
+
+    private <T> void escrever(Iterator<T> itens, OutputStream saida) throws IOException {
+        int desdeFlush = 0;
+        while (itens.hasNext()) {
+            saida.write(escritor.writeValueAsBytes(itens.next()));
+            saida.write('\n');
+            if (++desdeFlush == ITENS_POR_FLUSH) {
+                saida.flush();
+                desdeFlush = 0;
+            }
+        }
+        saida.flush();
+    }
+}
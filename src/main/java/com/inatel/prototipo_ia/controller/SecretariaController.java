@@ -2,10 +2,12 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.SecretariaDtoIn;
 import com.inatel.prototipo_ia.dto.out.SecretariaDtoOut;
+import com.inatel.prototipo_ia.service.Paginacao;
 import com.inatel.prototipo_ia.service.SecretariaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +19,9 @@ public class SecretariaController {
     @Autowired
     private SecretariaService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     @PostMapping
     public ResponseEntity<SecretariaDtoOut> criar(@RequestBody SecretariaDtoIn secretaria) {
         try {
@@ -30,9 +35,14 @@ public class SecretariaController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SecretariaDtoOut>> buscarTodos() {
-        List<SecretariaDtoOut> secretarias = service.buscarTodos();
-        return ResponseEntity.ok(secretarias);
+    public ResponseEntity<List<SecretariaDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     @GetMapping("/{id}")
@@ -1,21 +1,32 @@
 package com.inatel.prototipo_ia.controller;
 
+import com.inatel.prototipo_ia.analise.JobAnalise;
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.audio.AudioInvalidoException;
+import com.inatel.prototipo_ia.audio.RecepcaoAudio;
 import com.inatel.prototipo_ia.dto.in.SessaoTreinoDtoIn;
+import com.inatel.prototipo_ia.dto.out.JobAnaliseDtoOut;
 import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
 import com.inatel.prototipo_ia.dto.out.SessaoTreinoHistoryDtoOut;
+import com.inatel.prototipo_ia.eventos.BarramentoEventosSessao;
+import com.inatel.prototipo_ia.service.ProcessamentoAudioService;
 import com.inatel.prototipo_ia.service.SessaoTreinoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +40,18 @@ public class SessaoTreinoController {
     @Autowired
     private SessaoTreinoService sessaoService;
 
+    @Autowired
+    private ProcessamentoAudioService processamentoAudioService;
+
+    @Autowired
+    private BarramentoEventosSessao eventosSessao;
+
+    @Autowired
+    private RecepcaoAudio recepcaoAudio;
+
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     /**
      * PASSO 1: Iniciar uma nova sessão de treino
      * POST /api/sessao-treino/iniciar
@@ -67,16 +90,18 @@ public class SessaoTreinoController {
      * PASSO 2: Enviar áudio para análise
      * POST /api/sessao-treino/{sessaoId}/audio
      *
-     * Retorna: Feedback do ciclo atual + próximas 3 palavras (ou resumo final)
+     * Retorna 202 com o job da análise. O feedback + resumo final ficam no resultado do job
+     * (GET /api/sessao-treino/jobs/{jobId}) quando ele terminar.
      */
     @Operation(
             summary = "Enviar áudio para análise",
-            description = "Envia o áudio gravado para análise. Retorna feedback e próximas palavras ou resumo final."
+            description = "Aceita o áudio gravado e agenda a análise. Consulte o job retornado para obter o feedback e o resumo final."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Áudio processado com sucesso"),
+            @ApiResponse(responseCode = "202", description = "Áudio aceito, análise em andamento"),
             @ApiResponse(responseCode = "400", description = "Áudio inválido ou sessão não está aguardando áudio"),
-            @ApiResponse(responseCode = "404", description = "Sessão não encontrada")
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada"),
+            @ApiResponse(responseCode = "503", description = "Muitas análises em andamento, tente novamente")
     })
     @PostMapping(value = "/{sessaoId}/audio", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> enviarAudio(
@@ -86,24 +111,84 @@ public class SessaoTreinoController {
             @Parameter(description = "Arquivo de áudio com as palavras faladas", required = true)
             @RequestParam("audio") MultipartFile audioFile,
 
-            @Parameter(description = "Usar Gemini para análise (mais preciso, porém mais lento)")
+            @Parameter(description = "Preferir o Gemini (mais preciso, porém mais lento); sem ele o motor é escolhido pelo histórico de latência, erros e custo")
             @RequestParam(value = "usarGemini", defaultValue = "false") boolean usarGemini) {
 
         try {
-            if (audioFile == null || audioFile.isEmpty()) {
-                return ResponseEntity.badRequest().body(criarErro("Arquivo de áudio é obrigatório"));
-            }
-
-            byte[] audioBytes = audioFile.getBytes();
-            List<MensagemSessaoDtoOut> mensagens = sessaoService.processarAudio(sessaoId, audioBytes, usarGemini);
-            return ResponseEntity.ok(mensagens);
+            // Validado pelo cabeçalho e mantido em arquivo temporário até o fim da análise;
+            // nada do áudio vai para o heap
+            AudioArquivo audio = recepcaoAudio.receber(audioFile);
+            JobAnalise job = processamentoAudioService.processarAudioSessao(sessaoId, audio, usarGemini);
+            String linkEstado = linkDoJob(job);
+            return ResponseEntity.accepted()
+                    .location(URI.create(linkEstado))
+                    .body(JobAnaliseDtoOut.de(job, linkEstado));
 
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(criarErro(e.getMessage()));
+        } catch (AudioInvalidoException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(criarErro(e.getMessage()));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(criarErro("Muitas análises em andamento. Tente enviar novamente em instantes."));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(criarErro("Erro ao processar áudio: " + e.getMessage()));
         }
     }
 
+    /**
+     * Consultar o andamento da análise de um áudio
+     * GET /api/sessao-treino/jobs/{jobId}
+     */
+    @Operation(
+            summary = "Consultar análise do áudio",
+            description = "Retorna o status do job (PENDENTE, PROCESSANDO, CONCLUIDO, ERRO). Quando termina, o resultado traz o feedback e o resumo final."
+    )
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> buscarJob(@PathVariable String jobId) {
+        return processamentoAudioService.buscarJob(jobId)
+                .filter(job -> job.getTipo() == JobAnalise.TipoJob.SESSAO_TREINO)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(JobAnaliseDtoOut.de(job, linkDoJob(job))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(criarErro("Análise não encontrada ou expirada: " + jobId)));
+    }
+
+    /**
+     * Acompanhar a sessão em tempo real (Server-Sent Events)
+     * GET /api/sessao-treino/{sessaoId}/eventos
+     *
+     * Envia primeiro o estado atual e depois as mensagens da análise assim que ficam prontas
+     * (FEEDBACK_ANALISE, RESUMO_FINAL, ERRO). O stream é fechado após o resumo final, ou logo
+     * depois do estado se a sessão já estiver finalizada ou cancelada.
+     */
+    @Operation(
+            summary = "Acompanhar sessão em tempo real",
+            description = "Stream SSE com as mensagens da sessão. Substitui a consulta periódica ao estado ou ao job."
+    )
+    @GetMapping(value = "/{sessaoId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> acompanharEventos(@PathVariable Long sessaoId) {
+        // Inscreve antes de ler o estado: o que for publicado nesse meio-tempo não se perde
+        SseEmitter emitter = eventosSessao.inscrever(sessaoId);
+        MensagemSessaoDtoOut estado;
+        try {
+            estado = sessaoService.buscarEstadoSessao(sessaoId);
+        } catch (Exception e) {
+            eventosSessao.desinscrever(sessaoId, emitter);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(criarErro("Sessão não encontrada: " + sessaoId));
+        }
+
+        eventosSessao.enviar(emitter, estado);
+        if (Boolean.TRUE.equals(estado.getSessaoFinalizada())) {
+            // Sessão já encerrada: não virá mais nada
+            eventosSessao.desinscrever(sessaoId, emitter);
+            emitter.complete();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * Consultar estado atual da sessão
      * GET /api/sessao-treino/{sessaoId}/estado
@@ -124,6 +209,26 @@ public class SessaoTreinoController {
         }
     }
 
+    /**
+     * Conversa da sessão, mensagem a mensagem
+     * GET /api/sessao-treino/{sessaoId}/conversa?cursor=N&limite=M
+     */
+    @Operation(
+            summary = "Buscar conversa da sessão",
+            description = "Retorna as mensagens da sessão em ordem, paginadas; a próxima página vem nos cabeçalhos Link e X-Next-Cursor"
+    )
+    @GetMapping("/{sessaoId}/conversa")
+    public ResponseEntity<?> buscarConversa(@PathVariable Long sessaoId,
+                                            @RequestParam(required = false) Long cursor,
+                                            @RequestParam(required = false) Integer limite) {
+        try {
+            return respostaPaginada.pagina(sessaoService.listarConversa(sessaoId, cursor, limite));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(criarErro(e.getMessage()));
+        }
+    }
+
     /**
      * Cancelar sessão
      * POST /api/sessao-treino/{sessaoId}/cancelar
@@ -163,6 +268,31 @@ public class SessaoTreinoController {
         }
     }
 
+    /**
+     * Palavras analisadas nas sessões de um cliente, com filtros aplicados no banco
+     * GET /api/sessao-treino/palavras/cliente/{clienteId}?palavra=rato&acertou=false&similaridadeMaxima=50
+     */
+    @Operation(
+            summary = "Buscar palavras analisadas do cliente",
+            description = "Retorna o resultado de cada palavra das sessões do cliente, filtrado por palavra, acerto ou similaridade máxima; paginado por cursor"
+    )
+    @GetMapping("/palavras/cliente/{clienteId}")
+    public ResponseEntity<?> buscarPalavras(@PathVariable Long clienteId,
+                                            @RequestParam(required = false) String palavra,
+                                            @RequestParam(required = false) Boolean acertou,
+                                            @Parameter(description = "Similaridade máxima, de 0 a 100 (ex.: 50)")
+                                            @RequestParam(required = false) Double similaridadeMaxima,
+                                            @RequestParam(required = false) Long cursor,
+                                            @RequestParam(required = false) Integer limite) {
+        try {
+            return respostaPaginada.pagina(
+                    sessaoService.listarPalavras(clienteId, palavra, acertou, similaridadeMaxima, cursor, limite));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(criarErro("Erro ao buscar palavras: " + e.getMessage()));
+        }
+    }
+
     /**
      * Buscar dados do dashboard (estatísticas) de um cliente
      * GET /api/sessao-treino/dashboard/{clienteId}
@@ -183,6 +313,10 @@ public class SessaoTreinoController {
         }
     }
 
+    private String linkDoJob(JobAnalise job) {
+        return "/api/sessao-treino/jobs/" + job.getId();
+    }
+
     /**
      * Helper para criar mensagens de erro padronizadas
      */
@@ -2,10 +2,12 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.TratamentoDtoIn;
 import com.inatel.prototipo_ia.dto.out.TratamentoDtoOut;
+import com.inatel.prototipo_ia.service.Paginacao;
 import com.inatel.prototipo_ia.service.TratamentoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +19,9 @@ public class TratamentoController {
     @Autowired
     private TratamentoService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     // Criar tratamento
     @PostMapping
     public ResponseEntity<TratamentoDtoOut> criar(@RequestBody TratamentoDtoIn tratamento) {
@@ -26,9 +31,14 @@ public class TratamentoController {
 
     // Buscar todos os tratamentos
     @GetMapping
-    public ResponseEntity<List<TratamentoDtoOut>> buscarTodos() {
-        List<TratamentoDtoOut> tratamentos = service.buscarTodos();
-        return ResponseEntity.ok(tratamentos);
+    public ResponseEntity<List<TratamentoDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     // Buscar tratamento por ID
@@ -2,10 +2,12 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.UsuarioDtoIn;
 import com.inatel.prototipo_ia.dto.out.UsuarioDtoOut;
+import com.inatel.prototipo_ia.service.Paginacao;
 import com.inatel.prototipo_ia.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +19,9 @@ public class UsuarioController {
     @Autowired
     private UsuarioService service;
 
+    @Autowired
+    private RespostaPaginada respostaPaginada;
+
     // Criar usuário
     @PostMapping
     public ResponseEntity<UsuarioDtoOut> criar(@RequestBody UsuarioDtoIn usuario) {
@@ -26,9 +31,14 @@ public class UsuarioController {
 
     // Buscar todos os usuários
     @GetMapping
-    public ResponseEntity<List<UsuarioDtoOut>> buscarTodos() {
-        List<UsuarioDtoOut> usuarios = service.buscarTodos();
-        return ResponseEntity.ok(usuarios);
+    public ResponseEntity<List<UsuarioDtoOut>> buscarTodos(@RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        return respostaPaginada.pagina(service.listar(cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return respostaPaginada.ndjson(cursor -> service.listar(cursor, Paginacao.LIMITE_EXPORTACAO));
     }
 
     // Buscar usuário por ID
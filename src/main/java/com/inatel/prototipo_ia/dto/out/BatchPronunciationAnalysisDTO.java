@@ -1,5 +1,7 @@
 package com.inatel.prototipo_ia.dto.out;
 
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,6 +19,8 @@ public class BatchPronunciationAnalysisDTO {
     private Double porcentagemAcerto;
     private String feedbackGeral;
     private LocalDateTime dataAnalise;
+    // Motor que produziu a análise (pode não ser o pedido, se houve troca por falha)
+    private MotorAnalise motorAnalise;
 
     public BatchPronunciationAnalysisDTO() {
         this.dataAnalise = LocalDateTime.now();
@@ -29,6 +33,9 @@ public class BatchPronunciationAnalysisDTO {
         private Boolean acertou;
         private Double similaridade;
         private String feedback;
+        // Posição no áudio do trecho de fala em que a palavra foi dita (nulos sem segmentação)
+        private Long inicioMs;
+        private Long fimMs;
 
         public ResultadoPalavra() {}
 
@@ -81,6 +88,22 @@ public class BatchPronunciationAnalysisDTO {
         public void setFeedback(String feedback) {
             this.feedback = feedback;
         }
+
+        public Long getInicioMs() {
+            return inicioMs;
+        }
+
+        public void setInicioMs(Long inicioMs) {
+            this.inicioMs = inicioMs;
+        }
+
+        public Long getFimMs() {
+            return fimMs;
+        }
+
+        public void setFimMs(Long fimMs) {
+            this.fimMs = fimMs;
+        }
     }
 
     // Getters e Setters principais
@@ -155,4 +178,12 @@ public class BatchPronunciationAnalysisDTO {
     public void setDataAnalise(LocalDateTime dataAnalise) {
         this.dataAnalise = dataAnalise;
     }
-}
\ No newline at end of file
+
+    public MotorAnalise getMotorAnalise() {
+        return motorAnalise;
+    }
+
+    public void setMotorAnalise(MotorAnalise motorAnalise) {
+        this.motorAnalise = motorAnalise;
+    }
+}
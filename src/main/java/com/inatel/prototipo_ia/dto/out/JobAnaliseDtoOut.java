@@ -0,0 +1,38 @@
+package com.inatel.prototipo_ia.dto.out;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.inatel.prototipo_ia.analise.JobAnalise;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobAnaliseDtoOut {
+
+    private String jobId;
+    private String tipo;
+    private String status;
+    private Long sessaoId;
+    private LocalDateTime criadoEm;
+    private LocalDateTime concluidoEm;
+    private String linkEstado; // Onde consultar o andamento
+    private Object resultado; // Preenchido quando o job termina
+    private String erro;
+
+    public static JobAnaliseDtoOut de(JobAnalise job, String linkEstado) {
+        JobAnaliseDtoOut dto = new JobAnaliseDtoOut();
+        dto.setJobId(job.getId());
+        dto.setTipo(job.getTipo().name());
+        dto.setStatus(job.getStatus().name());
+        dto.setSessaoId(job.getSessaoId());
+        dto.setCriadoEm(job.getCriadoEm());
+        dto.setConcluidoEm(job.getConcluidoEm());
+        dto.setLinkEstado(linkEstado);
+        dto.setResultado(job.getResultado());
+        dto.setErro(job.getErro());
+        return dto;
+    }
+}
@@ -32,6 +32,7 @@ public class MensagemSessaoDtoOut {
     private ResumoSessao resumoSessao;
     private LocalDateTime timestamp;
     private Boolean sessaoFinalizada;
+    private Boolean parcial; // Feedback ainda em andamento (só as palavras já avaliadas)
 
     // Classe interna para resultado de cada palavra (usado em BatchPronunciationAnalysisDTO)
     @Getter
@@ -116,6 +117,22 @@ public class MensagemSessaoDtoOut {
         return msg;
     }
 
+    /**
+     * Feedback parcial enviado por SSE enquanto o Gemini ainda avalia o restante das palavras.
+     * Cada mensagem traz todas as palavras avaliadas até o momento; a análise final a substitui.
+     */
+    public static MensagemSessaoDtoOut feedbackParcial(Long sessaoId, BatchPronunciationAnalysisDTO parcial) {
+        MensagemSessaoDtoOut msg = new MensagemSessaoDtoOut();
+        msg.setSessaoId(sessaoId);
+        msg.setTipo(TipoMensagem.FEEDBACK_ANALISE);
+        msg.setCicloAtual(1);
+        msg.setTotalCiclos(1);
+        msg.setAnalise(parcial);
+        msg.setParcial(true);
+        msg.setMensagem("Analisando... " + parcial.getResultados().size() + " de " + parcial.getTotalPalavras() + " palavras");
+        return msg;
+    }
+
     public static MensagemSessaoDtoOut resumoFinal(Long sessaoId, ResumoSessao resumo) {
         MensagemSessaoDtoOut msg = new MensagemSessaoDtoOut();
         msg.setSessaoId(sessaoId);
@@ -0,0 +1,27 @@
+package com.inatel.prototipo_ia.dto.out;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Uma página de uma listagem paginada por id. O corpo da resposta é só a lista de itens; o
+ * cursor da próxima página vai nos cabeçalhos {@code Link} e {@code X-Next-Cursor}.
+ */
+@Getter
+public class PaginaDtoOut<T> {
+
+    private final List<T> itens;
+    private final int limite;
+    private final Long proximoCursor; // Null na última página
+
+    public PaginaDtoOut(List<T> itens, int limite, Long proximoCursor) {
+        this.itens = itens;
+        this.limite = limite;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public boolean temProxima() {
+        return proximoCursor != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.inatel.prototipo_ia.dto.out;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class PalavraAnalisadaDtoOut {
+    private Long id;
+    private Long sessaoId;
+    private LocalDateTime dataSessao;
+    private Integer posicao;
+    private String palavraEsperada;
+    private String palavraTranscrita;
+    private Boolean acertou;
+    private Double similaridade;
+    private String feedback;
+}
@@ -0,0 +1,16 @@
+package com.inatel.prototipo_ia.dto.out;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class SessaoEventoDtoOut {
+    private Long id;
+    private LocalDateTime criadoEm;
+    private String remetente;
+    private String tipo;
+    private String conteudo;
+}
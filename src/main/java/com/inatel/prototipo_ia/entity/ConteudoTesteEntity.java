@@ -3,6 +3,7 @@ package com.inatel.prototipo_ia.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -25,6 +26,13 @@ public class ConteudoTesteEntity {
 
     private String idioma;
 
+    // Preenchidos só nos trava-línguas gerados para o pool (PoolTravaLinguasService)
+    @Column(name = "faixa_etaria", length = 50)
+    private String faixaEtaria;
+
+    @Column(name = "usado_em")
+    private LocalDateTime usadoEm;
+
     @OneToMany(mappedBy = "conteudoTeste")
     private List<TratamentoEntity> tratamentos;
 }
@@ -0,0 +1,34 @@
+package com.inatel.prototipo_ia.entity;
+
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Camada persistente do cache de resultados de análise (ver CacheResultadosAnalise).
+ */
+@Entity
+@Table(name = "resultado_analise_cache")
+@Getter
+@Setter
+public class ResultadoAnaliseCacheEntity {
+
+    // SHA-256 (hex) do áudio + palavras normalizadas + motor
+    @Id
+    @Column(length = 64)
+    private String chave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MotorAnalise motor;
+
+    // BatchPronunciationAnalysisDTO em JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String resultado;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+}
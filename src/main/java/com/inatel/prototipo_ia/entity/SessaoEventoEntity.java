@@ -0,0 +1,59 @@
+package com.inatel.prototipo_ia.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma mensagem da conversa de uma sessão de treino. A tabela só recebe inserções, em lote
+ * (ver SessaoEventoRepository), então a sessão não regrava a conversa inteira a cada mensagem.
+ */
+@Entity
+@Table(name = "sessao_evento")
+@Getter
+@Setter
+public class SessaoEventoEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Só o id: o log é lido sem carregar a sessão
+    @Column(name = "sessao_id", nullable = false)
+    private Long sessaoId;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(nullable = false, length = 20)
+    private String remetente;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEvento tipo;
+
+    @Column(columnDefinition = "TEXT")
+    private String conteudo;
+
+    public enum TipoEvento {
+        SAUDACAO,
+        INSTRUCAO,
+        PALAVRAS,
+        AUDIO_ENVIADO,
+        RESUMO_FINAL,
+        CANCELAMENTO,
+        MENSAGEM // Linhas importadas do antigo historico_conversa sem tipo reconhecível
+    }
+
+    public SessaoEventoEntity() {
+    }
+
+    public SessaoEventoEntity(String remetente, TipoEvento tipo, String conteudo) {
+        this.criadoEm = LocalDateTime.now();
+        this.remetente = remetente;
+        this.tipo = tipo;
+        this.conteudo = conteudo;
+    }
+}
@@ -0,0 +1,47 @@
+package com.inatel.prototipo_ia.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Resultado de uma palavra da análise de uma sessão de treino, gravado ao finalizar a sessão.
+ * Histórico e filtros leem estas linhas em vez de desserializar o JSON de sessaotreino.resultado.
+ */
+@Entity
+@Table(name = "sessao_resultado_palavra")
+@Getter
+@Setter
+public class SessaoResultadoPalavraEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sessao_id", nullable = false)
+    private Long sessaoId;
+
+    // Ordem da palavra no trava-língua, a partir de 0
+    @Column(nullable = false)
+    private Integer posicao;
+
+    @Column(name = "palavra_esperada")
+    private String palavraEsperada;
+
+    @Column(name = "palavra_transcrita")
+    private String palavraTranscrita;
+
+    @Column(nullable = false)
+    private Boolean acertou;
+
+    private Double similaridade;
+
+    @Column(columnDefinition = "TEXT")
+    private String feedback;
+
+    @Column(name = "inicio_ms")
+    private Long inicioMs;
+
+    @Column(name = "fim_ms")
+    private Long fimMs;
+}
@@ -1,13 +1,20 @@
 package com.inatel.prototipo_ia.entity;
 
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity.TipoEvento;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+// UPDATE só com as colunas alteradas: trocar o status não regrava trava-língua e resultado
 @Entity
 @Table(name = "sessaotreino")
+@DynamicUpdate
 @Getter
 @Setter
 public class SessaoTreinoEntity {
@@ -43,6 +50,10 @@ public class SessaoTreinoEntity {
     @Column(name = "resultado", columnDefinition = "TEXT")
     private String resultado;
 
+    // Copiado do resultado; as palavras ficam em sessao_resultado_palavra
+    @Column(name = "feedback_geral", columnDefinition = "TEXT")
+    private String feedbackGeral;
+
     // Estado atual da sessão
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -65,9 +76,10 @@ public class SessaoTreinoEntity {
     @Column(name = "data_fim")
     private LocalDateTime dataFim;
 
-    // Conversa completa (para histórico)
-    @Column(name = "historico_conversa", columnDefinition = "TEXT")
-    private String historicoConversa;
+    // Mensagens da conversa ainda não gravadas em sessao_evento
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private final List<SessaoEventoEntity> eventosPendentes = new ArrayList<>();
 
     public enum StatusSessao {
         INICIADA,
@@ -84,13 +96,20 @@ public class SessaoTreinoEntity {
         this.totalPalavras = 0;
         this.totalAcertos = 0;
         this.pontuacaoGeral = 0.0;
-        this.historicoConversa = "";
     }
 
     // Métodos auxiliares
-    public void adicionarAoHistorico(String remetente, String mensagem) {
-        String timestamp = LocalDateTime.now().toString();
-        String novaLinha = "[" + timestamp + "] " + remetente + ": " + mensagem + "\n";
-        this.historicoConversa = (this.historicoConversa == null ? "" : this.historicoConversa) + novaLinha;
+    public void adicionarAoHistorico(String remetente, TipoEvento tipo, String mensagem) {
+        eventosPendentes.add(new SessaoEventoEntity(remetente, tipo, mensagem));
+    }
+
+    /**
+     * Entrega as mensagens acumuladas desde a última gravação, já com o id da sessão, e esvazia a fila.
+     */
+    public List<SessaoEventoEntity> retirarEventosPendentes() {
+        List<SessaoEventoEntity> eventos = new ArrayList<>(eventosPendentes);
+        eventos.forEach(evento -> evento.setSessaoId(id));
+        eventosPendentes.clear();
+        return eventos;
     }
 }
\ No newline at end of file
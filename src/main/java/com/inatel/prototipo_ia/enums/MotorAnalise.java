@@ -0,0 +1,6 @@
+package com.inatel.prototipo_ia.enums;
+
+public enum MotorAnalise {
+    GEMINI,
+    DEEPGRAM
+}
@@ -0,0 +1,105 @@
+package com.inatel.prototipo_ia.eventos;
+
+import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Barramento em memória das mensagens de uma sessão de treino, entregues por Server-Sent Events.
+ *
+ * Cada sessão tem sua lista de inscritos (normalmente uma aba do navegador, mas pode haver
+ * mais de uma). Quem publica não espera ninguém: um inscrito que caiu é descartado no envio.
+ */
+@Component
+public class BarramentoEventosSessao {
+
+    private final Map<Long, List<SseEmitter>> inscritos = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    public BarramentoEventosSessao(@Value("${sessao.eventos.timeout:5m}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter inscrever(Long sessaoId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        List<SseEmitter> daSessao = inscritos.computeIfAbsent(sessaoId, id -> new CopyOnWriteArrayList<>());
+        daSessao.add(emitter);
+
+        emitter.onCompletion(() -> remover(sessaoId, emitter));
+        emitter.onTimeout(() -> remover(sessaoId, emitter));
+        emitter.onError(erro -> remover(sessaoId, emitter));
+        return emitter;
+    }
+
+    /**
+     * Tira o inscrito da sessão sem fechar o stream (ex.: sessão inexistente ou já encerrada).
+     */
+    public void desinscrever(Long sessaoId, SseEmitter emitter) {
+        remover(sessaoId, emitter);
+    }
+
+    /**
+     * Envia a mensagem para um inscrito só (ex.: o estado atual logo após a inscrição).
+     */
+    public void enviar(SseEmitter emitter, MensagemSessaoDtoOut mensagem) {
+        try {
+            emitter.send(evento(mensagem));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Envia a mensagem para todos os inscritos da sessão. O nome do evento é o tipo da mensagem
+     * (FEEDBACK_ANALISE, RESUMO_FINAL, ERRO...).
+     */
+    public void publicar(Long sessaoId, MensagemSessaoDtoOut mensagem) {
+        List<SseEmitter> daSessao = inscritos.get(sessaoId);
+        if (daSessao == null) return;
+
+        for (SseEmitter emitter : daSessao) {
+            try {
+                emitter.send(evento(mensagem));
+            } catch (IOException | IllegalStateException e) {
+                // Conexão já fechada pelo cliente
+                remover(sessaoId, emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * Fecha todos os streams da sessão (depois do resumo final não há mais o que enviar).
+     */
+    public void encerrar(Long sessaoId) {
+        List<SseEmitter> daSessao = inscritos.remove(sessaoId);
+        if (daSessao == null) return;
+        daSessao.forEach(SseEmitter::complete);
+    }
+
+    public int totalInscritos() {
+        return inscritos.values().stream().mapToInt(List::size).sum();
+    }
+
+    private SseEmitter.SseEventBuilder evento(MensagemSessaoDtoOut mensagem) {
+        return SseEmitter.event()
+                .name(mensagem.getTipo().name())
+                .data(mensagem, MediaType.APPLICATION_JSON);
+    }
+
+    private void remover(Long sessaoId, SseEmitter emitter) {
+        inscritos.computeIfPresent(sessaoId, (id, lista) -> {
+            lista.remove(emitter);
+            return lista.isEmpty() ? null : lista;
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.inatel.prototipo_ia.eventos;
+
+/**
+ * Publicado pelo ConteudoTesteService quando um conteúdo é criado, atualizado ou removido.
+ * Leva os dados já gravados para que os ouvintes não precisem consultar o banco.
+ */
+public class ConteudoTesteAlteradoEvent {
+
+    public enum TipoAlteracao {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    private final TipoAlteracao tipo;
+    private final Long id;
+    private final String textoFrase;
+    private final String fonemasChave;
+    private final String idioma;
+    private final String faixaEtaria;
+
+    public ConteudoTesteAlteradoEvent(TipoAlteracao tipo, Long id, String textoFrase,
+                                      String fonemasChave, String idioma, String faixaEtaria) {
+        this.tipo = tipo;
+        this.id = id;
+        this.textoFrase = textoFrase;
+        this.fonemasChave = fonemasChave;
+        this.idioma = idioma;
+        this.faixaEtaria = faixaEtaria;
+    }
+
+    public static ConteudoTesteAlteradoEvent removido(Long id) {
+        return new ConteudoTesteAlteradoEvent(TipoAlteracao.REMOVIDO, id, null, null, null, null);
+    }
+
+    public TipoAlteracao getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTextoFrase() {
+        return textoFrase;
+    }
+
+    public String getFonemasChave() {
+        return fonemasChave;
+    }
+
+    public String getIdioma() {
+        return idioma;
+    }
+
+    public String getFaixaEtaria() {
+        return faixaEtaria;
+    }
+}
@@ -3,11 +3,13 @@ package com.inatel.prototipo_ia.repository;
 import com.inatel.prototipo_ia.entity.CertificadoEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface CertificadoRepository extends JpaRepository<CertificadoEntity, Long> {
+public interface CertificadoRepository extends JpaRepository<CertificadoEntity, Long>, PaginacaoPorId<CertificadoEntity> {
     List<CertificadoEntity> findByCliente(ClienteEntity cliente);
 
     List<CertificadoEntity> findByClienteId(Long clienteId);
@@ -15,4 +17,10 @@ public interface CertificadoRepository extends JpaRepository<CertificadoEntity,
     List<CertificadoEntity> findByNivelAlcancado(String nivelAlcancado);
 
     List<CertificadoEntity> findByDataEmissaoAfter(LocalDate data);
-}
\ No newline at end of file
+
+    /**
+     * Ids dos certificados de cada cliente, para montar vários DTOs de uma vez.
+     */
+    @Query("SELECT c.cliente.id AS donoId, c.id AS id FROM CertificadoEntity c WHERE c.cliente.id IN :clienteIds ORDER BY c.id")
+    List<IdPorDono> findIdsByClienteIdIn(Collection<Long> clienteIds);
+}
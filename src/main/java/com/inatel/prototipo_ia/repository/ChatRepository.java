@@ -5,10 +5,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ChatRepository extends JpaRepository<ChatEntity, Long> {
+public interface ChatRepository extends JpaRepository<ChatEntity, Long>, PaginacaoPorId<ChatEntity> {
 
     List<ChatEntity> findByClienteId(Long clienteId);
 
@@ -20,4 +21,43 @@ public interface ChatRepository extends JpaRepository<ChatEntity, Long> {
     // Query customizada (mantida, mas ajustada se necessário)
     @Query("SELECT c FROM ChatEntity c WHERE c.duracao > 30")
     List<ChatEntity> findChatsLongos();
+
+    /**
+     * Ids dos chats de cada especialista, para montar vários DTOs de uma vez.
+     */
+    @Query("SELECT c.especialista.id AS donoId, c.id AS id FROM ChatEntity c WHERE c.especialista.id IN :especialistaIds ORDER BY c.id")
+    List<IdPorDono> findIdsByEspecialistaIdIn(Collection<Long> especialistaIds);
+
+    /**
+     * Ids dos chats de cada cliente, para montar vários DTOs de uma vez.
+     */
+    @Query("SELECT c.cliente.id AS donoId, c.id AS id FROM ChatEntity c WHERE c.cliente.id IN :clienteIds ORDER BY c.id")
+    List<IdPorDono> findIdsByClienteIdIn(Collection<Long> clienteIds);
+
+    /**
+     * Listagens de leitura: só as colunas do DTO, sem carregar cliente, especialista e relatório.
+     */
+    @Query("SELECT c.id AS id, c.duracao AS duracao, c.conversa AS conversa, c.cliente.id AS clienteId, " +
+            "c.especialista.id AS especialistaId, r.id AS relatorioId " +
+            "FROM ChatEntity c LEFT JOIN c.relatorio r WHERE c.cliente.id = :clienteId ORDER BY c.id")
+    List<ChatResumo> findResumosByClienteId(Long clienteId);
+
+    @Query("SELECT c.id AS id, c.duracao AS duracao, c.conversa AS conversa, c.cliente.id AS clienteId, " +
+            "c.especialista.id AS especialistaId, r.id AS relatorioId " +
+            "FROM ChatEntity c LEFT JOIN c.relatorio r WHERE c.especialista.id = :especialistaId ORDER BY c.id")
+    List<ChatResumo> findResumosByEspecialistaId(Long especialistaId);
+
+    interface ChatResumo {
+        Long getId();
+
+        Integer getDuracao();
+
+        String getConversa();
+
+        Long getClienteId();
+
+        Long getEspecialistaId();
+
+        Long getRelatorioId();
+    }
 }
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ClienteRepository extends JpaRepository<ClienteEntity, Long> {
+public interface ClienteRepository extends JpaRepository<ClienteEntity, Long>, PaginacaoPorId<ClienteEntity> {
 
     // Buscar clientes por nível
     List<ClienteEntity> findByNivel(String nivel);
@@ -4,11 +4,14 @@ import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.ConsultaEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface ConsultaRepository extends JpaRepository<ConsultaEntity, Long> {
+public interface ConsultaRepository extends JpaRepository<ConsultaEntity, Long>, PaginacaoPorId<ConsultaEntity> {
     List<ConsultaEntity> findByCliente(ClienteEntity cliente);
 
     List<ConsultaEntity> findByEspecialista(EspecialistaEntity especialista);
@@ -22,4 +25,55 @@ public interface ConsultaRepository extends JpaRepository<ConsultaEntity, Long>
     List<ConsultaEntity> findByStatus(String status);
 
     boolean existsByEspecialistaId(Long especialistaId);
-}
\ No newline at end of file
+
+    /**
+     * Ids das consultas de cada especialista, para montar vários DTOs de uma vez.
+     */
+    @Query("SELECT c.especialista.id AS donoId, c.id AS id FROM ConsultaEntity c WHERE c.especialista.id IN :especialistaIds ORDER BY c.id")
+    List<IdPorDono> findIdsByEspecialistaIdIn(Collection<Long> especialistaIds);
+
+    /**
+     * Ids das consultas de cada cliente, para montar vários DTOs de uma vez.
+     */
+    @Query("SELECT c.cliente.id AS donoId, c.id AS id FROM ConsultaEntity c WHERE c.cliente.id IN :clienteIds ORDER BY c.id")
+    List<IdPorDono> findIdsByClienteIdIn(Collection<Long> clienteIds);
+
+    /**
+     * Listagens de leitura: só as colunas do DTO, sem carregar cliente e especialista.
+     */
+    @Query("SELECT c.id AS id, c.data AS data, c.hora AS hora, c.tipo AS tipo, c.status AS status, " +
+            "c.cliente.id AS clienteId, c.especialista.id AS especialistaId " +
+            "FROM ConsultaEntity c WHERE c.cliente.id = :clienteId ORDER BY c.id")
+    List<ConsultaResumo> findResumosByClienteId(Long clienteId);
+
+    @Query("SELECT c.id AS id, c.data AS data, c.hora AS hora, c.tipo AS tipo, c.status AS status, " +
+            "c.cliente.id AS clienteId, c.especialista.id AS especialistaId " +
+            "FROM ConsultaEntity c WHERE c.especialista.id = :especialistaId ORDER BY c.id")
+    List<ConsultaResumo> findResumosByEspecialistaId(Long especialistaId);
+
+    @Query("SELECT c.id AS id, c.data AS data, c.hora AS hora, c.tipo AS tipo, c.status AS status, " +
+            "c.cliente.id AS clienteId, c.especialista.id AS especialistaId " +
+            "FROM ConsultaEntity c WHERE c.data = :data ORDER BY c.id")
+    List<ConsultaResumo> findResumosByData(LocalDate data);
+
+    @Query("SELECT c.id AS id, c.data AS data, c.hora AS hora, c.tipo AS tipo, c.status AS status, " +
+            "c.cliente.id AS clienteId, c.especialista.id AS especialistaId " +
+            "FROM ConsultaEntity c WHERE c.status = :status ORDER BY c.id")
+    List<ConsultaResumo> findResumosByStatus(String status);
+
+    interface ConsultaResumo {
+        Long getId();
+
+        LocalDate getData();
+
+        LocalTime getHora();
+
+        String getTipo();
+
+        String getStatus();
+
+        Long getClienteId();
+
+        Long getEspecialistaId();
+    }
+}
@@ -2,11 +2,23 @@ package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface ConteudoTesteRepository extends JpaRepository<ConteudoTesteEntity, Long> {
+public interface ConteudoTesteRepository extends JpaRepository<ConteudoTesteEntity, Long>, PaginacaoPorId<ConteudoTesteEntity> {
     List<ConteudoTesteEntity> findByDificuldade(String dificuldade);
     List<ConteudoTesteEntity> findByIdioma(String idioma);
     List<ConteudoTesteEntity> findByDificuldadeAndIdioma(String dificuldade, String idioma);
-}
\ No newline at end of file
+
+    // Trava-línguas do pool (gerados com faixa etária)
+    List<ConteudoTesteEntity> findByFaixaEtariaIsNotNull();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ConteudoTesteEntity c SET c.usadoEm = :usadoEm WHERE c.id = :id")
+    int marcarComoUsado(Long id, LocalDateTime usadoEm);
+}
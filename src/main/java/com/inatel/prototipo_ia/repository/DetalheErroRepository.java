@@ -3,10 +3,11 @@ package com.inatel.prototipo_ia.repository;
 import com.inatel.prototipo_ia.entity.DetalheErroEntity;
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
-public interface DetalheErroRepository extends JpaRepository<DetalheErroEntity, Long> {
+public interface DetalheErroRepository extends JpaRepository<DetalheErroEntity, Long>, PaginacaoPorId<DetalheErroEntity> {
     List<DetalheErroEntity> findByRelatorio(RelatorioEntity relatorio);
 
     List<DetalheErroEntity> findByRelatorioId(Long relatorioId);
@@ -14,4 +15,17 @@ public interface DetalheErroRepository extends JpaRepository<DetalheErroEntity,
     List<DetalheErroEntity> findByFonemaEsperado(String fonemaEsperado);
 
     List<DetalheErroEntity> findByScoreDesvioGreaterThan(Float score);
-}
\ No newline at end of file
+
+    /**
+     * Quantidade de erros por fonema esperado em todos os relatórios do cliente.
+     */
+    @Query("SELECT d.fonemaEsperado AS fonema, COUNT(d) AS erros FROM DetalheErroEntity d " +
+            "WHERE d.relatorio.chat.cliente.id = :clienteId GROUP BY d.fonemaEsperado")
+    List<ErrosPorFonema> contarErrosPorFonema(Long clienteId);
+
+    interface ErrosPorFonema {
+        String getFonema();
+
+        Long getErros();
+    }
+}
@@ -6,9 +6,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface DisponibilidadeRepository extends JpaRepository<DisponibilidadeEntity, Long> {
+public interface DisponibilidadeRepository extends JpaRepository<DisponibilidadeEntity, Long>, PaginacaoPorId<DisponibilidadeEntity> {
     List<DisponibilidadeEntity> findByEspecialista(EspecialistaEntity especialista);
 
     List<DisponibilidadeEntity> findByData(LocalDate data);
@@ -21,4 +22,10 @@ public interface DisponibilidadeRepository extends JpaRepository<Disponibilidade
     List<DisponibilidadeEntity> findDisponibilidadesDisponiveis();
 
     boolean existsByEspecialistaId(Long especialistaId);
-}
\ No newline at end of file
+
+    /**
+     * Ids das disponibilidades de cada especialista, para montar vários DTOs de uma vez.
+     */
+    @Query("SELECT d.especialista.id AS donoId, d.id AS id FROM DisponibilidadeEntity d WHERE d.especialista.id IN :especialistaIds ORDER BY d.id")
+    List<IdPorDono> findIdsByEspecialistaIdIn(Collection<Long> especialistaIds);
+}
@@ -7,7 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 import java.util.Optional;
 
-public interface EspecialistaRepository extends JpaRepository<EspecialistaEntity, Long> {
+public interface EspecialistaRepository extends JpaRepository<EspecialistaEntity, Long>, PaginacaoPorId<EspecialistaEntity> {
     List<EspecialistaEntity> findByEspecialidade(String especialidade);
 
     Optional<EspecialistaEntity> findByCrmFono(String crmFono);
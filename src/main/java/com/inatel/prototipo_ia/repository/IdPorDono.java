@@ -0,0 +1,11 @@
+package com.inatel.prototipo_ia.repository;
+
+/**
+ * Projeção de uma linha filha só com o próprio id e o id do dono (a FK), para montar as listas
+ * de ids dos DTOs de vários donos numa consulta só, sem carregar as entidades.
+ */
+public interface IdPorDono {
+    Long getDonoId();
+
+    Long getId();
+}
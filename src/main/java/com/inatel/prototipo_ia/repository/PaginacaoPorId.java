@@ -0,0 +1,20 @@
+package com.inatel.prototipo_ia.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+/**
+ * Paginação por chave (keyset) no id, herdada pelos repositórios das listagens.
+ *
+ * Cada página continua do último id da anterior ({@code WHERE id > :cursor ORDER BY id LIMIT n}),
+ * usando o índice da chave primária: o custo não cresce com a posição na tabela, como
+ * aconteceria com OFFSET, e linhas inseridas no meio da leitura não deslocam as páginas.
+ */
+@NoRepositoryBean
+public interface PaginacaoPorId<T> extends Repository<T, Long> {
+
+    List<T> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limite);
+}
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ProfissionalRepository extends JpaRepository<ProfissionalEntity, Long> {
+public interface ProfissionalRepository extends JpaRepository<ProfissionalEntity, Long>, PaginacaoPorId<ProfissionalEntity> {
 
     // Buscar profissionais com experiência maior que X anos
     List<ProfissionalEntity> findByExperienciaGreaterThan(Integer anos);
@@ -2,14 +2,16 @@ package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
-public interface RelatorioRepository extends JpaRepository<RelatorioEntity, Long> {
+public interface RelatorioRepository extends JpaRepository<RelatorioEntity, Long>, PaginacaoPorId<RelatorioEntity> {
     
     // Buscar relatório por ID do chat
     Optional<RelatorioEntity> findByChatId(Long chatId);
@@ -22,4 +24,36 @@ public interface RelatorioRepository extends JpaRepository<RelatorioEntity, Long
 
     // Buscar relatórios por especialista
     java.util.List<RelatorioEntity> findByEspecialistaId(Long especialistaId);
+
+    /**
+     * Ids dos relatórios de cada especialista, para montar vários DTOs de uma vez.
+     */
+    @Query("SELECT r.especialista.id AS donoId, r.id AS id FROM RelatorioEntity r WHERE r.especialista.id IN :especialistaIds ORDER BY r.id")
+    List<IdPorDono> findIdsByEspecialistaIdIn(Collection<Long> especialistaIds);
+
+    /**
+     * Listagens de leitura: só as colunas do DTO, sem carregar o chat (e a conversa) nem o especialista.
+     */
+    @Query("SELECT r.id AS id, r.acuracia AS acuracia, r.analiseFono AS analiseFono, r.chat.id AS chatId " +
+            "FROM RelatorioEntity r WHERE r.chat.cliente.id = :clienteId ORDER BY r.id")
+    List<RelatorioResumo> findResumosByChatClienteId(Long clienteId);
+
+    // Especialista do chat, não o que assinou o relatório
+    @Query("SELECT r.id AS id, r.acuracia AS acuracia, r.analiseFono AS analiseFono, r.chat.id AS chatId " +
+            "FROM RelatorioEntity r WHERE r.chat.cliente.id = :clienteId AND r.chat.especialista.id = :especialistaId ORDER BY r.id")
+    List<RelatorioResumo> findResumosByChatClienteIdAndChatEspecialistaId(Long clienteId, Long especialistaId);
+
+    @Query("SELECT r.id AS id, r.acuracia AS acuracia, r.analiseFono AS analiseFono, r.chat.id AS chatId " +
+            "FROM RelatorioEntity r WHERE r.chat.cliente.id = :clienteId AND r.especialista.id = :especialistaId ORDER BY r.id")
+    List<RelatorioResumo> findResumosByChatClienteIdAndEspecialistaId(Long clienteId, Long especialistaId);
+
+    interface RelatorioResumo {
+        Long getId();
+
+        Float getAcuracia();
+
+        String getAnaliseFono();
+
+        Long getChatId();
+    }
 }
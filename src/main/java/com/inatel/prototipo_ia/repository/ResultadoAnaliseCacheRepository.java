@@ -0,0 +1,20 @@
+package com.inatel.prototipo_ia.repository;
+
+import com.inatel.prototipo_ia.entity.ResultadoAnaliseCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ResultadoAnaliseCacheRepository extends JpaRepository<ResultadoAnaliseCacheEntity, String> {
+
+    // Remove as entradas vencidas em uma única instrução
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ResultadoAnaliseCacheEntity r WHERE r.criadoEm < :limite")
+    int removerCriadosAntesDe(LocalDateTime limite);
+}
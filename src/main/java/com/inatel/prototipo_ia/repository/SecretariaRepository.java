@@ -7,7 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 import java.util.Optional;
 
-public interface SecretariaRepository extends JpaRepository<SecretariaEntity, Long> {
+public interface SecretariaRepository extends JpaRepository<SecretariaEntity, Long>, PaginacaoPorId<SecretariaEntity> {
     Optional<SecretariaEntity> findByEmail(String email);
 
     boolean existsByEmail(String email);
@@ -0,0 +1,14 @@
+package com.inatel.prototipo_ia.repository;
+
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity;
+
+import java.util.List;
+
+/**
+ * Inserção dos eventos de sessão em lote JDBC. Com id IDENTITY o Hibernate grava um INSERT por
+ * entidade, sem lote.
+ */
+public interface SessaoEventoLote {
+
+    void inserirEmLote(List<SessaoEventoEntity> eventos);
+}
@@ -0,0 +1,34 @@
+package com.inatel.prototipo_ia.repository;
+
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class SessaoEventoLoteImpl implements SessaoEventoLote {
+
+    private static final String INSERIR =
+            "INSERT INTO sessao_evento (sessao_id, criado_em, remetente, tipo, conteudo) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SessaoEventoLoteImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Usa a conexão da transação JPA em andamento, então entra no mesmo commit da sessão
+    @Override
+    public void inserirEmLote(List<SessaoEventoEntity> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERIR, eventos, eventos.size(), (ps, evento) -> {
+            ps.setLong(1, evento.getSessaoId());
+            ps.setTimestamp(2, Timestamp.valueOf(evento.getCriadoEm()));
+            ps.setString(3, evento.getRemetente());
+            ps.setString(4, evento.getTipo().name());
+            ps.setString(5, evento.getConteudo());
+        });
+    }
+}
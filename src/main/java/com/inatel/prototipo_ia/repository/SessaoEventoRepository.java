@@ -0,0 +1,15 @@
+package com.inatel.prototipo_ia.repository;
+
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SessaoEventoRepository extends JpaRepository<SessaoEventoEntity, Long>, SessaoEventoLote {
+
+    // Conversa de uma sessão em ordem de gravação, depois do cursor (ver Paginacao)
+    List<SessaoEventoEntity> findBySessaoIdAndIdGreaterThanOrderByIdAsc(Long sessaoId, Long cursor, Limit limite);
+}
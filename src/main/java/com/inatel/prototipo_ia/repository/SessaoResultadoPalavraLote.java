@@ -0,0 +1,13 @@
+package com.inatel.prototipo_ia.repository;
+
+import com.inatel.prototipo_ia.entity.SessaoResultadoPalavraEntity;
+
+import java.util.List;
+
+/**
+ * Inserção das palavras de um resultado em lote JDBC (ver {@link SessaoEventoLote}).
+ */
+public interface SessaoResultadoPalavraLote {
+
+    void inserirEmLote(List<SessaoResultadoPalavraEntity> palavras);
+}
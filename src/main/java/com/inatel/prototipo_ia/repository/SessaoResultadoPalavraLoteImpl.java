@@ -0,0 +1,38 @@
+package com.inatel.prototipo_ia.repository;
+
+import com.inatel.prototipo_ia.entity.SessaoResultadoPalavraEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+public class SessaoResultadoPalavraLoteImpl implements SessaoResultadoPalavraLote {
+
+    private static final String INSERIR = "INSERT INTO sessao_resultado_palavra " +
+            "(sessao_id, posicao, palavra_esperada, palavra_transcrita, acertou, similaridade, feedback, inicio_ms, fim_ms) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SessaoResultadoPalavraLoteImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void inserirEmLote(List<SessaoResultadoPalavraEntity> palavras) {
+        if (palavras.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERIR, palavras, palavras.size(), (ps, palavra) -> {
+            ps.setLong(1, palavra.getSessaoId());
+            ps.setInt(2, palavra.getPosicao());
+            ps.setString(3, palavra.getPalavraEsperada());
+            ps.setString(4, palavra.getPalavraTranscrita());
+            ps.setBoolean(5, palavra.getAcertou());
+            ps.setObject(6, palavra.getSimilaridade(), Types.DOUBLE);
+            ps.setString(7, palavra.getFeedback());
+            ps.setObject(8, palavra.getInicioMs(), Types.BIGINT);
+            ps.setObject(9, palavra.getFimMs(), Types.BIGINT);
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package com.inatel.prototipo_ia.repository;
+
+import com.inatel.prototipo_ia.entity.SessaoResultadoPalavraEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SessaoResultadoPalavraRepository extends JpaRepository<SessaoResultadoPalavraEntity, Long>, SessaoResultadoPalavraLote {
+
+    // Palavras de várias sessões de uma vez, para o histórico
+    List<SessaoResultadoPalavraEntity> findBySessaoIdInOrderBySessaoIdAscPosicaoAsc(Collection<Long> sessaoIds);
+
+    /**
+     * Palavras analisadas nas sessões de um cliente, paginadas por id (ver Paginacao).
+     * Filtros nulos não restringem; a palavra é comparada sem diferenciar maiúsculas e a
+     * similaridade está na escala de 0 a 100.
+     */
+    @Query("SELECT p.id AS id, p.sessaoId AS sessaoId, s.dataInicio AS dataInicio, p.posicao AS posicao, " +
+            "p.palavraEsperada AS palavraEsperada, p.palavraTranscrita AS palavraTranscrita, p.acertou AS acertou, " +
+            "p.similaridade AS similaridade, p.feedback AS feedback " +
+            "FROM SessaoResultadoPalavraEntity p JOIN SessaoTreinoEntity s ON s.id = p.sessaoId " +
+            "WHERE s.cliente.id = :clienteId AND p.id > :cursor " +
+            "AND (:palavra IS NULL OR LOWER(p.palavraEsperada) = LOWER(:palavra)) " +
+            "AND (:acertou IS NULL OR p.acertou = :acertou) " +
+            "AND (:similaridadeMaxima IS NULL OR p.similaridade <= :similaridadeMaxima) " +
+            "ORDER BY p.id")
+    List<PalavraAnalisada> findFiltradas(Long clienteId, String palavra, Boolean acertou, Double similaridadeMaxima,
+                                        Long cursor, Limit limite);
+
+    interface PalavraAnalisada {
+        Long getId();
+
+        Long getSessaoId();
+
+        LocalDateTime getDataInicio();
+
+        Integer getPosicao();
+
+        String getPalavraEsperada();
+
+        String getPalavraTranscrita();
+
+        Boolean getAcertou();
+
+        Double getSimilaridade();
+
+        String getFeedback();
+    }
+}
@@ -3,9 +3,12 @@ package com.inatel.prototipo_ia.repository;
 import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
 import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +36,67 @@ public interface SessaoTreinoRepository extends JpaRepository<SessaoTreinoEntity
 
     // Verificar se cliente tem sessão em andamento
     boolean existsByClienteIdAndStatusIn(Long clienteId, List<StatusSessao> statuses);
-}
\ No newline at end of file
+
+    // Troca o status só se a sessão ainda estiver no status esperado (retorna 0 se não estiver)
+    @Modifying
+    @Query("UPDATE SessaoTreinoEntity s SET s.status = :novo WHERE s.id = :sessaoId AND s.status = :atual")
+    int atualizarStatus(Long sessaoId, StatusSessao atual, StatusSessao novo);
+
+    @Modifying
+    @Query("UPDATE SessaoTreinoEntity s SET s.status = :novo WHERE s.status = :atual")
+    int atualizarStatusDeTodas(StatusSessao atual, StatusSessao novo);
+
+    /**
+     * Histórico do cliente sem cliente, especialista, chat, trava-língua e resultado: só o que o
+     * histórico mostra. Os detalhes por palavra vêm de sessao_resultado_palavra.
+     */
+    @Query("SELECT s.id AS id, s.dataInicio AS dataInicio, s.dataFim AS dataFim, s.pontuacaoGeral AS pontuacaoGeral, " +
+            "s.totalAcertos AS totalAcertos, s.totalPalavras AS totalPalavras, s.dificuldade AS dificuldade, " +
+            "s.status AS status, s.feedbackGeral AS feedbackGeral, " +
+            "CASE WHEN s.resultado IS NULL THEN false ELSE true END AS analisada " +
+            "FROM SessaoTreinoEntity s WHERE s.cliente.id = :clienteId ORDER BY s.id")
+    List<SessaoHistorico> findHistoricoByClienteId(Long clienteId);
+
+    // JSON do resultado, só para sessões antigas que ficaram sem palavras na migração
+    @Query("SELECT s.id AS id, s.resultado AS resultado FROM SessaoTreinoEntity s WHERE s.id IN :ids")
+    List<ResultadoJson> findResultadosByIdIn(Collection<Long> ids);
+
+    // Só data e pontuação, para o dashboard
+    @Query("SELECT s.dataInicio AS dataInicio, s.pontuacaoGeral AS pontuacaoGeral " +
+            "FROM SessaoTreinoEntity s WHERE s.cliente.id = :clienteId AND s.status = :status ORDER BY s.dataInicio")
+    List<PontuacaoSessao> findPontuacoesByClienteIdAndStatus(Long clienteId, StatusSessao status);
+
+    interface SessaoHistorico {
+        Long getId();
+
+        LocalDateTime getDataInicio();
+
+        LocalDateTime getDataFim();
+
+        Double getPontuacaoGeral();
+
+        Integer getTotalAcertos();
+
+        Integer getTotalPalavras();
+
+        String getDificuldade();
+
+        StatusSessao getStatus();
+
+        String getFeedbackGeral();
+
+        Boolean getAnalisada();
+    }
+
+    interface ResultadoJson {
+        Long getId();
+
+        String getResultado();
+    }
+
+    interface PontuacaoSessao {
+        LocalDateTime getDataInicio();
+
+        Double getPontuacaoGeral();
+    }
+}
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface TratamentoRepository extends JpaRepository<TratamentoEntity, Long> {
+public interface TratamentoRepository extends JpaRepository<TratamentoEntity, Long>, PaginacaoPorId<TratamentoEntity> {
 
     // Buscar tratamentos por profissional
     List<TratamentoEntity> findByProfissional(ProfissionalEntity profissional);
@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<UsuarioEntity, Long> {
+public interface UsuarioRepository extends JpaRepository<UsuarioEntity, Long>, PaginacaoPorId<UsuarioEntity> {
 
     // Buscar usuários por idade exata
     List<UsuarioEntity> findByIdade(Integer idade);
@@ -64,6 +64,7 @@ public class SecurityConfigurations {
                     req.requestMatchers("/api/pronunciation/**").permitAll();
                     req.requestMatchers("/relatorios/**").hasRole("ESPECIALISTA");
                     req.requestMatchers("/error").permitAll();
+                    req.requestMatchers("/actuator/health").permitAll();
                     req.requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll();
                     req.anyRequest().authenticated();
                 })
@@ -79,6 +80,8 @@ public class SecurityConfigurations {
         configuration.setAllowedOrigins(java.util.Arrays.asList(corsOrigins.split(",")));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // Cursor da próxima página nas listagens (ver RespostaPaginada)
+        configuration.setExposedHeaders(List.of("Link", "X-Next-Cursor"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
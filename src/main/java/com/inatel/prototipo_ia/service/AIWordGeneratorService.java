@@ -2,46 +2,138 @@ package com.inatel.prototipo_ia.service;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.inatel.prototipo_ia.repository.DetalheErroRepository;
+import com.inatel.prototipo_ia.repository.DetalheErroRepository.ErrosPorFonema;
+import com.inatel.prototipo_ia.upstream.ChamadaComHedge;
+import com.inatel.prototipo_ia.upstream.CotaGemini;
+import com.inatel.prototipo_ia.upstream.UpstreamHttpConfigurations;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.*;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class AIWordGeneratorService {
 
+    public static final String FAIXA_INFANTIL = "infantil (pré-escolar)";
+    public static final String FAIXA_JUVENIL = "juvenil (ensino fundamental)";
+    public static final String FAIXA_ADOLESCENTE = "adolescente";
+    public static final String FAIXA_ADULTO = "adulto";
+
+    private static final int MAX_TOKENS_SAIDA = 1024;
+
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
+    // Geração de texto é idempotente, mas cobrada por token: hedge desligado por padrão (0s)
+    @Value("${gemini.http.hedge-apos:0s}")
+    private Duration hedgeApos;
+
     private final OkHttpClient httpClient;
+    private final IndiceFonemasCorpus indiceCorpus;
+    private final DetalheErroRepository detalheErroRepository;
     private final Gson gson;
+    private final CotaGemini cota;
 
-    public AIWordGeneratorService() {
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .build();
+    // Pedidos iguais (dificuldade + faixa etária) dividem a mesma chamada e o mesmo lote
+    private final LotesCompartilhados lotes;
+    private final int tamanhoLote;
+
+    private final Counter pedidosGeracao;
+    private final Counter chamadasGeracao;
+
+    public AIWordGeneratorService(@Qualifier("geminiHttpClient") OkHttpClient httpClient,
+                                  IndiceFonemasCorpus indiceCorpus,
+                                  DetalheErroRepository detalheErroRepository,
+                                  MeterRegistry registry,
+                                  CotaGemini cota,
+                                  @Value("${travalingua.geracao.lote:4}") int tamanhoLote,
+                                  @Value("${travalingua.geracao.validade-sobras:2m}") Duration validadeSobras,
+                                  @Value("${travalingua.geracao.espera-maxima:60s}") Duration esperaMaxima) {
+        this.httpClient = httpClient;
+        this.indiceCorpus = indiceCorpus;
+        this.detalheErroRepository = detalheErroRepository;
         this.gson = new Gson();
+        this.cota = cota;
+        this.lotes = new LotesCompartilhados(validadeSobras, esperaMaxima);
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+
+        // pedidos / chamadas = quantos pedidos cada chamada ao Gemini atendeu
+        this.pedidosGeracao = Counter.builder("travalingua.geracao")
+                .description("Pedidos de trava-língua gerado e chamadas feitas ao Gemini para atendê-los")
+                .tag("tipo", "pedido")
+                .register(registry);
+        this.chamadasGeracao = Counter.builder("travalingua.geracao")
+                .description("Pedidos de trava-língua gerado e chamadas feitas ao Gemini para atendê-los")
+                .tag("tipo", "chamada")
+                .register(registry);
+    }
+
+    /**
+     * Escolhe um exercício do corpus cadastrado (conteudoteste), sem chamar a IA.
+     * Frases que também treinam os fonemas em que o paciente mais errou têm preferência.
+     * @param clienteId paciente, para consultar o histórico de erros (pode ser nulo)
+     * @param dificuldade fonema alvo (R, L, S, CH, LH...) ou GERAL
+     * @return a frase escolhida, ou vazio se o corpus não tiver nada para a dificuldade
+     */
+    public Optional<String> selecionarDoCorpus(Long clienteId, String dificuldade) {
+        return indiceCorpus.selecionar(dificuldade, pesosDeErro(clienteId));
+    }
+
+    /**
+     * Peso de 0 a 1 por fonema, proporcional à quantidade de erros do paciente nele
+     */
+    private Map<String, Double> pesosDeErro(Long clienteId) {
+        Map<String, Double> pesos = new HashMap<>();
+        if (clienteId == null) return pesos;
+
+        Map<String, Long> erros = new HashMap<>();
+        for (ErrosPorFonema linha : detalheErroRepository.contarErrosPorFonema(clienteId)) {
+            if (linha.getFonema() == null) continue;
+            String fonema = linha.getFonema().toUpperCase(Locale.ROOT).replaceAll("[^A-Z]", "");
+            if (IndiceFonemasCorpus.FONEMAS.contains(fonema)) {
+                erros.merge(fonema, linha.getErros(), Long::sum);
+            }
+        }
+        long maximo = erros.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        if (maximo > 0) {
+            erros.forEach((fonema, quantidade) -> pesos.put(fonema, (double) quantidade / maximo));
+        }
+        return pesos;
     }
 
     /**
      * Gera palavras personalizadas usando IA (Google Gemini)
+     *
+     * Pedidos simultâneos com a mesma dificuldade e faixa etária (ex.: uma turma inteira começando
+     * a sessão) compartilham uma única chamada, que pede vários trava-línguas de uma vez; cada
+     * pedido recebe um diferente e as sobras atendem os próximos por alguns minutos.
      * @param idade idade do usuário
      * @param dificuldade tipo de dificuldade (R, L, S, CH, LH)
-     * @param quantidade quantas palavras gerar
-     * @return lista de palavras geradas pela IA
+     * @param quantidade quantas palavras gerar (ignorada: sempre um trava-língua)
+     * @return lista com o trava-língua gerado pela IA
      */
     public List<String> gerarPalavrasComIA(int idade, String dificuldade, int quantidade) {
+        String dificuldadeConhecida = normalizarDificuldade(dificuldade);
+        String chave = dificuldadeConhecida + "|" + determinarFaixaEtaria(idade);
+        pedidosGeracao.increment();
         try {
-            String prompt = construirPromptTravaLingua(idade, dificuldade);
-            String response = chamarGeminiAPI(prompt);
-            return extrairTravaLingua(response);
+            String travaLingua = lotes.obter(chave, () -> gerarLote(idade, dificuldadeConhecida));
+            return travaLingua != null ? List.of(travaLingua) : new ArrayList<>();
 
         } catch (Exception e) {
             throw new RuntimeException("Erro ao gerar trava-língua com IA: " + e.getMessage(), e);
@@ -49,23 +141,54 @@ public class AIWordGeneratorService {
     }
 
     /**
-     * Constrói o prompt personalizado para a IA gerar um trava-língua
+     * Gera um lote inteiro de trava-línguas numa chamada, sem passar pelo compartilhamento dos
+     * pedidos ao vivo. Usado por quem guarda o lote todo (o pool de trava-línguas), para que as
+     * sobras não fiquem esperando um pedido igual até expirar.
+     * @param idade idade de referência da faixa etária
+     * @param dificuldade tipo de dificuldade (R, L, S, CH, LH)
+     * @return os trava-línguas do lote (pode vir vazio)
+     */
+    public List<String> gerarLoteComIA(int idade, String dificuldade) {
+        try {
+            return gerarLote(idade, normalizarDificuldade(dificuldade));
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao gerar trava-línguas com IA: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> gerarLote(int idade, String dificuldade) throws IOException {
+        chamadasGeracao.increment();
+        String prompt = construirPromptTravaLinguas(idade, dificuldade, tamanhoLote);
+        String response = chamarGeminiAPI(prompt);
+        return extrairTravaLinguas(response);
+    }
+
+    /**
+     * Dificuldade fora da lista vira GERAL (o prompt seria o mesmo), para não criar um lote por texto livre
      */
-    private String construirPromptTravaLingua(int idade, String dificuldade) {
+    private String normalizarDificuldade(String dificuldade) {
+        String maiuscula = dificuldade == null ? "GERAL" : dificuldade.trim().toUpperCase(Locale.ROOT);
+        return getDificuldadesDisponiveis().contains(maiuscula) ? maiuscula : "GERAL";
+    }
+
+    /**
+     * Constrói o prompt personalizado para a IA gerar {@code quantidade} trava-línguas diferentes
+     */
+    private String construirPromptTravaLinguas(int idade, String dificuldade, int quantidade) {
         if ("X".equalsIgnoreCase(dificuldade)) {
             return "Você é um roteirista de comédia e especialista em cultura pop brasileira. " +
-                   "Gere um trava-língua ENGRAÇADO e curto para exercício de pronúncia com o som de 'X'.\n\n" +
+                   "Gere " + quantidade + " trava-línguas ENGRAÇADOS, curtos e diferentes entre si para exercício de pronúncia com o som de 'X'.\n\n" +
                    "TEMA OBRIGATÓRIO:\n" +
-                   "O trava-língua DEVE ser sobre a XUXA e sua filha SASHA.\n\n" +
+                   "Os trava-línguas DEVEM ser sobre a XUXA e sua filha SASHA.\n\n" +
                    "REQUISITOS OBRIGATÓRIOS:\n" +
                    "1. Deve ser engraçado e usar o som do 'X' e 'CH' (que tem som de X) de forma criativa.\n" +
                    "2. Apropriado para todas as idades.\n" +
                    "3. O resultado deve ser diferente a cada vez que for gerado.\n\n" +
                    "FORMATO DA RESPOSTA:\n" +
-                   "Retorne APENAS um objeto JSON com uma única chave 'trava_lingua' contendo o texto, SEM nenhum texto adicional antes ou depois.\n" +
-                   "Formato: {\"trava_lingua\": \"A Xuxa achou o xale da Sasha roxo.\"}\n" +
+                   "Retorne APENAS um objeto JSON com uma única chave 'trava_linguas' contendo a lista de textos, SEM nenhum texto adicional antes ou depois.\n" +
+                   "Formato: {\"trava_linguas\": [\"A Xuxa achou o xale da Sasha roxo.\", \"...\"]}\n" +
                    "NÃO adicione explicações, comentários ou markdown.\n\n" +
-                   "Gere um trava-língua NOVO e DIFERENTE a cada vez sobre a Xuxa e a Sasha agora:";
+                   "Gere trava-línguas NOVOS e DIFERENTES a cada vez sobre a Xuxa e a Sasha agora:";
         }
 
         String faixaEtaria = determinarFaixaEtaria(idade);
@@ -73,22 +196,22 @@ public class AIWordGeneratorService {
 
         return String.format(
                 "Você é um fonoaudiólogo especialista em terapia da fala para falantes de português brasileiro. " +
-                "Gere um trava-língua para exercício de pronúncia.\n\n" +
+                "Gere %d trava-línguas diferentes entre si para exercício de pronúncia.\n\n" +
                 "PERFIL DO PACIENTE:\n" +
                 "- Idade: %d anos (%s)\n" +
                 "- Dificuldade: %s\n\n" +
                 "REQUISITOS OBRIGATÓRIOS:\n" +
-                "1. O trava-língua DEVE focar no som/fonema da dificuldade especificada.\n" +
-                "2. O trava-língua deve ser apropriado para a idade (vocabulário e tema que o paciente conhece).\n" +
-                "3. O trava-língua deve ser curto e fácil de memorizar.\n" +
+                "1. Cada trava-língua DEVE focar no som/fonema da dificuldade especificada.\n" +
+                "2. Cada trava-língua deve ser apropriado para a idade (vocabulário e tema que o paciente conhece).\n" +
+                "3. Cada trava-língua deve ser curto e fácil de memorizar.\n" +
                 "4. Use palavras do cotidiano brasileiro.\n" +
                 "5. Evitar temas muito complexos ou abstratos.\n\n" +
                 "FORMATO DA RESPOSTA:\n" +
-                "Retorne APENAS um objeto JSON com uma única chave 'trava_lingua' contendo o texto, SEM nenhum texto adicional antes ou depois.\n" +
-                "Formato: {\"trava_lingua\": \"O rato roeu a roupa do rei de Roma.\"}\n" +
+                "Retorne APENAS um objeto JSON com uma única chave 'trava_linguas' contendo a lista de textos, SEM nenhum texto adicional antes ou depois.\n" +
+                "Formato: {\"trava_linguas\": [\"O rato roeu a roupa do rei de Roma.\", \"...\"]}\n" +
                 "NÃO adicione explicações, comentários ou markdown.\n\n" +
-                "Gere um trava-língua agora:",
-                idade, faixaEtaria, descricaoDificuldade
+                "Gere os trava-línguas agora:",
+                quantidade, idade, faixaEtaria, descricaoDificuldade
         );
     }
 
@@ -116,7 +239,7 @@ public class AIWordGeneratorService {
         generationConfig.addProperty("temperature", 0.9);
         generationConfig.addProperty("topK", 40);
         generationConfig.addProperty("topP", 0.95);
-        generationConfig.addProperty("maxOutputTokens", 1024);
+        generationConfig.addProperty("maxOutputTokens", MAX_TOKENS_SAIDA);
         requestBody.add("generationConfig", generationConfig);
 
         RequestBody body = RequestBody.create(
@@ -126,13 +249,19 @@ public class AIWordGeneratorService {
 
         String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent?key=" + geminiApiKey;
 
+        // Geração não tem ninguém travado esperando na sessão: cede a cota para as análises.
+        // A saída é estimada pelo teto (maxOutputTokens) e corrigida pelo usageMetadata
+        CotaGemini.Pedido pedido = cota.pedido(CotaGemini.MODELO_PADRAO, CotaGemini.Prioridade.FUNDO,
+                CotaGemini.estimarTokensTexto(prompt) + MAX_TOKENS_SAIDA);
+
         Request request = new Request.Builder()
                 .url(url)
                 .addHeader("Content-Type", "application/json")
                 .post(body)
+                .tag(CotaGemini.Pedido.class, pedido)
                 .build();
 
-        try (Response response = httpClient.newCall(request).execute()) {
+        try (Response response = ChamadaComHedge.executar(httpClient, request, hedgeApos, UpstreamHttpConfigurations.GEMINI)) {
             if (!response.isSuccessful()) {
                 String errorBody = response.body() != null ? response.body().string() : "Sem detalhes";
                 throw new IOException("Erro na API Gemini: " + response.code() + " - " + errorBody);
@@ -140,6 +269,9 @@ public class AIWordGeneratorService {
 
             String jsonResponse = response.body().string();
             JsonObject json = JsonParser.parseString(jsonResponse).getAsJsonObject();
+            if (json.has("usageMetadata") && json.getAsJsonObject("usageMetadata").has("totalTokenCount")) {
+                pedido.registrarUso(json.getAsJsonObject("usageMetadata").get("totalTokenCount").getAsLong());
+            }
 
             // Extrair o texto da resposta do Gemini
             return json.getAsJsonArray("candidates")
@@ -152,9 +284,9 @@ public class AIWordGeneratorService {
     }
 
     /**
-     * Extrai as palavras da resposta da IA
+     * Extrai os trava-línguas da resposta da IA
      */
-    private List<String> extrairTravaLingua(String response) {
+    private List<String> extrairTravaLinguas(String response) {
         List<String> travaLinguaList = new ArrayList<>();
         try {
             // Limpar a resposta
@@ -176,7 +308,14 @@ public class AIWordGeneratorService {
 
             // Tentar parsear como JSON
             JsonObject jsonObject = JsonParser.parseString(response).getAsJsonObject();
-            if (jsonObject.has("trava_lingua")) {
+            if (jsonObject.has("trava_linguas") && jsonObject.get("trava_linguas").isJsonArray()) {
+                for (JsonElement item : jsonObject.getAsJsonArray("trava_linguas")) {
+                    String travaLingua = item.isJsonPrimitive() ? item.getAsString().trim() : "";
+                    if (!travaLingua.isEmpty() && !travaLinguaList.contains(travaLingua)) {
+                        travaLinguaList.add(travaLingua);
+                    }
+                }
+            } else if (jsonObject.has("trava_lingua")) {
                 String travaLingua = jsonObject.get("trava_lingua").getAsString();
                 if (!travaLingua.isEmpty()) {
                     travaLinguaList.add(travaLingua);
@@ -198,11 +337,34 @@ public class AIWordGeneratorService {
     /**
      * Determina faixa etária
      */
-    private String determinarFaixaEtaria(int idade) {
-        if (idade <= 6) return "infantil (pré-escolar)";
-        if (idade <= 12) return "juvenil (ensino fundamental)";
-        if (idade <= 17) return "adolescente";
-        return "adulto";
+    public static String determinarFaixaEtaria(int idade) {
+        if (idade <= 6) return FAIXA_INFANTIL;
+        if (idade <= 12) return FAIXA_JUVENIL;
+        if (idade <= 17) return FAIXA_ADOLESCENTE;
+        return FAIXA_ADULTO;
+    }
+
+    /**
+     * Faixas etárias possíveis, na ordem de idade
+     */
+    public static List<String> getFaixasEtarias() {
+        return List.of(FAIXA_INFANTIL, FAIXA_JUVENIL, FAIXA_ADOLESCENTE, FAIXA_ADULTO);
+    }
+
+    /**
+     * Idade usada para gerar conteúdo de uma faixa sem um paciente específico (ex.: pool de trava-línguas)
+     */
+    public static int idadeDeReferencia(String faixaEtaria) {
+        switch (faixaEtaria) {
+            case FAIXA_INFANTIL:
+                return 5;
+            case FAIXA_JUVENIL:
+                return 9;
+            case FAIXA_ADOLESCENTE:
+                return 15;
+            default:
+                return 25;
+        }
     }
 
     /**
@@ -0,0 +1,50 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.repository.IdPorDono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Monta as listas de ids filhos (consultas, chats...) de vários donos com uma consulta
+ * {@code IN} por relação, em vez de uma consulta por dono e por relação.
+ */
+final class AgrupadorIds {
+
+    // Abaixo do limite de parâmetros dos bancos e do tamanho razoável de um IN
+    static final int LOTE = 1000;
+
+    private AgrupadorIds() {
+    }
+
+    /**
+     * @param donoIds ids dos donos (sem repetição)
+     * @param consulta busca as projeções (id do dono, id do filho) de um lote de donos
+     * @return ids dos filhos por dono (listas imutáveis), na ordem da consulta; dono sem filhos
+     *         fica fora do mapa
+     */
+    static Map<Long, List<Long>> agrupar(List<Long> donoIds, Function<List<Long>, List<IdPorDono>> consulta) {
+        Map<Long, List<Long>> porDono = new HashMap<>();
+        for (int inicio = 0; inicio < donoIds.size(); inicio += LOTE) {
+            List<Long> lote = donoIds.subList(inicio, Math.min(donoIds.size(), inicio + LOTE));
+            for (IdPorDono linha : consulta.apply(lote)) {
+                porDono.computeIfAbsent(linha.getDonoId(), k -> new ArrayList<>()).add(linha.getId());
+            }
+        }
+        // Mesmo contrato da lista vazia de de(): quem recebe o DTO não altera as listas
+        porDono.replaceAll((dono, ids) -> Collections.unmodifiableList(ids));
+        return porDono;
+    }
+
+    /**
+     * Ids dos filhos do dono, sempre numa lista imutável. Dono sem filhos recebe a mesma lista
+     * vazia de todos, sem uma alocação por linha da listagem.
+     */
+    static List<Long> de(Map<Long, List<Long>> porDono, Long donoId) {
+        return porDono.getOrDefault(donoId, List.of());
+    }
+}
@@ -0,0 +1,122 @@
+package com.inatel.prototipo_ia.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Alinhamento ótimo (estilo Needleman–Wunsch) entre a sequência de palavras esperadas
+ * e a sequência de palavras transcritas.
+ *
+ * Recebe a matriz de similaridades já calculada (linha = palavra esperada, coluna = palavra
+ * transcrita, valores de 0 a {@link #PONTUACAO_MAXIMA}) e devolve, para cada palavra esperada,
+ * o índice da palavra transcrita pareada. O alinhamento respeita a ordem da frase, então uma
+ * palavra repetida no trava-língua é pareada com a ocorrência correta na fala.
+ *
+ * As matrizes de pontuação e de retorno ficam em buffers primitivos reaproveitados por thread.
+ */
+@Component
+public class AlinhadorPalavras {
+
+    public static final int PONTUACAO_MAXIMA = 1000;
+    public static final int SEM_PAR = -1;
+
+    private static final byte DIAGONAL = 0;
+    private static final byte PULA_ESPERADA = 1;
+    private static final byte PULA_TRANSCRITA = 2;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * @param similaridades matriz linearizada (esperadas x transcritas) com valores de 0 a 1000
+     * @param esperadas     quantidade de palavras esperadas (linhas)
+     * @param transcritas   quantidade de palavras transcritas (colunas)
+     * @param minimo        similaridade mínima para que o par possa ser usado no alinhamento
+     * @return vetor com o índice da transcrita pareada para cada esperada, ou {@link #SEM_PAR}
+     */
+    public int[] alinhar(int[] similaridades, int esperadas, int transcritas, int minimo) {
+        int[] pares = new int[esperadas];
+        Arrays.fill(pares, SEM_PAR);
+        if (esperadas == 0 || transcritas == 0) {
+            return pares;
+        }
+
+        int colunas = transcritas + 1;
+        Buffers buffers = BUFFERS.get();
+        int[] pontuacao = buffers.pontuacao((esperadas + 1) * colunas);
+        byte[] caminho = buffers.caminho((esperadas + 1) * colunas);
+
+        // Lacunas não custam nada: maximizamos a soma das similaridades dos pares escolhidos
+        for (int j = 0; j <= transcritas; j++) {
+            pontuacao[j] = 0;
+            caminho[j] = PULA_TRANSCRITA;
+        }
+
+        for (int i = 1; i <= esperadas; i++) {
+            int linha = i * colunas;
+            int linhaAnterior = linha - colunas;
+            int linhaSimilaridade = (i - 1) * transcritas;
+            pontuacao[linha] = 0;
+            caminho[linha] = PULA_ESPERADA;
+
+            for (int j = 1; j <= transcritas; j++) {
+                int melhor = pontuacao[linhaAnterior + j];
+                byte direcao = PULA_ESPERADA;
+
+                int esquerda = pontuacao[linha + j - 1];
+                if (esquerda > melhor) {
+                    melhor = esquerda;
+                    direcao = PULA_TRANSCRITA;
+                }
+
+                int similaridade = similaridades[linhaSimilaridade + j - 1];
+                if (similaridade >= minimo) {
+                    int diagonal = pontuacao[linhaAnterior + j - 1] + similaridade;
+                    // Em caso de empate preferimos parear a deixar lacunas
+                    if (diagonal >= melhor) {
+                        melhor = diagonal;
+                        direcao = DIAGONAL;
+                    }
+                }
+
+                pontuacao[linha + j] = melhor;
+                caminho[linha + j] = direcao;
+            }
+        }
+
+        int i = esperadas;
+        int j = transcritas;
+        while (i > 0 && j > 0) {
+            byte direcao = caminho[i * colunas + j];
+            if (direcao == DIAGONAL) {
+                pares[i - 1] = j - 1;
+                i--;
+                j--;
+            } else if (direcao == PULA_ESPERADA) {
+                i--;
+            } else {
+                j--;
+            }
+        }
+        return pares;
+    }
+
+    private static final class Buffers {
+        private int[] pontuacao = new int[0];
+        private byte[] caminho = new byte[0];
+
+        int[] pontuacao(int tamanho) {
+            if (pontuacao.length < tamanho) {
+                pontuacao = new int[tamanho];
+            }
+            return pontuacao;
+        }
+
+        byte[] caminho(int tamanho) {
+            if (caminho.length < tamanho) {
+                caminho = new byte[tamanho];
+            }
+            return caminho;
+        }
+    }
+}
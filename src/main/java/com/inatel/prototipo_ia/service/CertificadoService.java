@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.CertificadoDtoIn;
 import com.inatel.prototipo_ia.dto.out.CertificadoDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.CertificadoEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.repository.CertificadoRepository;
@@ -59,6 +60,11 @@ public class CertificadoService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<CertificadoDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, certificadoRepository, CertificadoEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     /**
      * Busca um certificado pelo seu ID e retorna DTO de saída.
      */
@@ -2,10 +2,12 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.ChatDtoIn;
 import com.inatel.prototipo_ia.dto.out.ChatDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.ChatEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ChatRepository;
+import com.inatel.prototipo_ia.repository.ChatRepository.ChatResumo;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -77,16 +79,23 @@ public class ChatService {
         return chatRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<ChatDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, chatRepository, ChatEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     public Optional<ChatDtoOut> buscarPorId(Long id) {
         return chatRepository.findById(id).map(this::toDto);
     }
 
+    @Transactional(readOnly = true)
     public List<ChatDtoOut> buscarPorClienteId(Long clienteId) {
-        return chatRepository.findByClienteId(clienteId).stream().map(this::toDto).collect(Collectors.toList());
+        return chatRepository.findResumosByClienteId(clienteId).stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<ChatDtoOut> buscarPorEspecialistaId(Long especialistaId) {
-        return chatRepository.findByEspecialistaId(especialistaId)
+        return chatRepository.findResumosByEspecialistaId(especialistaId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -123,6 +132,17 @@ public class ChatService {
         return dto;
     }
 
+    private ChatDtoOut toDto(ChatResumo resumo) {
+        ChatDtoOut dto = new ChatDtoOut();
+        dto.setId(resumo.getId());
+        dto.setDuracao(resumo.getDuracao());
+        dto.setConversa(resumo.getConversa());
+        dto.setClienteId(resumo.getClienteId());
+        dto.setProfissionalId(resumo.getEspecialistaId());
+        dto.setRelatorioId(resumo.getRelatorioId());
+        return dto;
+    }
+
     private void validarChatDto(ChatDtoIn chat) {
         if (chat == null) throw new IllegalArgumentException("chat nulo");
         if (chat.getClienteId() == null) throw new IllegalArgumentException("cliente obrigatório");
@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.ClienteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ClienteDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
@@ -10,7 +11,9 @@ import org.springframework.security.crypto.password.PasswordEncoder; // IMPORTAN
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -68,7 +71,12 @@ public class ClienteService {
     }
 
     public List<ClienteDtoOut> buscarTodos() {
-        return clienteRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+        return toDtos(clienteRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<ClienteDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, clienteRepository, ClienteEntity::getId, this::toDtos);
     }
 
     public Optional<ClienteDtoOut> buscarPorId(Long id) {
@@ -98,30 +106,47 @@ public class ClienteService {
     }
 
     public List<ClienteDtoOut> buscarMaioresDeIdade() {
-        return clienteRepository.findClientesMaioresDeIdade().stream().map(this::toDto).collect(Collectors.toList());
+        return toDtos(clienteRepository.findClientesMaioresDeIdade());
     }
 
     public List<ClienteDtoOut> buscarPorNivel(String nivel) {
         if (nivel == null || nivel.isBlank()) {
             throw new IllegalArgumentException("O nível não pode ser vazio.");
         }
-        return clienteRepository.findByNivel(nivel).stream().map(this::toDto).collect(Collectors.toList());
+        return toDtos(clienteRepository.findByNivel(nivel));
     }
 
     private ClienteDtoOut toDto(ClienteEntity cliente) {
-        List<Long> chatIds = chatRepository.findByClienteId(cliente.getId()).stream().map(c -> c.getId()).collect(Collectors.toList());
-        List<Long> consultaIds = consultaRepository.findByClienteId(cliente.getId()).stream().map(c -> c.getId()).collect(Collectors.toList());
-        List<Long> certificadoIds = certificadoRepository.findByClienteId(cliente.getId()).stream().map(c -> c.getId()).collect(Collectors.toList());
-        ClienteDtoOut dto = new ClienteDtoOut();
-        dto.setId(cliente.getId());
-        dto.setNome(cliente.getNome());
-        dto.setIdade(cliente.getIdade());
-        dto.setEndereco(cliente.getEndereco());
-        dto.setNivel(cliente.getNivel());
-        dto.setChatIds(chatIds);
-        dto.setConsultaIds(consultaIds);
-        dto.setCertificadoIds(certificadoIds);
-        return dto;
+        return toDtos(List.of(cliente)).get(0);
+    }
+
+    /**
+     * Monta os DTOs com uma consulta de ids por relação para todos os clientes juntos
+     * (3 consultas no total, e não 3 por cliente).
+     */
+    private List<ClienteDtoOut> toDtos(List<ClienteEntity> clientes) {
+        if (clientes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = clientes.stream().map(ClienteEntity::getId).distinct().collect(Collectors.toList());
+        Map<Long, List<Long>> chats = AgrupadorIds.agrupar(ids, chatRepository::findIdsByClienteIdIn);
+        Map<Long, List<Long>> consultas = AgrupadorIds.agrupar(ids, consultaRepository::findIdsByClienteIdIn);
+        Map<Long, List<Long>> certificados = AgrupadorIds.agrupar(ids, certificadoRepository::findIdsByClienteIdIn);
+
+        List<ClienteDtoOut> dtos = new ArrayList<>(clientes.size());
+        for (ClienteEntity cliente : clientes) {
+            ClienteDtoOut dto = new ClienteDtoOut();
+            dto.setId(cliente.getId());
+            dto.setNome(cliente.getNome());
+            dto.setIdade(cliente.getIdade());
+            dto.setEndereco(cliente.getEndereco());
+            dto.setNivel(cliente.getNivel());
+            dto.setChatIds(AgrupadorIds.de(chats, cliente.getId()));
+            dto.setConsultaIds(AgrupadorIds.de(consultas, cliente.getId()));
+            dto.setCertificadoIds(AgrupadorIds.de(certificados, cliente.getId()));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
     private void aplicarDtoNoEntity(ClienteEntity destino, ClienteDtoIn fonte) {
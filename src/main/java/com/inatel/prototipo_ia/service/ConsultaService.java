@@ -2,11 +2,13 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.ConsultaDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.ConsultaEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.ConsultaRepository.ConsultaResumo;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
@@ -74,6 +76,11 @@ public class ConsultaService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<ConsultaDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, consultaRepository, ConsultaEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     /**
      * Busca uma consulta pelo seu ID e retorna DTO de saída.
      */
@@ -84,8 +91,9 @@ public class ConsultaService {
     /**
      * Busca consultas de um cliente específico.
      */
+    @Transactional(readOnly = true)
     public List<ConsultaDtoOut> buscarPorClienteId(Long clienteId) {
-        return consultaRepository.findByClienteId(clienteId)
+        return consultaRepository.findResumosByClienteId(clienteId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -94,8 +102,9 @@ public class ConsultaService {
     /**
      * Busca consultas de um especialista específico.
      */
+    @Transactional(readOnly = true)
     public List<ConsultaDtoOut> buscarPorEspecialistaId(Long especialistaId) {
-        return consultaRepository.findByEspecialistaId(especialistaId)
+        return consultaRepository.findResumosByEspecialistaId(especialistaId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -104,11 +113,12 @@ public class ConsultaService {
     /**
      * Busca consultas por data.
      */
+    @Transactional(readOnly = true)
     public List<ConsultaDtoOut> buscarPorData(LocalDate data) {
         if (data == null) {
             throw new IllegalArgumentException("A data não pode ser nula.");
         }
-        return consultaRepository.findByData(data)
+        return consultaRepository.findResumosByData(data)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -117,11 +127,12 @@ public class ConsultaService {
     /**
      * Busca consultas por status.
      */
+    @Transactional(readOnly = true)
     public List<ConsultaDtoOut> buscarPorStatus(String status) {
         if (status == null || status.isBlank()) {
             throw new IllegalArgumentException("O status não pode ser vazio.");
         }
-        return consultaRepository.findByStatus(status)
+        return consultaRepository.findResumosByStatus(status)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -171,6 +182,21 @@ public class ConsultaService {
         return dto;
     }
 
+    /**
+     * Conversor de projeção de leitura -> DTO Out.
+     */
+    private ConsultaDtoOut toDto(ConsultaResumo resumo) {
+        ConsultaDtoOut dto = new ConsultaDtoOut();
+        dto.setId(resumo.getId());
+        dto.setData(resumo.getData());
+        dto.setHora(resumo.getHora());
+        dto.setTipo(resumo.getTipo());
+        dto.setStatus(resumo.getStatus());
+        dto.setClienteId(resumo.getClienteId());
+        dto.setEspecialistaId(resumo.getEspecialistaId());
+        return dto;
+    }
+
     /**
      * Aplica os campos do DTO In na entidade (create/update).
      * Não altera cliente e especialista no update.
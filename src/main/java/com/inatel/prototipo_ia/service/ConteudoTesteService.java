@@ -2,9 +2,13 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.ConteudoTesteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConteudoTesteDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
+import com.inatel.prototipo_ia.eventos.ConteudoTesteAlteradoEvent;
+import com.inatel.prototipo_ia.eventos.ConteudoTesteAlteradoEvent.TipoAlteracao;
 import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,9 +21,12 @@ import java.util.stream.Collectors;
 public class ConteudoTesteService {
 
     private final ConteudoTesteRepository conteudoTesteRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ConteudoTesteService(ConteudoTesteRepository conteudoTesteRepository) {
+    public ConteudoTesteService(ConteudoTesteRepository conteudoTesteRepository,
+                                ApplicationEventPublisher eventPublisher) {
         this.conteudoTesteRepository = conteudoTesteRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -32,6 +39,7 @@ public class ConteudoTesteService {
         aplicarDtoNoEntity(entity, conteudoDto);
 
         ConteudoTesteEntity salvo = conteudoTesteRepository.save(entity);
+        publicarAlteracao(TipoAlteracao.CRIADO, salvo);
         return toDto(salvo);
     }
 
@@ -45,6 +53,11 @@ public class ConteudoTesteService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<ConteudoTesteDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, conteudoTesteRepository, ConteudoTesteEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     /**
      * Busca um conteúdo de teste pelo seu ID e retorna DTO de saída.
      */
@@ -109,6 +122,7 @@ public class ConteudoTesteService {
         aplicarDtoNoEntity(existente, conteudoDto);
 
         ConteudoTesteEntity atualizado = conteudoTesteRepository.save(existente);
+        publicarAlteracao(TipoAlteracao.ATUALIZADO, atualizado);
         return toDto(atualizado);
     }
 
@@ -120,6 +134,15 @@ public class ConteudoTesteService {
             throw new EntityNotFoundException("Conteúdo de teste não encontrado com o ID: " + id);
         }
         conteudoTesteRepository.deleteById(id);
+        eventPublisher.publishEvent(ConteudoTesteAlteradoEvent.removido(id));
+    }
+
+    /**
+     * Avisa o índice de fonemas do corpus (entregue só depois do commit da transação).
+     */
+    private void publicarAlteracao(TipoAlteracao tipo, ConteudoTesteEntity entity) {
+        eventPublisher.publishEvent(new ConteudoTesteAlteradoEvent(tipo, entity.getId(), entity.getTextoFrase(),
+                entity.getFonemasChave(), entity.getIdioma(), entity.getFaixaEtaria()));
     }
 
     /**
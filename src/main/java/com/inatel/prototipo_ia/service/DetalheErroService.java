@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.DetalheErroDtoIn;
 import com.inatel.prototipo_ia.dto.out.DetalheErroDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.DetalheErroEntity;
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
 import com.inatel.prototipo_ia.repository.DetalheErroRepository;
@@ -59,6 +60,11 @@ public class DetalheErroService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<DetalheErroDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, detalheErroRepository, DetalheErroEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     /**
      * Busca um detalhe de erro pelo seu ID e retorna DTO de saída.
      */
@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.DisponibilidadeDtoIn;
 import com.inatel.prototipo_ia.dto.out.DisponibilidadeDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
@@ -60,6 +61,11 @@ public class DisponibilidadeService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<DisponibilidadeDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, disponibilidadeRepository, DisponibilidadeEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     /**
      * Busca uma disponibilidade pelo seu ID e retorna DTO de saída.
      */
@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.EspecialistaDtoIn;
 import com.inatel.prototipo_ia.dto.out.EspecialistaDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
 import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
@@ -13,7 +14,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -68,10 +71,12 @@ public class EspecialistaService {
     }
 
     public List<EspecialistaDtoOut> buscarTodos() {
-        return especialistaRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return toDtos(especialistaRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<EspecialistaDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, especialistaRepository, EspecialistaEntity::getId, this::toDtos);
     }
 
     public Optional<EspecialistaDtoOut> buscarPorId(Long id) {
@@ -82,10 +87,7 @@ public class EspecialistaService {
         if (especialidade == null || especialidade.isBlank()) {
             throw new IllegalArgumentException("A especialidade não pode ser vazia.");
         }
-        return especialistaRepository.findByEspecialidade(especialidade)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return toDtos(especialistaRepository.findByEspecialidade(especialidade));
     }
 
     public Optional<EspecialistaDtoOut> buscarPorCrmFono(String crmFono) {
@@ -96,10 +98,7 @@ public class EspecialistaService {
     }
 
     public List<EspecialistaDtoOut> buscarMaioresDeIdade() {
-        return especialistaRepository.findEspecialistasMaioresDeIdade()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return toDtos(especialistaRepository.findEspecialistasMaioresDeIdade());
     }
 
     public EspecialistaDtoOut atualizar(Long id, EspecialistaDtoIn especialistaDto) {
@@ -133,18 +132,39 @@ public class EspecialistaService {
     }
 
     private EspecialistaDtoOut toDto(EspecialistaEntity entity) {
-        EspecialistaDtoOut dto = new EspecialistaDtoOut();
-        dto.setId(entity.getId());
-        dto.setNome(entity.getNome());
-        dto.setIdade(entity.getIdade());
-        dto.setEndereco(entity.getEndereco());
-        dto.setCrmFono(entity.getCrmFono());
-        dto.setEspecialidade(entity.getEspecialidade());
-        dto.setConsultaIds(consultaRepository.findByEspecialistaId(entity.getId()).stream().map(c -> c.getId()).collect(java.util.stream.Collectors.toList()));
-        dto.setDisponibilidadeIds(disponibilidadeRepository.findByEspecialistaId(entity.getId()).stream().map(d -> d.getId()).collect(java.util.stream.Collectors.toList()));
-        dto.setChatIds(chatRepository.findByEspecialistaId(entity.getId()).stream().map(ch -> ch.getId()).collect(java.util.stream.Collectors.toList()));
-        dto.setRelatorioIds(relatorioRepository.findByEspecialistaId(entity.getId()).stream().map(r -> r.getId()).collect(java.util.stream.Collectors.toList()));
-        return dto;
+        return toDtos(List.of(entity)).get(0);
+    }
+
+    /**
+     * Monta os DTOs com uma consulta de ids por relação para todos os especialistas juntos
+     * (4 consultas no total, e não 4 por especialista).
+     */
+    private List<EspecialistaDtoOut> toDtos(List<EspecialistaEntity> entities) {
+        if (entities.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = entities.stream().map(EspecialistaEntity::getId).distinct().collect(Collectors.toList());
+        Map<Long, List<Long>> consultas = AgrupadorIds.agrupar(ids, consultaRepository::findIdsByEspecialistaIdIn);
+        Map<Long, List<Long>> disponibilidades = AgrupadorIds.agrupar(ids, disponibilidadeRepository::findIdsByEspecialistaIdIn);
+        Map<Long, List<Long>> chats = AgrupadorIds.agrupar(ids, chatRepository::findIdsByEspecialistaIdIn);
+        Map<Long, List<Long>> relatorios = AgrupadorIds.agrupar(ids, relatorioRepository::findIdsByEspecialistaIdIn);
+
+        List<EspecialistaDtoOut> dtos = new ArrayList<>(entities.size());
+        for (EspecialistaEntity entity : entities) {
+            EspecialistaDtoOut dto = new EspecialistaDtoOut();
+            dto.setId(entity.getId());
+            dto.setNome(entity.getNome());
+            dto.setIdade(entity.getIdade());
+            dto.setEndereco(entity.getEndereco());
+            dto.setCrmFono(entity.getCrmFono());
+            dto.setEspecialidade(entity.getEspecialidade());
+            dto.setConsultaIds(AgrupadorIds.de(consultas, entity.getId()));
+            dto.setDisponibilidadeIds(AgrupadorIds.de(disponibilidades, entity.getId()));
+            dto.setChatIds(AgrupadorIds.de(chats, entity.getId()));
+            dto.setRelatorioIds(AgrupadorIds.de(relatorios, entity.getId()));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
     private void aplicarDtoNoEntity(EspecialistaEntity destino, EspecialistaDtoIn fonte) {
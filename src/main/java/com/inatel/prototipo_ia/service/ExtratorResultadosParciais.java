@@ -0,0 +1,102 @@
+package com.inatel.prototipo_ia.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acompanha o JSON da análise enquanto o Gemini ainda o está gerando (streamGenerateContent)
+ * e devolve cada item de {@code resultados} assim que o objeto dele fecha.
+ *
+ * Os fragmentos chegam cortados em qualquer ponto (inclusive no meio de strings), então o
+ * estado da varredura (pilha de aninhamento, dentro de string, escape) é mantido entre
+ * chamadas e cada caractere é visto uma única vez. Texto antes do primeiro '{' (cercas de
+ * markdown) é ignorado.
+ */
+class ExtratorResultadosParciais {
+
+    private static final String CAMPO_RESULTADOS = "resultados";
+
+    private final StringBuilder texto = new StringBuilder();
+    private final StringBuilder pilha = new StringBuilder();
+    private final StringBuilder stringAtual = new StringBuilder();
+
+    private int posicao;
+    private boolean emString;
+    private boolean escape;
+    private String ultimaStringNoTopo;
+    // Profundidade do array "resultados" na pilha (-1 enquanto não aberto)
+    private int nivelResultados = -1;
+    private int inicioItem = -1;
+
+    /**
+     * @return os itens de {@code resultados} que terminaram neste fragmento, em JSON
+     */
+    List<String> adicionar(String fragmento) {
+        texto.append(fragmento);
+        List<String> completos = new ArrayList<>();
+
+        for (; posicao < texto.length(); posicao++) {
+            char c = texto.charAt(posicao);
+
+            if (emString) {
+                if (escape) {
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '"') {
+                    emString = false;
+                    if (pilha.length() == 1) {
+                        ultimaStringNoTopo = stringAtual.toString();
+                    }
+                } else if (pilha.length() == 1) {
+                    stringAtual.append(c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"':
+                    if (pilha.length() > 0) {
+                        emString = true;
+                        stringAtual.setLength(0);
+                    }
+                    break;
+                case '{':
+                    if (pilha.length() == nivelResultados) {
+                        inicioItem = posicao;
+                    }
+                    pilha.append(c);
+                    break;
+                case '[':
+                    if (pilha.length() == 1 && CAMPO_RESULTADOS.equals(ultimaStringNoTopo)) {
+                        nivelResultados = 2;
+                    }
+                    if (pilha.length() > 0) {
+                        pilha.append(c);
+                    }
+                    break;
+                case '}':
+                case ']':
+                    if (pilha.length() == 0) break;
+                    pilha.setLength(pilha.length() - 1);
+                    if (c == '}' && pilha.length() == nivelResultados && inicioItem >= 0) {
+                        completos.add(texto.substring(inicioItem, posicao + 1));
+                        inicioItem = -1;
+                    } else if (c == ']' && pilha.length() == nivelResultados - 1) {
+                        nivelResultados = -1;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return completos;
+    }
+
+    /**
+     * Tudo o que o modelo gerou até agora.
+     */
+    String getTextoCompleto() {
+        return texto.toString();
+    }
+}
@@ -2,42 +2,111 @@ package com.inatel.prototipo_ia.service;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.inatel.prototipo_ia.analise.MotorAnalisePronuncia;
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.audio.CorpoJsonComAudio;
 import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+import com.inatel.prototipo_ia.upstream.CotaGemini;
+import com.inatel.prototipo_ia.upstream.LeitorJsonStreaming;
 import okhttp3.*;
+import okio.BufferedSource;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.stream.Collectors;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
-public class GeminiAudioAnalysisService {
+public class GeminiAudioAnalysisService implements MotorAnalisePronuncia {
+
+    private static final String URL_MODELO = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash";
+
+    private static final Object[] CAMINHO_TEXTO = {"candidates", 0, "content", "parts", 0, "text"};
+    private static final Object[] CAMINHO_TOKENS = {"usageMetadata", "totalTokenCount"};
+
+    // Saída estimada por palavra avaliada (objeto JSON com transcrição, nota e dica)
+    private static final long TOKENS_POR_PALAVRA = 60;
 
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
+    @Value("${gemini.streaming.habilitado:true}")
+    private boolean streamingHabilitado;
+
+    @Value("${gemini.analise.custo-relativo:3.0}")
+    private double custoRelativo;
+
     private final OkHttpClient httpClient;
+    private final NormalizadorFonetico normalizador;
+    private final CotaGemini cota;
 
-    public GeminiAudioAnalysisService() {
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(60, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
-                .build();
+    public GeminiAudioAnalysisService(@Qualifier("geminiHttpClient") OkHttpClient httpClient,
+                                      NormalizadorFonetico normalizador,
+                                      CotaGemini cota) {
+        this.httpClient = httpClient;
+        this.normalizador = normalizador;
+        this.cota = cota;
+    }
+
+    @Override
+    public MotorAnalise getMotor() {
+        return MotorAnalise.GEMINI;
+    }
+
+    @Override
+    public double getCustoRelativo() {
+        return custoRelativo;
+    }
+
+    @Override
+    public BatchPronunciationAnalysisDTO analisar(AudioArquivo audio, List<String> palavrasEsperadas,
+                                                  Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliarPalavra) {
+        return analisarPronunciaEmLote(audio, palavrasEsperadas, aoAvaliarPalavra);
+    }
+
+    public BatchPronunciationAnalysisDTO analisarPronunciaEmLote(AudioArquivo audio, List<String> palavrasEsperadas) {
+        return analisarPronunciaEmLote(audio, palavrasEsperadas, null);
     }
 
-    public BatchPronunciationAnalysisDTO analisarPronunciaEmLote(byte[] audioBytes, List<String> palavrasEsperadas) {
+    /**
+     * Igual à análise em lote, mas com o streamGenerateContent: cada palavra avaliada é
+     * entregue a {@code aoAvaliarPalavra} assim que o modelo termina de gerá-la, antes do
+     * resultado completo. O retorno continua sendo a análise inteira.
+     *
+     * @param aoAvaliarPalavra recebe as palavras na ordem em que chegam (nulo = sem parciais)
+     */
+    public BatchPronunciationAnalysisDTO analisarPronunciaEmLote(AudioArquivo audio, List<String> palavrasEsperadas,
+                                                                 Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliarPalavra) {
         System.out.println(">>> TENTATIVA NA API DE PRODUÇÃO (v1) <<<");
-        System.out.println("Tamanho do áudio: " + audioBytes.length + " bytes");
+        System.out.println("Tamanho do áudio: " + audio.getTamanho() + " bytes");
         
         try {
-            String audioBase64 = Base64.getEncoder().encodeToString(audioBytes);
+            // Mesma limpeza da sessão de treino: só letras, sem pontuação vinda da lista
+            List<String> palavrasLimpas = normalizador.extrairPalavras(String.join(" ", palavrasEsperadas));
+            if (!palavrasLimpas.isEmpty()) {
+                palavrasEsperadas = palavrasLimpas;
+            }
+
             String prompt = construirPromptBatch(palavrasEsperadas);
-            String respostaGemini = chamarGeminiComAudio(prompt, audioBase64);
+
+            // Análise da sessão tem a criança esperando: passa na frente da geração de trava-línguas
+            long tokensEstimados = CotaGemini.estimarTokensTexto(prompt)
+                    + CotaGemini.estimarTokensAudio(audio.getTamanho())
+                    + TOKENS_POR_PALAVRA * palavrasEsperadas.size();
+            CotaGemini.Pedido pedido = cota.pedido(CotaGemini.MODELO_PADRAO,
+                    CotaGemini.Prioridade.INTERATIVA, tokensEstimados);
+
+            String respostaGemini = aoAvaliarPalavra != null && streamingHabilitado
+                    ? chamarGeminiComAudioStreaming(prompt, audio, pedido, aoAvaliarPalavra)
+                    : chamarGeminiComAudio(prompt, audio, pedido);
 
             return parsearRespostaBatch(respostaGemini, palavrasEsperadas);
 
@@ -47,7 +116,7 @@ public class GeminiAudioAnalysisService {
         }
     }
 
-    private String chamarGeminiComAudio(String prompt, String audioBase64) throws IOException {
+    private Request montarRequisicao(String prompt, AudioArquivo audio, CotaGemini.Pedido pedido, boolean streaming) {
         JsonObject requestBody = new JsonObject();
         JsonArray contents = new JsonArray();
         JsonObject content = new JsonObject();
@@ -59,8 +128,10 @@ public class GeminiAudioAnalysisService {
 
         JsonObject audioPart = new JsonObject();
         JsonObject inlineData = new JsonObject();
-        inlineData.addProperty("mime_type", "audio/mp3");
-        inlineData.addProperty("data", audioBase64);
+        // WAV quando o pré-processamento gerou um; sem tipo conhecido segue o padrão de antes
+        inlineData.addProperty("mime_type", audio.tipoMime("audio/mp3"));
+        // O Base64 do áudio é escrito direto no socket pelo CorpoJsonComAudio
+        inlineData.addProperty("data", CorpoJsonComAudio.MARCADOR_AUDIO);
         audioPart.add("inline_data", inlineData);
         parts.add(audioPart);
 
@@ -72,21 +143,25 @@ public class GeminiAudioAnalysisService {
         generationConfig.addProperty("temperature", 0.4);
         requestBody.add("generationConfig", generationConfig);
 
-        RequestBody body = RequestBody.create(
-                requestBody.toString(),
-                MediaType.parse("application/json")
-        );
+        RequestBody body = new CorpoJsonComAudio(requestBody.toString(), audio);
 
         // --- MUDANÇA CRÍTICA: USANDO A VERSÃO v1 (PRODUÇÃO) ---
-        String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent?key=" + geminiApiKey;
+        String url = streaming
+                ? URL_MODELO + ":streamGenerateContent?alt=sse&key=" + geminiApiKey
+                : URL_MODELO + ":generateContent?key=" + geminiApiKey;
 
-        Request request = new Request.Builder()
+        System.out.println("Enviando para URL v1: " + url.substring(0, 55) + "...");
+
+        return new Request.Builder()
                 .url(url)
                 .addHeader("Content-Type", "application/json")
                 .post(body)
+                .tag(CotaGemini.Pedido.class, pedido)
                 .build();
+    }
 
-        System.out.println("Enviando para URL v1: " + url.substring(0, 55) + "...");
+    private String chamarGeminiComAudio(String prompt, AudioArquivo audio, CotaGemini.Pedido pedido) throws IOException {
+        Request request = montarRequisicao(prompt, audio, pedido, false);
 
         try (Response response = httpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
@@ -95,22 +170,65 @@ public class GeminiAudioAnalysisService {
                 throw new IOException("Google API Error: " + response.code() + " " + errorBody);
             }
 
-            String jsonResponse = response.body().string();
             System.out.println(">>> SUCESSO! Resposta recebida.");
-            
-            JsonObject json = JsonParser.parseString(jsonResponse).getAsJsonObject();
-
-            try {
-                return json.getAsJsonArray("candidates")
-                        .get(0).getAsJsonObject()
-                        .getAsJsonObject("content")
-                        .getAsJsonArray("parts")
-                        .get(0).getAsJsonObject()
-                        .get("text").getAsString();
-            } catch (Exception e) {
-                System.err.println("JSON inesperado: " + jsonResponse);
-                throw e;
+
+            // Numa passada só: candidates[0].content.parts[0].text e o usageMetadata que vem depois
+            String[] valores = LeitorJsonStreaming.extrairTextos(response.body().charStream(),
+                    CAMINHO_TEXTO, CAMINHO_TOKENS);
+            pedido.registrarUso(valores[1]);
+            String texto = valores[0];
+            if (texto == null) {
+                throw new IOException("JSON inesperado: resposta sem candidates[0].content.parts[0].text");
+            }
+            return texto;
+        }
+    }
+
+    /**
+     * Lê o stream SSE do Gemini (um "data: {...}" por pedaço gerado), juntando o texto e
+     * repassando cada item de "resultados" que já fechou. O último pedaço traz o usageMetadata
+     * com o total de tokens da chamada.
+     */
+    private String chamarGeminiComAudioStreaming(String prompt, AudioArquivo audio, CotaGemini.Pedido pedido,
+                                                 Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliarPalavra) throws IOException {
+        Request request = montarRequisicao(prompt, audio, pedido, true);
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                String errorBody = response.body() != null ? response.body().string() : "Sem detalhes";
+                System.err.println(">>> ERRO GEMINI v1 (CODE " + response.code() + "): " + errorBody);
+                throw new IOException("Google API Error: " + response.code() + " " + errorBody);
             }
+
+            ExtratorResultadosParciais extrator = new ExtratorResultadosParciais();
+            BufferedSource eventos = response.body().source();
+            String linha;
+            String totalTokens = null;
+            while ((linha = eventos.readUtf8Line()) != null) {
+                if (!linha.startsWith("data:")) continue;
+
+                String[] valores = LeitorJsonStreaming.extrairTextos(new StringReader(linha.substring(5)),
+                        CAMINHO_TEXTO, CAMINHO_TOKENS);
+                if (valores[1] != null) {
+                    totalTokens = valores[1];
+                }
+                String fragmento = valores[0];
+                if (fragmento == null) continue;
+
+                for (String item : extrator.adicionar(fragmento)) {
+                    JsonReader leitor = new JsonReader(new StringReader(item));
+                    leitor.setLenient(true);
+                    aoAvaliarPalavra.accept(lerResultadoPalavra(leitor));
+                }
+            }
+
+            pedido.registrarUso(totalTokens);
+            String texto = extrator.getTextoCompleto();
+            if (texto.isBlank()) {
+                throw new IOException("JSON inesperado: stream sem candidates[0].content.parts[0].text");
+            }
+            System.out.println(">>> SUCESSO! Resposta recebida (stream).");
+            return texto;
         }
     }
 
@@ -120,53 +238,57 @@ public class GeminiAudioAnalysisService {
                ". Responda APENAS JSON: { \"resultados\": [ { \"palavraEsperada\": \"...\", \"palavraTranscrita\": \"...\", \"acertou\": true, \"similaridade\": 100, \"feedback\": \"...\" } ], \"feedbackGeral\": \"...\", \"pontuacaoGeral\": 100.0 }";
     }
 
-    private BatchPronunciationAnalysisDTO parsearRespostaBatch(String respostaGemini, List<String> palavrasEsperadas) {
+    /**
+     * Lê o JSON gerado pelo modelo direto para o DTO. Cercas de markdown e texto antes do
+     * objeto são pulados pelo leitor, sem cópias da resposta.
+     */
+    BatchPronunciationAnalysisDTO parsearRespostaBatch(String respostaGemini, List<String> palavrasEsperadas) {
         try {
-            String jsonLimpo = respostaGemini.trim();
-            if (jsonLimpo.startsWith("```json")) {
-                int startIndex = jsonLimpo.indexOf("{");
-                int endIndex = jsonLimpo.lastIndexOf("}");
-                if (startIndex != -1 && endIndex != -1 && endIndex > startIndex) {
-                    jsonLimpo = jsonLimpo.substring(startIndex, endIndex + 1);
-                }
-            } else if (jsonLimpo.startsWith("```")) {
-                jsonLimpo = jsonLimpo.substring(3);
+            JsonReader leitor = LeitorJsonStreaming.leitorDoPrimeiroObjeto(respostaGemini);
+            if (leitor == null) {
+                throw new IOException("Nenhum objeto JSON na resposta");
             }
-            if (jsonLimpo.endsWith("```")) {
-                jsonLimpo = jsonLimpo.substring(0, jsonLimpo.length() - 3);
-            }
-            
-            JsonObject json = JsonParser.parseString(jsonLimpo).getAsJsonObject();
+
             BatchPronunciationAnalysisDTO dto = new BatchPronunciationAnalysisDTO();
-            
             dto.setPalavrasEsperadas(palavrasEsperadas);
-            dto.setFeedbackGeral(json.has("feedbackGeral") ? json.get("feedbackGeral").getAsString() : "Análise ok");
-            dto.setPontuacaoGeral(json.has("pontuacaoGeral") ? json.get("pontuacaoGeral").getAsDouble() : 0.0);
-            
+            dto.setFeedbackGeral("Análise ok");
+            dto.setPontuacaoGeral(0.0);
+
             List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = new ArrayList<>();
             int totalAcertos = 0;
             int totalPalavras = 0;
 
-            if (json.has("resultados") && json.get("resultados").isJsonArray()) {
-                JsonArray resultadosArray = json.getAsJsonArray("resultados");
-                totalPalavras = resultadosArray.size();
-
-                for (int i = 0; i < resultadosArray.size(); i++) {
-                    JsonObject resultadoJson = resultadosArray.get(i).getAsJsonObject();
-                    BatchPronunciationAnalysisDTO.ResultadoPalavra resultadoPalavra = new BatchPronunciationAnalysisDTO.ResultadoPalavra();
-
-                    resultadoPalavra.setPalavraEsperada(resultadoJson.has("palavraEsperada") ? resultadoJson.get("palavraEsperada").getAsString() : "");
-                    resultadoPalavra.setPalavraTranscrita(resultadoJson.has("palavraTranscrita") ? resultadoJson.get("palavraTranscrita").getAsString() : "");
-                    resultadoPalavra.setAcertou(resultadoJson.has("acertou") ? resultadoJson.get("acertou").getAsBoolean() : false);
-                    resultadoPalavra.setSimilaridade(resultadoJson.has("similaridade") ? resultadoJson.get("similaridade").getAsDouble() : 0.0);
-                    resultadoPalavra.setFeedback(resultadoJson.has("feedback") ? resultadoJson.get("feedback").getAsString() : "");
-                    
-                    if (resultadoPalavra.getAcertou()) {
-                        totalAcertos++;
-                    }
-                    resultados.add(resultadoPalavra);
+            leitor.beginObject();
+            while (leitor.hasNext()) {
+                switch (leitor.nextName()) {
+                    case "feedbackGeral":
+                        dto.setFeedbackGeral(LeitorJsonStreaming.lerTexto(leitor, "Análise ok"));
+                        break;
+                    case "pontuacaoGeral":
+                        dto.setPontuacaoGeral(LeitorJsonStreaming.lerNumero(leitor, 0.0));
+                        break;
+                    case "resultados":
+                        if (leitor.peek() != JsonToken.BEGIN_ARRAY) {
+                            leitor.skipValue();
+                            break;
+                        }
+                        leitor.beginArray();
+                        while (leitor.hasNext()) {
+                            BatchPronunciationAnalysisDTO.ResultadoPalavra resultadoPalavra = lerResultadoPalavra(leitor);
+                            totalPalavras++;
+                            if (resultadoPalavra.getAcertou()) {
+                                totalAcertos++;
+                            }
+                            resultados.add(resultadoPalavra);
+                        }
+                        leitor.endArray();
+                        break;
+                    default:
+                        leitor.skipValue();
                 }
             }
+            leitor.endObject();
+
             dto.setResultados(resultados);
             dto.setTotalAcertos(totalAcertos);
             dto.setTotalPalavras(totalPalavras);
@@ -188,4 +310,33 @@ public class GeminiAudioAnalysisService {
             return errorDto;
         }
     }
-}
\ No newline at end of file
+
+    private BatchPronunciationAnalysisDTO.ResultadoPalavra lerResultadoPalavra(JsonReader leitor) throws IOException {
+        BatchPronunciationAnalysisDTO.ResultadoPalavra resultadoPalavra =
+                new BatchPronunciationAnalysisDTO.ResultadoPalavra("", "", false, 0.0, "");
+        leitor.beginObject();
+        while (leitor.hasNext()) {
+            switch (leitor.nextName()) {
+                case "palavraEsperada":
+                    resultadoPalavra.setPalavraEsperada(LeitorJsonStreaming.lerTexto(leitor, ""));
+                    break;
+                case "palavraTranscrita":
+                    resultadoPalavra.setPalavraTranscrita(LeitorJsonStreaming.lerTexto(leitor, ""));
+                    break;
+                case "acertou":
+                    resultadoPalavra.setAcertou(LeitorJsonStreaming.lerBooleano(leitor, false));
+                    break;
+                case "similaridade":
+                    resultadoPalavra.setSimilaridade(LeitorJsonStreaming.lerNumero(leitor, 0.0));
+                    break;
+                case "feedback":
+                    resultadoPalavra.setFeedback(LeitorJsonStreaming.lerTexto(leitor, ""));
+                    break;
+                default:
+                    leitor.skipValue();
+            }
+        }
+        leitor.endObject();
+        return resultadoPalavra;
+    }
+}
@@ -0,0 +1,335 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
+import com.inatel.prototipo_ia.eventos.ConteudoTesteAlteradoEvent;
+import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Índice invertido, em memória, das frases de exercício (conteudoteste) por fonema.
+ *
+ * Para cada fonema (R, RR, L, LH, NH, CH, X, S, Z, J, V, F) guarda as frases que o contêm, com a
+ * densidade do fonema na frase (ocorrências por palavra), ordenadas da mais densa para a menos.
+ * A seleção é feita só em memória e pondera os fonemas em que o paciente já errou.
+ *
+ * A leitura não trava: cada alteração monta um novo {@link Indice} copiando só as listas dos
+ * fonemas afetados e troca a referência. O índice é carregado na subida e atualizado pelos
+ * eventos do ConteudoTesteService.
+ */
+@Component
+public class IndiceFonemasCorpus {
+
+    public static final List<String> FONEMAS = List.of("R", "RR", "L", "LH", "NH", "CH", "X", "S", "Z", "J", "V", "F");
+
+    // Quantos dos melhores candidatos entram no sorteio (para não repetir sempre a mesma frase)
+    private static final int CANDIDATOS_SORTEIO = 20;
+
+    // Densidade mínima de um fonema declarado em fonemasChave mas não encontrado no texto
+    private static final double DENSIDADE_DECLARADA = 0.25;
+
+    private final ConteudoTesteRepository conteudoRepository;
+    private final NormalizadorFonetico normalizador;
+
+    private volatile Indice indice = new Indice(Map.of(), Map.of());
+
+    public IndiceFonemasCorpus(ConteudoTesteRepository conteudoRepository, NormalizadorFonetico normalizador) {
+        this.conteudoRepository = conteudoRepository;
+        this.normalizador = normalizador;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        Map<Long, FraseIndexada> frases = new HashMap<>();
+        for (ConteudoTesteEntity conteudo : conteudoRepository.findAll()) {
+            FraseIndexada frase = indexar(conteudo.getId(), conteudo.getTextoFrase(), conteudo.getFonemasChave(),
+                    conteudo.getIdioma(), conteudo.getFaixaEtaria());
+            if (frase != null) {
+                frases.put(frase.id, frase);
+            }
+        }
+
+        Map<String, List<FraseIndexada>> porFonema = new HashMap<>();
+        for (FraseIndexada frase : frases.values()) {
+            for (String fonema : frase.densidades.keySet()) {
+                porFonema.computeIfAbsent(fonema, f -> new ArrayList<>()).add(frase);
+            }
+        }
+        porFonema.replaceAll((fonema, lista) -> ordenada(lista, fonema));
+        this.indice = new Indice(frases, porFonema);
+    }
+
+    /**
+     * Atualização incremental: só as listas dos fonemas da frase antiga e da nova são refeitas.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterarConteudo(ConteudoTesteAlteradoEvent evento) {
+        Indice atual = this.indice;
+        FraseIndexada antiga = atual.frases.get(evento.getId());
+        FraseIndexada nova = evento.getTipo() == ConteudoTesteAlteradoEvent.TipoAlteracao.REMOVIDO
+                ? null
+                : indexar(evento.getId(), evento.getTextoFrase(), evento.getFonemasChave(),
+                        evento.getIdioma(), evento.getFaixaEtaria());
+        if (antiga == null && nova == null) return;
+
+        Map<Long, FraseIndexada> frases = new HashMap<>(atual.frases);
+        if (nova != null) {
+            frases.put(nova.id, nova);
+        } else {
+            frases.remove(evento.getId());
+        }
+
+        Set<String> afetados = new HashSet<>();
+        if (antiga != null) afetados.addAll(antiga.densidades.keySet());
+        if (nova != null) afetados.addAll(nova.densidades.keySet());
+
+        Map<String, List<FraseIndexada>> porFonema = new HashMap<>(atual.porFonema);
+        for (String fonema : afetados) {
+            List<FraseIndexada> lista = new ArrayList<>(porFonema.getOrDefault(fonema, List.of()));
+            lista.removeIf(f -> f.id.equals(evento.getId()));
+            if (nova != null && nova.densidades.containsKey(fonema)) {
+                lista.add(nova);
+            }
+            if (lista.isEmpty()) {
+                porFonema.remove(fonema);
+            } else {
+                porFonema.put(fonema, ordenada(lista, fonema));
+            }
+        }
+        this.indice = new Indice(frases, porFonema);
+    }
+
+    /**
+     * Escolhe uma frase para o fonema alvo, favorecendo as que também exercitam os fonemas
+     * em que o paciente mais erra.
+     *
+     * @param dificuldade fonema alvo (R, LH...); GERAL ou desconhecido escolhe só pelos erros
+     * @param pesosErros  peso (0 a 1) de cada fonema conforme o histórico de erros do paciente
+     */
+    public Optional<String> selecionar(String dificuldade, Map<String, Double> pesosErros) {
+        Indice atual = this.indice;
+        String alvo = dificuldade == null ? null : dificuldade.toUpperCase(Locale.ROOT);
+
+        List<FraseIndexada> candidatas;
+        if (alvo != null && FONEMAS.contains(alvo)) {
+            candidatas = atual.porFonema.getOrDefault(alvo, List.of());
+        } else {
+            alvo = null;
+            Set<FraseIndexada> comErros = new HashSet<>();
+            pesosErros.forEach((fonema, peso) -> {
+                if (peso > 0) comErros.addAll(atual.porFonema.getOrDefault(fonema, List.of()));
+            });
+            candidatas = comErros.isEmpty() ? new ArrayList<>(atual.frases.values()) : new ArrayList<>(comErros);
+        }
+        if (candidatas.isEmpty()) return Optional.empty();
+
+        List<double[]> pontuadas = new ArrayList<>(candidatas.size());
+        for (int i = 0; i < candidatas.size(); i++) {
+            pontuadas.add(new double[]{i, pontuar(candidatas.get(i), alvo, pesosErros)});
+        }
+        pontuadas.sort((a, b) -> Double.compare(b[1], a[1]));
+
+        int limite = Math.min(CANDIDATOS_SORTEIO, pontuadas.size());
+        double total = 0;
+        for (int i = 0; i < limite; i++) total += pontuadas.get(i)[1];
+
+        double sorteio = ThreadLocalRandom.current().nextDouble() * total;
+        for (int i = 0; i < limite; i++) {
+            sorteio -= pontuadas.get(i)[1];
+            if (sorteio <= 0) {
+                return Optional.of(candidatas.get((int) pontuadas.get(i)[0]).texto);
+            }
+        }
+        return Optional.of(candidatas.get((int) pontuadas.get(0)[0]).texto);
+    }
+
+    public int totalFrases() {
+        return indice.frases.size();
+    }
+
+    public int totalFrases(String fonema) {
+        return indice.porFonema.getOrDefault(fonema, List.of()).size();
+    }
+
+    private static double pontuar(FraseIndexada frase, String alvo, Map<String, Double> pesosErros) {
+        double reforco = 0;
+        for (Map.Entry<String, Double> erro : pesosErros.entrySet()) {
+            if (!erro.getKey().equals(alvo)) {
+                reforco += erro.getValue() * frase.densidades.getOrDefault(erro.getKey(), 0.0);
+            }
+        }
+        if (alvo == null) {
+            // Sem histórico de erros todas valem o mesmo
+            return reforco > 0 ? reforco : 1.0;
+        }
+        return frase.densidades.getOrDefault(alvo, 0.0) * (1.0 + reforco);
+    }
+
+    private FraseIndexada indexar(Long id, String texto, String fonemasChave, String idioma, String faixaEtaria) {
+        if (id == null || texto == null || texto.isBlank()) return null;
+        // Os gerados para o pool de trava-línguas são servidos pelo PoolTravaLinguasService
+        if (faixaEtaria != null) return null;
+        if (idioma != null && !normalizador.normalizar(idioma).startsWith("portugu")) return null;
+
+        String normalizado = normalizador.normalizar(texto);
+        int palavras = normalizador.separarPalavras(normalizado).size();
+        if (palavras == 0) return null;
+
+        int cedilhas = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == 'ç' || c == 'Ç') cedilhas++;
+        }
+
+        Map<String, Double> densidades = new HashMap<>();
+        contarFonemas(normalizado, cedilhas).forEach((fonema, ocorrencias) ->
+                densidades.put(fonema, (double) ocorrencias / palavras));
+
+        if (fonemasChave != null) {
+            for (String declarado : fonemasChave.toUpperCase(Locale.ROOT).split("[^A-Z]+")) {
+                if (FONEMAS.contains(declarado)) {
+                    densidades.merge(declarado, DENSIDADE_DECLARADA, Math::max);
+                }
+            }
+        }
+        if (densidades.isEmpty()) return null;
+        return new FraseIndexada(id, texto, Collections.unmodifiableMap(densidades));
+    }
+
+    /**
+     * Conta as ocorrências de cada fonema em um texto já normalizado (minúsculas, sem acentos).
+     * A ortografia do português é aproximada por regras simples: rr e r inicial são r forte,
+     * s entre vogais soa como z, c/g antes de e/i soam como s/j, ch soa como x.
+     */
+    static Map<String, Integer> contarFonemas(String normalizado, int cedilhas) {
+        Map<String, Integer> contagem = new HashMap<>();
+        int inicioPalavra = 0;
+        for (int i = 0; i < normalizado.length(); i++) {
+            char c = normalizado.charAt(i);
+            if (c == ' ') {
+                inicioPalavra = i + 1;
+                continue;
+            }
+            char anterior = i > inicioPalavra ? normalizado.charAt(i - 1) : ' ';
+            char proximo = i + 1 < normalizado.length() ? normalizado.charAt(i + 1) : ' ';
+
+            switch (c) {
+                case 'r':
+                    somar(contagem, "R");
+                    if (proximo == 'r') {
+                        somar(contagem, "RR");
+                        i++;
+                    } else if (i == inicioPalavra) {
+                        somar(contagem, "RR");
+                    }
+                    break;
+                case 'l':
+                    if (proximo == 'h') {
+                        somar(contagem, "LH");
+                        i++;
+                    } else {
+                        somar(contagem, "L");
+                    }
+                    break;
+                case 'n':
+                    if (proximo == 'h') {
+                        somar(contagem, "NH");
+                        i++;
+                    }
+                    break;
+                case 'c':
+                    if (proximo == 'h') {
+                        somar(contagem, "CH");
+                        somar(contagem, "X");
+                        i++;
+                    } else if (proximo == 'e' || proximo == 'i') {
+                        somar(contagem, "S");
+                    }
+                    break;
+                case 's':
+                    if (proximo == 's') {
+                        somar(contagem, "S");
+                        i++;
+                    } else if (vogal(anterior) && vogal(proximo)) {
+                        somar(contagem, "Z");
+                    } else {
+                        somar(contagem, "S");
+                    }
+                    break;
+                case 'g':
+                    if (proximo == 'e' || proximo == 'i') somar(contagem, "J");
+                    break;
+                case 'z':
+                    somar(contagem, "Z");
+                    break;
+                case 'x':
+                    somar(contagem, "X");
+                    break;
+                case 'j':
+                    somar(contagem, "J");
+                    break;
+                case 'v':
+                    somar(contagem, "V");
+                    break;
+                case 'f':
+                    somar(contagem, "F");
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (cedilhas > 0) {
+            contagem.merge("S", cedilhas, Integer::sum);
+        }
+        return contagem;
+    }
+
+    private static boolean vogal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+
+    private static void somar(Map<String, Integer> contagem, String fonema) {
+        contagem.merge(fonema, 1, Integer::sum);
+    }
+
+    private static List<FraseIndexada> ordenada(List<FraseIndexada> lista, String fonema) {
+        lista.sort(Comparator.comparingDouble((FraseIndexada f) -> f.densidades.get(fonema)).reversed());
+        return Collections.unmodifiableList(lista);
+    }
+
+    private static final class FraseIndexada {
+        private final Long id;
+        private final String texto;
+        private final Map<String, Double> densidades;
+
+        private FraseIndexada(Long id, String texto, Map<String, Double> densidades) {
+            this.id = id;
+            this.texto = texto;
+            this.densidades = densidades;
+        }
+    }
+
+    private static final class Indice {
+        private final Map<Long, FraseIndexada> frases;
+        private final Map<String, List<FraseIndexada>> porFonema;
+
+        private Indice(Map<Long, FraseIndexada> frases, Map<String, List<FraseIndexada>> porFonema) {
+            this.frases = frases;
+            this.porFonema = porFonema;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.inatel.prototipo_ia.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Geração compartilhada ("single-flight") de textos em lote.
+ *
+ * Pedidos com a mesma chave que chegam enquanto uma geração está em andamento esperam por ela
+ * em vez de disparar outra chamada. A geração devolve um lote: quem disparou fica com o
+ * primeiro item e cada pedido que esperava leva um dos seguintes. O que sobrar fica guardado
+ * por {@code validade} para os próximos pedidos iguais; se faltar item, um dos que esperavam
+ * dispara a próxima geração. Se a geração falhar (ou vier vazia), todos os que esperavam
+ * recebem o mesmo resultado, sem uma nova chamada por pedido.
+ */
+final class LotesCompartilhados {
+
+    private final long validadeNanos;
+    private final long esperaMaximaNanos;
+    private final LongSupplier relogio;
+
+    private final Map<String, Lote> lotes = new ConcurrentHashMap<>();
+
+    LotesCompartilhados(Duration validade, Duration esperaMaxima) {
+        this(validade, esperaMaxima, System::nanoTime);
+    }
+
+    LotesCompartilhados(Duration validade, Duration esperaMaxima, LongSupplier relogio) {
+        this.validadeNanos = validade.toNanos();
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.relogio = relogio;
+    }
+
+    /**
+     * @return um item do lote, ou null se a geração devolveu um lote vazio
+     * @throws TimeoutException se a geração em andamento passar da espera máxima
+     */
+    String obter(String chave, Callable<List<String>> gerarLote) throws Exception {
+        Lote lote = lotes.computeIfAbsent(chave, c -> new Lote());
+        long limite = relogio.getAsLong() + esperaMaximaNanos;
+
+        while (true) {
+            CompletableFuture<Boolean> emAndamento;
+            boolean lider = false;
+            synchronized (lote) {
+                String pronto = lote.retirar(relogio.getAsLong());
+                if (pronto != null) {
+                    return pronto;
+                }
+                if (lote.emAndamento == null) {
+                    lote.emAndamento = new CompletableFuture<>();
+                    lider = true;
+                }
+                emAndamento = lote.emAndamento;
+            }
+
+            if (lider) {
+                return gerar(lote, emAndamento, gerarLote);
+            }
+
+            long restante = limite - relogio.getAsLong();
+            if (restante <= 0) {
+                throw new TimeoutException("Tempo esgotado aguardando a geração em andamento (" + chave + ")");
+            }
+            lote.aguardando.incrementAndGet();
+            try {
+                if (!emAndamento.get(restante, TimeUnit.NANOSECONDS)) {
+                    // O modelo não devolveu nada: não adianta cada um tentar de novo
+                    return null;
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            } finally {
+                lote.aguardando.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Pedidos esperando a geração em andamento da chave (para métricas e testes).
+     */
+    int aguardando(String chave) {
+        Lote lote = lotes.get(chave);
+        return lote != null ? lote.aguardando.get() : 0;
+    }
+
+    private String gerar(Lote lote, CompletableFuture<Boolean> emAndamento, Callable<List<String>> gerarLote)
+            throws Exception {
+        String meu = null;
+        Throwable falha = null;
+        try {
+            List<String> gerados = gerarLote.call();
+            synchronized (lote) {
+                long expiraEm = relogio.getAsLong() + validadeNanos;
+                if (gerados != null) {
+                    for (String texto : gerados) {
+                        if (texto == null || texto.isBlank()) continue;
+                        if (meu == null) {
+                            meu = texto;
+                        } else {
+                            lote.sobras.addLast(new Sobra(texto, expiraEm));
+                        }
+                    }
+                }
+            }
+            return meu;
+        } catch (Throwable t) {
+            falha = t;
+            throw t;
+        } finally {
+            // Até um Error precisa soltar a chave e acordar quem esperava, senão ela trava para sempre
+            synchronized (lote) {
+                lote.emAndamento = null;
+            }
+            if (falha != null) {
+                emAndamento.completeExceptionally(falha);
+            } else {
+                emAndamento.complete(meu != null);
+            }
+        }
+    }
+
+    private static final class Lote {
+        private final Deque<Sobra> sobras = new ArrayDeque<>();
+        private final AtomicInteger aguardando = new AtomicInteger();
+        // Concluída com true se a geração produziu algum texto
+        private CompletableFuture<Boolean> emAndamento;
+
+        // Chamado com o lock do lote
+        private String retirar(long agora) {
+            Sobra sobra;
+            while ((sobra = sobras.pollFirst()) != null) {
+                if (sobra.expiraEm - agora > 0) {
+                    return sobra.texto;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Sobra {
+        private final String texto;
+        private final long expiraEm;
+
+        private Sobra(String texto, long expiraEm) {
+            this.texto = texto;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
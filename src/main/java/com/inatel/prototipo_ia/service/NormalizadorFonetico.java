@@ -0,0 +1,166 @@
+package com.inatel.prototipo_ia.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização e fonetização de texto em PT-BR, compartilhada pelos fluxos de análise
+ * (Deepgram e Gemini) e pela sessão de treino.
+ *
+ * Cada caractere passa uma única vez por uma tabela montada na inicialização (acentos,
+ * maiúsculas e pontuação resolvidos por consulta), e os dígrafos ch/lh/nh/ç/ss são tratados
+ * no mesmo laço. O vocabulário dos exercícios é pequeno, então os resultados ficam em cache
+ * e a mesma palavra sempre devolve a mesma instância de String.
+ */
+@Component
+public class NormalizadorFonetico {
+
+    private static final int LIMITE_CACHE = 4096;
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private static final char DESCARTA = 0;
+    private static final char ESPACO = ' ';
+
+    // Caractere base minúsculo (sem acento) de cada caractere até o Latin Extended-B
+    private static final char[] TABELA = montarTabela();
+
+    private final Map<String, String> cacheNormalizado = new ConcurrentHashMap<>();
+    private final Map<String, String> cacheFonetico = new ConcurrentHashMap<>();
+
+    /**
+     * Minúsculas, sem acentos e sem pontuação; espaços repetidos viram um só.
+     */
+    public String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) return "";
+        return emCache(cacheNormalizado, texto, false);
+    }
+
+    /**
+     * Forma "fonética" leve, para não misturar palavras muito diferentes:
+     * ch -> x, lh -> li, nh -> ni, ç -> s, ss -> s (além da normalização).
+     */
+    public String fonetizar(String texto) {
+        if (texto == null || texto.isEmpty()) return "";
+        return emCache(cacheFonetico, texto, true);
+    }
+
+    /**
+     * Quebra o texto nos espaços, sem alterar as palavras (descarta as vazias).
+     */
+    public List<String> separarPalavras(String texto) {
+        List<String> palavras = new ArrayList<>();
+        if (texto == null) return palavras;
+        for (String parte : ESPACOS.split(texto)) {
+            if (!parte.isEmpty()) {
+                palavras.add(parte);
+            }
+        }
+        return palavras;
+    }
+
+    /**
+     * Quebra uma frase (ex.: o trava-língua) nas palavras que a criança deve falar:
+     * só letras, em minúsculas, mantendo os acentos para exibição e para o prompt da IA.
+     */
+    public List<String> extrairPalavras(String frase) {
+        List<String> palavras = new ArrayList<>();
+        if (frase == null) return palavras;
+
+        StringBuilder atual = new StringBuilder();
+        for (int i = 0; i < frase.length(); i++) {
+            char c = frase.charAt(i);
+            if (Character.isLetter(c)) {
+                atual.append(Character.toLowerCase(c));
+            } else if (Character.isWhitespace(c) && atual.length() > 0) {
+                palavras.add(atual.toString());
+                atual.setLength(0);
+            }
+        }
+        if (atual.length() > 0) {
+            palavras.add(atual.toString());
+        }
+        return palavras;
+    }
+
+    private String emCache(Map<String, String> cache, String texto, boolean fonetico) {
+        String existente = cache.get(texto);
+        if (existente != null) {
+            return existente;
+        }
+        String resultado = transformar(texto, fonetico);
+        if (cache.size() < LIMITE_CACHE) {
+            String anterior = cache.putIfAbsent(texto, resultado);
+            if (anterior != null) {
+                return anterior;
+            }
+        }
+        return resultado;
+    }
+
+    private static String transformar(String texto, boolean fonetico) {
+        char[] saida = new char[texto.length()];
+        int tamanho = 0;
+        boolean espacoPendente = false;
+        boolean sDuplicadoAbsorvido = false;
+
+        for (int i = 0; i < texto.length(); i++) {
+            char original = texto.charAt(i);
+            char c = original < TABELA.length ? TABELA[original] : DESCARTA;
+
+            if (c == DESCARTA) {
+                continue;
+            }
+            if (c == ESPACO) {
+                espacoPendente = tamanho > 0;
+                continue;
+            }
+            if (espacoPendente) {
+                saida[tamanho++] = ESPACO;
+                espacoPendente = false;
+            }
+
+            if (fonetico) {
+                if (original == 'ç' || original == 'Ç') {
+                    c = 's';
+                }
+                char anterior = tamanho > 0 ? saida[tamanho - 1] : DESCARTA;
+                if (c == 'h' && anterior == 'c') {
+                    saida[tamanho - 1] = 'x';
+                    continue;
+                }
+                if (c == 'h' && (anterior == 'l' || anterior == 'n')) {
+                    c = 'i';
+                } else if (c == 's' && anterior == 's' && !sDuplicadoAbsorvido) {
+                    sDuplicadoAbsorvido = true;
+                    continue;
+                }
+                sDuplicadoAbsorvido = false;
+            }
+
+            saida[tamanho++] = c;
+        }
+        return new String(saida, 0, tamanho);
+    }
+
+    private static char[] montarTabela() {
+        char[] tabela = new char[0x250];
+        for (char c = 0; c < tabela.length; c++) {
+            if (Character.isWhitespace(c)) {
+                tabela[c] = ESPACO;
+            } else if (Character.isLetterOrDigit(c)) {
+                char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+                tabela[c] = base < 128 && Character.isLetterOrDigit(base) ? Character.toLowerCase(base) : DESCARTA;
+            } else {
+                tabela[c] = DESCARTA;
+            }
+        }
+        return tabela;
+    }
+}
@@ -0,0 +1,71 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
+import com.inatel.prototipo_ia.repository.PaginacaoPorId;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Montagem das páginas das listagens ({@link PaginacaoPorId}) e do fluxo de exportação.
+ *
+ * O {@code listar(cursor, limite)} de cada serviço devolve a página seguinte ao {@code cursor},
+ * em ordem de id, montada por {@link #paginar}.
+ */
+public final class Paginacao {
+
+    public static final int LIMITE_PADRAO = 100;
+    public static final int LIMITE_MAXIMO = 500;
+
+    // Páginas maiores na exportação: menos idas ao banco, ainda com memória limitada
+    public static final int LIMITE_EXPORTACAO = LIMITE_MAXIMO;
+
+    private Paginacao() {
+    }
+
+    /**
+     * Busca uma linha a mais que o limite só para saber se existe próxima página.
+     *
+     * @param cursor último id já entregue (null ou negativo: desde o início)
+     * @param limite itens por página (null: {@link #LIMITE_PADRAO}; limitado a {@link #LIMITE_MAXIMO})
+     * @param converter entidades da página para DTOs, de uma vez (permite montar em lote)
+     */
+    public static <E, D> PaginaDtoOut<D> paginar(Long cursor, Integer limite, PaginacaoPorId<E> repositorio,
+                                                 Function<E, Long> id, Function<List<E>, List<D>> converter) {
+        int tamanho = limite == null ? LIMITE_PADRAO : Math.max(1, Math.min(LIMITE_MAXIMO, limite));
+        long inicio = cursor == null ? -1 : Math.max(-1, cursor);
+
+        List<E> linhas = repositorio.findByIdGreaterThanOrderByIdAsc(inicio, Limit.of(tamanho + 1));
+        Long proximo = null;
+        if (linhas.size() > tamanho) {
+            linhas = linhas.subList(0, tamanho);
+            proximo = id.apply(linhas.get(tamanho - 1));
+        }
+        return new PaginaDtoOut<>(converter.apply(linhas), tamanho, proximo);
+    }
+
+    /**
+     * Para quem converte uma entidade por vez.
+     */
+    public static <E, D> Function<List<E>, List<D>> cada(Function<E, D> converter) {
+        return entidades -> entidades.stream().map(converter).collect(Collectors.toList());
+    }
+
+    /**
+     * Todos os itens, página a página: a próxima só é buscada quando o consumidor chega ao fim da
+     * atual. Cada página é uma chamada própria a {@code buscarPagina} (e uma transação curta, se
+     * ela passar pelo proxy do serviço), então nenhuma conexão fica presa durante a exportação.
+     *
+     * @param buscarPagina recebe o cursor (-1 na primeira) e devolve a página seguinte
+     */
+    public static <D> Stream<D> emFluxo(LongFunction<PaginaDtoOut<D>> buscarPagina) {
+        return Stream.iterate(buscarPagina.apply(-1), Objects::nonNull,
+                        pagina -> pagina.temProxima() ? buscarPagina.apply(pagina.getProximoCursor()) : null)
+                .flatMap(pagina -> pagina.getItens().stream());
+    }
+}
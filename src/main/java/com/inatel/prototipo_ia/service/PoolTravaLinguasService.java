@@ -0,0 +1,223 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
+import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Pool de trava-línguas pré-gerados por dificuldade e faixa etária.
+ *
+ * O início da sessão retira um trava-língua pronto do pool em vez de esperar o Gemini; a geração
+ * ao vivo só acontece quando o balde daquela combinação está vazio. Uma rotina de fundo mantém
+ * cada balde acima do mínimo (e o completa até o alvo), descartando textos repetidos.
+ *
+ * Os trava-línguas gerados são gravados em conteudoteste com a faixa etária, então o pool é
+ * recarregado do banco quando a aplicação sobe.
+ */
+@Service
+public class PoolTravaLinguasService {
+
+    private static final String IDIOMA = "Português";
+
+    private final AIWordGeneratorService wordGeneratorService;
+    private final ConteudoTesteRepository conteudoRepository;
+    private final NormalizadorFonetico normalizador;
+
+    private final boolean habilitado;
+    private final int minimo;
+    private final int alvo;
+    private final int maxGeracoesPorCiclo;
+
+    private final Map<String, Balde> baldes = new ConcurrentHashMap<>();
+
+    private final Counter retiradasDoPool;
+    private final Counter retiradasSemEstoque;
+
+    public PoolTravaLinguasService(
+            AIWordGeneratorService wordGeneratorService,
+            ConteudoTesteRepository conteudoRepository,
+            NormalizadorFonetico normalizador,
+            MeterRegistry registry,
+            @Value("${travalingua.pool.habilitado:true}") boolean habilitado,
+            @Value("${travalingua.pool.minimo:2}") int minimo,
+            @Value("${travalingua.pool.alvo:4}") int alvo,
+            @Value("${travalingua.pool.max-geracoes-por-ciclo:5}") int maxGeracoesPorCiclo) {
+        this.wordGeneratorService = wordGeneratorService;
+        this.conteudoRepository = conteudoRepository;
+        this.normalizador = normalizador;
+        this.habilitado = habilitado;
+        this.minimo = minimo;
+        this.alvo = Math.max(alvo, minimo);
+        this.maxGeracoesPorCiclo = maxGeracoesPorCiclo;
+
+        for (String dificuldade : wordGeneratorService.getDificuldadesDisponiveis()) {
+            for (String faixa : AIWordGeneratorService.getFaixasEtarias()) {
+                baldes.put(chave(dificuldade, faixa), new Balde(dificuldade, faixa));
+            }
+        }
+
+        this.retiradasDoPool = Counter.builder("travalingua.pool.retiradas")
+                .description("Inícios de sessão atendidos pelo pool ou pela geração ao vivo")
+                .tag("origem", "pool")
+                .register(registry);
+        this.retiradasSemEstoque = Counter.builder("travalingua.pool.retiradas")
+                .description("Inícios de sessão atendidos pelo pool ou pela geração ao vivo")
+                .tag("origem", "geracao")
+                .register(registry);
+        Gauge.builder("travalingua.pool.disponiveis", baldes, b -> b.values().stream().mapToInt(Balde::tamanho).sum())
+                .description("Trava-línguas prontos no pool")
+                .register(registry);
+    }
+
+    /**
+     * Retira um trava-língua pronto para a dificuldade e idade. Vazio se o balde estiver sem estoque
+     * (ou o pool desabilitado): nesse caso quem chamou gera ao vivo.
+     */
+    public Optional<String> retirar(String dificuldade, int idade) {
+        Balde balde = baldes.get(chave(dificuldade, AIWordGeneratorService.determinarFaixaEtaria(idade)));
+        ItemPool item = habilitado && balde != null ? balde.disponiveis.pollFirst() : null;
+        if (item == null) {
+            retiradasSemEstoque.increment();
+            return Optional.empty();
+        }
+
+        conteudoRepository.marcarComoUsado(item.id, LocalDateTime.now());
+        retiradasDoPool.increment();
+        return Optional.of(item.texto);
+    }
+
+    /**
+     * Carrega do banco os trava-línguas já gerados; os ainda não usados voltam para o pool.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitado) return;
+
+        for (ConteudoTesteEntity conteudo : conteudoRepository.findByFaixaEtariaIsNotNull()) {
+            Balde balde = baldes.get(chave(conteudo.getDificuldade(), conteudo.getFaixaEtaria()));
+            if (balde == null) continue;
+
+            balde.conhecidos.add(normalizador.normalizar(conteudo.getTextoFrase()));
+            if (conteudo.getUsadoEm() == null) {
+                balde.disponiveis.addLast(new ItemPool(conteudo.getId(), conteudo.getTextoFrase()));
+            }
+        }
+    }
+
+    /**
+     * Completa os baldes abaixo do mínimo, começando pelos mais vazios. Cada ciclo faz no máximo
+     * {@code maxGeracoesPorCiclo} chamadas para não disparar dezenas de uma vez; cada chamada
+     * traz um lote, guardado inteiro no balde.
+     */
+    @Scheduled(fixedDelayString = "${travalingua.pool.intervalo:60s}", initialDelayString = "${travalingua.pool.atraso-inicial:30s}")
+    public void reabastecer() {
+        if (!habilitado) return;
+
+        for (int geradas = 0; geradas < maxGeracoesPorCiclo; geradas++) {
+            Balde balde = baldeMaisVazioParaReabastecer();
+            if (balde == null) return;
+
+            try {
+                gerarPara(balde);
+            } catch (Exception e) {
+                // Provavelmente o Gemini está fora: tenta de novo no próximo ciclo
+                System.err.println("Falha ao reabastecer o pool de trava-línguas (" + balde.dificuldade + ", "
+                        + balde.faixaEtaria + "): " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public int disponiveis(String dificuldade, String faixaEtaria) {
+        Balde balde = baldes.get(chave(dificuldade, faixaEtaria));
+        return balde != null ? balde.tamanho() : 0;
+    }
+
+    private Balde baldeMaisVazioParaReabastecer() {
+        List<Balde> candidatos = new ArrayList<>();
+        for (Balde balde : baldes.values()) {
+            int tamanho = balde.tamanho();
+            // Histerese: começa abaixo do mínimo e só para ao chegar no alvo
+            if (tamanho < minimo) {
+                balde.reabastecendo = true;
+            } else if (tamanho >= alvo) {
+                balde.reabastecendo = false;
+            }
+            if (balde.reabastecendo) {
+                candidatos.add(balde);
+            }
+        }
+        return candidatos.stream().min(Comparator.comparingInt(Balde::tamanho)).orElse(null);
+    }
+
+    private void gerarPara(Balde balde) {
+        int idade = AIWordGeneratorService.idadeDeReferencia(balde.faixaEtaria);
+        List<String> gerados = wordGeneratorService.gerarLoteComIA(idade, balde.dificuldade);
+        if (gerados == null) return;
+
+        for (String gerado : gerados) {
+            String texto = gerado == null ? "" : gerado.trim();
+            // Repetido (o modelo às vezes devolve os clássicos): descarta
+            if (texto.isEmpty() || !balde.conhecidos.add(normalizador.normalizar(texto))) continue;
+
+            ConteudoTesteEntity conteudo = new ConteudoTesteEntity();
+            conteudo.setTextoFrase(texto);
+            conteudo.setFonemasChave(balde.dificuldade);
+            conteudo.setDificuldade(balde.dificuldade);
+            conteudo.setIdioma(IDIOMA);
+            conteudo.setFaixaEtaria(balde.faixaEtaria);
+            ConteudoTesteEntity salvo = conteudoRepository.save(conteudo);
+
+            balde.disponiveis.addLast(new ItemPool(salvo.getId(), texto));
+        }
+    }
+
+    private static String chave(String dificuldade, String faixaEtaria) {
+        return (dificuldade == null ? "GERAL" : dificuldade.toUpperCase()) + "|" + faixaEtaria;
+    }
+
+    private static final class Balde {
+        private final String dificuldade;
+        private final String faixaEtaria;
+        private final ConcurrentLinkedDeque<ItemPool> disponiveis = new ConcurrentLinkedDeque<>();
+        // Textos normalizados já gerados para este balde (usados ou não), para descartar repetidos
+        private final Set<String> conhecidos = ConcurrentHashMap.newKeySet();
+        private volatile boolean reabastecendo;
+
+        private Balde(String dificuldade, String faixaEtaria) {
+            this.dificuldade = dificuldade;
+            this.faixaEtaria = faixaEtaria;
+        }
+
+        private int tamanho() {
+            return disponiveis.size();
+        }
+    }
+
+    private static final class ItemPool {
+        private final Long id;
+        private final String texto;
+
+        private ItemPool(Long id, String texto) {
+            this.id = id;
+            this.texto = texto;
+        }
+    }
+}
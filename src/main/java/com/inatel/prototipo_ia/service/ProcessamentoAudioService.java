@@ -0,0 +1,225 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.analise.JobAnalise;
+import com.inatel.prototipo_ia.analise.JobAnalise.TipoJob;
+import com.inatel.prototipo_ia.analise.RegistroJobsAnalise;
+import com.inatel.prototipo_ia.analise.RoteadorMotoresAnalise;
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.audio.PreprocessadorAudio;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+import com.inatel.prototipo_ia.eventos.BarramentoEventosSessao;
+import com.inatel.prototipo_ia.upstream.UpstreamIndisponivelException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Orquestra as análises de áudio fora das threads do Tomcat e fora de transações.
+ *
+ * A sessão só fica presa a uma conexão do banco nos passos curtos do
+ * {@link SessaoTreinoService} (marcar PROCESSANDO, concluir ou reverter); a chamada à IA
+ * roda no {@code analiseExecutor}, sem transação aberta. As mensagens geradas (feedback,
+ * resumo final ou erro) também são publicadas no {@link BarramentoEventosSessao}.
+ *
+ * O motor de análise (Gemini ou Deepgram) é escolhido pelo {@link RoteadorMotoresAnalise},
+ * que também consulta o cache de resultados e troca de motor quando o escolhido falha.
+ *
+ * Antes da análise o áudio passa pelo {@link PreprocessadorAudio} (corte de silêncio, mono e
+ * 16 kHz para uploads WAV), já na thread do executor, para o upload não esperar por isso.
+ *
+ * O {@link AudioArquivo} recebido passa a ser deste serviço: o arquivo temporário é apagado
+ * quando o job termina (ou logo, se a análise nem chegar a ser agendada).
+ */
+@Service
+public class ProcessamentoAudioService {
+
+    private final SessaoTreinoService sessaoService;
+    private final RoteadorMotoresAnalise roteador;
+    private final PreprocessadorAudio preprocessador;
+    private final RegistroJobsAnalise registroJobs;
+    private final BarramentoEventosSessao eventos;
+    private final TaskExecutor analiseExecutor;
+
+    public ProcessamentoAudioService(
+            SessaoTreinoService sessaoService,
+            RoteadorMotoresAnalise roteador,
+            PreprocessadorAudio preprocessador,
+            RegistroJobsAnalise registroJobs,
+            BarramentoEventosSessao eventos,
+            @Qualifier("analiseExecutor") TaskExecutor analiseExecutor) {
+        this.sessaoService = sessaoService;
+        this.roteador = roteador;
+        this.preprocessador = preprocessador;
+        this.registroJobs = registroJobs;
+        this.eventos = eventos;
+        this.analiseExecutor = analiseExecutor;
+    }
+
+    /**
+     * Aceita o áudio do trava-língua e agenda a análise.
+     *
+     * @param usarGemini prefere o Gemini enquanto ele estiver saudável; sem preferência o
+     *                   roteador escolhe pelo histórico de latência, erros e custo
+     *
+     * @throws jakarta.persistence.EntityNotFoundException se a sessão não existir
+     * @throws IllegalStateException se a sessão não estiver aguardando áudio
+     * @throws TaskRejectedException se o executor estiver lotado (a sessão volta a aguardar áudio)
+     */
+    public JobAnalise processarAudioSessao(Long sessaoId, AudioArquivo audio, boolean usarGemini) {
+        List<String> palavrasEsperadas;
+        try {
+            palavrasEsperadas = sessaoService.iniciarProcessamento(sessaoId);
+        } catch (RuntimeException e) {
+            audio.close();
+            throw e;
+        }
+        JobAnalise job = registroJobs.registrar(new JobAnalise(TipoJob.SESSAO_TREINO, sessaoId));
+
+        try {
+            analiseExecutor.execute(() -> {
+                try (AudioArquivo preparado = preprocessador.preparar(audio)) {
+                    executarAnaliseSessao(job, preparado, palavrasEsperadas, usarGemini ? MotorAnalise.GEMINI : null);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            audio.close();
+            registroJobs.remover(job.getId());
+            sessaoService.reverterProcessamento(sessaoId);
+            throw e;
+        }
+        return job;
+    }
+
+    public JobAnalise analisarDeepgram(AudioArquivo audio, List<String> palavrasEsperadas) {
+        JobAnalise job = registroJobs.registrar(new JobAnalise(TipoJob.PRONUNCIA_DEEPGRAM, null));
+        return agendar(job, audio, preparado -> roteador.analisarCom(MotorAnalise.DEEPGRAM, preparado, palavrasEsperadas));
+    }
+
+    public JobAnalise analisarGemini(AudioArquivo audio, List<String> palavrasEsperadas) {
+        JobAnalise job = registroJobs.registrar(new JobAnalise(TipoJob.PRONUNCIA_GEMINI, null));
+        return agendar(job, audio, preparado -> roteador.analisarCom(MotorAnalise.GEMINI, preparado, palavrasEsperadas));
+    }
+
+    public Optional<JobAnalise> buscarJob(String jobId) {
+        return registroJobs.buscar(jobId);
+    }
+
+    /**
+     * Os jobs ficam só em memória: se a aplicação caiu no meio de uma análise,
+     * a sessão ficaria presa em PROCESSANDO para sempre.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void liberarSessoesPresas() {
+        int liberadas = sessaoService.liberarSessoesEmProcessamento();
+        if (liberadas > 0) {
+            System.out.println("Sessões liberadas após reinício (voltaram a aguardar áudio): " + liberadas);
+        }
+    }
+
+    private void executarAnaliseSessao(JobAnalise job, AudioArquivo audio, List<String> palavrasEsperadas,
+                                       MotorAnalise preferido) {
+        job.iniciar();
+        Long sessaoId = job.getSessaoId();
+        try {
+            // Analisa a pronúncia (sem transação aberta); as palavras já avaliadas vão saindo pelo SSE
+            FeedbackParcial parcial = new FeedbackParcial(sessaoId, palavrasEsperadas.size());
+            BatchPronunciationAnalysisDTO resultado = roteador.analisar(preferido, audio, palavrasEsperadas, parcial);
+            List<MensagemSessaoDtoOut> mensagens = sessaoService.concluirProcessamento(sessaoId, resultado);
+            job.concluir(mensagens);
+
+            mensagens.forEach(mensagem -> eventos.publicar(sessaoId, mensagem));
+            if (mensagens.stream().anyMatch(m -> Boolean.TRUE.equals(m.getSessaoFinalizada()))) {
+                eventos.encerrar(sessaoId);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            try {
+                sessaoService.reverterProcessamento(sessaoId);
+            } catch (Exception erroReversao) {
+                erroReversao.printStackTrace();
+            }
+            String mensagem = mensagemDeErro(e);
+            MensagemSessaoDtoOut erro = MensagemSessaoDtoOut.erro(sessaoId, mensagem);
+            job.falhar(mensagem, Collections.singletonList(erro));
+            eventos.publicar(sessaoId, erro);
+        }
+    }
+
+    /**
+     * Com o upstream recusando chamadas (disjuntor aberto ou sem vaga) a falha é imediata,
+     * então a criança recebe quando vale a pena tentar de novo em vez de um erro técnico.
+     */
+    static String mensagemDeErro(Exception e) {
+        Optional<UpstreamIndisponivelException> indisponivel = UpstreamIndisponivelException.naCausa(e);
+        if (indisponivel.isPresent()) {
+            long segundos = Math.max(5, indisponivel.get().getTentarNovamenteEm().toSeconds());
+            return "O serviço de análise está instável no momento. Tente novamente em " + segundos + " segundos.";
+        }
+        return "Erro ao processar áudio: " + e.getMessage() + ". Por favor, tente enviar novamente.";
+    }
+
+    private JobAnalise agendar(JobAnalise job, AudioArquivo audio, AnaliseEmLote analise) {
+        try {
+            analiseExecutor.execute(() -> {
+                job.iniciar();
+                try (AudioArquivo preparado = preprocessador.preparar(audio)) {
+                    job.concluir(analise.executar(preparado));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    job.falhar(e.getMessage(), null);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            audio.close();
+            registroJobs.remover(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Junta as palavras que o Gemini já avaliou e publica o parcial acumulado a cada nova palavra.
+     */
+    private final class FeedbackParcial implements Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> {
+
+        private final Long sessaoId;
+        private final int totalPalavras;
+        private final List<BatchPronunciationAnalysisDTO.ResultadoPalavra> avaliadas = new ArrayList<>();
+        private int acertos;
+
+        private FeedbackParcial(Long sessaoId, int totalPalavras) {
+            this.sessaoId = sessaoId;
+            this.totalPalavras = totalPalavras;
+        }
+
+        @Override
+        public void accept(BatchPronunciationAnalysisDTO.ResultadoPalavra palavra) {
+            avaliadas.add(palavra);
+            if (Boolean.TRUE.equals(palavra.getAcertou())) {
+                acertos++;
+            }
+
+            BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+            analise.setResultados(new ArrayList<>(avaliadas));
+            analise.setTotalAcertos(acertos);
+            analise.setTotalPalavras(totalPalavras);
+            eventos.publicar(sessaoId, MensagemSessaoDtoOut.feedbackParcial(sessaoId, analise));
+        }
+    }
+
+    @FunctionalInterface
+    private interface AnaliseEmLote {
+        BatchPronunciationAnalysisDTO executar(AudioArquivo audio) throws Exception;
+    }
+}
@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.ProfissionalDtoIn;
 import com.inatel.prototipo_ia.dto.out.ProfissionalDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.ProfissionalEntity;
 import com.inatel.prototipo_ia.repository.ProfissionalRepository;
 import com.inatel.prototipo_ia.repository.TratamentoRepository;
@@ -56,6 +57,11 @@ public class ProfissionalService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<ProfissionalDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, profissionalRepository, ProfissionalEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     /**
      * Busca um profissional pelo seu ID e retorna DTO de saída.
      */
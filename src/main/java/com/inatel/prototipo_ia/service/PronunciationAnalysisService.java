@@ -1,139 +1,351 @@
 package com.inatel.prototipo_ia.service;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.inatel.prototipo_ia.analise.MotorAnalisePronuncia;
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.audio.SegmentadorVoz;
+import com.inatel.prototipo_ia.audio.TrechoAudio;
 import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+import com.inatel.prototipo_ia.upstream.ChamadaComHedge;
+import com.inatel.prototipo_ia.upstream.LeitorJsonStreaming;
+import com.inatel.prototipo_ia.upstream.UpstreamHttpConfigurations;
 import okhttp3.*;
-import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.text.Normalizer;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @Service
-public class PronunciationAnalysisService {
+public class PronunciationAnalysisService implements MotorAnalisePronuncia {
 
     @Value("${deepgram.api.key}")
     private String deepgramApiKey;
 
+    // Transcrição é idempotente: passado esse tempo sem resposta, dispara uma segunda cópia
+    @Value("${deepgram.http.hedge-apos:6s}")
+    private Duration hedgeApos;
+
+    @Value("${deepgram.analise.custo-relativo:1.0}")
+    private double custoRelativo;
+
+    // Similaridade mínima (em milésimos) para que uma palavra falada seja consumida no alinhamento
+    private static final int SIMILARIDADE_MINIMA_PAREAMENTO = 600;
+
+    // Abaixo disso a similaridade nem é calculada por completo na matriz (vira 0): serve só ao
+    // pareamento. A nota informada de uma palavra sem par é recalculada sem corte
+    private static final int SIMILARIDADE_MINIMA = 500;
+
     private final OkHttpClient httpClient;
-    private final LevenshteinDistance levenshtein;
+    private final AlinhadorPalavras alinhador;
+    private final NormalizadorFonetico normalizador;
+    private final SegmentadorVoz segmentador;
+    private final Executor segmentosExecutor;
+
+    public PronunciationAnalysisService(@Qualifier("deepgramHttpClient") OkHttpClient httpClient,
+                                        AlinhadorPalavras alinhador,
+                                        NormalizadorFonetico normalizador,
+                                        SegmentadorVoz segmentador,
+                                        @Qualifier("segmentosExecutor") Executor segmentosExecutor) {
+        this.httpClient = httpClient;
+        this.alinhador = alinhador;
+        this.normalizador = normalizador;
+        this.segmentador = segmentador;
+        this.segmentosExecutor = segmentosExecutor;
+    }
 
-    public PronunciationAnalysisService() {
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .build();
-        this.levenshtein = new LevenshteinDistance();
+    @Override
+    public MotorAnalise getMotor() {
+        return MotorAnalise.DEEPGRAM;
+    }
+
+    @Override
+    public double getCustoRelativo() {
+        return custoRelativo;
+    }
+
+    /**
+     * A transcrição chega inteira de uma vez, então não há palavras parciais para entregar.
+     */
+    @Override
+    public BatchPronunciationAnalysisDTO analisar(AudioArquivo audio, List<String> palavrasEsperadas,
+                                                  Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliarPalavra) {
+        return analisarPronunciaEmLote(audio, palavrasEsperadas);
     }
 
-    public BatchPronunciationAnalysisDTO analisarPronunciaEmLote(byte[] audioBytes, List<String> palavrasEsperadas) {
+    /**
+     * Gravações WAV com pausas são divididas em trechos de fala pelo {@link SegmentadorVoz}:
+     * cada trecho é transcrito numa chamada própria, todas em paralelo, e cada palavra do
+     * resultado recebe o início e o fim do trecho em que foi dita.
+     */
+    public BatchPronunciationAnalysisDTO analisarPronunciaEmLote(AudioArquivo audio, List<String> palavrasEsperadas) {
+        List<TrechoAudio> trechos = List.of();
         try {
             // 1. Transcrição (Agora com menos viés)
-            String transcricaoCompleta = transcreverAudio(audioBytes, palavrasEsperadas);
-            System.out.println("📝 Transcrição IA (O que ela ouviu): " + transcricaoCompleta);
-
-            // 2. Normalização
-            List<String> palavrasTranscritas = Arrays.stream(transcricaoCompleta.split("\\s+"))
-                    .map(this::normalizarTexto)
-                    .filter(p -> !p.isEmpty())
-                    .collect(Collectors.toList());
-
-            List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = new ArrayList<>();
-            int acertos = 0;
-            double somaSimilaridades = 0.0;
-
-            boolean[] palavrasUsadas = new boolean[palavrasTranscritas.size()];
-
-            for (String palavraEsperada : palavrasEsperadas) {
-                String pEsperadaNorm = normalizarTexto(palavraEsperada);
-                
-                String melhorPalavraEncontrada = "";
-                double melhorScore = 0.0;
-                int indiceMelhorMatch = -1;
-
-                // Busca a melhor correspondência na frase falada
-                for (int i = 0; i < palavrasTranscritas.size(); i++) {
-                    if (palavrasUsadas[i]) continue;
-
-                    String pTranscrita = palavrasTranscritas.get(i);
-                    
-                    // Agora usamos comparação direta e fonética leve
-                    double scoreOrtografico = calcularSimilaridade(pEsperadaNorm, pTranscrita);
-                    double scoreFonetico = calcularSimilaridade(fonetizarTexto(pEsperadaNorm), fonetizarTexto(pTranscrita));
-                    
-                    // Pega o melhor dos dois mundos, mas sem exagerar
-                    double score = Math.max(scoreOrtografico, scoreFonetico);
-
-                    if (score > melhorScore) {
-                        melhorScore = score;
-                        melhorPalavraEncontrada = pTranscrita;
-                        indiceMelhorMatch = i;
-                    }
+            trechos = segmentador.dividir(audio);
+            if (trechos.isEmpty()) {
+                String transcricaoCompleta = transcreverAudio(audio, palavrasEsperadas, null);
+                System.out.println("📝 Transcrição IA (O que ela ouviu): " + transcricaoCompleta);
+                return avaliarTranscricao(transcricaoCompleta, palavrasEsperadas);
+            }
+
+            List<String> transcricoes = transcreverTrechos(trechos, palavrasEsperadas);
+            System.out.println("📝 Transcrição IA por trecho (" + trechos.size() + "): " + transcricoes);
+            return avaliarTranscricao(transcricoes, trechos, palavrasEsperadas);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Erro análise: " + e.getMessage(), e);
+        } finally {
+            trechos.forEach(TrechoAudio::close);
+        }
+    }
+
+    private List<String> transcreverTrechos(List<TrechoAudio> trechos, List<String> palavrasChave) throws IOException {
+        LoteTrechos lote = new LoteTrechos();
+        List<CompletableFuture<String>> chamadas = new ArrayList<>(trechos.size());
+        for (TrechoAudio trecho : trechos) {
+            chamadas.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return transcreverAudio(trecho.getAudio(), palavrasChave, lote);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
                 }
+            }, segmentosExecutor));
+        }
 
-                System.out.printf("🔍 '%s' vs '%s' -> Score: %.2f%%%n", 
-                        palavraEsperada, melhorPalavraEncontrada, melhorScore * 100);
+        List<String> transcricoes = new ArrayList<>(trechos.size());
+        try {
+            for (CompletableFuture<String> chamada : chamadas) {
+                transcricoes.add(chamada.join());
+            }
+        } catch (CompletionException e) {
+            // Um trecho sem transcrição estragaria o alinhamento: a análise inteira falha
+            cancelar(lote, chamadas);
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        return transcricoes;
+    }
 
-                // --- CRITÉRIOS MAIS RIGOROSOS ---
-                // Só marca como usada se tiver certeza (score alto)
-                if (indiceMelhorMatch != -1 && melhorScore >= 0.6) {
-                    palavrasUsadas[indiceMelhorMatch] = true;
+    /**
+     * {@code cancel(true)} só descarta o resultado de um CompletableFuture (não interrompe a
+     * thread), então os trechos ainda em andamento são cancelados no OkHttp: a conexão é
+     * abortada e os interceptors liberam a vaga do upstream na hora. Trechos que ainda não
+     * começaram nem chegam a chamar o Deepgram.
+     */
+    private void cancelar(LoteTrechos lote, List<CompletableFuture<String>> chamadas) {
+        lote.cancelado = true;
+        chamadas.forEach(chamada -> chamada.cancel(true));
+        Dispatcher dispatcher = httpClient.dispatcher();
+        for (List<Call> calls : List.of(dispatcher.queuedCalls(), dispatcher.runningCalls())) {
+            for (Call call : calls) {
+                if (call.request().tag(LoteTrechos.class) == lote) {
+                    call.cancel();
                 }
+            }
+        }
+    }
+
+    /**
+     * Compara a transcrição com as palavras esperadas e monta o resultado da análise.
+     * Separado da chamada ao Deepgram para poder ser testado e medido isoladamente.
+     */
+    BatchPronunciationAnalysisDTO avaliarTranscricao(String transcricaoCompleta, List<String> palavrasEsperadas) {
+        return avaliarTranscricao(List.of(transcricaoCompleta), null, palavrasEsperadas);
+    }
+
+    /**
+     * Igual, com a transcrição de cada trecho do áudio: o alinhamento usa a fala inteira, e cada
+     * palavra avaliada recebe o tempo do trecho de onde veio a palavra transcrita com que foi
+     * comparada.
+     *
+     * @param trechos trechos de cada transcrição, na mesma ordem (nulo = sem tempos)
+     */
+    BatchPronunciationAnalysisDTO avaliarTranscricao(List<String> transcricoes, List<TrechoAudio> trechos,
+                                                     List<String> palavrasEsperadas) {
+        String transcricaoCompleta = String.join(" ", transcricoes);
+
+        // 2. Normalização (uma única vez por palavra)
+        List<String> palavrasTranscritas = new ArrayList<>();
+        List<String> transcritasFoneticasTexto = new ArrayList<>();
+        List<Integer> trechoDaTranscrita = new ArrayList<>();
+        for (int t = 0; t < transcricoes.size(); t++) {
+            for (String palavra : normalizador.separarPalavras(transcricoes.get(t))) {
+                String normalizada = normalizador.normalizar(palavra);
+                if (!normalizada.isEmpty()) {
+                    palavrasTranscritas.add(normalizada);
+                    transcritasFoneticasTexto.add(normalizador.fonetizar(palavra));
+                    trechoDaTranscrita.add(t);
+                }
+            }
+        }
+
+        int totalEsperadas = palavrasEsperadas.size();
+        int totalTranscritas = palavrasTranscritas.size();
+
+        char[][] esperadasNorm = new char[totalEsperadas][];
+        char[][] esperadasFoneticas = new char[totalEsperadas][];
+        for (int i = 0; i < totalEsperadas; i++) {
+            esperadasNorm[i] = normalizador.normalizar(palavrasEsperadas.get(i)).toCharArray();
+            esperadasFoneticas[i] = normalizador.fonetizar(palavrasEsperadas.get(i)).toCharArray();
+        }
+        char[][] transcritasNorm = new char[totalTranscritas][];
+        char[][] transcritasFoneticas = new char[totalTranscritas][];
+        for (int j = 0; j < totalTranscritas; j++) {
+            transcritasNorm[j] = palavrasTranscritas.get(j).toCharArray();
+            transcritasFoneticas[j] = transcritasFoneticasTexto.get(j).toCharArray();
+        }
+
+        // 3. Matriz de similaridade de uma vez: comparação direta e fonética leve,
+        // ficando com o melhor dos dois mundos em cada par
+        int[] similaridades = new int[totalEsperadas * totalTranscritas];
+        SimilaridadeLevenshtein.preencherMatriz(esperadasNorm, transcritasNorm, SIMILARIDADE_MINIMA, similaridades);
+        SimilaridadeLevenshtein.preencherMatriz(esperadasFoneticas, transcritasFoneticas, SIMILARIDADE_MINIMA, similaridades);
+
+        // 4. Alinhamento ótimo respeitando a ordem da frase
+        // --- CRITÉRIOS MAIS RIGOROSOS ---
+        // Só consome uma palavra falada se tiver certeza (score alto)
+        int[] pares = alinhador.alinhar(similaridades, totalEsperadas, totalTranscritas, SIMILARIDADE_MINIMA_PAREAMENTO);
+
+        List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = new ArrayList<>();
+        int acertos = 0;
+        double somaSimilaridades = 0.0;
+
+        for (int i = 0; i < totalEsperadas; i++) {
+            String palavraEsperada = palavrasEsperadas.get(i);
+            int indiceMelhorMatch = pares[i];
+
+            if (indiceMelhorMatch == AlinhadorPalavras.SEM_PAR) {
+                // Sem par confiável: mostramos a palavra mais parecida entre as vizinhas não pareadas
+                indiceMelhorMatch = melhorCandidatoNaLacuna(similaridades, pares, i, esperadasNorm[i],
+                        esperadasFoneticas[i], transcritasNorm, transcritasFoneticas);
+            }
+
+            String melhorPalavraEncontrada = indiceMelhorMatch >= 0 ? palavrasTranscritas.get(indiceMelhorMatch) : "";
+            double melhorScore = indiceMelhorMatch >= 0
+                    ? (double) similaridades[i * totalTranscritas + indiceMelhorMatch] / SimilaridadeLevenshtein.ESCALA
+                    : 0.0;
+
+            System.out.printf("🔍 '%s' vs '%s' -> Score: %.2f%%%n",
+                    palavraEsperada, melhorPalavraEncontrada, melhorScore * 100);
 
-                // Nota final sem arredondamento bonzinho
-                double scoreFinal = melhorScore * 100;
+            // Nota final sem arredondamento bonzinho
+            double scoreFinal = melhorScore * 100;
 
-                // Régua de aprovação: precisa de 80% para "Acertou"
-                boolean acertou = scoreFinal >= 80.0;
-                
-                if (acertou) acertos++;
-                somaSimilaridades += scoreFinal;
+            // Régua de aprovação: precisa de 80% para "Acertou"
+            boolean acertou = scoreFinal >= 80.0;
 
-                String feedback = gerarFeedbackPalavra(scoreFinal, palavraEsperada, melhorPalavraEncontrada);
+            if (acertou) acertos++;
+            somaSimilaridades += scoreFinal;
 
-                resultados.add(new BatchPronunciationAnalysisDTO.ResultadoPalavra(
-                        palavraEsperada,
-                        melhorPalavraEncontrada.isEmpty() ? "(não identifiquei)" : melhorPalavraEncontrada,
-                        acertou,
-                        scoreFinal,
-                        feedback
-                ));
+            String feedback = gerarFeedbackPalavra(scoreFinal, palavraEsperada, melhorPalavraEncontrada);
+
+            BatchPronunciationAnalysisDTO.ResultadoPalavra resultadoPalavra = new BatchPronunciationAnalysisDTO.ResultadoPalavra(
+                    palavraEsperada,
+                    melhorPalavraEncontrada.isEmpty() ? "(não identifiquei)" : melhorPalavraEncontrada,
+                    acertou,
+                    scoreFinal,
+                    feedback
+            );
+            if (trechos != null && indiceMelhorMatch >= 0) {
+                TrechoAudio trecho = trechos.get(trechoDaTranscrita.get(indiceMelhorMatch));
+                resultadoPalavra.setInicioMs(trecho.getInicioMs());
+                resultadoPalavra.setFimMs(trecho.getFimMs());
             }
+            resultados.add(resultadoPalavra);
+        }
 
-            double pontuacaoGeral = palavrasEsperadas.isEmpty() ? 0.0 : (somaSimilaridades / palavrasEsperadas.size());
-            double porcentagemAcerto = palavrasEsperadas.isEmpty() ? 0.0 : ((double) acertos / palavrasEsperadas.size()) * 100;
+        double pontuacaoGeral = palavrasEsperadas.isEmpty() ? 0.0 : (somaSimilaridades / palavrasEsperadas.size());
+        double porcentagemAcerto = palavrasEsperadas.isEmpty() ? 0.0 : ((double) acertos / palavrasEsperadas.size()) * 100;
 
-            String feedbackGeral = gerarFeedbackGeral(acertos, palavrasEsperadas.size(), pontuacaoGeral);
+        String feedbackGeral = gerarFeedbackGeral(acertos, palavrasEsperadas.size(), pontuacaoGeral);
 
-            BatchPronunciationAnalysisDTO resultado = new BatchPronunciationAnalysisDTO();
-            resultado.setPalavrasEsperadas(palavrasEsperadas);
-            resultado.setTranscricaoCompleta(transcricaoCompleta);
-            resultado.setResultados(resultados);
-            resultado.setPontuacaoGeral(pontuacaoGeral);
-            resultado.setTotalAcertos(acertos);
-            resultado.setTotalPalavras(palavrasEsperadas.size());
-            resultado.setPorcentagemAcerto(porcentagemAcerto);
-            resultado.setFeedbackGeral(feedbackGeral);
+        BatchPronunciationAnalysisDTO resultado = new BatchPronunciationAnalysisDTO();
+        resultado.setPalavrasEsperadas(palavrasEsperadas);
+        resultado.setTranscricaoCompleta(transcricaoCompleta);
+        resultado.setResultados(resultados);
+        resultado.setPontuacaoGeral(pontuacaoGeral);
+        resultado.setTotalAcertos(acertos);
+        resultado.setTotalPalavras(palavrasEsperadas.size());
+        resultado.setPorcentagemAcerto(porcentagemAcerto);
+        resultado.setFeedbackGeral(feedbackGeral);
 
-            return resultado;
+        return resultado;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Erro análise: " + e.getMessage(), e);
+    /**
+     * Para uma palavra esperada que ficou sem par, procura a transcrita mais parecida entre
+     * as que estão entre o par anterior e o próximo par do alinhamento (sem consumi-la).
+     * Se todas ficaram abaixo do corte da matriz, a lacuna é recalculada sem corte, para que a
+     * nota e o "ouvi: ..." do resultado sejam os mesmos de uma comparação completa.
+     */
+    private int melhorCandidatoNaLacuna(int[] similaridades, int[] pares, int esperada,
+                                        char[] esperadaNorm, char[] esperadaFonetica,
+                                        char[][] transcritasNorm, char[][] transcritasFoneticas) {
+        int totalTranscritas = transcritasNorm.length;
+        int inicio = 0;
+        for (int k = esperada - 1; k >= 0; k--) {
+            if (pares[k] != AlinhadorPalavras.SEM_PAR) {
+                inicio = pares[k] + 1;
+                break;
+            }
+        }
+        int fim = totalTranscritas;
+        for (int k = esperada + 1; k < pares.length; k++) {
+            if (pares[k] != AlinhadorPalavras.SEM_PAR) {
+                fim = pares[k];
+                break;
+            }
         }
+
+        int linha = esperada * totalTranscritas;
+        int melhor = maisParecida(similaridades, linha, inicio, fim);
+        if (melhor < 0) {
+            // O alinhamento já terminou: sobrescrever a matriz só afeta a nota informada
+            for (int j = inicio; j < fim; j++) {
+                similaridades[linha + j] = Math.max(
+                        SimilaridadeLevenshtein.similaridade(esperadaNorm, transcritasNorm[j], 0),
+                        SimilaridadeLevenshtein.similaridade(esperadaFonetica, transcritasFoneticas[j], 0));
+            }
+            melhor = maisParecida(similaridades, linha, inicio, fim);
+        }
+        return melhor;
     }
 
-    private String transcreverAudio(byte[] audioBytes, List<String> palavrasChave) throws IOException {
-        RequestBody body = RequestBody.create(audioBytes, MediaType.parse("audio/*"));
+    private int maisParecida(int[] similaridades, int linha, int inicio, int fim) {
+        int melhor = -1;
+        int melhorScore = 0;
+        for (int j = inicio; j < fim; j++) {
+            if (similaridades[linha + j] > melhorScore) {
+                melhorScore = similaridades[linha + j];
+                melhor = j;
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * @param lote trechos da mesma análise (nulo = áudio inteiro); vai como tag da requisição
+     *             para que as chamadas do lote possam ser canceladas juntas
+     */
+    private String transcreverAudio(AudioArquivo audio, List<String> palavrasChave, LoteTrechos lote) throws IOException {
+        if (lote != null && lote.cancelado) {
+            throw new IOException("Transcrição cancelada: outro trecho da análise falhou");
+        }
+        // Lido do arquivo em blocos a cada envio (inclusive na cópia do hedge), nunca inteiro no heap
+        RequestBody body = RequestBody.create(audio.getCaminho().toFile(), MediaType.parse(audio.tipoMime("audio/*")));
         
         // Reduzimos o Boost para 3.0 (ajuda a identificar, mas não força alucinação)
         StringBuilder urlBuilder = new StringBuilder("https://api.deepgram.com/v1/listen?model=nova-2&language=pt-BR&smart_format=true&punctuate=false&diarize=false");
@@ -153,51 +365,19 @@ public class PronunciationAnalysisService {
         Request request = new Request.Builder()
                 .url(urlBuilder.toString())
                 .addHeader("Authorization", "Token " + deepgramApiKey)
+                .tag(LoteTrechos.class, lote)
                 .post(body)
                 .build();
 
-        try (Response response = httpClient.newCall(request).execute()) {
+        try (Response response = ChamadaComHedge.executar(httpClient, request, hedgeApos, UpstreamHttpConfigurations.DEEPGRAM)) {
             if (!response.isSuccessful()) throw new IOException("Erro API: " + response.code());
-            String jsonResponse = response.body().string();
-            JsonObject json = JsonParser.parseString(jsonResponse).getAsJsonObject();
-            if (!json.has("results")) return "";
-            try {
-                 return json.getAsJsonObject("results")
-                    .getAsJsonArray("channels").get(0).getAsJsonObject()
-                    .getAsJsonArray("alternatives").get(0).getAsJsonObject()
-                    .get("transcript").getAsString();
-            } catch (Exception e) { return ""; }
+            // Vai direto a results.channels[0].alternatives[0].transcript, sem montar a árvore
+            String transcricao = LeitorJsonStreaming.extrairTexto(response.body().charStream(),
+                    "results", "channels", 0, "alternatives", 0, "transcript");
+            return transcricao != null ? transcricao : "";
         }
     }
 
-    // Fonetização mais leve para não misturar palavras muito diferentes
-    private String fonetizarTexto(String texto) {
-        String t = normalizarTexto(texto);
-        t = t.replace("ch", "x");
-        t = t.replace("lh", "li");
-        t = t.replace("nh", "ni");
-        t = t.replace("ç", "s");
-        t = t.replace("ss", "s");
-        return t;
-    }
-
-    private double calcularSimilaridade(String p1, String p2) {
-        if (p1.equals(p2)) return 1.0;
-        if (p1.isEmpty() || p2.isEmpty()) return 0.0;
-
-        int distancia = levenshtein.apply(p1, p2);
-        int maxLen = Math.max(p1.length(), p2.length());
-        return 1.0 - ((double) distancia / maxLen);
-    }
-
-    private String normalizarTexto(String texto) {
-        if (texto == null) return "";
-        String normalized = Normalizer.normalize(texto, Normalizer.Form.NFD);
-        normalized = normalized.replaceAll("[^\\p{ASCII}]", "");
-        normalized = normalized.replaceAll("[.,!?]", ""); 
-        return normalized.toLowerCase().trim();
-    }
-
     private String gerarFeedbackPalavra(double pontuacao, String esperada, String transcrita) {
         // Régua mais rigorosa
         if (pontuacao >= 90) return "Perfeito!";
@@ -211,4 +391,11 @@ public class PronunciationAnalysisService {
         else if (pontuacaoGeral >= 70) return "Bom trabalho! Continue treinando. 👍";
         else return "Atenção à articulação. Vamos tentar de novo? 💪";
     }
-}
\ No newline at end of file
+
+    /**
+     * Marca as chamadas dos trechos de uma análise (tag da requisição no OkHttp).
+     */
+    private static final class LoteTrechos {
+        private volatile boolean cancelado;
+    }
+}
@@ -2,10 +2,12 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.RelatorioDtoIn;
 import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.ChatEntity;
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.RelatorioRepository;
+import com.inatel.prototipo_ia.repository.RelatorioRepository.RelatorioResumo;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import jakarta.persistence.EntityNotFoundException;
@@ -77,27 +79,30 @@ public class RelatorioService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<RelatorioDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, relatorioRepository, RelatorioEntity::getId, Paginacao.cada(this::toDto));
+    }
+
+    @Transactional(readOnly = true)
     public List<RelatorioDtoOut> buscarPorClienteId(Long clienteId) {
-        return chatRepository.findByClienteId(clienteId)
+        return relatorioRepository.findResumosByChatClienteId(clienteId)
                 .stream()
-                .map(ChatEntity::getRelatorio)
-                .filter(r -> r != null)
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<RelatorioDtoOut> buscarPorClienteIdEProfissionalId(Long clienteId, Long especialistaId) {
-        return chatRepository.findByClienteId(clienteId)
+        return relatorioRepository.findResumosByChatClienteIdAndChatEspecialistaId(clienteId, especialistaId)
                 .stream()
-                .filter(c -> c.getEspecialista() != null && c.getEspecialista().getId().equals(especialistaId))
-                .map(ChatEntity::getRelatorio)
-                .filter(r -> r != null)
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<RelatorioDtoOut> buscarPorClienteIdEEspecialistaId(Long clienteId, Long especialistaId) {
-        return relatorioRepository.findByChatClienteIdAndEspecialistaId(clienteId, especialistaId)
+        return relatorioRepository.findResumosByChatClienteIdAndEspecialistaId(clienteId, especialistaId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -159,6 +164,18 @@ public class RelatorioService {
         return dto;
     }
 
+    /**
+     * Conversor de projeção de leitura -> DTO Out.
+     */
+    private RelatorioDtoOut toDto(RelatorioResumo resumo) {
+        RelatorioDtoOut dto = new RelatorioDtoOut();
+        dto.setId(resumo.getId());
+        dto.setAcuracia(resumo.getAcuracia());
+        dto.setAnaliseFono(resumo.getAnaliseFono());
+        dto.setChatId(resumo.getChatId());
+        return dto;
+    }
+
     /**
      * Aplica os campos do DTO In na entidade (create/update).
      * Não altera o chat no update.
@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.SecretariaDtoIn;
 import com.inatel.prototipo_ia.dto.out.SecretariaDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.SecretariaEntity;
 import com.inatel.prototipo_ia.repository.SecretariaRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -85,6 +86,11 @@ public class SecretariaService {
     public List<SecretariaDtoOut> buscarTodos() {
         return secretariaRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
     }
+
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<SecretariaDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, secretariaRepository, SecretariaEntity::getId, Paginacao.cada(this::toDto));
+    }
     public Optional<SecretariaDtoOut> buscarPorId(Long id) {
         return secretariaRepository.findById(id).map(this::toDto);
     }
@@ -9,13 +9,24 @@ import com.inatel.prototipo_ia.dto.out.DashboardDtoOut;
 import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
 import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut.ResumoSessao;
 import com.inatel.prototipo_ia.dto.out.SessaoTreinoHistoryDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
+import com.inatel.prototipo_ia.dto.out.PalavraAnalisadaDtoOut;
+import com.inatel.prototipo_ia.dto.out.SessaoEventoDtoOut;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity;
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity.TipoEvento;
+import com.inatel.prototipo_ia.entity.SessaoResultadoPalavraEntity;
 import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
 import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.SessaoEventoRepository;
+import com.inatel.prototipo_ia.repository.SessaoResultadoPalavraRepository;
+import com.inatel.prototipo_ia.repository.SessaoResultadoPalavraRepository.PalavraAnalisada;
 import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository.PontuacaoSessao;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository.SessaoHistorico;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,7 +36,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Collections;
 import java.util.stream.Collectors;
 
@@ -34,23 +47,32 @@ import java.util.stream.Collectors;
 public class SessaoTreinoService {
 
     private final SessaoTreinoRepository sessaoRepository;
+    private final SessaoEventoRepository eventoRepository;
+    private final SessaoResultadoPalavraRepository palavraRepository;
     private final ClienteRepository clienteRepository;
     private final EspecialistaRepository especialistaRepository;
     private final AIWordGeneratorService wordGeneratorService;
-    private final GeminiAudioAnalysisService geminiService;
+    private final PoolTravaLinguasService poolTravaLinguas;
+    private final NormalizadorFonetico normalizador;
     private final Gson gson;
 
     public SessaoTreinoService(
             SessaoTreinoRepository sessaoRepository,
+            SessaoEventoRepository eventoRepository,
+            SessaoResultadoPalavraRepository palavraRepository,
             ClienteRepository clienteRepository,
             EspecialistaRepository especialistaRepository,
             AIWordGeneratorService wordGeneratorService,
-            GeminiAudioAnalysisService geminiService) {
+            PoolTravaLinguasService poolTravaLinguas,
+            NormalizadorFonetico normalizador) {
         this.sessaoRepository = sessaoRepository;
+        this.eventoRepository = eventoRepository;
+        this.palavraRepository = palavraRepository;
         this.clienteRepository = clienteRepository;
         this.especialistaRepository = especialistaRepository;
         this.wordGeneratorService = wordGeneratorService;
-        this.geminiService = geminiService;
+        this.poolTravaLinguas = poolTravaLinguas;
+        this.normalizador = normalizador;
         this.gson = new GsonBuilder()
                 .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
                 .create();
@@ -61,14 +83,12 @@ public class SessaoTreinoService {
     /**
      * Retorna estatísticas para o dashboard do cliente
      */
+    @Transactional(readOnly = true)
     public DashboardDtoOut buscarDashboard(Long clienteId) {
-        // Buscar todas as sessões finalizadas do cliente
-        List<SessaoTreinoEntity> sessoes = sessaoRepository.findByClienteIdAndStatus(
+        // Buscar todas as sessões finalizadas do cliente, já ordenadas por data (mais antiga -> mais recente)
+        List<PontuacaoSessao> sessoes = sessaoRepository.findPontuacoesByClienteIdAndStatus(
                 clienteId, StatusSessao.FINALIZADA);
 
-        // Ordenar por data (mais antiga -> mais recente)
-        sessoes.sort(Comparator.comparing(SessaoTreinoEntity::getDataInicio));
-
         // 1. Total de sessões realizadas
         int totalSessoes = sessoes.size();
 
@@ -169,12 +189,18 @@ public class SessaoTreinoService {
         sessao.setDificuldade(dto.getDificuldade() != null ? dto.getDificuldade() : "GERAL");
         sessao.setIdadeCliente(dto.getIdade() != null ? dto.getIdade() : cliente.getIdade());
 
-        // Gera um trava-língua
-        List<String> travaLinguaList = wordGeneratorService.gerarPalavrasComIA(
-                sessao.getIdadeCliente(),
-                sessao.getDificuldade(),
-                1 // Quantidade é ignorada, mas passamos 1 por clareza
-        );
+        // Prefere o corpus cadastrado (ponderado pelos erros do paciente), depois o pool de
+        // trava-línguas prontos; só gera na hora se os dois estiverem vazios
+        int idade = sessao.getIdadeCliente();
+        String dificuldade = sessao.getDificuldade();
+        List<String> travaLinguaList = wordGeneratorService.selecionarDoCorpus(cliente.getId(), dificuldade)
+                .or(() -> poolTravaLinguas.retirar(dificuldade, idade))
+                .map(List::of)
+                .orElseGet(() -> wordGeneratorService.gerarPalavrasComIA(
+                        idade,
+                        dificuldade,
+                        1 // Quantidade é ignorada, mas passamos 1 por clareza
+                ));
 
         if (travaLinguaList == null || travaLinguaList.isEmpty()) {
             throw new IllegalStateException("A IA não conseguiu gerar um trava-língua.");
@@ -185,17 +211,17 @@ public class SessaoTreinoService {
 
         // Monta mensagens de saudação
         MensagemSessaoDtoOut saudacao = MensagemSessaoDtoOut.saudacao(sessao.getId(), cliente.getNome());
-        sessao.adicionarAoHistorico("SISTEMA", saudacao.getMensagem());
+        sessao.adicionarAoHistorico("SISTEMA", TipoEvento.SAUDACAO, saudacao.getMensagem());
         mensagens.add(saudacao);
 
         // Adiciona instrução
         MensagemSessaoDtoOut instrucao = MensagemSessaoDtoOut.instrucao(sessao.getId(), 1, 1); // Ciclo único
-        sessao.adicionarAoHistorico("SISTEMA", instrucao.getMensagem());
+        sessao.adicionarAoHistorico("SISTEMA", TipoEvento.INSTRUCAO, instrucao.getMensagem());
         mensagens.add(instrucao);
         
         // Adiciona o trava-língua
         MensagemSessaoDtoOut palavras = MensagemSessaoDtoOut.palavras(sessao.getId(), 1, 1, travaLinguaList);
-        sessao.adicionarAoHistorico("SISTEMA", "Trava-língua: " + sessao.getTravaLingua());
+        sessao.adicionarAoHistorico("SISTEMA", TipoEvento.PALAVRAS, "Trava-língua: " + sessao.getTravaLingua());
         mensagens.add(palavras);
 
         // Mensagem aguardando áudio
@@ -203,48 +229,68 @@ public class SessaoTreinoService {
         mensagens.add(aguardando);
 
         sessao.setStatus(StatusSessao.AGUARDANDO_AUDIO);
-        sessaoRepository.save(sessao);
+        salvar(sessao);
 
         return mensagens;
     }
 
     /**
-     * Processa o áudio do trava-língua e finaliza a sessão.
+     * Primeiro passo do envio de áudio: marca a sessão como PROCESSANDO e devolve as palavras
+     * esperadas. A troca de status é condicional no banco, então dois envios simultâneos
+     * não disparam duas análises.
+     *
+     * @throws IllegalStateException se a sessão não estiver aguardando áudio
      */
-    public List<MensagemSessaoDtoOut> processarAudio(Long sessaoId, byte[] audioBytes, boolean usarGemini) {
+    public List<String> iniciarProcessamento(Long sessaoId) {
         SessaoTreinoEntity sessao = sessaoRepository.findById(sessaoId)
                 .orElseThrow(() -> new EntityNotFoundException("Sessão não encontrada: " + sessaoId));
 
-        if (sessao.getStatus() != StatusSessao.AGUARDANDO_AUDIO) {
-            return Collections.singletonList(MensagemSessaoDtoOut.erro(sessaoId, "Sessão não está aguardando áudio. Status atual: " + sessao.getStatus()));
+        int alteradas = sessaoRepository.atualizarStatus(sessaoId, StatusSessao.AGUARDANDO_AUDIO, StatusSessao.PROCESSANDO);
+        if (alteradas == 0) {
+            throw new IllegalStateException("Sessão não está aguardando áudio. Status atual: " + sessao.getStatus());
         }
 
-        sessao.setStatus(StatusSessao.PROCESSANDO);
-        sessaoRepository.save(sessao);
+        // Pega o trava-língua e quebra em palavras para análise
+        return normalizador.extrairPalavras(sessao.getTravaLingua());
+    }
+
+    /**
+     * Último passo do envio de áudio: grava o resultado da análise e finaliza a sessão.
+     */
+    public List<MensagemSessaoDtoOut> concluirProcessamento(Long sessaoId, BatchPronunciationAnalysisDTO resultado) {
+        SessaoTreinoEntity sessao = sessaoRepository.findById(sessaoId)
+                .orElseThrow(() -> new EntityNotFoundException("Sessão não encontrada: " + sessaoId));
 
-        try {
-            // Pega o trava-língua e quebra em palavras para análise
-            String travaLingua = sessao.getTravaLingua();
-            List<String> palavrasEsperadas = Arrays.asList(travaLingua.replaceAll("[^\\p{L}\\s]", "").toLowerCase().split("\\s+"));
+        // Cancelada enquanto a IA analisava: não sobrescreve
+        if (sessao.getStatus() != StatusSessao.PROCESSANDO) {
+            return Collections.singletonList(MensagemSessaoDtoOut.erro(sessaoId, "A sessão foi encerrada durante a análise. Status atual: " + sessao.getStatus()));
+        }
 
-            // Analisa a pronúncia
-            BatchPronunciationAnalysisDTO resultado = geminiService.analisarPronunciaEmLote(audioBytes, palavrasEsperadas);
+        sessao.adicionarAoHistorico("CLIENTE", TipoEvento.AUDIO_ENVIADO, "[ÁUDIO ENVIADO]");
+        sessao.setResultado(gson.toJson(resultado));
+        sessao.setFeedbackGeral(resultado.getFeedbackGeral());
+        palavraRepository.inserirEmLote(palavrasDoResultado(sessaoId, resultado));
 
-            sessao.adicionarAoHistorico("CLIENTE", "[ÁUDIO ENVIADO]");
-            sessao.setResultado(gson.toJson(resultado));
-            
-            // Atualiza totais
-            sessao.setTotalPalavras(resultado.getTotalPalavras() != null ? resultado.getTotalPalavras() : 0);
-            sessao.setTotalAcertos(resultado.getTotalAcertos() != null ? resultado.getTotalAcertos() : 0);
-            
-            // Finaliza a sessão com o resultado
-            return finalizarSessao(sessao, resultado);
+        // Atualiza totais
+        sessao.setTotalPalavras(resultado.getTotalPalavras() != null ? resultado.getTotalPalavras() : 0);
+        sessao.setTotalAcertos(resultado.getTotalAcertos() != null ? resultado.getTotalAcertos() : 0);
 
-        } catch (Exception e) {
-            sessao.setStatus(StatusSessao.AGUARDANDO_AUDIO); // Volta para aguardando
-            sessaoRepository.save(sessao);
-            return Collections.singletonList(MensagemSessaoDtoOut.erro(sessaoId, "Erro ao processar áudio: " + e.getMessage() + ". Por favor, tente enviar novamente."));
-        }
+        // Finaliza a sessão com o resultado
+        return finalizarSessao(sessao, resultado);
+    }
+
+    /**
+     * Devolve a sessão para AGUARDANDO_AUDIO quando a análise falha, para que o áudio seja reenviado.
+     */
+    public void reverterProcessamento(Long sessaoId) {
+        sessaoRepository.atualizarStatus(sessaoId, StatusSessao.PROCESSANDO, StatusSessao.AGUARDANDO_AUDIO);
+    }
+
+    /**
+     * Libera todas as sessões presas em PROCESSANDO (usado na subida da aplicação).
+     */
+    public int liberarSessoesEmProcessamento() {
+        return sessaoRepository.atualizarStatusDeTodas(StatusSessao.PROCESSANDO, StatusSessao.AGUARDANDO_AUDIO);
     }
 
     /**
@@ -283,9 +329,9 @@ public class SessaoTreinoService {
         resumo.setFeedbackGeral(resultadoAnalise.getFeedbackGeral());
 
         MensagemSessaoDtoOut msgFinal = MensagemSessaoDtoOut.resumoFinal(sessao.getId(), resumo);
-        sessao.adicionarAoHistorico("SISTEMA", "Sessão finalizada. Pontuação: " + pontuacaoGeral);
+        sessao.adicionarAoHistorico("SISTEMA", TipoEvento.RESUMO_FINAL, "Sessão finalizada. Pontuação: " + pontuacaoGeral);
         
-        sessaoRepository.save(sessao);
+        salvar(sessao);
 
         // Retorna o feedback do resultado da analise + o resumo final
         return Arrays.asList(
@@ -324,7 +370,7 @@ public class SessaoTreinoService {
 
         MensagemSessaoDtoOut msg = new MensagemSessaoDtoOut();
         msg.setSessaoId(sessaoId);
-        msg.setSessaoFinalizada(sessao.getStatus() == StatusSessao.FINALIZADA);
+        msg.setSessaoFinalizada(sessao.getStatus() == StatusSessao.FINALIZADA || sessao.getStatus() == StatusSessao.CANCELADA);
 
         if (sessao.getStatus() == StatusSessao.AGUARDANDO_AUDIO) {
             msg.setTipo(MensagemSessaoDtoOut.TipoMensagem.AGUARDANDO_AUDIO);
@@ -346,8 +392,8 @@ public class SessaoTreinoService {
 
         sessao.setStatus(StatusSessao.CANCELADA);
         sessao.setDataFim(LocalDateTime.now());
-        sessao.adicionarAoHistorico("SISTEMA", "Sessão cancelada pelo usuário");
-        sessaoRepository.save(sessao);
+        sessao.adicionarAoHistorico("SISTEMA", TipoEvento.CANCELAMENTO, "Sessão cancelada pelo usuário");
+        salvar(sessao);
 
         MensagemSessaoDtoOut msg = new MensagemSessaoDtoOut();
         msg.setSessaoId(sessaoId);
@@ -357,16 +403,44 @@ public class SessaoTreinoService {
         return msg;
     }
 
+    /**
+     * Conversa de uma sessão, em ordem, paginada por id do evento (ver {@link Paginacao}).
+     */
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<SessaoEventoDtoOut> listarConversa(Long sessaoId, Long cursor, Integer limite) {
+        if (!sessaoRepository.existsById(sessaoId)) {
+            throw new EntityNotFoundException("Sessão não encontrada: " + sessaoId);
+        }
+        return Paginacao.paginar(cursor, limite,
+                (inicio, tamanho) -> eventoRepository.findBySessaoIdAndIdGreaterThanOrderByIdAsc(sessaoId, inicio, tamanho),
+                SessaoEventoEntity::getId, Paginacao.cada(this::toEventoDto));
+    }
+
+    @Transactional(readOnly = true)
     public List<SessaoTreinoHistoryDtoOut> buscarHistoricoPorCliente(Long clienteId) {
-        List<SessaoTreinoEntity> sessoes = sessaoRepository.findByClienteId(clienteId);
+        List<SessaoHistorico> sessoes = sessaoRepository.findHistoricoByClienteId(clienteId);
+        Map<Long, List<BatchPronunciationAnalysisDTO.ResultadoPalavra>> palavrasPorSessao = buscarPalavras(
+                sessoes.stream().map(SessaoHistorico::getId).collect(Collectors.toList()));
+
+        // Sessões antigas cujo JSON a migração não conseguiu converter: lê o texto como antes
+        List<Long> semPalavras = sessoes.stream()
+                .filter(s -> Boolean.TRUE.equals(s.getAnalisada()) && !palavrasPorSessao.containsKey(s.getId()))
+                .map(SessaoHistorico::getId)
+                .collect(Collectors.toList());
+        Map<Long, String> jsonPorSessao = new HashMap<>();
+        if (!semPalavras.isEmpty()) {
+            sessaoRepository.findResultadosByIdIn(semPalavras).forEach(r -> jsonPorSessao.put(r.getId(), r.getResultado()));
+        }
+
         List<SessaoTreinoHistoryDtoOut> historico = new ArrayList<>();
-        for (SessaoTreinoEntity s : sessoes) {
-            String feedback = null;
-            List<BatchPronunciationAnalysisDTO.ResultadoPalavra> detalhes = null;
+        for (SessaoHistorico s : sessoes) {
+            String feedback = s.getFeedbackGeral();
+            List<BatchPronunciationAnalysisDTO.ResultadoPalavra> detalhes = palavrasPorSessao.get(s.getId());
 
-            if (s.getResultado() != null && !s.getResultado().isEmpty()) {
+            String json = jsonPorSessao.get(s.getId());
+            if (json != null && !json.isEmpty()) {
                 try {
-                    BatchPronunciationAnalysisDTO analise = gson.fromJson(s.getResultado(), BatchPronunciationAnalysisDTO.class);
+                    BatchPronunciationAnalysisDTO analise = gson.fromJson(json, BatchPronunciationAnalysisDTO.class);
                     feedback = analise.getFeedbackGeral();
                     detalhes = analise.getResultados();
                 } catch (Exception e) {
@@ -377,7 +451,7 @@ public class SessaoTreinoService {
                     erro.setPalavraEsperada("ERRO_SISTEMA");
                     erro.setPalavraTranscrita("JSON Inválido");
                     erro.setAcertou(false);
-                    erro.setFeedback("Erro: " + e.getMessage() + " | JSON: " + (s.getResultado().length() > 50 ? s.getResultado().substring(0, 50) + "..." : s.getResultado()));
+                    erro.setFeedback("Erro: " + e.getMessage() + " | JSON: " + (json.length() > 50 ? json.substring(0, 50) + "..." : json));
                     detalhes.add(erro);
                 }
             }
@@ -397,4 +471,90 @@ public class SessaoTreinoService {
         }
         return historico;
     }
+
+    /**
+     * Palavras analisadas nas sessões do cliente, filtradas no banco e paginadas por id
+     * (ver {@link Paginacao}). Filtros nulos não restringem.
+     *
+     * @param similaridadeMaxima só palavras com similaridade até este valor, na escala gravada (0 a 100)
+     */
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<PalavraAnalisadaDtoOut> listarPalavras(Long clienteId, String palavra, Boolean acertou,
+                                                              Double similaridadeMaxima, Long cursor, Integer limite) {
+        String palavraFiltro = palavra == null || palavra.isBlank() ? null : palavra.trim();
+        return Paginacao.paginar(cursor, limite,
+                (inicio, tamanho) -> palavraRepository.findFiltradas(clienteId, palavraFiltro, acertou, similaridadeMaxima, inicio, tamanho),
+                PalavraAnalisada::getId, Paginacao.cada(this::toPalavraDto));
+    }
+
+    /**
+     * Grava a sessão e acrescenta as mensagens novas da conversa em um único lote.
+     */
+    private void salvar(SessaoTreinoEntity sessao) {
+        sessaoRepository.save(sessao);
+        eventoRepository.inserirEmLote(sessao.retirarEventosPendentes());
+    }
+
+    private SessaoEventoDtoOut toEventoDto(SessaoEventoEntity evento) {
+        SessaoEventoDtoOut dto = new SessaoEventoDtoOut();
+        dto.setId(evento.getId());
+        dto.setCriadoEm(evento.getCriadoEm());
+        dto.setRemetente(evento.getRemetente());
+        dto.setTipo(evento.getTipo().name());
+        dto.setConteudo(evento.getConteudo());
+        return dto;
+    }
+
+    private List<SessaoResultadoPalavraEntity> palavrasDoResultado(Long sessaoId, BatchPronunciationAnalysisDTO resultado) {
+        List<SessaoResultadoPalavraEntity> palavras = new ArrayList<>();
+        if (resultado.getResultados() == null) {
+            return palavras;
+        }
+        for (BatchPronunciationAnalysisDTO.ResultadoPalavra r : resultado.getResultados()) {
+            SessaoResultadoPalavraEntity palavra = new SessaoResultadoPalavraEntity();
+            palavra.setSessaoId(sessaoId);
+            palavra.setPosicao(palavras.size());
+            palavra.setPalavraEsperada(r.getPalavraEsperada());
+            palavra.setPalavraTranscrita(r.getPalavraTranscrita());
+            palavra.setAcertou(Boolean.TRUE.equals(r.getAcertou()));
+            palavra.setSimilaridade(r.getSimilaridade());
+            palavra.setFeedback(r.getFeedback());
+            palavra.setInicioMs(r.getInicioMs());
+            palavra.setFimMs(r.getFimMs());
+            palavras.add(palavra);
+        }
+        return palavras;
+    }
+
+    /**
+     * Palavras das sessões, em ordem, com uma consulta IN por lote de sessões.
+     */
+    private Map<Long, List<BatchPronunciationAnalysisDTO.ResultadoPalavra>> buscarPalavras(List<Long> sessaoIds) {
+        Map<Long, List<BatchPronunciationAnalysisDTO.ResultadoPalavra>> porSessao = new HashMap<>();
+        for (int inicio = 0; inicio < sessaoIds.size(); inicio += AgrupadorIds.LOTE) {
+            List<Long> lote = sessaoIds.subList(inicio, Math.min(sessaoIds.size(), inicio + AgrupadorIds.LOTE));
+            for (SessaoResultadoPalavraEntity p : palavraRepository.findBySessaoIdInOrderBySessaoIdAscPosicaoAsc(lote)) {
+                BatchPronunciationAnalysisDTO.ResultadoPalavra r = new BatchPronunciationAnalysisDTO.ResultadoPalavra(
+                        p.getPalavraEsperada(), p.getPalavraTranscrita(), p.getAcertou(), p.getSimilaridade(), p.getFeedback());
+                r.setInicioMs(p.getInicioMs());
+                r.setFimMs(p.getFimMs());
+                porSessao.computeIfAbsent(p.getSessaoId(), k -> new ArrayList<>()).add(r);
+            }
+        }
+        return porSessao;
+    }
+
+    private PalavraAnalisadaDtoOut toPalavraDto(PalavraAnalisada p) {
+        PalavraAnalisadaDtoOut dto = new PalavraAnalisadaDtoOut();
+        dto.setId(p.getId());
+        dto.setSessaoId(p.getSessaoId());
+        dto.setDataSessao(p.getDataInicio());
+        dto.setPosicao(p.getPosicao());
+        dto.setPalavraEsperada(p.getPalavraEsperada());
+        dto.setPalavraTranscrita(p.getPalavraTranscrita());
+        dto.setAcertou(p.getAcertou());
+        dto.setSimilaridade(p.getSimilaridade());
+        dto.setFeedback(p.getFeedback());
+        return dto;
+    }
 }
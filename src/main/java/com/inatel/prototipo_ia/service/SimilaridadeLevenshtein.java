@@ -0,0 +1,170 @@
+package com.inatel.prototipo_ia.service;
+
+import java.util.Arrays;
+
+/**
+ * Núcleo de similaridade usado na análise de pronúncia (fluxo Deepgram).
+ *
+ * Trabalha direto sobre {@code char[]}, reaproveita as linhas da matriz de distância por thread
+ * e só calcula a faixa diagonal necessária (corte de Ukkonen): se a distância passar do limite
+ * que ainda daria a similaridade mínima pedida, a comparação é abandonada. Assim nenhuma
+ * comparação gera lixo e pares claramente diferentes custam quase nada.
+ *
+ * Similaridades são inteiras, em milésimos (0 a {@link #ESCALA}).
+ */
+public final class SimilaridadeLevenshtein {
+
+    public static final int ESCALA = 1000;
+
+    private static final ThreadLocal<Linhas> LINHAS = ThreadLocal.withInitial(Linhas::new);
+
+    private SimilaridadeLevenshtein() {
+    }
+
+    /**
+     * Similaridade entre duas palavras, em milésimos.
+     *
+     * @param minimo similaridade mínima de interesse; abaixo dela o resultado é 0
+     */
+    public static int similaridade(char[] a, char[] b, int minimo) {
+        if (Arrays.equals(a, b)) {
+            return ESCALA;
+        }
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+
+        int maior = Math.max(a.length, b.length);
+        // Maior distância cuja similaridade arredondada ainda alcança o mínimo
+        int limite = (2 * (ESCALA - Math.max(minimo, 0)) + 1) * maior / (2 * ESCALA);
+
+        // Só a diferença de tamanho já custa esse tanto de inserções
+        if (Math.abs(a.length - b.length) > limite) {
+            return 0;
+        }
+
+        int distancia = distanciaLimitada(a, b, limite);
+        if (distancia > limite) {
+            return 0;
+        }
+        int score = (int) Math.round((1.0 - (double) distancia / maior) * ESCALA);
+        return score >= minimo ? score : 0;
+    }
+
+    /**
+     * Preenche de uma vez a matriz (esperadas x transcritas) de similaridades.
+     *
+     * Cada célula recebe o maior valor entre o que já estava nela e a similaridade calculada,
+     * então chamar duas vezes (forma ortográfica e forma fonética) deixa o melhor dos dois.
+     * Células que já têm valor só são recalculadas se puderem melhorar.
+     *
+     * @param destino matriz linearizada com pelo menos esperadas.length * transcritas.length posições
+     */
+    public static void preencherMatriz(char[][] esperadas, char[][] transcritas, int minimo, int[] destino) {
+        int colunas = transcritas.length;
+        for (int i = 0; i < esperadas.length; i++) {
+            char[] esperada = esperadas[i];
+            int linha = i * colunas;
+            for (int j = 0; j < colunas; j++) {
+                int atual = destino[linha + j];
+                if (atual >= ESCALA) {
+                    continue;
+                }
+                int score = similaridade(esperada, transcritas[j], Math.max(minimo, atual + 1));
+                if (score > atual) {
+                    destino[linha + j] = score;
+                }
+            }
+        }
+    }
+
+    /**
+     * Distância de Levenshtein limitada à faixa |i - j| <= limite.
+     *
+     * @return a distância, ou {@code limite + 1} se ela for maior que o limite
+     */
+    static int distanciaLimitada(char[] a, char[] b, int limite) {
+        // Linhas indexadas pela palavra menor
+        char[] menor = a;
+        char[] maior = b;
+        if (menor.length > maior.length) {
+            menor = b;
+            maior = a;
+        }
+        int n = menor.length;
+        int m = maior.length;
+
+        if (m - n > limite) {
+            return limite + 1;
+        }
+        if (n == 0) {
+            return m;
+        }
+
+        Linhas linhas = LINHAS.get();
+        int[] anterior = linhas.anterior(n + 1);
+        int[] atual = linhas.atual(n + 1);
+
+        int fronteira = Math.min(n, limite) + 1;
+        for (int i = 0; i < fronteira; i++) {
+            anterior[i] = i;
+        }
+        Arrays.fill(anterior, fronteira, n + 1, Integer.MAX_VALUE);
+        Arrays.fill(atual, 0, n + 1, Integer.MAX_VALUE);
+
+        for (int j = 1; j <= m; j++) {
+            char caractere = maior[j - 1];
+            atual[0] = j;
+
+            int inicio = Math.max(1, j - limite);
+            int fim = j > Integer.MAX_VALUE - limite ? n : Math.min(n, j + limite);
+
+            if (inicio > fim) {
+                return limite + 1;
+            }
+            if (inicio > 1) {
+                atual[inicio - 1] = Integer.MAX_VALUE;
+            }
+
+            int minimoDaLinha = Integer.MAX_VALUE;
+            for (int i = inicio; i <= fim; i++) {
+                if (menor[i - 1] == caractere) {
+                    atual[i] = anterior[i - 1];
+                } else {
+                    atual[i] = 1 + Math.min(Math.min(atual[i - 1], anterior[i]), anterior[i - 1]);
+                }
+                minimoDaLinha = Math.min(minimoDaLinha, atual[i]);
+            }
+
+            // Nenhum caminho dentro da faixa ainda cabe no limite
+            if (minimoDaLinha > limite) {
+                return limite + 1;
+            }
+
+            int[] troca = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+
+        return anterior[n] <= limite ? anterior[n] : limite + 1;
+    }
+
+    private static final class Linhas {
+        private int[] anterior = new int[32];
+        private int[] atual = new int[32];
+
+        int[] anterior(int tamanho) {
+            if (anterior.length < tamanho) {
+                anterior = new int[tamanho];
+            }
+            return anterior;
+        }
+
+        int[] atual(int tamanho) {
+            if (atual.length < tamanho) {
+                atual = new int[tamanho];
+            }
+            return atual;
+        }
+    }
+}
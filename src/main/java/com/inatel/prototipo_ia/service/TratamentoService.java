@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.TratamentoDtoIn;
 import com.inatel.prototipo_ia.dto.out.TratamentoDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
 import com.inatel.prototipo_ia.entity.ProfissionalEntity;
 import com.inatel.prototipo_ia.entity.TratamentoEntity;
@@ -75,6 +76,11 @@ public class TratamentoService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<TratamentoDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, tratamentoRepository, TratamentoEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     /**
      * Busca um tratamento pelo seu ID e retorna DTO de saída.
      */
@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.service;
 
 import com.inatel.prototipo_ia.dto.in.UsuarioDtoIn;
 import com.inatel.prototipo_ia.dto.out.UsuarioDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.UsuarioEntity;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ProfissionalRepository;
@@ -51,6 +52,11 @@ public class UsuarioService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaDtoOut<UsuarioDtoOut> listar(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, usuarioRepository, UsuarioEntity::getId, Paginacao.cada(this::toDto));
+    }
+
     /**
      * Busca um usuário pelo ID e retorna DTO de saída.
      */
@@ -0,0 +1,126 @@
+package com.inatel.prototipo_ia.upstream;
+
+import io.micrometer.core.instrument.Metrics;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chamada com "hedge" para cortar a cauda de latência: se a resposta não chegar em
+ * {@code atraso}, uma segunda cópia da requisição é disparada e vale a que responder
+ * primeiro; a outra é cancelada.
+ *
+ * Só faz sentido em chamadas idempotentes e baratas (ex.: transcrição no Deepgram). Falhas
+ * não disparam o hedge (isso é papel do {@link RetentativaInterceptor}); as duas cópias
+ * passam pelos interceptors do cliente (disjuntor e limite de concorrência).
+ */
+public final class ChamadaComHedge {
+
+    private ChamadaComHedge() {
+    }
+
+    /**
+     * @param atraso zero ou negativo desliga o hedge (chamada normal)
+     */
+    public static Response executar(OkHttpClient cliente, Request request, Duration atraso, String upstream)
+            throws IOException {
+        if (atraso == null || atraso.isZero() || atraso.isNegative()) {
+            return cliente.newCall(request).execute();
+        }
+
+        Corrida corrida = new Corrida();
+        Call principal = cliente.newCall(request);
+        Call hedge = null;
+        Resultado vencedor = null;
+        principal.enqueue(corrida);
+        try {
+            Resultado resultado = corrida.resultados.poll(atraso.toNanos(), TimeUnit.NANOSECONDS);
+            if (resultado == null) {
+                hedge = principal.clone();
+                hedge.enqueue(corrida);
+                contar(upstream, "disparado");
+                resultado = corrida.resultados.take();
+                if (resultado.erro != null) {
+                    // A primeira a terminar falhou: ainda vale a outra
+                    resultado = corrida.resultados.take();
+                }
+            }
+            if (resultado.erro != null) {
+                throw resultado.erro;
+            }
+
+            vencedor = resultado;
+            if (hedge != null) {
+                contar(upstream, resultado.call == hedge ? "hedge_venceu" : "principal_venceu");
+            }
+            return resultado.response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando o " + upstream);
+        } finally {
+            corrida.encerrar(vencedor);
+            Call chamadaVencedora = vencedor != null ? vencedor.call : null;
+            if (chamadaVencedora != principal) principal.cancel();
+            if (hedge != null && chamadaVencedora != hedge) hedge.cancel();
+        }
+    }
+
+    private static void contar(String upstream, String resultado) {
+        Metrics.counter("upstream.http.hedge", "upstream", upstream, "resultado", resultado).increment();
+    }
+
+    private static final class Resultado {
+        private final Call call;
+        private final Response response;
+        private final IOException erro;
+
+        private Resultado(Call call, Response response, IOException erro) {
+            this.call = call;
+            this.response = response;
+            this.erro = erro;
+        }
+    }
+
+    private static final class Corrida implements Callback {
+
+        private final LinkedBlockingQueue<Resultado> resultados = new LinkedBlockingQueue<>();
+        private boolean encerrada;
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            resultados.add(new Resultado(call, null, e));
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            synchronized (this) {
+                if (!encerrada) {
+                    resultados.add(new Resultado(call, response, null));
+                    return;
+                }
+            }
+            response.close();
+        }
+
+        /**
+         * Fecha as respostas que sobraram e as que ainda chegarem depois da vencedora.
+         */
+        synchronized void encerrar(Resultado vencedor) {
+            encerrada = true;
+            Resultado sobra;
+            while ((sobra = resultados.poll()) != null) {
+                if (sobra != vencedor && sobra.response != null) {
+                    sobra.response.close();
+                }
+            }
+        }
+    }
+}
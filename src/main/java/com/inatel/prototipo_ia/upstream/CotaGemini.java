@@ -0,0 +1,403 @@
+package com.inatel.prototipo_ia.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cota do Gemini controlada do lado de cá, antes de o Google responder 429.
+ *
+ * Cada par (chave de API, modelo) tem um balde de requisições por minuto e outro de tokens por
+ * minuto, reabastecidos continuamente. Cada tentativa que sai pela rede reserva 1 requisição e
+ * uma estimativa de tokens; quando a resposta chega, o {@code usageMetadata} corrige a estimativa
+ * (o balde pode ficar negativo, e a dívida é paga pelos próximos reabastecimentos). Os serviços
+ * marcam a requisição com um {@link Pedido} e o {@link CotaGeminiInterceptor} faz a reserva a
+ * cada tentativa, devolvendo os tokens das que falham.
+ *
+ * Sem saldo, a chamada espera na fila até o prazo da sua prioridade e só então é recusada com
+ * {@link UpstreamIndisponivelException}. A análise da sessão ({@link Prioridade#INTERATIVA})
+ * passa na frente: a geração de trava-línguas ({@link Prioridade#FUNDO}) não usa a fração
+ * reservada aos interativos e não consome nada enquanto houver interativo esperando.
+ */
+@Component
+public class CotaGemini {
+
+    public static final String MODELO_PADRAO = "gemini-2.0-flash";
+
+    public enum Prioridade {
+        INTERATIVA,
+        FUNDO
+    }
+
+    private static final long NANOS_POR_MINUTO = TimeUnit.MINUTES.toNanos(1);
+
+    // Menor espera entre duas conferências do saldo, para não girar à toa
+    private static final long ESPERA_MINIMA_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // Áudio no Gemini custa 32 tokens por segundo; os uploads (MP3/WebM) ficam perto de 16 KB/s
+    private static final long BYTES_POR_TOKEN_AUDIO = 500;
+
+    private final boolean habilitada;
+    private final int requisicoesPorMinuto;
+    private final long tokensPorMinuto;
+    private final double reservaInterativa;
+    private final Duration esperaInterativa;
+    private final Duration esperaFundo;
+    private final String chave;
+    private final MeterRegistry registry;
+    private final LongSupplier relogio;
+
+    private final Map<String, Balde> baldes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CotaGemini(MeterRegistry registry,
+                      @Value("${gemini.api.key}") String apiKey,
+                      @Value("${gemini.cota.habilitada:true}") boolean habilitada,
+                      @Value("${gemini.cota.requisicoes-por-minuto:15}") int requisicoesPorMinuto,
+                      @Value("${gemini.cota.tokens-por-minuto:1000000}") long tokensPorMinuto,
+                      @Value("${gemini.cota.reserva-interativa:0.2}") double reservaInterativa,
+                      @Value("${gemini.cota.espera-maxima.interativa:20s}") Duration esperaInterativa,
+                      @Value("${gemini.cota.espera-maxima.fundo:5s}") Duration esperaFundo) {
+        this(registry, apiKey, habilitada, requisicoesPorMinuto, tokensPorMinuto, reservaInterativa,
+                esperaInterativa, esperaFundo, System::nanoTime);
+    }
+
+    CotaGemini(MeterRegistry registry, String apiKey, boolean habilitada, int requisicoesPorMinuto,
+               long tokensPorMinuto, double reservaInterativa, Duration esperaInterativa, Duration esperaFundo,
+               LongSupplier relogio) {
+        this.registry = registry;
+        this.habilitada = habilitada;
+        this.requisicoesPorMinuto = Math.max(1, requisicoesPorMinuto);
+        this.tokensPorMinuto = Math.max(1, tokensPorMinuto);
+        this.reservaInterativa = Math.min(Math.max(reservaInterativa, 0.0), 0.9);
+        this.esperaInterativa = esperaInterativa;
+        this.esperaFundo = esperaFundo;
+        this.chave = impressaoDigital(apiKey);
+        this.relogio = relogio;
+    }
+
+    /**
+     * Cota sem limite nenhum, para testes e benchmarks que montam os serviços na mão.
+     */
+    public static CotaGemini semLimite() {
+        return new CotaGemini(new SimpleMeterRegistry(), "", false, 1, 1, 0.0,
+                Duration.ZERO, Duration.ZERO, System::nanoTime);
+    }
+
+    /**
+     * Reserva uma requisição e {@code tokensEstimados} no balde do modelo, esperando na fila
+     * se preciso.
+     *
+     * @throws UpstreamIndisponivelException se o saldo não aparecer até o prazo da prioridade
+     * @throws InterruptedIOException se a thread for interrompida enquanto espera
+     */
+    public Reserva reservar(String modelo, Prioridade prioridade, long tokensEstimados)
+            throws InterruptedIOException, UpstreamIndisponivelException {
+        if (!habilitada) {
+            return new Reserva(null, 0);
+        }
+        Balde balde = baldes.computeIfAbsent(modelo, this::criarBalde);
+        long tokens = Math.max(0, tokensEstimados);
+        Duration prazo = prioridade == Prioridade.INTERATIVA ? esperaInterativa : esperaFundo;
+
+        long inicio = relogio.getAsLong();
+        try {
+            balde.adquirir(prioridade, tokens, inicio + prazo.toNanos());
+        } catch (UpstreamIndisponivelException e) {
+            Counter.builder("gemini.cota.recusas")
+                    .description("Chamadas ao Gemini recusadas por falta de cota no prazo de espera")
+                    .tags("modelo", modelo, "prioridade", nomeDa(prioridade))
+                    .register(registry)
+                    .increment();
+            throw e;
+        } finally {
+            Timer.builder("gemini.cota.espera")
+                    .description("Tempo na fila esperando cota do Gemini")
+                    .tags("modelo", modelo, "prioridade", nomeDa(prioridade))
+                    .register(registry)
+                    .record(relogio.getAsLong() - inicio, TimeUnit.NANOSECONDS);
+        }
+        balde.tokensEstimados.increment(tokens);
+        return new Reserva(balde, tokens);
+    }
+
+    /**
+     * Pedido de cota de uma chamada lógica, para ir como tag da requisição
+     * ({@code .tag(CotaGemini.Pedido.class, pedido)}). A reserva em si é feita pelo
+     * {@link CotaGeminiInterceptor} a cada tentativa.
+     */
+    public Pedido pedido(String modelo, Prioridade prioridade, long tokensEstimados) {
+        return new Pedido(this, modelo, prioridade, tokensEstimados);
+    }
+
+    /**
+     * Estimativa grosseira de tokens de um texto (cerca de 4 caracteres por token).
+     */
+    public static long estimarTokensTexto(String texto) {
+        return texto == null ? 0 : texto.length() / 4 + 1;
+    }
+
+    /**
+     * Estimativa de tokens de um áudio comprimido a partir do tamanho em bytes.
+     */
+    public static long estimarTokensAudio(long bytes) {
+        return Math.max(0, bytes) / BYTES_POR_TOKEN_AUDIO + 1;
+    }
+
+    private Balde criarBalde(String modelo) {
+        Balde balde = new Balde(modelo);
+        Gauge.builder("gemini.cota.disponivel", balde, b -> b.disponivel(false))
+                .description("Requisições ainda disponíveis no minuto corrente da cota do Gemini")
+                .tags("modelo", modelo, "chave", chave, "recurso", "requisicoes")
+                .register(registry);
+        Gauge.builder("gemini.cota.disponivel", balde, b -> b.disponivel(true))
+                .description("Tokens ainda disponíveis no minuto corrente da cota do Gemini")
+                .tags("modelo", modelo, "chave", chave, "recurso", "tokens")
+                .register(registry);
+        return balde;
+    }
+
+    private static String nomeDa(Prioridade prioridade) {
+        return prioridade.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Identifica a chave nas métricas sem expô-la: os 8 primeiros dígitos do SHA-256.
+     */
+    private static String impressaoDigital(String apiKey) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((apiKey == null ? "" : apiKey).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Chamada lógica ao Gemini, que pode virar várias tentativas (retentativa, hedge). Guarda a
+     * reserva da tentativa que deu certo para {@link #registrarUso} corrigir a estimativa dela.
+     */
+    public static final class Pedido {
+
+        private final CotaGemini cota;
+        private final String modelo;
+        private final Prioridade prioridade;
+        private final long tokensEstimados;
+        private volatile Reserva atendida;
+
+        private Pedido(CotaGemini cota, String modelo, Prioridade prioridade, long tokensEstimados) {
+            this.cota = cota;
+            this.modelo = modelo;
+            this.prioridade = prioridade;
+            this.tokensEstimados = tokensEstimados;
+        }
+
+        Reserva reservarTentativa() throws InterruptedIOException, UpstreamIndisponivelException {
+            return cota.reservar(modelo, prioridade, tokensEstimados);
+        }
+
+        void atendidoPor(Reserva reserva) {
+            atendida = reserva;
+        }
+
+        /**
+         * @param totalTokens {@code usageMetadata.totalTokenCount} da resposta (ignorado se não positivo)
+         */
+        public void registrarUso(long totalTokens) {
+            Reserva reserva = atendida;
+            if (reserva != null) reserva.registrarUso(totalTokens);
+        }
+
+        /**
+         * Versão para o valor lido da resposta como texto (nulo ou inválido é ignorado).
+         */
+        public void registrarUso(String totalTokens) {
+            Reserva reserva = atendida;
+            if (reserva != null) reserva.registrarUso(totalTokens);
+        }
+    }
+
+    /**
+     * Requisição já descontada da cota. {@link #registrarUso} troca a estimativa de tokens pelo
+     * consumo real informado pelo Gemini; sem ele, a estimativa fica valendo. Uma tentativa que
+     * falhou não consumiu tokens: {@link #liberar} devolve a estimativa.
+     */
+    public static final class Reserva {
+
+        private final Balde balde;
+        private final long tokensEstimados;
+        private boolean registrada;
+
+        private Reserva(Balde balde, long tokensEstimados) {
+            this.balde = balde;
+            this.tokensEstimados = tokensEstimados;
+        }
+
+        /**
+         * @param totalTokens {@code usageMetadata.totalTokenCount} da resposta (ignorado se não positivo)
+         */
+        public void registrarUso(long totalTokens) {
+            if (balde == null || totalTokens <= 0 || registrada) return;
+            registrada = true;
+            balde.tokensConsumidos.increment(totalTokens);
+            balde.ajustar(totalTokens - tokensEstimados);
+        }
+
+        /**
+         * Versão para o valor lido da resposta como texto (nulo ou inválido é ignorado).
+         */
+        public void registrarUso(String totalTokens) {
+            if (totalTokens == null) return;
+            try {
+                registrarUso((long) Double.parseDouble(totalTokens));
+            } catch (NumberFormatException e) {
+                // Sem o consumo real, a estimativa continua valendo
+            }
+        }
+
+        /**
+         * Tentativa que falhou depois de sair: devolve os tokens estimados (a requisição conta).
+         */
+        public void liberar() {
+            if (balde == null || registrada) return;
+            registrada = true;
+            balde.ajustar(-tokensEstimados);
+        }
+
+        /**
+         * Tentativa que nem chegou a sair (sem vaga no cliente): devolve a requisição e os tokens.
+         */
+        public void desfazer() {
+            if (balde == null || registrada) return;
+            registrada = true;
+            balde.devolverRequisicao();
+            balde.ajustar(-tokensEstimados);
+        }
+    }
+
+    private final class Balde {
+
+        private final String modelo;
+        private final double taxaRequisicoes;
+        private final double taxaTokens;
+        private final Counter tokensEstimados;
+        private final Counter tokensConsumidos;
+
+        private double requisicoes;
+        private double tokens;
+        private long atualizadoEm;
+        private int interativasAguardando;
+
+        private Balde(String modelo) {
+            this.modelo = modelo;
+            this.taxaRequisicoes = (double) requisicoesPorMinuto / NANOS_POR_MINUTO;
+            this.taxaTokens = (double) tokensPorMinuto / NANOS_POR_MINUTO;
+            this.requisicoes = requisicoesPorMinuto;
+            this.tokens = tokensPorMinuto;
+            this.atualizadoEm = relogio.getAsLong();
+            this.tokensEstimados = contadorDeTokens(modelo, "estimado");
+            this.tokensConsumidos = contadorDeTokens(modelo, "consumido");
+        }
+
+        synchronized void adquirir(Prioridade prioridade, long pedidos, long prazo)
+                throws InterruptedIOException, UpstreamIndisponivelException {
+            boolean interativa = prioridade == Prioridade.INTERATIVA;
+            if (interativa) interativasAguardando++;
+            try {
+                while (true) {
+                    reabastecer();
+                    double pisoRequisicoes = interativa ? 0 : requisicoesPorMinuto * reservaInterativa;
+                    double pisoTokens = interativa ? 0 : tokensPorMinuto * reservaInterativa;
+                    // Um pedido maior que o balde inteiro passa quando o balde estiver cheio
+                    double necessarios = Math.min(pedidos, tokensPorMinuto - pisoTokens);
+
+                    boolean vez = interativa || interativasAguardando == 0;
+                    long falta = Math.max(
+                            nanosAte(requisicoes, pisoRequisicoes + 1, taxaRequisicoes),
+                            nanosAte(tokens, pisoTokens + necessarios, taxaTokens));
+                    if (vez && falta == 0) {
+                        requisicoes -= 1;
+                        tokens -= pedidos;
+                        return;
+                    }
+
+                    long restante = prazo - relogio.getAsLong();
+                    if (restante <= 0) {
+                        long tentarEm = Math.max(falta, TimeUnit.SECONDS.toNanos(1));
+                        throw new UpstreamIndisponivelException(UpstreamHttpConfigurations.GEMINI,
+                                "Cota do Gemini esgotada para " + modelo + " (prioridade " + nomeDa(prioridade) + ")",
+                                Duration.ofNanos(tentarEm));
+                    }
+                    // Fora da vez, espera o aviso de que os interativos saíram da fila
+                    long espera = vez ? Math.min(restante, falta) : restante;
+                    TimeUnit.NANOSECONDS.timedWait(this, Math.max(espera, ESPERA_MINIMA_NANOS));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrompido aguardando cota do Gemini");
+            } finally {
+                if (interativa) {
+                    interativasAguardando--;
+                    notifyAll();
+                }
+            }
+        }
+
+        synchronized void ajustar(long diferencaTokens) {
+            reabastecer();
+            tokens = Math.min(tokensPorMinuto, tokens - diferencaTokens);
+            if (diferencaTokens < 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized void devolverRequisicao() {
+            reabastecer();
+            requisicoes = Math.min(requisicoesPorMinuto, requisicoes + 1);
+            notifyAll();
+        }
+
+        synchronized double disponivel(boolean emTokens) {
+            reabastecer();
+            return emTokens ? tokens : requisicoes;
+        }
+
+        private void reabastecer() {
+            long agora = relogio.getAsLong();
+            long decorrido = agora - atualizadoEm;
+            if (decorrido <= 0) return;
+            requisicoes = Math.min(requisicoesPorMinuto, requisicoes + decorrido * taxaRequisicoes);
+            tokens = Math.min(tokensPorMinuto, tokens + decorrido * taxaTokens);
+            atualizadoEm = agora;
+        }
+
+        private long nanosAte(double atual, double alvo, double taxaPorNano) {
+            return atual >= alvo ? 0 : (long) Math.ceil((alvo - atual) / taxaPorNano);
+        }
+
+        private Counter contadorDeTokens(String modelo, String tipo) {
+            return Counter.builder("gemini.cota.tokens")
+                    .description("Tokens do Gemini estimados na reserva e consumidos segundo o usageMetadata")
+                    .tags("modelo", modelo, "chave", chave, "tipo", tipo)
+                    .register(registry);
+        }
+    }
+}
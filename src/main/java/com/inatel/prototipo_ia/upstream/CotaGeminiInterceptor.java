@@ -0,0 +1,44 @@
+package com.inatel.prototipo_ia.upstream;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Desconta da {@link CotaGemini} cada tentativa que sai para o Gemini.
+ *
+ * Fica por dentro da retentativa e do disjuntor, então cada repetição (e cada cópia do hedge)
+ * reserva a sua requisição, como o Google conta. Só age nas requisições marcadas com um
+ * {@link CotaGemini.Pedido}; as demais passam direto. A tentativa que falha devolve os tokens
+ * estimados e a que nem conseguiu vaga no cliente devolve também a requisição.
+ */
+public class CotaGeminiInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        CotaGemini.Pedido pedido = chain.request().tag(CotaGemini.Pedido.class);
+        if (pedido == null) {
+            return chain.proceed(chain.request());
+        }
+
+        CotaGemini.Reserva reserva = pedido.reservarTentativa();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (UpstreamIndisponivelException e) {
+            reserva.desfazer();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            reserva.liberar();
+            throw e;
+        }
+
+        if (response.isSuccessful()) {
+            pedido.atendidoPor(reserva);
+        } else {
+            reserva.liberar();
+        }
+        return response;
+    }
+}
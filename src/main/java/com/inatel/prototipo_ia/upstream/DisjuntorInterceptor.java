@@ -0,0 +1,173 @@
+package com.inatel.prototipo_ia.upstream;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Disjuntor (circuit breaker) de um upstream.
+ *
+ * Conta o resultado das últimas {@code janela} chamadas; quando a proporção de falhas
+ * (erro de rede, timeout, 429 ou 5xx) passa de {@code taxaFalha}%, o disjuntor abre e as
+ * chamadas seguintes falham na hora com {@link UpstreamIndisponivelException}, sem prender
+ * threads esperando um upstream fora do ar. Depois de {@code tempoAberto} ele deixa passar
+ * algumas chamadas de teste (meio aberto): se todas derem certo ele fecha, se uma falhar
+ * ele abre de novo. Chamadas canceladas pelo próprio cliente não contam como falha.
+ */
+public class DisjuntorInterceptor implements Interceptor {
+
+    public enum Estado {
+        FECHADO,
+        MEIO_ABERTO,
+        ABERTO
+    }
+
+    private final String upstream;
+    private final int minimoChamadas;
+    private final int taxaFalha;
+    private final long tempoAbertoNanos;
+    private final int chamadasTeste;
+    private final LongSupplier relogio;
+
+    // Janela circular com o resultado das últimas chamadas (true = falha)
+    private final boolean[] janela;
+    private int posicao;
+    private int registradas;
+    private int falhas;
+
+    private Estado estado = Estado.FECHADO;
+    private long abertoAte;
+    private int testesLiberados;
+    private int testesComSucesso;
+
+    public DisjuntorInterceptor(String upstream, int janela, int minimoChamadas, int taxaFalha,
+                                Duration tempoAberto, int chamadasTeste) {
+        this(upstream, janela, minimoChamadas, taxaFalha, tempoAberto, chamadasTeste, System::nanoTime);
+    }
+
+    DisjuntorInterceptor(String upstream, int janela, int minimoChamadas, int taxaFalha,
+                         Duration tempoAberto, int chamadasTeste, LongSupplier relogio) {
+        this.upstream = upstream;
+        this.janela = new boolean[janela];
+        this.minimoChamadas = Math.min(minimoChamadas, janela);
+        this.taxaFalha = taxaFalha;
+        this.tempoAbertoNanos = tempoAberto.toNanos();
+        this.chamadasTeste = chamadasTeste;
+        this.relogio = relogio;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        permitir();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (UpstreamIndisponivelException e) {
+            // Recusada pelo limite de concorrência: não diz nada sobre a saúde do upstream
+            liberarTeste();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            if (chain.call().isCanceled()) {
+                // Cancelada por nós (cópia perdedora do hedge, trecho de análise que já falhou)
+                liberarTeste();
+                throw e;
+            }
+            registrar(true);
+            throw e;
+        }
+        registrar(falhou(response.code()));
+        return response;
+    }
+
+    static boolean falhou(int codigo) {
+        return codigo == 429 || codigo >= 500;
+    }
+
+    public synchronized Estado getEstado() {
+        if (estado == Estado.ABERTO && relogio.getAsLong() - abertoAte >= 0) {
+            return Estado.MEIO_ABERTO;
+        }
+        return estado;
+    }
+
+    /**
+     * Estado como número, para o gauge: 0 fechado, 1 meio aberto, 2 aberto.
+     */
+    public double estadoNumerico() {
+        return getEstado().ordinal();
+    }
+
+    synchronized void permitir() throws UpstreamIndisponivelException {
+        long agora = relogio.getAsLong();
+        if (estado == Estado.ABERTO) {
+            if (agora - abertoAte < 0) {
+                throw recusa(Duration.ofNanos(abertoAte - agora));
+            }
+            estado = Estado.MEIO_ABERTO;
+            testesLiberados = 0;
+            testesComSucesso = 0;
+        }
+        if (estado == Estado.MEIO_ABERTO) {
+            if (testesLiberados >= chamadasTeste) {
+                throw recusa(Duration.ZERO);
+            }
+            testesLiberados++;
+        }
+    }
+
+    synchronized void registrar(boolean falha) {
+        if (estado == Estado.MEIO_ABERTO) {
+            if (falha) {
+                abrir();
+            } else if (++testesComSucesso >= chamadasTeste) {
+                fechar();
+            }
+            return;
+        }
+        if (estado == Estado.ABERTO) {
+            // Chamada que começou antes de o disjuntor abrir
+            return;
+        }
+
+        if (registradas == janela.length) {
+            if (janela[posicao]) falhas--;
+        } else {
+            registradas++;
+        }
+        janela[posicao] = falha;
+        if (falha) falhas++;
+        posicao = (posicao + 1) % janela.length;
+
+        if (registradas >= minimoChamadas && falhas * 100 >= taxaFalha * registradas) {
+            abrir();
+        }
+    }
+
+    private synchronized void liberarTeste() {
+        if (estado == Estado.MEIO_ABERTO && testesLiberados > 0) {
+            testesLiberados--;
+        }
+    }
+
+    private void abrir() {
+        estado = Estado.ABERTO;
+        abertoAte = relogio.getAsLong() + tempoAbertoNanos;
+        System.err.println("Disjuntor do " + upstream + " ABERTO por " + Duration.ofNanos(tempoAbertoNanos).toSeconds() + "s");
+    }
+
+    private void fechar() {
+        estado = Estado.FECHADO;
+        posicao = 0;
+        registradas = 0;
+        falhas = 0;
+        System.out.println("Disjuntor do " + upstream + " FECHADO: upstream respondendo de novo");
+    }
+
+    private UpstreamIndisponivelException recusa(Duration tentarEm) {
+        return new UpstreamIndisponivelException(upstream,
+                "Serviço " + upstream + " indisponível no momento (disjuntor aberto)", tentarEm);
+    }
+}
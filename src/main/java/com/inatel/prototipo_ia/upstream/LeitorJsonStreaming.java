@@ -0,0 +1,206 @@
+package com.inatel.prototipo_ia.upstream;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Leitura das respostas das APIs de IA direto do stream, com o {@link JsonReader} do Gson.
+ *
+ * As respostas do Gemini e do Deepgram são grandes, mas só um campo interessa
+ * ({@code candidates[0].content.parts[0].text}, {@code results.channels[0].alternatives[0].transcript});
+ * aqui o leitor pula o resto sem montar a árvore JSON nem ler o corpo inteiro para uma String.
+ */
+public final class LeitorJsonStreaming {
+
+    private LeitorJsonStreaming() {
+    }
+
+    /**
+     * Extrai o texto no caminho indicado.
+     *
+     * @param caminho nomes de campo (String) e posições em arrays (Integer), na ordem
+     * @return o valor (números e booleanos viram texto), ou null se o caminho não existir
+     */
+    public static String extrairTexto(Reader origem, Object... caminho) throws IOException {
+        JsonReader leitor = new JsonReader(origem);
+        leitor.setLenient(true);
+        if (!posicionar(leitor, caminho, 0)) {
+            return null;
+        }
+        JsonToken token = leitor.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return leitor.nextString();
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(leitor.nextBoolean());
+        }
+        return null;
+    }
+
+    /**
+     * Extrai vários caminhos numa só passada (ex.: o texto gerado e o
+     * {@code usageMetadata.totalTokenCount}, que vem depois dos candidates). Só os ramos que
+     * levam a algum dos caminhos são percorridos; a leitura para quando todos foram achados.
+     *
+     * @return um valor por caminho, na mesma ordem (null para os que não existirem)
+     */
+    public static String[] extrairTextos(Reader origem, Object[]... caminhos) throws IOException {
+        JsonReader leitor = new JsonReader(origem);
+        leitor.setLenient(true);
+        String[] valores = new String[caminhos.length];
+        percorrer(leitor, caminhos, new ArrayList<>(), valores);
+        return valores;
+    }
+
+    /**
+     * Leitor posicionado no primeiro objeto JSON de um texto gerado pelo modelo, ignorando o que
+     * vem antes (ex.: cercas de markdown {@code ```json}). O que vem depois do objeto nunca é lido.
+     *
+     * @return null se o texto não tiver nenhum objeto
+     */
+    public static JsonReader leitorDoPrimeiroObjeto(String texto) throws IOException {
+        int inicio = texto.indexOf('{');
+        if (inicio < 0) {
+            return null;
+        }
+        StringReader origem = new StringReader(texto);
+        origem.skip(inicio);
+        JsonReader leitor = new JsonReader(origem);
+        leitor.setLenient(true);
+        return leitor;
+    }
+
+    /**
+     * Lê o valor atual como texto; null e estruturas viram o padrão.
+     */
+    public static String lerTexto(JsonReader leitor, String padrao) throws IOException {
+        switch (leitor.peek()) {
+            case STRING:
+            case NUMBER:
+                return leitor.nextString();
+            case BOOLEAN:
+                return String.valueOf(leitor.nextBoolean());
+            default:
+                leitor.skipValue();
+                return padrao;
+        }
+    }
+
+    public static double lerNumero(JsonReader leitor, double padrao) throws IOException {
+        switch (leitor.peek()) {
+            case NUMBER:
+                return leitor.nextDouble();
+            case STRING:
+                try {
+                    return Double.parseDouble(leitor.nextString().trim());
+                } catch (NumberFormatException e) {
+                    return padrao;
+                }
+            default:
+                leitor.skipValue();
+                return padrao;
+        }
+    }
+
+    public static boolean lerBooleano(JsonReader leitor, boolean padrao) throws IOException {
+        switch (leitor.peek()) {
+            case BOOLEAN:
+                return leitor.nextBoolean();
+            case STRING:
+                return Boolean.parseBoolean(leitor.nextString().trim());
+            default:
+                leitor.skipValue();
+                return padrao;
+        }
+    }
+
+    private static boolean posicionar(JsonReader leitor, Object[] caminho, int passo) throws IOException {
+        if (passo == caminho.length) {
+            return true;
+        }
+        Object segmento = caminho[passo];
+
+        if (segmento instanceof Integer) {
+            int posicao = (Integer) segmento;
+            if (leitor.peek() != JsonToken.BEGIN_ARRAY) return false;
+            leitor.beginArray();
+            for (int i = 0; i < posicao; i++) {
+                if (!leitor.hasNext()) return false;
+                leitor.skipValue();
+            }
+            return leitor.hasNext() && posicionar(leitor, caminho, passo + 1);
+        }
+
+        if (leitor.peek() != JsonToken.BEGIN_OBJECT) return false;
+        leitor.beginObject();
+        while (leitor.hasNext()) {
+            if (leitor.nextName().equals(segmento)) {
+                return posicionar(leitor, caminho, passo + 1);
+            }
+            leitor.skipValue();
+        }
+        return false;
+    }
+
+    /**
+     * @return true quando todos os valores já foram achados (a leitura pode parar)
+     */
+    private static boolean percorrer(JsonReader leitor, Object[][] caminhos, List<Object> atual, String[] valores)
+            throws IOException {
+        boolean prefixo = false;
+        for (int i = 0; i < caminhos.length; i++) {
+            if (valores[i] != null || caminhos[i].length < atual.size()) continue;
+            if (!atual.equals(Arrays.asList(caminhos[i]).subList(0, atual.size()))) continue;
+            if (caminhos[i].length == atual.size()) {
+                JsonToken token = leitor.peek();
+                if (token != JsonToken.BEGIN_OBJECT && token != JsonToken.BEGIN_ARRAY) {
+                    valores[i] = lerTexto(leitor, null);
+                    return todosAchados(valores);
+                }
+            } else {
+                prefixo = true;
+            }
+        }
+
+        JsonToken token = leitor.peek();
+        if (!prefixo || token != JsonToken.BEGIN_OBJECT && token != JsonToken.BEGIN_ARRAY) {
+            leitor.skipValue();
+            return false;
+        }
+
+        if (token == JsonToken.BEGIN_ARRAY) {
+            leitor.beginArray();
+            for (int posicao = 0; leitor.hasNext(); posicao++) {
+                atual.add(posicao);
+                boolean completo = percorrer(leitor, caminhos, atual, valores);
+                atual.remove(atual.size() - 1);
+                if (completo) return true;
+            }
+            leitor.endArray();
+        } else {
+            leitor.beginObject();
+            while (leitor.hasNext()) {
+                atual.add(leitor.nextName());
+                boolean completo = percorrer(leitor, caminhos, atual, valores);
+                atual.remove(atual.size() - 1);
+                if (completo) return true;
+            }
+            leitor.endObject();
+        }
+        return false;
+    }
+
+    private static boolean todosAchados(String[] valores) {
+        for (String valor : valores) {
+            if (valor == null) return false;
+        }
+        return true;
+    }
+}
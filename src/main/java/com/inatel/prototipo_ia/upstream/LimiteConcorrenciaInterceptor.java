@@ -0,0 +1,59 @@
+package com.inatel.prototipo_ia.upstream;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita quantas chamadas simultâneas um upstream recebe.
+ *
+ * O {@link okhttp3.Dispatcher} só limita chamadas assíncronas ({@code enqueue}); os serviços
+ * usam {@code execute()}, então o limite das chamadas síncronas é aplicado aqui. Quem passa
+ * do limite espera uma vaga por até {@code espera} e depois falha com
+ * {@link UpstreamIndisponivelException} (um {@link IOException}, como as falhas de rede).
+ */
+public class LimiteConcorrenciaInterceptor implements Interceptor {
+
+    private final String upstream;
+    private final int maximo;
+    private final Semaphore vagas;
+    private final long esperaNanos;
+
+    public LimiteConcorrenciaInterceptor(String upstream, int maximo, Duration espera) {
+        this.upstream = upstream;
+        this.maximo = maximo;
+        this.vagas = new Semaphore(maximo, true);
+        this.esperaNanos = espera.toNanos();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        try {
+            if (!vagas.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                throw new UpstreamIndisponivelException(upstream,
+                        "Limite de " + maximo + " chamadas simultâneas ao " + upstream + " atingido", Duration.ZERO);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando vaga no " + upstream);
+        }
+        try {
+            return chain.proceed(chain.request());
+        } finally {
+            vagas.release();
+        }
+    }
+
+    public int chamadasAtivas() {
+        return maximo - vagas.availablePermits();
+    }
+
+    public int chamadasAguardando() {
+        return vagas.getQueueLength();
+    }
+}
@@ -0,0 +1,125 @@
+package com.inatel.prototipo_ia.upstream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Repete chamadas que falharam por motivo passageiro: erro de rede, 429, 502, 503 ou 504.
+ *
+ * A espera entre tentativas é exponencial com jitter completo (sorteada entre zero e
+ * {@code base * 2^tentativa}, limitada a {@code esperaMaxima}), para que vários clientes
+ * não voltem todos ao mesmo tempo. Se o upstream mandar {@code Retry-After}, ele é
+ * respeitado; se pedir mais que {@code esperaMaxima}, a resposta é devolvida sem repetir.
+ *
+ * Fica por fora do {@link DisjuntorInterceptor}: cada tentativa conta no disjuntor, e quando
+ * ele abre ({@link UpstreamIndisponivelException}) as tentativas param.
+ */
+public class RetentativaInterceptor implements Interceptor {
+
+    private final String upstream;
+    private final int maxTentativas;
+    private final long esperaBaseMillis;
+    private final long esperaMaximaMillis;
+    private final MeterRegistry registry;
+
+    public RetentativaInterceptor(String upstream, int maxTentativas, Duration esperaBase, Duration esperaMaxima,
+                                  MeterRegistry registry) {
+        this.upstream = upstream;
+        this.maxTentativas = Math.max(1, maxTentativas);
+        this.esperaBaseMillis = esperaBase.toMillis();
+        this.esperaMaximaMillis = esperaMaxima.toMillis();
+        this.registry = registry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean repetivel = request.body() == null || !request.body().isOneShot();
+
+        for (int tentativa = 1; ; tentativa++) {
+            boolean ultima = tentativa >= maxTentativas || !repetivel;
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (UpstreamIndisponivelException e) {
+                throw e;
+            } catch (IOException e) {
+                if (ultima || chain.call().isCanceled()) throw e;
+                contar("erro_rede");
+                aguardar(calcularEspera(tentativa, null));
+                continue;
+            }
+
+            if (ultima || !repetir(response.code())) {
+                return response;
+            }
+            long espera = calcularEspera(tentativa, response.header("Retry-After"));
+            if (espera < 0) {
+                // Upstream pediu para esperar mais do que aceitamos segurar a thread
+                return response;
+            }
+            response.close();
+            contar(String.valueOf(response.code()));
+            aguardar(espera);
+        }
+    }
+
+    static boolean repetir(int codigo) {
+        return codigo == 429 || codigo == 502 || codigo == 503 || codigo == 504;
+    }
+
+    /**
+     * @return a espera em milissegundos, ou -1 se o Retry-After passar da espera máxima
+     */
+    long calcularEspera(int tentativa, String retryAfter) {
+        Long pedido = lerRetryAfter(retryAfter);
+        if (pedido != null) {
+            return pedido <= esperaMaximaMillis ? pedido : -1;
+        }
+        long teto = esperaBaseMillis << Math.min(tentativa - 1, 20);
+        teto = Math.min(teto, esperaMaximaMillis);
+        return teto <= 0 ? 0 : ThreadLocalRandom.current().nextLong(teto + 1);
+    }
+
+    /**
+     * Retry-After em segundos ou como data HTTP; null se ausente ou inválido.
+     */
+    static Long lerRetryAfter(String valor) {
+        if (valor == null || valor.isBlank()) return null;
+        String texto = valor.trim();
+        try {
+            return Math.max(0, Long.parseLong(texto)) * 1000;
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime quando = ZonedDateTime.parse(texto, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(quando.getZone()), quando).toMillis());
+            } catch (DateTimeParseException ignorado) {
+                return null;
+            }
+        }
+    }
+
+    private void aguardar(long millis) throws InterruptedIOException {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando nova tentativa no " + upstream);
+        }
+    }
+
+    private void contar(String motivo) {
+        registry.counter("upstream.http.retentativas", "upstream", upstream, "motivo", motivo).increment();
+    }
+}
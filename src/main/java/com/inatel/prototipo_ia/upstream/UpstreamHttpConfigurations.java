@@ -0,0 +1,162 @@
+package com.inatel.prototipo_ia.upstream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clientes HTTP das APIs de IA (Gemini e Deepgram).
+ *
+ * Todos partem do mesmo {@link OkHttpClient} base, então compartilham o pool de conexões
+ * (keep-alive e HTTP/2 multiplexado por host) e as conexões TLS já abertas. Cada upstream
+ * tem seus próprios timeouts, dispatcher e limite de chamadas simultâneas, configurados no
+ * application.properties. As métricas ficam em /actuator/metrics (upstream.http.* e
+ * upstream.disjuntor.estado).
+ *
+ * Ordem dos interceptors: retentativa por fora, disjuntor no meio (cada tentativa conta), a
+ * cota do Gemini (cada tentativa reserva a sua) e o limite de concorrência por dentro,
+ * segurando a vaga só durante a chamada de fato.
+ */
+@Configuration
+public class UpstreamHttpConfigurations {
+
+    public static final String GEMINI = "gemini";
+    public static final String DEEPGRAM = "deepgram";
+
+    @Value("${upstream.disjuntor.janela:20}")
+    private int janelaDisjuntor;
+
+    @Value("${upstream.disjuntor.minimo-chamadas:10}")
+    private int minimoChamadasDisjuntor;
+
+    @Value("${upstream.disjuntor.taxa-falha:50}")
+    private int taxaFalhaDisjuntor;
+
+    @Value("${upstream.disjuntor.tempo-aberto:30s}")
+    private Duration tempoAbertoDisjuntor;
+
+    @Value("${upstream.disjuntor.chamadas-teste:3}")
+    private int chamadasTesteDisjuntor;
+
+    @Value("${upstream.retentativa.max-tentativas:3}")
+    private int maxTentativas;
+
+    @Value("${upstream.retentativa.espera-base:500ms}")
+    private Duration esperaBaseRetentativa;
+
+    @Value("${upstream.retentativa.espera-maxima:10s}")
+    private Duration esperaMaximaRetentativa;
+
+    @Bean
+    public ConnectionPool upstreamConnectionPool(
+            @Value("${upstream.http.pool.max-ociosas:10}") int maxOciosas,
+            @Value("${upstream.http.pool.keep-alive:5m}") Duration keepAlive,
+            MeterRegistry registry) {
+        ConnectionPool pool = new ConnectionPool(maxOciosas, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+
+        Gauge.builder("upstream.http.pool.conexoes", pool, ConnectionPool::connectionCount)
+                .description("Conexões abertas no pool compartilhado das APIs de IA")
+                .tag("estado", "total")
+                .register(registry);
+        Gauge.builder("upstream.http.pool.conexoes", pool, ConnectionPool::idleConnectionCount)
+                .description("Conexões abertas no pool compartilhado das APIs de IA")
+                .tag("estado", "ociosas")
+                .register(registry);
+        return pool;
+    }
+
+    @Bean
+    public OkHttpClient upstreamHttpClient(ConnectionPool upstreamConnectionPool) {
+        return new OkHttpClient.Builder()
+                .connectionPool(upstreamConnectionPool)
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+
+    @Bean
+    public OkHttpClient geminiHttpClient(
+            @Qualifier("upstreamHttpClient") OkHttpClient base,
+            @Value("${gemini.http.connect-timeout:10s}") Duration connectTimeout,
+            @Value("${gemini.http.read-timeout:60s}") Duration readTimeout,
+            @Value("${gemini.http.call-timeout:90s}") Duration callTimeout,
+            @Value("${gemini.http.max-concorrencia:8}") int maxConcorrencia,
+            @Value("${upstream.http.espera-vaga:10s}") Duration esperaVaga,
+            MeterRegistry registry) {
+        return clienteDoUpstream(GEMINI, base, connectTimeout, readTimeout, callTimeout, maxConcorrencia, esperaVaga,
+                new CotaGeminiInterceptor(), registry);
+    }
+
+    @Bean
+    public OkHttpClient deepgramHttpClient(
+            @Qualifier("upstreamHttpClient") OkHttpClient base,
+            @Value("${deepgram.http.connect-timeout:10s}") Duration connectTimeout,
+            @Value("${deepgram.http.read-timeout:30s}") Duration readTimeout,
+            @Value("${deepgram.http.call-timeout:45s}") Duration callTimeout,
+            @Value("${deepgram.http.max-concorrencia:8}") int maxConcorrencia,
+            @Value("${upstream.http.espera-vaga:10s}") Duration esperaVaga,
+            MeterRegistry registry) {
+        return clienteDoUpstream(DEEPGRAM, base, connectTimeout, readTimeout, callTimeout, maxConcorrencia, esperaVaga,
+                null, registry);
+    }
+
+    private OkHttpClient clienteDoUpstream(String upstream, OkHttpClient base,
+                                           Duration connectTimeout, Duration readTimeout, Duration callTimeout,
+                                           int maxConcorrencia, Duration esperaVaga, Interceptor cota,
+                                           MeterRegistry registry) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConcorrencia);
+        dispatcher.setMaxRequestsPerHost(maxConcorrencia);
+
+        LimiteConcorrenciaInterceptor limite = new LimiteConcorrenciaInterceptor(upstream, maxConcorrencia, esperaVaga);
+        DisjuntorInterceptor disjuntor = new DisjuntorInterceptor(upstream, janelaDisjuntor, minimoChamadasDisjuntor,
+                taxaFalhaDisjuntor, tempoAbertoDisjuntor, chamadasTesteDisjuntor);
+        RetentativaInterceptor retentativa = new RetentativaInterceptor(upstream, maxTentativas,
+                esperaBaseRetentativa, esperaMaximaRetentativa, registry);
+
+        Gauge.builder("upstream.http.chamadas", limite, LimiteConcorrenciaInterceptor::chamadasAtivas)
+                .description("Chamadas em andamento para a API de IA")
+                .tags("upstream", upstream, "estado", "ativas")
+                .register(registry);
+        Gauge.builder("upstream.http.chamadas", limite, LimiteConcorrenciaInterceptor::chamadasAguardando)
+                .description("Chamadas aguardando vaga para a API de IA")
+                .tags("upstream", upstream, "estado", "aguardando")
+                .register(registry);
+        Gauge.builder("upstream.http.chamadas", dispatcher, Dispatcher::queuedCallsCount)
+                .description("Chamadas assíncronas na fila do dispatcher")
+                .tags("upstream", upstream, "estado", "fila_assincrona")
+                .register(registry);
+        Gauge.builder("upstream.disjuntor.estado", disjuntor, DisjuntorInterceptor::estadoNumerico)
+                .description("Estado do disjuntor: 0 fechado, 1 meio aberto, 2 aberto")
+                .tag("upstream", upstream)
+                .register(registry);
+
+        // newBuilder() mantém o pool de conexões do cliente base
+        OkHttpClient.Builder builder = base.newBuilder()
+                .dispatcher(dispatcher)
+                .addInterceptor(retentativa)
+                .addInterceptor(disjuntor);
+        if (cota != null) {
+            builder.addInterceptor(cota);
+        }
+        return builder
+                .addInterceptor(limite)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .writeTimeout(readTimeout)
+                .callTimeout(callTimeout)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.inatel.prototipo_ia.upstream;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Chamada recusada sem nem sair da aplicação: o disjuntor do upstream está aberto ou não
+ * houve vaga no limite de chamadas simultâneas. É um {@link IOException} para seguir o
+ * mesmo caminho das falhas de rede nos serviços.
+ */
+public class UpstreamIndisponivelException extends IOException {
+
+    private final String upstream;
+    private final Duration tentarNovamenteEm;
+
+    public UpstreamIndisponivelException(String upstream, String mensagem, Duration tentarNovamenteEm) {
+        super(mensagem);
+        this.upstream = upstream;
+        this.tentarNovamenteEm = tentarNovamenteEm;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public Duration getTentarNovamenteEm() {
+        return tentarNovamenteEm;
+    }
+
+    /**
+     * Procura a exceção na cadeia de causas (os serviços embrulham as falhas em RuntimeException).
+     */
+    public static Optional<UpstreamIndisponivelException> naCausa(Throwable erro) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (atual instanceof UpstreamIndisponivelException) {
+                return Optional.of((UpstreamIndisponivelException) atual);
+            }
+            if (atual.getCause() == atual) break;
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,10 @@
+-- V11: Cache persistente dos resultados de análise de áudio
+-- A chave é o SHA-256 do áudio + palavras esperadas normalizadas + motor (GEMINI/DEEPGRAM)
+CREATE TABLE IF NOT EXISTS resultado_analise_cache (
+    chave VARCHAR(64) PRIMARY KEY,
+    motor VARCHAR(20) NOT NULL,
+    resultado TEXT NOT NULL,
+    criado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_resultado_analise_cache_criado_em ON resultado_analise_cache (criado_em);
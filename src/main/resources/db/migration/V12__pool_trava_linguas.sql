@@ -0,0 +1,7 @@
+-- V12: Pool de trava-línguas pré-gerados
+-- Os trava-línguas do pool ficam em conteudoteste com a faixa etária para a qual foram gerados;
+-- usado_em marca os que já foram entregues a uma sessão.
+ALTER TABLE conteudoteste ADD COLUMN IF NOT EXISTS faixa_etaria VARCHAR(50);
+ALTER TABLE conteudoteste ADD COLUMN IF NOT EXISTS usado_em TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_conteudoteste_pool ON conteudoteste (dificuldade, faixa_etaria) WHERE faixa_etaria IS NOT NULL;
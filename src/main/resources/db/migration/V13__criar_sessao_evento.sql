@@ -0,0 +1,53 @@
+-- V13: Conversa da sessão de treino em sessao_evento (uma linha por mensagem, só inserções)
+-- Substitui sessaotreino.historico_conversa, que era regravada inteira a cada mensagem.
+CREATE TABLE IF NOT EXISTS sessao_evento (
+    id BIGSERIAL PRIMARY KEY,
+    sessao_id BIGINT NOT NULL,
+    criado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    remetente VARCHAR(20) NOT NULL,
+    tipo VARCHAR(30) NOT NULL,
+    conteudo TEXT,
+    CONSTRAINT fk_sessao_evento_sessao FOREIGN KEY (sessao_id) REFERENCES sessaotreino(id) ON DELETE CASCADE
+);
+
+-- Leitura paginada por sessão em ordem de id
+CREATE INDEX IF NOT EXISTS idx_sessao_evento_sessao ON sessao_evento (sessao_id, id);
+
+-- Backfill: cada linha do histórico é "[<LocalDateTime>] REMETENTE: mensagem\n". Mensagens podem
+-- ter quebras de linha, então só quebra antes de uma nova data entre colchetes. Linha fora desse
+-- formato não é descartada: vira MENSAGEM com o texto cru, no horário de início da sessão.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name='sessaotreino' AND column_name='historico_conversa') THEN
+        INSERT INTO sessao_evento (sessao_id, criado_em, remetente, tipo, conteudo)
+        SELECT l.sessao_id,
+               COALESCE(CAST(l.partes[1] AS TIMESTAMP), l.data_inicio),
+               COALESCE(l.partes[2], 'DESCONHECIDO'),
+               CASE
+                   WHEN l.partes IS NULL THEN 'MENSAGEM'
+                   WHEN l.partes[3] LIKE 'Olá, %Preparei um trava-língua%' THEN 'SAUDACAO'
+                   WHEN l.partes[3] LIKE 'Vamos começar!%' THEN 'INSTRUCAO'
+                   WHEN l.partes[3] LIKE 'Trava-língua:%' THEN 'PALAVRAS'
+                   WHEN l.partes[3] = '[ÁUDIO ENVIADO]' THEN 'AUDIO_ENVIADO'
+                   WHEN l.partes[3] LIKE 'Sessão finalizada%' THEN 'RESUMO_FINAL'
+                   WHEN l.partes[3] LIKE 'Sessão cancelada%' THEN 'CANCELAMENTO'
+                   ELSE 'MENSAGEM'
+               END,
+               COALESCE(l.partes[3], l.linha)
+        FROM (
+            SELECT s.id AS sessao_id,
+                   s.data_inicio,
+                   t.ordem,
+                   rtrim(t.linha, E'\n') AS linha,
+                   regexp_match(rtrim(t.linha, E'\n'), '^\[(\d{4}-\d{2}-\d{2}T[^\]]+)\] ([^:]{1,20}): (.*)$') AS partes
+            FROM sessaotreino s,
+                 regexp_split_to_table(s.historico_conversa, E'\n(?=\\[\\d{4}-\\d{2}-\\d{2}T)') WITH ORDINALITY AS t(linha, ordem)
+            WHERE s.historico_conversa IS NOT NULL AND s.historico_conversa <> ''
+        ) l
+        WHERE l.partes IS NOT NULL OR btrim(l.linha) <> ''
+        ORDER BY l.sessao_id, l.ordem;
+
+        ALTER TABLE sessaotreino DROP COLUMN historico_conversa;
+    END IF;
+END
+$$;
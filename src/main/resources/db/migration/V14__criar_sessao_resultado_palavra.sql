@@ -0,0 +1,56 @@
+-- V14: Resultado por palavra das sessões de treino em linhas, em vez de só no JSON de sessaotreino.resultado
+-- O histórico e os filtros por palavra/acerto leem daqui; resultado continua com a análise completa.
+ALTER TABLE sessaotreino ADD COLUMN IF NOT EXISTS feedback_geral TEXT;
+
+CREATE TABLE IF NOT EXISTS sessao_resultado_palavra (
+    id BIGSERIAL PRIMARY KEY,
+    sessao_id BIGINT NOT NULL,
+    posicao INT NOT NULL,
+    palavra_esperada VARCHAR(255),
+    palavra_transcrita VARCHAR(255),
+    acertou BOOLEAN NOT NULL DEFAULT FALSE,
+    similaridade DOUBLE PRECISION,
+    feedback TEXT,
+    inicio_ms BIGINT,
+    fim_ms BIGINT,
+    CONSTRAINT fk_sessao_resultado_palavra_sessao FOREIGN KEY (sessao_id) REFERENCES sessaotreino(id) ON DELETE CASCADE,
+    CONSTRAINT uk_sessao_resultado_palavra_posicao UNIQUE (sessao_id, posicao)
+);
+
+-- Filtro por palavra (comparada em minúsculas) e pelos erros
+CREATE INDEX IF NOT EXISTS idx_sessao_resultado_palavra_palavra ON sessao_resultado_palavra (lower(palavra_esperada));
+CREATE INDEX IF NOT EXISTS idx_sessao_resultado_palavra_erros ON sessao_resultado_palavra (sessao_id) WHERE NOT acertou;
+
+-- Backfill a partir do JSON gravado pelo Gson. Sessão com JSON inválido fica sem linhas e o
+-- histórico continua lendo o texto dela.
+DO $$
+DECLARE
+    s RECORD;
+    analise JSONB;
+BEGIN
+    FOR s IN SELECT id, resultado FROM sessaotreino WHERE resultado IS NOT NULL AND resultado <> '' LOOP
+        BEGIN
+            analise := s.resultado::jsonb;
+
+            UPDATE sessaotreino SET feedback_geral = analise ->> 'feedbackGeral' WHERE id = s.id;
+
+            IF jsonb_typeof(analise -> 'resultados') = 'array' THEN
+                INSERT INTO sessao_resultado_palavra
+                    (sessao_id, posicao, palavra_esperada, palavra_transcrita, acertou, similaridade, feedback, inicio_ms, fim_ms)
+                SELECT s.id,
+                       p.ordem - 1,
+                       p.item ->> 'palavraEsperada',
+                       p.item ->> 'palavraTranscrita',
+                       COALESCE((p.item ->> 'acertou')::BOOLEAN, FALSE),
+                       (p.item ->> 'similaridade')::DOUBLE PRECISION,
+                       p.item ->> 'feedback',
+                       (p.item ->> 'inicioMs')::BIGINT,
+                       (p.item ->> 'fimMs')::BIGINT
+                FROM jsonb_array_elements(analise -> 'resultados') WITH ORDINALITY AS p(item, ordem);
+            END IF;
+        EXCEPTION WHEN others THEN
+            RAISE NOTICE 'Sessão % mantida só com o JSON: %', s.id, SQLERRM;
+        END;
+    END LOOP;
+END
+$$;
@@ -0,0 +1,270 @@
+package com.inatel.prototipo_ia.analise;
+
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+import com.inatel.prototipo_ia.repository.ResultadoAnaliseCacheRepository;
+import com.inatel.prototipo_ia.service.NormalizadorFonetico;
+import com.inatel.prototipo_ia.upstream.UpstreamIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes Unitários - RoteadorMotoresAnalise
+ * Valida a ordem de escolha dos motores e a troca de motor quando um deles falha
+ */
+class RoteadorMotoresAnaliseTest {
+
+    private static final List<String> PALAVRAS = List.of("rato");
+
+    private AtomicLong relogio;
+    private SimpleMeterRegistry registry;
+    private MotorFalso gemini;
+    private MotorFalso deepgram;
+    private RoteadorMotoresAnalise roteador;
+    private AudioArquivo audio;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        relogio = new AtomicLong();
+        registry = new SimpleMeterRegistry();
+        gemini = new MotorFalso(MotorAnalise.GEMINI, 3.0);
+        deepgram = new MotorFalso(MotorAnalise.DEEPGRAM, 1.0);
+        CacheResultadosAnalise cache = new CacheResultadosAnalise(new NormalizadorFonetico(),
+                mock(ResultadoAnaliseCacheRepository.class), registry, 100, Duration.ofHours(1), false, Duration.ofDays(7));
+        roteador = new RoteadorMotoresAnalise(List.of(gemini, deepgram), cache, registry, 0.5, Duration.ofMinutes(2), relogio::get);
+        audio = AudioArquivo.de(new byte[]{1, 2, 3});
+    }
+
+    @AfterEach
+    void tearDown() {
+        audio.close();
+    }
+
+    private List<MotorAnalise> ordem(MotorAnalise preferido) {
+        return roteador.ordenar(preferido).stream().map(MotorAnalisePronuncia::getMotor).collect(Collectors.toList());
+    }
+
+    private void falharVezes(MotorFalso motor, int vezes) {
+        motor.falha = new RuntimeException("Erro IA: 503");
+        for (int i = 0; i < vezes; i++) {
+            assertThatThrownBy(() -> roteador.analisarCom(motor.getMotor(), audio, PALAVRAS));
+        }
+        motor.falha = null;
+    }
+
+    @Nested
+    @DisplayName("Testes da Escolha do Motor")
+    class EscolhaTests {
+
+        @Test
+        @DisplayName("Deve começar pelo motor preferido quando ele está saudável")
+        void deveComecarPeloPreferido() {
+            assertThat(ordem(MotorAnalise.GEMINI)).containsExactly(MotorAnalise.GEMINI, MotorAnalise.DEEPGRAM);
+        }
+
+        @Test
+        @DisplayName("Deve escolher o mais barato sem preferência e sem histórico")
+        void deveEscolherMaisBaratoSemHistorico() {
+            assertThat(ordem(null)).containsExactly(MotorAnalise.DEEPGRAM, MotorAnalise.GEMINI);
+        }
+
+        @Test
+        @DisplayName("Deve escolher pelo tempo esperado quando o mais barato está muito lento")
+        void deveEscolherPeloTempoEsperado() throws Exception {
+            deepgram.duracaoMs = 9000;
+            gemini.duracaoMs = 1000;
+            roteador.analisarCom(MotorAnalise.DEEPGRAM, audio, PALAVRAS);
+            roteador.analisarCom(MotorAnalise.GEMINI, audio, List.of("roeu"));
+
+            // 9000 x 1 contra 1000 x 3
+            assertThat(ordem(null)).containsExactly(MotorAnalise.GEMINI, MotorAnalise.DEEPGRAM);
+        }
+
+        @Test
+        @DisplayName("Deve passar o preferido para o fim quando ele está degradado")
+        void deveEvitarPreferidoDegradado() {
+            falharVezes(gemini, 4);
+
+            assertThat(ordem(MotorAnalise.GEMINI)).containsExactly(MotorAnalise.DEEPGRAM, MotorAnalise.GEMINI);
+        }
+
+        @Test
+        @DisplayName("Deve voltar a usar o motor depois que a taxa de erro decai")
+        void deveRecuperarMotorDegradado() {
+            falharVezes(gemini, 4);
+            relogio.addAndGet(Duration.ofMinutes(4).toNanos());
+
+            assertThat(ordem(MotorAnalise.GEMINI)).containsExactly(MotorAnalise.GEMINI, MotorAnalise.DEEPGRAM);
+        }
+
+        @Test
+        @DisplayName("Deve evitar o motor cujo upstream está recusando chamadas")
+        void deveEvitarUpstreamRecusando() {
+            gemini.falha = new RuntimeException("Erro IA", new UpstreamIndisponivelException("gemini", "aberto", Duration.ofSeconds(30)));
+            assertThatThrownBy(() -> roteador.analisarCom(MotorAnalise.GEMINI, audio, PALAVRAS));
+
+            assertThat(ordem(MotorAnalise.GEMINI)).containsExactly(MotorAnalise.DEEPGRAM, MotorAnalise.GEMINI);
+
+            relogio.addAndGet(Duration.ofSeconds(31).toNanos());
+            // Uma falha só (taxa 0,2) não deixa o motor degradado depois que a recusa passa
+            assertThat(ordem(MotorAnalise.GEMINI)).containsExactly(MotorAnalise.GEMINI, MotorAnalise.DEEPGRAM);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes da Troca de Motor")
+    class TrocaTests {
+
+        @Test
+        @DisplayName("Deve trocar de motor quando o escolhido falha e registrar quem analisou")
+        void deveTrocarDeMotor() throws Exception {
+            gemini.falha = new RuntimeException("timeout");
+
+            BatchPronunciationAnalysisDTO resultado = roteador.analisar(MotorAnalise.GEMINI, audio, PALAVRAS, null);
+
+            assertThat(resultado.getMotorAnalise()).isEqualTo(MotorAnalise.DEEPGRAM);
+            assertThat(gemini.chamadas).isEqualTo(1);
+            assertThat(deepgram.chamadas).isEqualTo(1);
+            assertThat(registry.counter("analise.motor.failover", "de", "gemini", "para", "deepgram").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Deve tratar resultado sem palavras avaliadas como falha e trocar de motor")
+        void deveTrocarDeMotor_QuandoResultadoVazio() throws Exception {
+            gemini.semResultados = true;
+
+            BatchPronunciationAnalysisDTO resultado = roteador.analisar(MotorAnalise.GEMINI, audio, PALAVRAS, null);
+
+            assertThat(resultado.getMotorAnalise()).isEqualTo(MotorAnalise.DEEPGRAM);
+            assertThat(resultado.getResultados()).hasSize(1);
+            assertThat(registry.counter("analise.motor.failover", "de", "gemini", "para", "deepgram").count()).isEqualTo(1.0);
+            assertThat(registry.timer("analise.motor.duracao", "motor", "gemini", "resultado", "falha").count()).isEqualTo(1);
+            assertThat(registry.timer("analise.motor.duracao", "motor", "gemini", "resultado", "sucesso").count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Deve lançar exceção quando o motor escolhido não avalia nenhuma palavra")
+        void deveLancarExcecao_QuandoMotorEscolhidoDevolveVazio() throws Exception {
+            gemini.semResultados = true;
+
+            assertThatThrownBy(() -> roteador.analisarCom(MotorAnalise.GEMINI, audio, PALAVRAS))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Erro ao processar a resposta da IA");
+
+            // O resultado vazio não foi guardado: a próxima tentativa chama o motor de novo
+            gemini.semResultados = false;
+            roteador.analisarCom(MotorAnalise.GEMINI, audio, PALAVRAS);
+            assertThat(gemini.chamadas).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Deve propagar a última falha quando nenhum motor responde")
+        void devePropagarUltimaFalha() {
+            gemini.falha = new RuntimeException("gemini fora");
+            deepgram.falha = new RuntimeException("deepgram fora");
+
+            assertThatThrownBy(() -> roteador.analisar(MotorAnalise.GEMINI, audio, PALAVRAS, null))
+                    .hasMessage("deepgram fora");
+        }
+
+        @Test
+        @DisplayName("Não deve trocar de motor quando o cliente escolheu o motor")
+        void naoDeveTrocarComMotorEscolhido() {
+            gemini.falha = new RuntimeException("timeout");
+
+            assertThatThrownBy(() -> roteador.analisarCom(MotorAnalise.GEMINI, audio, PALAVRAS));
+            assertThat(deepgram.chamadas).isZero();
+        }
+
+        @Test
+        @DisplayName("Deve ler o áudio uma vez só para consultar e guardar no cache")
+        void deveLerAudioUmaVez() throws Exception {
+            AudioArquivo espiao = spy(audio);
+            gemini.falha = new RuntimeException("timeout");
+
+            roteador.analisar(MotorAnalise.GEMINI, espiao, PALAVRAS, null);
+
+            // Duas consultas ao cache, uma troca de motor e uma gravação: uma leitura
+            verify(espiao, times(1)).abrir();
+        }
+
+        @Test
+        @DisplayName("Deve reaproveitar o resultado de outro motor guardado no cache")
+        void deveReaproveitarResultadoDeOutroMotor() throws Exception {
+            roteador.analisarCom(MotorAnalise.DEEPGRAM, audio, PALAVRAS);
+
+            BatchPronunciationAnalysisDTO resultado = roteador.analisar(MotorAnalise.GEMINI, audio, PALAVRAS, null);
+
+            assertThat(resultado.getMotorAnalise()).isEqualTo(MotorAnalise.DEEPGRAM);
+            assertThat(gemini.chamadas).isZero();
+            assertThat(deepgram.chamadas).isEqualTo(1);
+        }
+    }
+
+    /**
+     * Motor que responde na hora, avançando o relógio do teste pela duração configurada.
+     */
+    private final class MotorFalso implements MotorAnalisePronuncia {
+
+        private final MotorAnalise motor;
+        private final double custo;
+        private long duracaoMs = 100;
+        private RuntimeException falha;
+        private boolean semResultados;
+        private int chamadas;
+
+        private MotorFalso(MotorAnalise motor, double custo) {
+            this.motor = motor;
+            this.custo = custo;
+        }
+
+        @Override
+        public MotorAnalise getMotor() {
+            return motor;
+        }
+
+        @Override
+        public double getCustoRelativo() {
+            return custo;
+        }
+
+        @Override
+        public BatchPronunciationAnalysisDTO analisar(AudioArquivo audio, List<String> palavrasEsperadas,
+                                                      Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliarPalavra) {
+            chamadas++;
+            relogio.addAndGet(Duration.ofMillis(duracaoMs).toNanos());
+            if (falha != null) {
+                throw falha;
+            }
+            BatchPronunciationAnalysisDTO resultado = new BatchPronunciationAnalysisDTO();
+            if (semResultados) {
+                // Como o Gemini devolve quando não consegue ler a resposta da IA
+                resultado.setFeedbackGeral("Erro ao processar a resposta da IA: JSON inválido");
+                resultado.setResultados(new ArrayList<>());
+                return resultado;
+            }
+            resultado.setResultados(List.of(new BatchPronunciationAnalysisDTO.ResultadoPalavra(
+                    palavrasEsperadas.get(0), palavrasEsperadas.get(0), true, 100.0, "ok")));
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.inatel.prototipo_ia.audio;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import okio.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes Unitários - CorpoJsonComAudio
+ * Valida que o corpo escrito em streaming é o mesmo JSON que seria montado em memória
+ */
+class CorpoJsonComAudioTest {
+
+    private static JsonObject envelope(String dados) {
+        JsonObject inlineData = new JsonObject();
+        inlineData.addProperty("mime_type", "audio/mp3");
+        inlineData.addProperty("data", dados);
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("text", "Analise: rato, roeu");
+        envelope.add("inline_data", inlineData);
+        return envelope;
+    }
+
+    @Test
+    @DisplayName("Deve escrever o mesmo JSON da montagem em memória, com o tamanho informado")
+    void deveEscreverJsonEquivalente() throws Exception {
+        // Tamanhos que exercitam os três casos de padding do Base64
+        for (int tamanho : new int[]{0, 1, 2, 3, 10_000, 10_001}) {
+            byte[] bytes = new byte[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                bytes[i] = (byte) (i * 31);
+            }
+
+            try (AudioArquivo audio = AudioArquivo.de(bytes)) {
+                CorpoJsonComAudio corpo = new CorpoJsonComAudio(envelope(CorpoJsonComAudio.MARCADOR_AUDIO).toString(), audio);
+                Buffer buffer = new Buffer();
+                corpo.writeTo(buffer);
+
+                String esperado = envelope(Base64.getEncoder().encodeToString(bytes)).toString();
+                assertThat(buffer.size()).isEqualTo(corpo.contentLength());
+                assertThat(JsonParser.parseString(buffer.readUtf8())).isEqualTo(JsonParser.parseString(esperado));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar envelope sem o marcador do áudio")
+    void deveRecusarEnvelopeSemMarcador() throws Exception {
+        try (AudioArquivo audio = AudioArquivo.de(new byte[]{1})) {
+            assertThatThrownBy(() -> new CorpoJsonComAudio(envelope("abc").toString(), audio))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.inatel.prototipo_ia.audio;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - PreprocessadorAudio
+ * Valida o corte de silêncio, a conversão para mono 16 kHz e os casos em que o original segue
+ */
+class PreprocessadorAudioTest {
+
+    private SimpleMeterRegistry registry;
+    private PreprocessadorAudio preprocessador;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        preprocessador = new PreprocessadorAudio(registry, true, 16000, -45, Duration.ofMillis(250));
+    }
+
+    /**
+     * WAV estéreo de 16 bits com silêncio, um tom de 440 Hz e silêncio de novo.
+     */
+    private static byte[] wavEstereo(int taxa, double silencioS, double tomS, double silencioFinalS) {
+        int quadros = (int) (taxa * (silencioS + tomS + silencioFinalS));
+        int inicioTom = (int) (taxa * silencioS);
+        int fimTom = (int) (taxa * (silencioS + tomS));
+        ByteBuffer wav = ByteBuffer.allocate(44 + quadros * 4).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put(ArquivoWav.cabecalhoPcm16Mono(taxa, quadros * 4L));
+        // Ajusta o cabeçalho mono para 2 canais
+        wav.putShort(22, (short) 2).putInt(28, taxa * 4).putShort(32, (short) 4);
+        for (int i = 0; i < quadros; i++) {
+            short valor = i >= inicioTom && i < fimTom
+                    ? (short) (Math.sin(2 * Math.PI * 440 * i / taxa) * 16000)
+                    : 0;
+            wav.putShort(valor).putShort(valor);
+        }
+        return wav.array();
+    }
+
+    private static ByteBuffer ler(AudioArquivo audio) throws Exception {
+        return ByteBuffer.wrap(Files.readAllBytes(audio.getCaminho())).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Nested
+    @DisplayName("Testes de Redução do WAV")
+    class ReducaoTests {
+
+        @Test
+        @DisplayName("Deve cortar o silêncio e converter para mono 16 kHz")
+        void deveCortarSilencioEReamostrar() throws Exception {
+            AudioArquivo original = AudioArquivo.de(wavEstereo(44100, 1.0, 0.5, 1.0));
+            Path caminhoOriginal = original.getCaminho();
+
+            try (AudioArquivo preparado = preprocessador.preparar(original)) {
+                ByteBuffer wav = ler(preparado);
+
+                assertThat(preparado).isNotSameAs(original);
+                assertThat(preparado.getTipoConteudo()).isEqualTo(AudioArquivo.TIPO_WAV);
+                assertThat(wav.getShort(22)).isEqualTo((short) 1);
+                assertThat(wav.getInt(24)).isEqualTo(16000);
+                // 0,5 s de tom + 250 ms de margem de cada lado
+                double duracao = wav.getInt(40) / 2.0 / 16000;
+                assertThat(duracao).isBetween(0.95, 1.05);
+                assertThat(preparado.getTamanho()).isEqualTo(44 + wav.getInt(40));
+            }
+            assertThat(Files.exists(caminhoOriginal)).isFalse();
+            assertThat(registry.get("audio.preprocessamento.bytes").tag("etapa", "enviado").summary().totalAmount())
+                    .isLessThan(registry.get("audio.preprocessamento.bytes").tag("etapa", "original").summary().totalAmount());
+        }
+
+        @Test
+        @DisplayName("Deve manter a amplitude do tom na conversão")
+        void deveManterAmplitude() throws Exception {
+            try (AudioArquivo preparado = preprocessador.preparar(AudioArquivo.de(wavEstereo(16000, 0.0, 0.5, 0.0)))) {
+                ByteBuffer wav = ler(preparado);
+                int maximo = 0;
+                for (int i = 44; i < wav.limit(); i += 2) {
+                    maximo = Math.max(maximo, Math.abs(wav.getShort(i)));
+                }
+
+                assertThat(maximo).isBetween(15000, 16500);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Áudio Mantido")
+    class MantidoTests {
+
+        @Test
+        @DisplayName("Deve devolver o próprio áudio quando não é WAV")
+        void deveManterNaoWav() throws Exception {
+            try (AudioArquivo original = AudioArquivo.de(new byte[]{'I', 'D', '3', 4, 0, 0, 0, 0, 0, 0, 0, 0, 0})) {
+                assertThat(preprocessador.preparar(original)).isSameAs(original);
+                assertThat(Files.exists(original.getCaminho())).isTrue();
+                assertThat(registry.get("audio.preprocessamento").tag("resultado", "nao_wav").counter().count())
+                        .isEqualTo(1.0);
+            }
+        }
+
+        @Test
+        @DisplayName("Deve devolver o próprio áudio quando não há fala")
+        void deveManterSemFala() throws Exception {
+            try (AudioArquivo original = AudioArquivo.de(wavEstereo(44100, 1.0, 0.0, 0.0))) {
+                assertThat(preprocessador.preparar(original)).isSameAs(original);
+            }
+        }
+
+        @Test
+        @DisplayName("Deve devolver o próprio áudio quando o WAV está truncado")
+        void deveManterWavTruncado() throws Exception {
+            byte[] completo = wavEstereo(44100, 0.1, 0.1, 0.1);
+            byte[] truncado = Arrays.copyOf(completo, 30);
+
+            try (AudioArquivo original = AudioArquivo.de(truncado)) {
+                assertThat(preprocessador.preparar(original)).isSameAs(original);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes do Tipo do Áudio")
+    class TipoTests {
+
+        @Test
+        @DisplayName("Deve usar o padrão quando o tipo do upload é desconhecido")
+        void deveUsarPadrao() throws Exception {
+            try (AudioArquivo audio = AudioArquivo.de(new byte[]{1})) {
+                assertThat(audio.tipoMime("audio/mp3")).isEqualTo("audio/mp3");
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.inatel.prototipo_ia.audio;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes Unitários - RecepcaoAudio
+ * Valida a detecção do formato pelos bytes mágicos e as recusas antes de ler o áudio
+ */
+class RecepcaoAudioTest {
+
+    private SimpleMeterRegistry registry;
+    private RecepcaoAudio recepcao;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        recepcao = new RecepcaoAudio(registry, DataSize.ofKilobytes(1));
+    }
+
+    private static MockMultipartFile upload(String tipo, byte[] conteudo) {
+        return new MockMultipartFile("audio", "gravacao", tipo, conteudo);
+    }
+
+    @Nested
+    @DisplayName("Testes de Detecção do Formato")
+    class DeteccaoTests {
+
+        @Test
+        @DisplayName("Deve usar o tipo detectado no lugar do Content-Type enviado")
+        void deveUsarTipoDetectado() throws Exception {
+            byte[] wav = ArquivoWav.cabecalhoPcm16Mono(16000, 0).array();
+
+            try (AudioArquivo audio = recepcao.receber(upload("application/octet-stream", wav))) {
+                assertThat(audio.getTipoConteudo()).isEqualTo(AudioArquivo.TIPO_WAV);
+                assertThat(audio.getTamanho()).isEqualTo(44);
+                assertThat(Files.exists(audio.getCaminho())).isTrue();
+            }
+            assertThat(registry.get("audio.upload").tag("formato", AudioArquivo.TIPO_WAV).counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Deve reconhecer os formatos comuns de gravação")
+        void deveReconhecerFormatos() {
+            assertThat(RecepcaoAudio.detectarTipo(new byte[]{'I', 'D', '3', 4})).isEqualTo("audio/mpeg");
+            assertThat(RecepcaoAudio.detectarTipo(new byte[]{(byte) 0xFF, (byte) 0xFB, 0x10})).isEqualTo("audio/mpeg");
+            assertThat(RecepcaoAudio.detectarTipo(new byte[]{(byte) 0xFF, (byte) 0xF1, 0x50})).isEqualTo("audio/aac");
+            assertThat(RecepcaoAudio.detectarTipo("OggS\0\2".getBytes())).isEqualTo("audio/ogg");
+            assertThat(RecepcaoAudio.detectarTipo("fLaC\0\0".getBytes())).isEqualTo("audio/flac");
+            assertThat(RecepcaoAudio.detectarTipo(new byte[]{0x1A, 0x45, (byte) 0xDF, (byte) 0xA3})).isEqualTo("audio/webm");
+            assertThat(RecepcaoAudio.detectarTipo("\0\0\0 ftypM4A ".getBytes())).isEqualTo("audio/mp4");
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Recusa")
+    class RecusaTests {
+
+        @Test
+        @DisplayName("Deve recusar conteúdo que não é áudio, mesmo declarado como áudio")
+        void deveRecusarFormatoDesconhecido() {
+            assertThatThrownBy(() -> recepcao.receber(upload("audio/wav", "<html></html>".getBytes())))
+                    .isInstanceOf(AudioInvalidoException.class)
+                    .hasMessageContaining("Formato de áudio não reconhecido");
+            assertThat(registry.get("audio.upload.recusas").tag("motivo", "formato_desconhecido").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Deve recusar upload vazio ou acima do limite")
+        void deveRecusarTamanho() {
+            assertThatThrownBy(() -> recepcao.receber(upload("audio/wav", new byte[0])))
+                    .isInstanceOf(AudioInvalidoException.class);
+            assertThatThrownBy(() -> recepcao.receber(upload("audio/wav", new byte[2048])))
+                    .isInstanceOf(AudioInvalidoException.class)
+                    .hasMessageContaining("maior que o limite");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.inatel.prototipo_ia.audio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - SegmentadorVoz
+ * Valida o agrupamento das janelas com fala e o recorte dos trechos com seus tempos
+ */
+class SegmentadorVozTest {
+
+    private SegmentadorVoz segmentador;
+
+    @BeforeEach
+    void setUp() {
+        // Pausa mínima de 200 ms (10 janelas), fala mínima de 80 ms (4 janelas), até 3 trechos
+        segmentador = new SegmentadorVoz(true, -45, Duration.ofMillis(200), Duration.ofMillis(80),
+                Duration.ofMillis(60), 3);
+    }
+
+    private static BitSet janelas(int... faixas) {
+        BitSet comFala = new BitSet();
+        for (int i = 0; i < faixas.length; i += 2) {
+            comFala.set(faixas[i], faixas[i + 1]);
+        }
+        return comFala;
+    }
+
+    /**
+     * WAV mono de 16 kHz com tons de 440 Hz nos intervalos dados (em segundos) e silêncio no resto.
+     */
+    private static byte[] wavComTons(double duracaoS, double... tons) {
+        int taxa = 16000;
+        int quadros = (int) (taxa * duracaoS);
+        ByteBuffer wav = ByteBuffer.allocate(44 + quadros * 2).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put(ArquivoWav.cabecalhoPcm16Mono(taxa, quadros * 2L));
+        for (int i = 0; i < quadros; i++) {
+            double segundo = (double) i / taxa;
+            boolean tom = false;
+            for (int t = 0; t < tons.length; t += 2) {
+                tom |= segundo >= tons[t] && segundo < tons[t + 1];
+            }
+            wav.putShort(tom ? (short) (Math.sin(2 * Math.PI * 440 * segundo) * 16000) : 0);
+        }
+        return wav.array();
+    }
+
+    @Nested
+    @DisplayName("Testes do Agrupamento das Janelas")
+    class AgrupamentoTests {
+
+        @Test
+        @DisplayName("Deve separar trechos por pausas longas e juntar pausas curtas")
+        void deveSepararPorPausas() {
+            List<long[]> faixas = segmentador.localizarTrechos(janelas(0, 10, 14, 20, 40, 50));
+
+            assertThat(faixas).hasSize(2);
+            assertThat(faixas.get(0)).containsExactly(0, 20);
+            assertThat(faixas.get(1)).containsExactly(40, 50);
+        }
+
+        @Test
+        @DisplayName("Deve descartar rajadas curtas como ruído")
+        void deveDescartarRuido() {
+            List<long[]> faixas = segmentador.localizarTrechos(janelas(0, 10, 30, 32, 60, 70));
+
+            assertThat(faixas).hasSize(2);
+            assertThat(faixas.get(1)).containsExactly(60, 70);
+        }
+
+        @Test
+        @DisplayName("Deve juntar os trechos separados pelas menores pausas quando passa do máximo")
+        void deveLimitarQuantidade() {
+            List<long[]> faixas = segmentador.localizarTrechos(janelas(0, 10, 30, 40, 52, 60, 100, 110));
+
+            assertThat(faixas).hasSize(3);
+            assertThat(faixas.get(1)).containsExactly(30, 60);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes do Recorte do Áudio")
+    class RecorteTests {
+
+        @Test
+        @DisplayName("Deve recortar cada trecho de fala com o tempo no áudio original")
+        void deveRecortarTrechos() throws Exception {
+            try (AudioArquivo audio = AudioArquivo.de(wavComTons(2.0, 0.2, 0.6, 1.2, 1.5))) {
+                List<TrechoAudio> trechos = segmentador.dividir(audio);
+                try {
+                    assertThat(trechos).hasSize(2);
+                    assertThat(trechos.get(0).getInicioMs()).isEqualTo(140);
+                    assertThat(trechos.get(0).getFimMs()).isEqualTo(660);
+                    assertThat(trechos.get(1).getInicioMs()).isEqualTo(1140);
+                    assertThat(trechos.get(1).getFimMs()).isEqualTo(1560);
+                    // 520 ms em 16 kHz, 16 bits, mais o cabeçalho
+                    assertThat(trechos.get(0).getAudio().getTamanho()).isEqualTo(44 + 8320 * 2);
+                    assertThat(trechos.get(0).getAudio().getTipoConteudo()).isEqualTo(AudioArquivo.TIPO_WAV);
+                } finally {
+                    trechos.forEach(TrechoAudio::close);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Não deve dividir fala contínua nem áudio que não é WAV")
+        void naoDeveDividirSemPausas() throws Exception {
+            try (AudioArquivo continuo = AudioArquivo.de(wavComTons(1.0, 0.1, 0.9));
+                 AudioArquivo mp3 = AudioArquivo.de(new byte[]{'I', 'D', '3', 4, 0, 0, 0, 0})) {
+                assertThat(segmentador.dividir(continuo)).isEmpty();
+                assertThat(segmentador.dividir(mp3)).isEmpty();
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.inatel.prototipo_ia.integration;
 
 import com.inatel.prototipo_ia.dto.in.ClienteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ClienteDtoOut;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
 import com.inatel.prototipo_ia.entity.ChatEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
@@ -155,6 +156,24 @@ class ClienteServiceIntegrationTest extends BaseIntegrationTest {
                     .containsExactlyInAnyOrder("Cliente 1", "Cliente 2", "Cliente 3");
         }
 
+        @Test
+        @DisplayName("Deve listar os clientes em páginas pelo cursor de id")
+        void deveListarClientesPorCursor() {
+            for (int i = 1; i <= 5; i++) {
+                clienteRepository.save(criarClienteEntity("Cliente " + i, "cliente" + i + "@teste.com"));
+            }
+
+            PaginaDtoOut<ClienteDtoOut> primeira = clienteService.listar(null, 2);
+            PaginaDtoOut<ClienteDtoOut> segunda = clienteService.listar(primeira.getProximoCursor(), 2);
+            PaginaDtoOut<ClienteDtoOut> ultima = clienteService.listar(segunda.getProximoCursor(), 2);
+
+            assertThat(primeira.getItens()).extracting(ClienteDtoOut::getNome).containsExactly("Cliente 1", "Cliente 2");
+            assertThat(primeira.getProximoCursor()).isEqualTo(primeira.getItens().get(1).getId());
+            assertThat(segunda.getItens()).extracting(ClienteDtoOut::getNome).containsExactly("Cliente 3", "Cliente 4");
+            assertThat(ultima.getItens()).extracting(ClienteDtoOut::getNome).containsExactly("Cliente 5");
+            assertThat(ultima.temProxima()).isFalse();
+        }
+
         @Test
         @DisplayName("Deve buscar cliente por ID do banco")
         void deveBuscarClientePorId() {
@@ -0,0 +1,347 @@
+package com.inatel.prototipo_ia.integration;
+
+import com.inatel.prototipo_ia.dto.out.ChatDtoOut;
+import com.inatel.prototipo_ia.dto.out.ClienteDtoOut;
+import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
+import com.inatel.prototipo_ia.dto.out.EspecialistaDtoOut;
+import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
+import com.inatel.prototipo_ia.entity.CertificadoEntity;
+import com.inatel.prototipo_ia.entity.ChatEntity;
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.ConsultaEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.entity.RelatorioEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import com.inatel.prototipo_ia.repository.CertificadoRepository;
+import com.inatel.prototipo_ia.repository.ChatRepository;
+import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.RelatorioRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import com.inatel.prototipo_ia.repository.UsuarioRepository;
+import com.inatel.prototipo_ia.service.ChatService;
+import com.inatel.prototipo_ia.service.ClienteService;
+import com.inatel.prototipo_ia.service.ConsultaService;
+import com.inatel.prototipo_ia.service.EspecialistaService;
+import com.inatel.prototipo_ia.service.RelatorioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes de Integração - Listagens sem N+1
+ *
+ * Conta os comandos SQL preparados pelo Hibernate ao listar especialistas e clientes:
+ * - Uma consulta para a lista e uma por relação (ids agrupados com IN)
+ * - O total não cresce com a quantidade de linhas
+ * - As buscas por cliente/especialista e o histórico de sessões leem projeções: um comando e nenhuma entidade carregada
+ */
+@DisplayName("Testes de Integração - Listagens sem N+1")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ListagemSemN1IntegrationTest extends BaseIntegrationTest {
+
+    @TestConfiguration
+    static class ListagemTestConfiguration {
+        @Bean
+        public PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+
+        @Bean
+        public EspecialistaService especialistaService(EspecialistaRepository especialistaRepository,
+                                                       ConsultaRepository consultaRepository,
+                                                       DisponibilidadeRepository disponibilidadeRepository,
+                                                       ChatRepository chatRepository,
+                                                       RelatorioRepository relatorioRepository,
+                                                       UsuarioRepository usuarioRepository,
+                                                       PasswordEncoder passwordEncoder) {
+            return new EspecialistaService(especialistaRepository, consultaRepository, disponibilidadeRepository,
+                    chatRepository, relatorioRepository, usuarioRepository, passwordEncoder);
+        }
+
+        @Bean
+        public ClienteService clienteService(ClienteRepository clienteRepository,
+                                             ChatRepository chatRepository,
+                                             ConsultaRepository consultaRepository,
+                                             CertificadoRepository certificadoRepository,
+                                             UsuarioRepository usuarioRepository,
+                                             PasswordEncoder passwordEncoder) {
+            return new ClienteService(clienteRepository, chatRepository, consultaRepository,
+                    certificadoRepository, usuarioRepository, passwordEncoder);
+        }
+
+        @Bean
+        public ConsultaService consultaService(ConsultaRepository consultaRepository,
+                                               ClienteRepository clienteRepository,
+                                               EspecialistaRepository especialistaRepository) {
+            return new ConsultaService(consultaRepository, clienteRepository, especialistaRepository);
+        }
+
+        @Bean
+        public ChatService chatService(ChatRepository chatRepository,
+                                       ClienteRepository clienteRepository,
+                                       EspecialistaRepository especialistaRepository) {
+            return new ChatService(chatRepository, clienteRepository, especialistaRepository);
+        }
+
+        @Bean
+        public RelatorioService relatorioService(RelatorioRepository relatorioRepository,
+                                                 ChatRepository chatRepository,
+                                                 EspecialistaRepository especialistaRepository) {
+            return new RelatorioService(relatorioRepository, chatRepository, especialistaRepository);
+        }
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EspecialistaService especialistaService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EspecialistaRepository especialistaRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private RelatorioRepository relatorioRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private CertificadoRepository certificadoRepository;
+
+    @Autowired
+    private SessaoTreinoRepository sessaoRepository;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        sessaoRepository.deleteAll();
+        relatorioRepository.deleteAll();
+        chatRepository.deleteAll();
+        consultaRepository.deleteAll();
+        disponibilidadeRepository.deleteAll();
+        certificadoRepository.deleteAll();
+        especialistaRepository.deleteAll();
+        clienteRepository.deleteAll();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Cria {@code quantidade} pares de especialista e cliente, cada par com uma consulta, um chat
+     * com relatório, uma disponibilidade e um certificado. Sai com as estatísticas zeradas.
+     */
+    private void popular(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            EspecialistaEntity especialista = new EspecialistaEntity();
+            especialista.setNome("Especialista " + i);
+            especialista.setLogin("especialista" + i + "@teste.com");
+            especialista.setSenha("senha123");
+            especialista.setEspecialidade("Fonoaudiologia");
+            especialista = especialistaRepository.save(especialista);
+
+            ClienteEntity cliente = new ClienteEntity();
+            cliente.setNome("Cliente " + i);
+            cliente.setLogin("cliente" + i + "@teste.com");
+            cliente.setSenha("senha123");
+            cliente = clienteRepository.save(cliente);
+
+            ConsultaEntity consulta = new ConsultaEntity();
+            consulta.setCliente(cliente);
+            consulta.setEspecialista(especialista);
+            consulta.setData(LocalDate.now());
+            consulta.setHora(LocalTime.of(10, 0));
+            consultaRepository.save(consulta);
+
+            ChatEntity chat = new ChatEntity();
+            chat.setCliente(cliente);
+            chat.setEspecialista(especialista);
+            chat = chatRepository.save(chat);
+
+            RelatorioEntity relatorio = new RelatorioEntity();
+            relatorio.setChat(chat);
+            relatorio.setEspecialista(especialista);
+            relatorioRepository.save(relatorio);
+
+            DisponibilidadeEntity disponibilidade = new DisponibilidadeEntity();
+            disponibilidade.setEspecialista(especialista);
+            disponibilidade.setData(LocalDate.now());
+            disponibilidadeRepository.save(disponibilidade);
+
+            CertificadoEntity certificado = new CertificadoEntity();
+            certificado.setCliente(cliente);
+            certificado.setNome("Certificado " + i);
+            certificadoRepository.save(certificado);
+        }
+        estatisticas.clear();
+    }
+
+    @Nested
+    @DisplayName("Testes de Quantidade de Consultas")
+    class QuantidadeConsultasTests {
+
+        @Test
+        @DisplayName("Deve listar especialistas com uma consulta mais uma por relação")
+        void deveListarEspecialistasSemN1() {
+            popular(25);
+
+            List<EspecialistaDtoOut> resultados = especialistaService.buscarTodos();
+
+            assertThat(resultados).hasSize(25);
+            assertThat(resultados).allSatisfy(dto -> {
+                assertThat(dto.getConsultaIds()).hasSize(1);
+                assertThat(dto.getDisponibilidadeIds()).hasSize(1);
+                assertThat(dto.getChatIds()).hasSize(1);
+                assertThat(dto.getRelatorioIds()).hasSize(1);
+                // Com ou sem filhos, as listas agrupadas são imutáveis
+                assertThatThrownBy(() -> dto.getConsultaIds().add(0L))
+                        .isInstanceOf(UnsupportedOperationException.class);
+            });
+            // findAll + consultas, disponibilidades, chats e relatórios
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Deve listar clientes com uma consulta mais uma por relação")
+        void deveListarClientesSemN1() {
+            popular(25);
+
+            List<ClienteDtoOut> resultados = clienteService.buscarTodos();
+
+            assertThat(resultados).hasSize(25);
+            assertThat(resultados).allSatisfy(dto -> {
+                assertThat(dto.getChatIds()).hasSize(1);
+                assertThat(dto.getConsultaIds()).hasSize(1);
+                assertThat(dto.getCertificadoIds()).hasSize(1);
+            });
+            // findAll + chats, consultas e certificados
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Não deve consultar as relações quando a lista está vazia")
+        void naoDeveConsultarRelacoesSemLinhas() {
+            popular(0);
+
+            assertThat(especialistaService.buscarTodos()).isEmpty();
+
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes das Projeções de Leitura")
+    class ProjecoesLeituraTests {
+
+        @Test
+        @DisplayName("Deve buscar consultas, chats e relatórios sem carregar entidades")
+        void deveBuscarPorDonoSemCarregarEntidades() {
+            popular(3);
+            Long clienteId = clienteRepository.findAll().get(1).getId();
+            Long especialistaId = especialistaRepository.findAll().get(1).getId();
+            estatisticas.clear();
+
+            List<ConsultaDtoOut> consultas = consultaService.buscarPorEspecialistaId(especialistaId);
+            List<ChatDtoOut> chats = chatService.buscarPorClienteId(clienteId);
+            List<RelatorioDtoOut> relatorios = relatorioService.buscarPorClienteIdEProfissionalId(clienteId, especialistaId);
+
+            assertThat(consultas).singleElement().satisfies(dto -> {
+                assertThat(dto.getEspecialistaId()).isEqualTo(especialistaId);
+                assertThat(dto.getClienteId()).isEqualTo(clienteId);
+                assertThat(dto.getHora()).isEqualTo(LocalTime.of(10, 0));
+            });
+            assertThat(chats).singleElement().satisfies(dto -> {
+                assertThat(dto.getProfissionalId()).isEqualTo(especialistaId);
+                assertThat(dto.getRelatorioId()).isNotNull();
+            });
+            assertThat(relatorios).singleElement()
+                    .satisfies(dto -> assertThat(dto.getChatId()).isEqualTo(chats.get(0).getId()));
+            // Um comando por busca, sem cliente, especialista, chat ou relatório gerenciados
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(3);
+            assertThat(estatisticas.getEntityLoadCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Deve buscar por cliente e ler o histórico de sessões sem carregar entidades")
+        void deveBuscarPorClienteEHistoricoSemCarregarEntidades() {
+            popular(3);
+            ClienteEntity cliente = clienteRepository.findAll().get(1);
+            EspecialistaEntity especialista = especialistaRepository.findAll().get(1);
+            criarSessao(cliente, especialista, StatusSessao.FINALIZADA, 80.0);
+            criarSessao(cliente, especialista, StatusSessao.AGUARDANDO_AUDIO, 0.0);
+            estatisticas.clear();
+
+            List<ConsultaDtoOut> consultas = consultaService.buscarPorClienteId(cliente.getId());
+            List<RelatorioDtoOut> relatorios = relatorioService.buscarPorClienteId(cliente.getId());
+            List<SessaoTreinoRepository.SessaoHistorico> historico = sessaoRepository.findHistoricoByClienteId(cliente.getId());
+            List<SessaoTreinoRepository.PontuacaoSessao> pontuacoes =
+                    sessaoRepository.findPontuacoesByClienteIdAndStatus(cliente.getId(), StatusSessao.FINALIZADA);
+
+            assertThat(consultas).singleElement()
+                    .satisfies(dto -> assertThat(dto.getClienteId()).isEqualTo(cliente.getId()));
+            assertThat(relatorios).hasSize(1);
+            assertThat(historico).extracting(SessaoTreinoRepository.SessaoHistorico::getStatus)
+                    .containsExactly(StatusSessao.FINALIZADA, StatusSessao.AGUARDANDO_AUDIO);
+            assertThat(historico).allSatisfy(h -> assertThat(h.getAnalisada()).isFalse());
+            assertThat(pontuacoes).singleElement()
+                    .satisfies(p -> assertThat(p.getPontuacaoGeral()).isEqualTo(80.0));
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(4);
+            assertThat(estatisticas.getEntityLoadCount()).isZero();
+        }
+
+        private void criarSessao(ClienteEntity cliente, EspecialistaEntity especialista, StatusSessao status, Double pontuacao) {
+            SessaoTreinoEntity sessao = new SessaoTreinoEntity();
+            sessao.setCliente(cliente);
+            sessao.setEspecialista(especialista);
+            sessao.setDificuldade("R");
+            sessao.setIdadeCliente(7);
+            sessao.setStatus(status);
+            sessao.setPontuacaoGeral(pontuacao);
+            sessaoRepository.save(sessao);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.inatel.prototipo_ia.integration;
+
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
+import com.inatel.prototipo_ia.dto.out.SessaoEventoDtoOut;
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.entity.SessaoEventoEntity.TipoEvento;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.SessaoEventoRepository;
+import com.inatel.prototipo_ia.repository.SessaoResultadoPalavraRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import com.inatel.prototipo_ia.service.AIWordGeneratorService;
+import com.inatel.prototipo_ia.service.NormalizadorFonetico;
+import com.inatel.prototipo_ia.service.PoolTravaLinguasService;
+import com.inatel.prototipo_ia.service.SessaoTreinoService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes de Integração - Conversa da sessão em sessao_evento
+ *
+ * Valida a gravação em lote das mensagens junto com a sessão e a leitura paginada da conversa
+ */
+@DisplayName("Testes de Integração - Conversa da Sessão")
+class SessaoEventoIntegrationTest extends BaseIntegrationTest {
+
+    @TestConfiguration
+    static class SessaoEventoTestConfiguration {
+        @Bean
+        public SessaoTreinoService sessaoTreinoService(SessaoTreinoRepository sessaoRepository,
+                                                       SessaoEventoRepository eventoRepository,
+                                                       SessaoResultadoPalavraRepository palavraRepository,
+                                                       ClienteRepository clienteRepository,
+                                                       EspecialistaRepository especialistaRepository) {
+            // Geração de trava-línguas não é usada aqui
+            return new SessaoTreinoService(sessaoRepository, eventoRepository, palavraRepository, clienteRepository,
+                    especialistaRepository, mock(AIWordGeneratorService.class), mock(PoolTravaLinguasService.class),
+                    new NormalizadorFonetico());
+        }
+    }
+
+    @Autowired
+    private SessaoEventoRepository eventoRepository;
+
+    @Autowired
+    private SessaoTreinoRepository sessaoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EspecialistaRepository especialistaRepository;
+
+    @Autowired
+    private SessaoTreinoService sessaoService;
+
+    private SessaoTreinoEntity sessao;
+
+    @BeforeEach
+    void setUp() {
+        eventoRepository.deleteAll();
+        sessaoRepository.deleteAll();
+        especialistaRepository.deleteAll();
+        clienteRepository.deleteAll();
+
+        ClienteEntity cliente = new ClienteEntity();
+        cliente.setNome("Cliente Sessão");
+        cliente.setLogin("clientesessao@teste.com");
+        cliente.setSenha("senha123");
+        cliente = clienteRepository.save(cliente);
+
+        EspecialistaEntity especialista = new EspecialistaEntity();
+        especialista.setNome("Especialista Sessão");
+        especialista.setLogin("espsessao@teste.com");
+        especialista.setSenha("senha123");
+        especialista.setEspecialidade("Fonoaudiologia");
+        especialista = especialistaRepository.save(especialista);
+
+        sessao = new SessaoTreinoEntity();
+        sessao.setCliente(cliente);
+        sessao.setEspecialista(especialista);
+        sessao.setDificuldade("R");
+        sessao.setIdadeCliente(7);
+        sessao.setTravaLingua("O rato roeu a roupa do rei de Roma");
+        sessao = sessaoRepository.save(sessao);
+    }
+
+    private void gravarMensagens(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            sessao.adicionarAoHistorico(i % 2 == 0 ? "SISTEMA" : "CLIENTE", TipoEvento.INSTRUCAO, "Mensagem " + i);
+        }
+        eventoRepository.inserirEmLote(sessao.retirarEventosPendentes());
+    }
+
+    @Nested
+    @DisplayName("Testes de Gravação")
+    class GravacaoTests {
+
+        @Test
+        @DisplayName("Deve gravar as mensagens pendentes em lote e esvaziar a fila")
+        void deveGravarEmLote() {
+            gravarMensagens(5);
+
+            assertThat(eventoRepository.count()).isEqualTo(5);
+            assertThat(sessao.retirarEventosPendentes()).isEmpty();
+            assertThat(eventoRepository.findAll()).allSatisfy(evento -> {
+                assertThat(evento.getSessaoId()).isEqualTo(sessao.getId());
+                assertThat(evento.getCriadoEm()).isNotNull();
+            });
+        }
+
+        @Test
+        @DisplayName("Deve acrescentar a mensagem de cancelamento ao cancelar a sessão")
+        void deveRegistrarCancelamento() {
+            sessaoService.cancelarSessao(sessao.getId());
+
+            List<SessaoEventoDtoOut> conversa = sessaoService.listarConversa(sessao.getId(), null, null).getItens();
+
+            assertThat(conversa).singleElement().satisfies(evento -> {
+                assertThat(evento.getTipo()).isEqualTo("CANCELAMENTO");
+                assertThat(evento.getRemetente()).isEqualTo("SISTEMA");
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Leitura Paginada")
+    class LeituraPaginadaTests {
+
+        @Test
+        @DisplayName("Deve ler a conversa inteira em ordem, página a página")
+        void deveLerConversaEmOrdem() {
+            gravarMensagens(25);
+
+            List<String> lidas = new ArrayList<>();
+            Long cursor = null;
+            int paginas = 0;
+            do {
+                PaginaDtoOut<SessaoEventoDtoOut> pagina = sessaoService.listarConversa(sessao.getId(), cursor, 10);
+                pagina.getItens().forEach(evento -> lidas.add(evento.getConteudo()));
+                cursor = pagina.getProximoCursor();
+                paginas++;
+            } while (cursor != null);
+
+            assertThat(paginas).isEqualTo(3);
+            assertThat(lidas).hasSize(25).startsWith("Mensagem 0", "Mensagem 1").endsWith("Mensagem 24");
+        }
+
+        @Test
+        @DisplayName("Deve lançar exceção ao ler a conversa de sessão inexistente")
+        void deveLancarExcecao_QuandoSessaoNaoExiste() {
+            assertThatThrownBy(() -> sessaoService.listarConversa(999L, null, null))
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .hasMessageContaining("Sessão não encontrada");
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.inatel.prototipo_ia.integration;
+
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
+import com.inatel.prototipo_ia.dto.out.PalavraAnalisadaDtoOut;
+import com.inatel.prototipo_ia.dto.out.SessaoTreinoHistoryDtoOut;
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.SessaoEventoRepository;
+import com.inatel.prototipo_ia.repository.SessaoResultadoPalavraRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import com.inatel.prototipo_ia.service.AIWordGeneratorService;
+import com.inatel.prototipo_ia.service.NormalizadorFonetico;
+import com.inatel.prototipo_ia.service.PoolTravaLinguasService;
+import com.inatel.prototipo_ia.service.SessaoTreinoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes de Integração - Resultado por palavra em sessao_resultado_palavra
+ *
+ * Valida a gravação das palavras ao concluir a análise, o histórico lido dessas linhas
+ * (com o JSON antigo como reserva) e os filtros por palavra, acerto e similaridade
+ */
+@DisplayName("Testes de Integração - Resultado por Palavra")
+class SessaoResultadoPalavraIntegrationTest extends BaseIntegrationTest {
+
+    @TestConfiguration
+    static class SessaoResultadoPalavraTestConfiguration {
+        @Bean
+        public SessaoTreinoService sessaoTreinoService(SessaoTreinoRepository sessaoRepository,
+                                                       SessaoEventoRepository eventoRepository,
+                                                       SessaoResultadoPalavraRepository palavraRepository,
+                                                       ClienteRepository clienteRepository,
+                                                       EspecialistaRepository especialistaRepository) {
+            // Geração de trava-línguas não é usada aqui
+            return new SessaoTreinoService(sessaoRepository, eventoRepository, palavraRepository, clienteRepository,
+                    especialistaRepository, mock(AIWordGeneratorService.class), mock(PoolTravaLinguasService.class),
+                    new NormalizadorFonetico());
+        }
+    }
+
+    @Autowired
+    private SessaoResultadoPalavraRepository palavraRepository;
+
+    @Autowired
+    private SessaoEventoRepository eventoRepository;
+
+    @Autowired
+    private SessaoTreinoRepository sessaoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EspecialistaRepository especialistaRepository;
+
+    @Autowired
+    private SessaoTreinoService sessaoService;
+
+    private ClienteEntity cliente;
+    private EspecialistaEntity especialista;
+
+    @BeforeEach
+    void setUp() {
+        palavraRepository.deleteAll();
+        eventoRepository.deleteAll();
+        sessaoRepository.deleteAll();
+        especialistaRepository.deleteAll();
+        clienteRepository.deleteAll();
+
+        cliente = new ClienteEntity();
+        cliente.setNome("Cliente Palavras");
+        cliente.setLogin("clientepalavras@teste.com");
+        cliente.setSenha("senha123");
+        cliente = clienteRepository.save(cliente);
+
+        especialista = new EspecialistaEntity();
+        especialista.setNome("Especialista Palavras");
+        especialista.setLogin("esppalavras@teste.com");
+        especialista.setSenha("senha123");
+        especialista.setEspecialidade("Fonoaudiologia");
+        especialista = especialistaRepository.save(especialista);
+    }
+
+    private SessaoTreinoEntity criarSessao(StatusSessao status) {
+        return criarSessao(status, null);
+    }
+
+    private SessaoTreinoEntity criarSessao(StatusSessao status, String resultado) {
+        SessaoTreinoEntity sessao = new SessaoTreinoEntity();
+        sessao.setCliente(cliente);
+        sessao.setEspecialista(especialista);
+        sessao.setDificuldade("R");
+        sessao.setIdadeCliente(7);
+        sessao.setTravaLingua("O rato roeu a roupa");
+        sessao.setStatus(status);
+        sessao.setResultado(resultado);
+        return sessaoRepository.save(sessao);
+    }
+
+    private BatchPronunciationAnalysisDTO analise() {
+        BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+        analise.setResultados(List.of(
+                new BatchPronunciationAnalysisDTO.ResultadoPalavra("o", "o", true, 100.0, "Correto"),
+                new BatchPronunciationAnalysisDTO.ResultadoPalavra("rato", "lato", false, 50.0, "Troca de R por L"),
+                new BatchPronunciationAnalysisDTO.ResultadoPalavra("roeu", "roeu", true, 100.0, "Correto"),
+                new BatchPronunciationAnalysisDTO.ResultadoPalavra("roupa", "loupa", false, 62.5, "Troca de R por L")));
+        analise.setTotalPalavras(4);
+        analise.setTotalAcertos(2);
+        analise.setPontuacaoGeral(50.0);
+        analise.setFeedbackGeral("Pratique o R");
+        return analise;
+    }
+
+    private void concluir(SessaoTreinoEntity sessao) {
+        sessaoService.concluirProcessamento(sessao.getId(), analise());
+    }
+
+    @Nested
+    @DisplayName("Testes de Gravação e Histórico")
+    class GravacaoHistoricoTests {
+
+        @Test
+        @DisplayName("Deve gravar uma linha por palavra ao concluir a análise")
+        void deveGravarPalavrasAoConcluir() {
+            SessaoTreinoEntity sessao = criarSessao(StatusSessao.PROCESSANDO);
+
+            concluir(sessao);
+
+            assertThat(palavraRepository.findBySessaoIdInOrderBySessaoIdAscPosicaoAsc(List.of(sessao.getId())))
+                    .extracting("posicao", "palavraEsperada", "acertou")
+                    .containsExactly(
+                            tuple(0, "o", true),
+                            tuple(1, "rato", false),
+                            tuple(2, "roeu", true),
+                            tuple(3, "roupa", false));
+        }
+
+        @Test
+        @DisplayName("Deve montar o histórico a partir das linhas por palavra")
+        void deveMontarHistoricoDasLinhas() {
+            concluir(criarSessao(StatusSessao.PROCESSANDO));
+
+            List<SessaoTreinoHistoryDtoOut> historico = sessaoService.buscarHistoricoPorCliente(cliente.getId());
+
+            assertThat(historico).singleElement().satisfies(h -> {
+                assertThat(h.getFeedbackGeral()).isEqualTo("Pratique o R");
+                assertThat(h.getDetalhes()).extracting(BatchPronunciationAnalysisDTO.ResultadoPalavra::getPalavraTranscrita)
+                        .containsExactly("o", "lato", "roeu", "loupa");
+            });
+        }
+
+        @Test
+        @DisplayName("Deve ler o JSON de sessões antigas sem linhas por palavra")
+        void deveLerJsonDeSessaoAntiga() {
+            criarSessao(StatusSessao.FINALIZADA,
+                    "{\"feedbackGeral\":\"Antigo\",\"resultados\":[{\"palavraEsperada\":\"rei\",\"acertou\":true}]}");
+            criarSessao(StatusSessao.FINALIZADA, "{nao e json");
+            criarSessao(StatusSessao.AGUARDANDO_AUDIO);
+
+            List<SessaoTreinoHistoryDtoOut> historico = sessaoService.buscarHistoricoPorCliente(cliente.getId());
+
+            assertThat(historico).hasSize(3);
+            assertThat(historico.get(0).getFeedbackGeral()).isEqualTo("Antigo");
+            assertThat(historico.get(0).getDetalhes()).singleElement()
+                    .satisfies(r -> assertThat(r.getPalavraEsperada()).isEqualTo("rei"));
+            assertThat(historico.get(1).getDetalhes()).singleElement()
+                    .satisfies(r -> assertThat(r.getPalavraEsperada()).isEqualTo("ERRO_SISTEMA"));
+            assertThat(historico.get(2).getDetalhes()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Filtros")
+    class FiltrosTests {
+
+        @BeforeEach
+        void setUp() {
+            concluir(criarSessao(StatusSessao.PROCESSANDO));
+            concluir(criarSessao(StatusSessao.PROCESSANDO));
+        }
+
+        @Test
+        @DisplayName("Deve filtrar por palavra sem diferenciar maiúsculas")
+        void deveFiltrarPorPalavra() {
+            List<PalavraAnalisadaDtoOut> palavras = sessaoService
+                    .listarPalavras(cliente.getId(), " RATO ", null, null, null, null).getItens();
+
+            assertThat(palavras).hasSize(2).allSatisfy(p -> {
+                assertThat(p.getPalavraEsperada()).isEqualTo("rato");
+                assertThat(p.getDataSessao()).isNotNull();
+            });
+        }
+
+        @Test
+        @DisplayName("Deve filtrar erros por similaridade máxima na escala de 0 a 100")
+        void deveFiltrarErrosPorSimilaridade() {
+            List<PalavraAnalisadaDtoOut> palavras = sessaoService
+                    .listarPalavras(cliente.getId(), null, false, 55.0, null, null).getItens();
+
+            assertThat(palavras).hasSize(2).allSatisfy(p -> {
+                assertThat(p.getPalavraTranscrita()).isEqualTo("lato");
+                assertThat(p.getSimilaridade()).isEqualTo(50.0);
+            });
+        }
+
+        @Test
+        @DisplayName("Deve incluir todas as palavras abaixo do limite, com ou sem acerto")
+        void deveFiltrarPorSimilaridadeSemFiltroDeAcerto() {
+            List<PalavraAnalisadaDtoOut> palavras = sessaoService
+                    .listarPalavras(cliente.getId(), null, null, 70.0, null, null).getItens();
+
+            assertThat(palavras).extracting(PalavraAnalisadaDtoOut::getPalavraEsperada)
+                    .containsExactly("rato", "roupa", "rato", "roupa");
+        }
+
+        @Test
+        @DisplayName("Deve paginar todas as palavras do cliente sem filtros")
+        void devePaginarSemFiltros() {
+            PaginaDtoOut<PalavraAnalisadaDtoOut> primeira = sessaoService.listarPalavras(cliente.getId(), "", null, null, null, 5);
+            PaginaDtoOut<PalavraAnalisadaDtoOut> segunda =
+                    sessaoService.listarPalavras(cliente.getId(), null, null, null, primeira.getProximoCursor(), 5);
+
+            assertThat(primeira.getItens()).hasSize(5);
+            assertThat(segunda.getItens()).hasSize(3);
+            assertThat(segunda.temProxima()).isFalse();
+        }
+    }
+}
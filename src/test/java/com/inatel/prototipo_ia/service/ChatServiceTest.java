@@ -6,6 +6,7 @@ import com.inatel.prototipo_ia.entity.ChatEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ChatRepository;
+import com.inatel.prototipo_ia.repository.ChatRepository.ChatResumo;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -16,9 +17,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,6 +50,9 @@ class ChatServiceTest {
     @InjectMocks
     private ChatService chatService;
 
+    // As listagens leem projeções; aqui elas são montadas a partir de um mapa de colunas
+    private final ProjectionFactory projecoes = new SpelAwareProxyProjectionFactory();
+
     @Nested
     @DisplayName("Testes de Criação de Chat")
     class CriacaoChatTests {
@@ -246,52 +253,34 @@ class ChatServiceTest {
         @Test
         @DisplayName("Deve buscar chats por cliente ID")
         void deveBuscarChatsPorClienteId() {
-            ClienteEntity cliente = new ClienteEntity();
-            cliente.setId(1L);
-
-            EspecialistaEntity especialista = new EspecialistaEntity();
-            especialista.setId(2L);
-
-            ChatEntity chat1 = new ChatEntity();
-            chat1.setId(1L);
-            chat1.setCliente(cliente);
-            chat1.setEspecialista(especialista);
-
-            ChatEntity chat2 = new ChatEntity();
-            chat2.setId(2L);
-            chat2.setCliente(cliente);
-            chat2.setEspecialista(especialista);
+            ChatResumo chat1 = projecoes.createProjection(ChatResumo.class,
+                    Map.of("id", 1L, "clienteId", 1L, "especialistaId", 2L));
+            ChatResumo chat2 = projecoes.createProjection(ChatResumo.class,
+                    Map.of("id", 2L, "clienteId", 1L, "especialistaId", 2L, "relatorioId", 7L));
 
-            when(chatRepository.findByClienteId(1L)).thenReturn(Arrays.asList(chat1, chat2));
+            when(chatRepository.findResumosByClienteId(1L)).thenReturn(Arrays.asList(chat1, chat2));
 
             List<ChatDtoOut> resultados = chatService.buscarPorClienteId(1L);
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados).allMatch(c -> c.getClienteId().equals(1L));
-            verify(chatRepository, times(1)).findByClienteId(1L);
+            assertThat(resultados).extracting(ChatDtoOut::getRelatorioId).containsExactly(null, 7L);
+            verify(chatRepository, times(1)).findResumosByClienteId(1L);
         }
 
         @Test
         @DisplayName("Deve buscar chats por especialista ID")
         void deveBuscarChatsPorEspecialistaId() {
-            ClienteEntity cliente = new ClienteEntity();
-            cliente.setId(1L);
-
-            EspecialistaEntity especialista = new EspecialistaEntity();
-            especialista.setId(2L);
-
-            ChatEntity chat1 = new ChatEntity();
-            chat1.setId(1L);
-            chat1.setCliente(cliente);
-            chat1.setEspecialista(especialista);
+            ChatResumo chat1 = projecoes.createProjection(ChatResumo.class,
+                    Map.of("id", 1L, "clienteId", 1L, "especialistaId", 2L));
 
-            when(chatRepository.findByEspecialistaId(2L)).thenReturn(Arrays.asList(chat1));
+            when(chatRepository.findResumosByEspecialistaId(2L)).thenReturn(Arrays.asList(chat1));
 
             List<ChatDtoOut> resultados = chatService.buscarPorEspecialistaId(2L);
 
             assertThat(resultados).hasSize(1);
             assertThat(resultados.get(0).getProfissionalId()).isEqualTo(2L);
-            verify(chatRepository, times(1)).findByEspecialistaId(2L);
+            verify(chatRepository, times(1)).findResumosByEspecialistaId(2L);
         }
     }
 
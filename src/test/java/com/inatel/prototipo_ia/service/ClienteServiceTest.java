@@ -7,6 +7,7 @@ import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
 import com.inatel.prototipo_ia.repository.CertificadoRepository;
+import com.inatel.prototipo_ia.repository.IdPorDono;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -46,6 +47,20 @@ class ClienteServiceTest {
     @InjectMocks
     private ClienteService clienteService;
 
+    private static IdPorDono linha(long donoId, long id) {
+        return new IdPorDono() {
+            @Override
+            public Long getDonoId() {
+                return donoId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+        };
+    }
+
     @Nested
     @DisplayName("Testes de Criação de Cliente")
     class CriacaoClienteTests {
@@ -135,6 +150,31 @@ class ClienteServiceTest {
             verify(clienteRepository, times(1)).findAll();
         }
 
+        @Test
+        @DisplayName("Deve montar os ids das relações com uma consulta por relação para todos")
+        void deveAgruparIdsDasRelacoes() {
+            ClienteEntity cliente1 = new ClienteEntity();
+            cliente1.setId(1L);
+            ClienteEntity cliente2 = new ClienteEntity();
+            cliente2.setId(2L);
+
+            when(clienteRepository.findAll()).thenReturn(Arrays.asList(cliente1, cliente2));
+            when(chatRepository.findIdsByClienteIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(linha(1L, 5L), linha(1L, 6L)));
+            when(certificadoRepository.findIdsByClienteIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(linha(2L, 9L)));
+
+            List<ClienteDtoOut> resultados = clienteService.buscarTodos();
+
+            assertThat(resultados.get(0).getChatIds()).containsExactly(5L, 6L);
+            assertThat(resultados.get(1).getChatIds()).isEmpty();
+            assertThat(resultados.get(1).getCertificadoIds()).containsExactly(9L);
+            assertThat(resultados.get(0).getConsultaIds()).isEmpty();
+            verify(chatRepository, times(1)).findIdsByClienteIdIn(anyList());
+            verify(consultaRepository, times(1)).findIdsByClienteIdIn(anyList());
+            verify(chatRepository, never()).findByClienteId(any());
+        }
+
         @Test
         @DisplayName("Deve buscar cliente por ID com sucesso")
         void deveBuscarClientePorId() {
@@ -7,6 +7,7 @@ import com.inatel.prototipo_ia.entity.ConsultaEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.ConsultaRepository.ConsultaResumo;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
@@ -16,11 +17,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,6 +52,9 @@ class ConsultaServiceTest {
     @InjectMocks
     private ConsultaService consultaService;
 
+    // As listagens leem projeções; aqui elas são montadas a partir de um mapa de colunas
+    private final ProjectionFactory projecoes = new SpelAwareProxyProjectionFactory();
+
     @Nested
     @DisplayName("Testes de Criação de Consulta")
     class CriacaoConsultaTests {
@@ -333,72 +340,47 @@ class ConsultaServiceTest {
         @Test
         @DisplayName("Deve buscar consultas por cliente ID")
         void deveBuscarConsultasPorClienteId() {
-            ClienteEntity cliente = new ClienteEntity();
-            cliente.setId(1L);
-
-            EspecialistaEntity especialista = new EspecialistaEntity();
-            especialista.setId(2L);
-
-            ConsultaEntity consulta1 = new ConsultaEntity();
-            consulta1.setId(1L);
-            consulta1.setCliente(cliente);
-            consulta1.setEspecialista(especialista);
+            ConsultaResumo consulta1 = projecoes.createProjection(ConsultaResumo.class,
+                    Map.of("id", 1L, "clienteId", 1L, "especialistaId", 2L));
 
-            when(consultaRepository.findByClienteId(1L)).thenReturn(Arrays.asList(consulta1));
+            when(consultaRepository.findResumosByClienteId(1L)).thenReturn(Arrays.asList(consulta1));
 
             List<ConsultaDtoOut> resultados = consultaService.buscarPorClienteId(1L);
 
             assertThat(resultados).hasSize(1);
             assertThat(resultados.get(0).getClienteId()).isEqualTo(1L);
-            verify(consultaRepository, times(1)).findByClienteId(1L);
+            verify(consultaRepository, times(1)).findResumosByClienteId(1L);
         }
 
         @Test
         @DisplayName("Deve buscar consultas por especialista ID")
         void deveBuscarConsultasPorEspecialistaId() {
-            ClienteEntity cliente = new ClienteEntity();
-            cliente.setId(1L);
-
-            EspecialistaEntity especialista = new EspecialistaEntity();
-            especialista.setId(2L);
-
-            ConsultaEntity consulta1 = new ConsultaEntity();
-            consulta1.setId(1L);
-            consulta1.setCliente(cliente);
-            consulta1.setEspecialista(especialista);
+            ConsultaResumo consulta1 = projecoes.createProjection(ConsultaResumo.class,
+                    Map.of("id", 1L, "clienteId", 1L, "especialistaId", 2L));
 
-            when(consultaRepository.findByEspecialistaId(2L)).thenReturn(Arrays.asList(consulta1));
+            when(consultaRepository.findResumosByEspecialistaId(2L)).thenReturn(Arrays.asList(consulta1));
 
             List<ConsultaDtoOut> resultados = consultaService.buscarPorEspecialistaId(2L);
 
             assertThat(resultados).hasSize(1);
             assertThat(resultados.get(0).getEspecialistaId()).isEqualTo(2L);
-            verify(consultaRepository, times(1)).findByEspecialistaId(2L);
+            verify(consultaRepository, times(1)).findResumosByEspecialistaId(2L);
         }
 
         @Test
         @DisplayName("Deve buscar consultas por data")
         void deveBuscarConsultasPorData() {
             LocalDate data = LocalDate.of(2025, 12, 15);
-            ClienteEntity cliente = new ClienteEntity();
-            cliente.setId(1L);
-
-            EspecialistaEntity especialista = new EspecialistaEntity();
-            especialista.setId(2L);
-
-            ConsultaEntity consulta1 = new ConsultaEntity();
-            consulta1.setId(1L);
-            consulta1.setCliente(cliente);
-            consulta1.setEspecialista(especialista);
-            consulta1.setData(data);
+            ConsultaResumo consulta1 = projecoes.createProjection(ConsultaResumo.class,
+                    Map.of("id", 1L, "clienteId", 1L, "especialistaId", 2L, "data", data));
 
-            when(consultaRepository.findByData(data)).thenReturn(Arrays.asList(consulta1));
+            when(consultaRepository.findResumosByData(data)).thenReturn(Arrays.asList(consulta1));
 
             List<ConsultaDtoOut> resultados = consultaService.buscarPorData(data);
 
             assertThat(resultados).hasSize(1);
             assertThat(resultados.get(0).getData()).isEqualTo(data);
-            verify(consultaRepository, times(1)).findByData(data);
+            verify(consultaRepository, times(1)).findResumosByData(data);
         }
 
         @Test
@@ -408,31 +390,22 @@ class ConsultaServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("data");
 
-            verify(consultaRepository, never()).findByData(any());
+            verify(consultaRepository, never()).findResumosByData(any());
         }
 
         @Test
         @DisplayName("Deve buscar consultas por status")
         void deveBuscarConsultasPorStatus() {
-            ClienteEntity cliente = new ClienteEntity();
-            cliente.setId(1L);
-
-            EspecialistaEntity especialista = new EspecialistaEntity();
-            especialista.setId(2L);
-
-            ConsultaEntity consulta1 = new ConsultaEntity();
-            consulta1.setId(1L);
-            consulta1.setCliente(cliente);
-            consulta1.setEspecialista(especialista);
-            consulta1.setStatus("Confirmada");
+            ConsultaResumo consulta1 = projecoes.createProjection(ConsultaResumo.class,
+                    Map.of("id", 1L, "clienteId", 1L, "especialistaId", 2L, "status", "Confirmada"));
 
-            when(consultaRepository.findByStatus("Confirmada")).thenReturn(Arrays.asList(consulta1));
+            when(consultaRepository.findResumosByStatus("Confirmada")).thenReturn(Arrays.asList(consulta1));
 
             List<ConsultaDtoOut> resultados = consultaService.buscarPorStatus("Confirmada");
 
             assertThat(resultados).hasSize(1);
             assertThat(resultados.get(0).getStatus()).isEqualTo("Confirmada");
-            verify(consultaRepository, times(1)).findByStatus("Confirmada");
+            verify(consultaRepository, times(1)).findResumosByStatus("Confirmada");
         }
 
         @Test
@@ -442,7 +415,7 @@ class ConsultaServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("status");
 
-            verify(consultaRepository, never()).findByStatus(any());
+            verify(consultaRepository, never()).findResumosByStatus(any());
         }
     }
 
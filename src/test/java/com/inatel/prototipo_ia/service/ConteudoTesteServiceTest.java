@@ -3,6 +3,7 @@ package com.inatel.prototipo_ia.service;
 import com.inatel.prototipo_ia.dto.in.ConteudoTesteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConteudoTesteDtoOut;
 import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
+import com.inatel.prototipo_ia.eventos.ConteudoTesteAlteradoEvent;
 import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -31,6 +33,9 @@ class ConteudoTesteServiceTest {
     @Mock
     private ConteudoTesteRepository conteudoTesteRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ConteudoTesteService conteudoTesteService;
 
@@ -66,6 +71,7 @@ class ConteudoTesteServiceTest {
             assertThat(resultado.getIdioma()).isEqualTo("Português");
 
             verify(conteudoTesteRepository, times(1)).save(any(ConteudoTesteEntity.class));
+            verify(eventPublisher, times(1)).publishEvent(any(ConteudoTesteAlteradoEvent.class));
         }
 
         @Test
@@ -329,6 +335,7 @@ class ConteudoTesteServiceTest {
             conteudoTesteService.deletar(10L);
 
             verify(conteudoTesteRepository, times(1)).deleteById(10L);
+            verify(eventPublisher, times(1)).publishEvent(any(ConteudoTesteAlteradoEvent.class));
         }
 
         @Test
@@ -341,6 +348,7 @@ class ConteudoTesteServiceTest {
                 .hasMessageContaining("999");
 
             verify(conteudoTesteRepository, never()).deleteById(any());
+            verify(eventPublisher, never()).publishEvent(any());
         }
     }
 }
@@ -6,6 +6,7 @@ import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
 import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.IdPorDono;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.RelatorioRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -54,6 +55,20 @@ class EspecialistaServiceTest {
     @InjectMocks
     private EspecialistaService especialistaService;
 
+    private static IdPorDono linha(long donoId, long id) {
+        return new IdPorDono() {
+            @Override
+            public Long getDonoId() {
+                return donoId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+        };
+    }
+
     @Nested
     @DisplayName("Testes de Criação de Especialista")
     class CriacaoEspecialistaTests {
@@ -188,6 +203,33 @@ class EspecialistaServiceTest {
             verify(especialistaRepository, times(1)).findAll();
         }
 
+        @Test
+        @DisplayName("Deve montar os ids das relações com uma consulta por relação para todos")
+        void deveAgruparIdsDasRelacoes() {
+            EspecialistaEntity esp1 = new EspecialistaEntity();
+            esp1.setId(1L);
+            EspecialistaEntity esp2 = new EspecialistaEntity();
+            esp2.setId(2L);
+
+            when(especialistaRepository.findAll()).thenReturn(Arrays.asList(esp1, esp2));
+            when(consultaRepository.findIdsByEspecialistaIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(linha(1L, 10L), linha(2L, 11L), linha(1L, 12L)));
+            when(chatRepository.findIdsByEspecialistaIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(linha(2L, 30L)));
+
+            List<EspecialistaDtoOut> resultados = especialistaService.buscarTodos();
+
+            assertThat(resultados.get(0).getConsultaIds()).containsExactly(10L, 12L);
+            assertThat(resultados.get(1).getConsultaIds()).containsExactly(11L);
+            assertThat(resultados.get(0).getChatIds()).isEmpty();
+            assertThat(resultados.get(1).getChatIds()).containsExactly(30L);
+            assertThat(resultados.get(0).getDisponibilidadeIds()).isEmpty();
+            verify(consultaRepository, times(1)).findIdsByEspecialistaIdIn(anyList());
+            verify(disponibilidadeRepository, times(1)).findIdsByEspecialistaIdIn(anyList());
+            verify(relatorioRepository, times(1)).findIdsByEspecialistaIdIn(anyList());
+            verify(consultaRepository, never()).findByEspecialistaId(any());
+        }
+
         @Test
         @DisplayName("Deve buscar especialista por ID com sucesso")
         void deveBuscarEspecialistaPorId() {
@@ -0,0 +1,49 @@
+package com.inatel.prototipo_ia.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - ExtratorResultadosParciais
+ * Valida a extração dos itens de "resultados" com o JSON chegando em pedaços
+ */
+class ExtratorResultadosParciaisTest {
+
+    private static final String RESPOSTA = "```json\n{\"feedbackGeral\": \"use [colchetes] e {chaves}\", "
+            + "\"resultados\": [{\"palavraEsperada\": \"ra\\\"to}\", \"extra\": [1, {\"n\": 2}]}, "
+            + "{\"palavraEsperada\": \"roeu\"}], \"outros\": [{\"n\": 1}]}\n```";
+
+    private static final List<String> ITENS = List.of(
+            "{\"palavraEsperada\": \"ra\\\"to}\", \"extra\": [1, {\"n\": 2}]}",
+            "{\"palavraEsperada\": \"roeu\"}");
+
+    @Test
+    @DisplayName("Deve extrair os mesmos itens qualquer que seja o tamanho dos pedaços")
+    void deveExtrairItensEmQualquerCorte() {
+        for (int tamanho = 1; tamanho <= 9; tamanho++) {
+            ExtratorResultadosParciais extrator = new ExtratorResultadosParciais();
+            List<String> itens = new ArrayList<>();
+
+            for (int i = 0; i < RESPOSTA.length(); i += tamanho) {
+                itens.addAll(extrator.adicionar(RESPOSTA.substring(i, Math.min(RESPOSTA.length(), i + tamanho))));
+            }
+
+            assertThat(itens).containsExactlyElementsOf(ITENS);
+            assertThat(extrator.getTextoCompleto()).isEqualTo(RESPOSTA);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve entregar o item assim que o objeto dele fecha")
+    void deveEntregarItemAoFechar() {
+        ExtratorResultadosParciais extrator = new ExtratorResultadosParciais();
+
+        assertThat(extrator.adicionar("{\"resultados\": [{\"palavraEsperada\": \"rato\"")).isEmpty();
+        assertThat(extrator.adicionar("}, {\"palavra")).containsExactly("{\"palavraEsperada\": \"rato\"}");
+    }
+}
@@ -0,0 +1,68 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.upstream.CotaGemini;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - GeminiAudioAnalysisService
+ *
+ * Cobre só a leitura do JSON gerado pelo modelo; a chamada ao Gemini fica de fora.
+ */
+class GeminiAudioAnalysisServiceTest {
+
+    private static final List<String> PALAVRAS = List.of("rato", "roeu");
+
+    private GeminiAudioAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new GeminiAudioAnalysisService(new OkHttpClient(), new NormalizadorFonetico(), CotaGemini.semLimite());
+    }
+
+    @Test
+    @DisplayName("Deve ler a resposta cercada por markdown direto para o DTO")
+    void deveLerRespostaComMarkdown() {
+        String resposta = "```json\n{\"resultados\": ["
+                + "{\"palavraEsperada\": \"rato\", \"palavraTranscrita\": \"rato\", \"acertou\": true, \"similaridade\": 100, \"feedback\": \"Perfeito\"},"
+                + "{\"palavraEsperada\": \"roeu\", \"palavraTranscrita\": \"loeu\", \"acertou\": false, \"similaridade\": \"75\", \"extra\": [1, 2]}"
+                + "], \"feedbackGeral\": \"Quase lá\", \"pontuacaoGeral\": 87.5}\n```";
+
+        BatchPronunciationAnalysisDTO dto = service.parsearRespostaBatch(resposta, PALAVRAS);
+
+        assertThat(dto.getFeedbackGeral()).isEqualTo("Quase lá");
+        assertThat(dto.getPontuacaoGeral()).isEqualTo(87.5);
+        assertThat(dto.getTotalPalavras()).isEqualTo(2);
+        assertThat(dto.getTotalAcertos()).isEqualTo(1);
+        assertThat(dto.getPorcentagemAcerto()).isEqualTo(50.0);
+        assertThat(dto.getResultados().get(1).getPalavraTranscrita()).isEqualTo("loeu");
+        assertThat(dto.getResultados().get(1).getSimilaridade()).isEqualTo(75.0);
+        assertThat(dto.getResultados().get(1).getFeedback()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve usar os valores padrão quando os campos gerais faltam")
+    void deveUsarPadroes() {
+        BatchPronunciationAnalysisDTO dto = service.parsearRespostaBatch("{\"resultados\": []}", PALAVRAS);
+
+        assertThat(dto.getFeedbackGeral()).isEqualTo("Análise ok");
+        assertThat(dto.getPontuacaoGeral()).isZero();
+        assertThat(dto.getResultados()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve devolver DTO de erro quando a resposta não tem JSON")
+    void deveDevolverErroSemJson() {
+        BatchPronunciationAnalysisDTO dto = service.parsearRespostaBatch("Desculpe, não entendi o áudio.", PALAVRAS);
+
+        assertThat(dto.getFeedbackGeral()).startsWith("Erro ao processar a resposta da IA");
+        assertThat(dto.getResultados()).isEmpty();
+    }
+}
@@ -0,0 +1,152 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
+import com.inatel.prototipo_ia.eventos.ConteudoTesteAlteradoEvent;
+import com.inatel.prototipo_ia.eventos.ConteudoTesteAlteradoEvent.TipoAlteracao;
+import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes Unitários - IndiceFonemasCorpus
+ * Valida a contagem de fonemas, a seleção ponderada e a atualização incremental do índice
+ */
+@ExtendWith(MockitoExtension.class)
+class IndiceFonemasCorpusTest {
+
+    private static final String RATO = "O rato roeu a roupa do rei de Roma";
+    private static final String PALHA = "A velha espalha a palha no telhado";
+
+    @Mock
+    private ConteudoTesteRepository conteudoRepository;
+
+    private IndiceFonemasCorpus indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceFonemasCorpus(conteudoRepository, new NormalizadorFonetico());
+    }
+
+    private ConteudoTesteEntity conteudo(Long id, String texto, String fonemas) {
+        ConteudoTesteEntity conteudo = new ConteudoTesteEntity();
+        conteudo.setId(id);
+        conteudo.setTextoFrase(texto);
+        conteudo.setFonemasChave(fonemas);
+        conteudo.setIdioma("Português");
+        return conteudo;
+    }
+
+    @Nested
+    @DisplayName("Testes da Contagem de Fonemas")
+    class ContagemTests {
+
+        @Test
+        @DisplayName("Deve contar r forte no início da palavra e no rr")
+        void deveContarRForte() {
+            Map<String, Integer> contagem = IndiceFonemasCorpus.contarFonemas("o rato viu o carro caro", 0);
+
+            assertThat(contagem.get("RR")).isEqualTo(2);
+            assertThat(contagem.get("R")).isEqualTo(3);
+            assertThat(contagem.get("V")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Deve tratar os dígrafos e o s entre vogais")
+        void deveTratarDigrafos() {
+            Map<String, Integer> contagem = IndiceFonemasCorpus.contarFonemas("chuva na casa do ninho de palha", 0);
+
+            assertThat(contagem.get("CH")).isEqualTo(1);
+            assertThat(contagem.get("X")).isEqualTo(1);
+            assertThat(contagem.get("Z")).isEqualTo(1);
+            assertThat(contagem.get("NH")).isEqualTo(1);
+            assertThat(contagem.get("LH")).isEqualTo(1);
+            assertThat(contagem).doesNotContainKey("L");
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Seleção")
+    class SelecaoTests {
+
+        @Test
+        @DisplayName("Deve escolher só frases com o fonema alvo")
+        void deveEscolherFraseComFonemaAlvo() {
+            when(conteudoRepository.findAll()).thenReturn(List.of(
+                    conteudo(1L, RATO, "R, RR"),
+                    conteudo(2L, PALHA, "LH")));
+            indice.carregar();
+
+            for (int i = 0; i < 20; i++) {
+                assertThat(indice.selecionar("LH", Map.of())).contains(PALHA);
+            }
+        }
+
+        @Test
+        @DisplayName("Deve usar os erros do paciente quando a dificuldade é geral")
+        void deveUsarErrosNaDificuldadeGeral() {
+            when(conteudoRepository.findAll()).thenReturn(List.of(
+                    conteudo(1L, RATO, "R, RR"),
+                    conteudo(2L, PALHA, "LH")));
+            indice.carregar();
+
+            assertThat(indice.selecionar("GERAL", Map.of("RR", 1.0))).contains(RATO);
+        }
+
+        @Test
+        @DisplayName("Deve retornar vazio quando nenhuma frase tem o fonema")
+        void deveRetornarVazioSemFonema() {
+            when(conteudoRepository.findAll()).thenReturn(List.of(conteudo(1L, RATO, "R, RR")));
+            indice.carregar();
+
+            assertThat(indice.selecionar("NH", Map.of())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Deve ignorar os trava-línguas do pool e outros idiomas")
+        void deveIgnorarPoolEOutrosIdiomas() {
+            ConteudoTesteEntity doPool = conteudo(1L, RATO, "R");
+            doPool.setFaixaEtaria(AIWordGeneratorService.FAIXA_INFANTIL);
+            ConteudoTesteEntity ingles = conteudo(2L, "Red lorry, yellow lorry", "R");
+            ingles.setIdioma("Inglês");
+            when(conteudoRepository.findAll()).thenReturn(List.of(doPool, ingles));
+
+            indice.carregar();
+
+            assertThat(indice.totalFrases()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Atualização Incremental")
+    class AtualizacaoTests {
+
+        @Test
+        @DisplayName("Deve indexar, reindexar e remover conforme os eventos")
+        void deveAtualizarPelosEventos() {
+            when(conteudoRepository.findAll()).thenReturn(List.of());
+            indice.carregar();
+
+            indice.aoAlterarConteudo(new ConteudoTesteAlteradoEvent(TipoAlteracao.CRIADO, 5L, RATO, "R", "Português", null));
+            assertThat(indice.totalFrases("RR")).isEqualTo(1);
+
+            indice.aoAlterarConteudo(new ConteudoTesteAlteradoEvent(TipoAlteracao.ATUALIZADO, 5L, PALHA, "LH", "Português", null));
+            assertThat(indice.totalFrases("RR")).isZero();
+            assertThat(indice.selecionar("LH", Map.of())).contains(PALHA);
+
+            indice.aoAlterarConteudo(ConteudoTesteAlteradoEvent.removido(5L));
+            assertThat(indice.totalFrases()).isZero();
+            assertThat(indice.totalFrases("LH")).isZero();
+        }
+    }
+}
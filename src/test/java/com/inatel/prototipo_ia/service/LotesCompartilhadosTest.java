@@ -0,0 +1,190 @@
+package com.inatel.prototipo_ia.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes Unitários - LotesCompartilhados
+ * Valida que pedidos iguais simultâneos dividem uma única geração e o lote gerado
+ */
+class LotesCompartilhadosTest {
+
+    private static final String CHAVE = "R|juvenil";
+
+    private AtomicLong relogio;
+    private LotesCompartilhados lotes;
+    private AtomicInteger chamadas;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        relogio = new AtomicLong();
+        lotes = new LotesCompartilhados(Duration.ofMinutes(2), Duration.ofSeconds(10), relogio::get);
+        chamadas = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(6);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<String> lote(String... textos) {
+        chamadas.incrementAndGet();
+        return List.of(textos);
+    }
+
+    @Nested
+    @DisplayName("Testes da Geração Compartilhada")
+    class CompartilhamentoTests {
+
+        @Test
+        @DisplayName("Deve atender pedidos simultâneos com uma só geração")
+        void deveAtenderPedidosSimultaneos() throws Exception {
+            CountDownLatch liberar = new CountDownLatch(1);
+            List<Future<String>> pedidos = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                pedidos.add(executor.submit(() -> lotes.obter(CHAVE, () -> {
+                    liberar.await();
+                    return lote("a", "b", "c", "d");
+                })));
+            }
+            // Só libera a geração quando os outros três já estão esperando por ela
+            while (lotes.aguardando(CHAVE) < 3) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            List<String> recebidos = new ArrayList<>();
+            for (Future<String> pedido : pedidos) {
+                recebidos.add(pedido.get(5, TimeUnit.SECONDS));
+            }
+            assertThat(chamadas.get()).isEqualTo(1);
+            assertThat(recebidos).containsExactlyInAnyOrder("a", "b", "c", "d");
+        }
+
+        @Test
+        @DisplayName("Deve gerar de novo quando há mais pedidos que itens no lote")
+        void deveGerarDeNovoQuandoFaltarItem() throws Exception {
+            CountDownLatch liberar = new CountDownLatch(1);
+            List<Future<String>> pedidos = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                pedidos.add(executor.submit(() -> lotes.obter(CHAVE, () -> {
+                    liberar.await();
+                    int chamada = chamadas.get() + 1;
+                    return lote("x" + chamada, "y" + chamada);
+                })));
+            }
+            while (lotes.aguardando(CHAVE) < 2) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            List<String> recebidos = new ArrayList<>();
+            for (Future<String> pedido : pedidos) {
+                recebidos.add(pedido.get(5, TimeUnit.SECONDS));
+            }
+            assertThat(chamadas.get()).isEqualTo(2);
+            assertThat(recebidos).doesNotHaveDuplicates().hasSize(3);
+        }
+
+        @Test
+        @DisplayName("Deve entregar as sobras aos próximos pedidos sem nova geração")
+        void deveEntregarSobras() throws Exception {
+            assertThat(lotes.obter(CHAVE, () -> lote("a", "b"))).isEqualTo("a");
+            assertThat(lotes.obter(CHAVE, () -> lote("c", "d"))).isEqualTo("b");
+
+            assertThat(chamadas.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Deve descartar sobras vencidas")
+        void deveDescartarSobrasVencidas() throws Exception {
+            lotes.obter(CHAVE, () -> lote("a", "b"));
+            relogio.addAndGet(Duration.ofMinutes(3).toNanos());
+
+            assertThat(lotes.obter(CHAVE, () -> lote("c", "d"))).isEqualTo("c");
+            assertThat(chamadas.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Não deve misturar chaves diferentes")
+        void naoDeveMisturarChaves() throws Exception {
+            lotes.obter(CHAVE, () -> lote("a", "b"));
+
+            assertThat(lotes.obter("L|juvenil", () -> lote("lua"))).isEqualTo("lua");
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Falha")
+    class FalhaTests {
+
+        @Test
+        @DisplayName("Deve repassar a falha da geração a quem esperava")
+        void deveRepassarFalha() throws Exception {
+            CountDownLatch gerando = new CountDownLatch(1);
+            CountDownLatch liberar = new CountDownLatch(1);
+            Future<String> lider = executor.submit(() -> lotes.obter(CHAVE, () -> {
+                chamadas.incrementAndGet();
+                gerando.countDown();
+                liberar.await();
+                throw new IOException("Erro na API Gemini: 503");
+            }));
+            gerando.await(5, TimeUnit.SECONDS);
+            Future<String> seguidor = executor.submit(() -> lotes.obter(CHAVE, () -> lote("nunca")));
+            while (lotes.aguardando(CHAVE) < 1) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            assertThatThrownBy(() -> lider.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IOException.class);
+            assertThatThrownBy(() -> seguidor.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IOException.class);
+            assertThat(chamadas.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Deve liberar a chave depois de uma falha")
+        void deveLiberarDepoisDeFalha() throws Exception {
+            assertThatThrownBy(() -> lotes.obter(CHAVE, () -> {
+                throw new IOException("timeout");
+            })).isInstanceOf(IOException.class);
+
+            assertThat(lotes.obter(CHAVE, () -> lote("a"))).isEqualTo("a");
+        }
+
+        @Test
+        @DisplayName("Deve liberar a chave quando a geração lança um Error")
+        void deveLiberarDepoisDeError() throws Exception {
+            assertThatThrownBy(() -> lotes.obter(CHAVE, () -> {
+                throw new OutOfMemoryError("Java heap space");
+            })).isInstanceOf(OutOfMemoryError.class);
+
+            assertThat(lotes.obter(CHAVE, () -> lote("a"))).isEqualTo("a");
+        }
+
+        @Test
+        @DisplayName("Deve devolver nulo quando o lote vem vazio")
+        void deveDevolverNuloComLoteVazio() throws Exception {
+            assertThat(lotes.obter(CHAVE, () -> lote())).isNull();
+        }
+    }
+}
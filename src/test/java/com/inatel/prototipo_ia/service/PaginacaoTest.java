@@ -0,0 +1,98 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.PaginaDtoOut;
+import com.inatel.prototipo_ia.repository.PaginacaoPorId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - Paginacao
+ * Valida o cursor por id, os limites das páginas e a exportação página a página
+ */
+class PaginacaoTest {
+
+    private List<Long> tabela;
+    private List<Integer> limitesPedidos;
+    private PaginacaoPorId<Long> repositorio;
+
+    @BeforeEach
+    void setUp() {
+        // Ids 1..250 com buracos nos múltiplos de 10 (linhas apagadas)
+        tabela = LongStream.rangeClosed(1, 250).filter(id -> id % 10 != 0).boxed().collect(Collectors.toList());
+        limitesPedidos = new ArrayList<>();
+        repositorio = (cursor, limite) -> {
+            limitesPedidos.add(limite.max());
+            return tabela.stream().filter(id -> id > cursor).limit(limite.max()).collect(Collectors.toList());
+        };
+    }
+
+    private PaginaDtoOut<String> pagina(Long cursor, Integer limite) {
+        return Paginacao.paginar(cursor, limite, repositorio, Function.identity(), Paginacao.cada(id -> "item-" + id));
+    }
+
+    @Nested
+    @DisplayName("Testes das Páginas")
+    class PaginasTests {
+
+        @Test
+        @DisplayName("Deve começar do início com o limite padrão e apontar a próxima página")
+        void devePaginarDoInicio() {
+            PaginaDtoOut<String> primeira = pagina(null, null);
+
+            assertThat(primeira.getItens()).hasSize(Paginacao.LIMITE_PADRAO);
+            assertThat(primeira.getItens().get(0)).isEqualTo("item-1");
+            // 100 ids sem os 11 múltiplos de 10 até 111
+            assertThat(primeira.getProximoCursor()).isEqualTo(111L);
+            assertThat(limitesPedidos).containsExactly(Paginacao.LIMITE_PADRAO + 1);
+        }
+
+        @Test
+        @DisplayName("Deve continuar depois do cursor e terminar sem próxima página")
+        void deveContinuarDoCursor() {
+            PaginaDtoOut<String> seguinte = pagina(111L, 100);
+            PaginaDtoOut<String> ultima = pagina(seguinte.getProximoCursor(), 100);
+
+            assertThat(seguinte.getItens().get(0)).isEqualTo("item-112");
+            assertThat(ultima.getItens()).hasSize(225 - 200).last().isEqualTo("item-249");
+            assertThat(ultima.temProxima()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Deve manter o limite entre 1 e o máximo")
+        void deveLimitarTamanho() {
+            assertThat(pagina(null, 0).getItens()).hasSize(1);
+            assertThat(pagina(null, 10_000).getLimite()).isEqualTo(Paginacao.LIMITE_MAXIMO);
+            assertThat(pagina(-50L, 5).getItens().get(0)).isEqualTo("item-1");
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes da Exportação")
+    class ExportacaoTests {
+
+        @Test
+        @DisplayName("Deve entregar todos os itens, buscando cada página só quando precisa")
+        void deveExportarTudo() {
+            List<String> primeiros = Paginacao.emFluxo(cursor -> pagina(cursor, 50)).limit(10).collect(Collectors.toList());
+
+            assertThat(primeiros).hasSize(10);
+            assertThat(limitesPedidos).hasSize(1);
+
+            limitesPedidos.clear();
+            List<String> todos = Paginacao.emFluxo(cursor -> pagina(cursor, 50)).collect(Collectors.toList());
+
+            assertThat(todos).hasSize(225).doesNotHaveDuplicates();
+            assertThat(limitesPedidos).hasSize(5);
+        }
+    }
+}
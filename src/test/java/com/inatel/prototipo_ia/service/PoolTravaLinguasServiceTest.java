@@ -0,0 +1,138 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
+import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - PoolTravaLinguasService
+ * Valida a retirada, o reabastecimento e o descarte de trava-línguas repetidos
+ */
+@ExtendWith(MockitoExtension.class)
+class PoolTravaLinguasServiceTest {
+
+    private static final String INFANTIL = AIWordGeneratorService.FAIXA_INFANTIL;
+
+    @Mock
+    private AIWordGeneratorService wordGeneratorService;
+
+    @Mock
+    private ConteudoTesteRepository conteudoRepository;
+
+    private PoolTravaLinguasService pool;
+
+    @BeforeEach
+    void setUp() {
+        when(wordGeneratorService.getDificuldadesDisponiveis()).thenReturn(List.of("R", "L"));
+        pool = new PoolTravaLinguasService(wordGeneratorService, conteudoRepository, new NormalizadorFonetico(),
+                new SimpleMeterRegistry(), true, 1, 2, 3);
+    }
+
+    private ConteudoTesteEntity conteudo(Long id, String texto, String dificuldade, LocalDateTime usadoEm) {
+        ConteudoTesteEntity conteudo = new ConteudoTesteEntity();
+        conteudo.setId(id);
+        conteudo.setTextoFrase(texto);
+        conteudo.setDificuldade(dificuldade);
+        conteudo.setFaixaEtaria(INFANTIL);
+        conteudo.setUsadoEm(usadoEm);
+        return conteudo;
+    }
+
+    @Nested
+    @DisplayName("Testes de Retirada do Pool")
+    class RetiradaTests {
+
+        @Test
+        @DisplayName("Deve entregar trava-língua carregado do banco e marcá-lo como usado")
+        void deveEntregarDoPool() {
+            when(conteudoRepository.findByFaixaEtariaIsNotNull()).thenReturn(List.of(
+                    conteudo(1L, "O rato roeu a roupa do rei de Roma.", "R", null),
+                    conteudo(2L, "Três pratos de trigo.", "R", LocalDateTime.now())
+            ));
+            pool.carregar();
+
+            assertThat(pool.retirar("r", 5)).contains("O rato roeu a roupa do rei de Roma.");
+            verify(conteudoRepository).marcarComoUsado(eq(1L), any(LocalDateTime.class));
+
+            // O já usado não volta para o pool
+            assertThat(pool.retirar("R", 5)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Deve retornar vazio quando o balde não tem estoque")
+        void deveRetornarVazioSemEstoque() {
+            assertThat(pool.retirar("L", 30)).isEmpty();
+            verify(conteudoRepository, never()).marcarComoUsado(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Reabastecimento")
+    class ReabastecimentoTests {
+
+        @Test
+        @DisplayName("Deve gerar e gravar lotes de trava-línguas para os baldes abaixo do mínimo")
+        void deveReabastecerBaldesVazios() {
+            when(wordGeneratorService.gerarLoteComIA(anyInt(), any()))
+                    .thenReturn(List.of("A", "x"), List.of("B"), List.of("C"));
+            when(conteudoRepository.save(any(ConteudoTesteEntity.class))).thenAnswer(inv -> {
+                ConteudoTesteEntity salvo = inv.getArgument(0);
+                salvo.setId(10L);
+                return salvo;
+            });
+
+            pool.reabastecer();
+
+            // Limite de 3 gerações por ciclo, e o lote de duas é gravado inteiro
+            verify(wordGeneratorService, times(3)).gerarLoteComIA(anyInt(), any());
+            verify(conteudoRepository, times(4)).save(argThat(c -> c.getFaixaEtaria() != null && "Português".equals(c.getIdioma())));
+        }
+
+        @Test
+        @DisplayName("Deve descartar trava-língua repetido")
+        void deveDescartarRepetido() {
+            when(conteudoRepository.findByFaixaEtariaIsNotNull()).thenReturn(List.of(
+                    conteudo(1L, "O rato roeu a roupa do rei de Roma.", "R", LocalDateTime.now())
+            ));
+            pool.carregar();
+            when(wordGeneratorService.gerarLoteComIA(anyInt(), any()))
+                    .thenReturn(List.of("o rato roeu a roupa do Rei de Roma"));
+            // Se o balde (R, infantil) for o escolhido em todas as gerações, nada chega a ser gravado
+            lenient().when(conteudoRepository.save(any(ConteudoTesteEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            pool.reabastecer();
+
+            // Repetido no balde (R, infantil); nos outros baldes o texto ainda é novo
+            verify(conteudoRepository, never()).save(argThat(c -> "R".equals(c.getDificuldade()) && INFANTIL.equals(c.getFaixaEtaria())));
+            assertThat(pool.disponiveis("R", INFANTIL)).isZero();
+        }
+
+        @Test
+        @DisplayName("Deve interromper o ciclo quando a IA falhar")
+        void deveInterromperQuandoIaFalhar() {
+            when(wordGeneratorService.gerarLoteComIA(anyInt(), any()))
+                    .thenThrow(new RuntimeException("Erro na API Gemini: 503"));
+
+            pool.reabastecer();
+
+            verify(wordGeneratorService, times(1)).gerarLoteComIA(anyInt(), any());
+            verify(conteudoRepository, never()).save(any());
+        }
+    }
+}
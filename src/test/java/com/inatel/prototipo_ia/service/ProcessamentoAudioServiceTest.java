@@ -0,0 +1,306 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.analise.CacheResultadosAnalise;
+import com.inatel.prototipo_ia.analise.JobAnalise;
+import com.inatel.prototipo_ia.analise.JobAnalise.StatusJob;
+import com.inatel.prototipo_ia.analise.RegistroJobsAnalise;
+import com.inatel.prototipo_ia.analise.RoteadorMotoresAnalise;
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.audio.PreprocessadorAudio;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
+import com.inatel.prototipo_ia.enums.MotorAnalise;
+import com.inatel.prototipo_ia.eventos.BarramentoEventosSessao;
+import com.inatel.prototipo_ia.repository.ResultadoAnaliseCacheRepository;
+import com.inatel.prototipo_ia.upstream.UpstreamIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - ProcessamentoAudioService
+ * Valida o ciclo do job de análise (sem executor real: a tarefa roda na própria thread do teste)
+ */
+@ExtendWith(MockitoExtension.class)
+class ProcessamentoAudioServiceTest {
+
+    @Mock
+    private SessaoTreinoService sessaoService;
+
+    @Mock
+    private GeminiAudioAnalysisService geminiService;
+
+    @Mock
+    private PronunciationAnalysisService pronunciationService;
+
+    @Mock
+    private BarramentoEventosSessao eventos;
+
+    @Mock
+    private ResultadoAnaliseCacheRepository cacheRepository;
+
+    private RegistroJobsAnalise registroJobs;
+    private CacheResultadosAnalise cache;
+
+    @BeforeEach
+    void setUp() {
+        registroJobs = new RegistroJobsAnalise(Duration.ofMinutes(10));
+        cache = new CacheResultadosAnalise(new NormalizadorFonetico(), cacheRepository, new SimpleMeterRegistry(),
+                100, Duration.ofHours(1), false, Duration.ofDays(7));
+        lenient().when(geminiService.getMotor()).thenReturn(MotorAnalise.GEMINI);
+        lenient().when(geminiService.getCustoRelativo()).thenReturn(3.0);
+        lenient().when(pronunciationService.getMotor()).thenReturn(MotorAnalise.DEEPGRAM);
+        lenient().when(pronunciationService.getCustoRelativo()).thenReturn(1.0);
+    }
+
+    private static AudioArquivo audio(int... valores) throws IOException {
+        byte[] bytes = new byte[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            bytes[i] = (byte) valores[i];
+        }
+        return AudioArquivo.de(bytes);
+    }
+
+    private ProcessamentoAudioService criarService(TaskExecutor executor) {
+        RoteadorMotoresAnalise roteador = new RoteadorMotoresAnalise(List.of(geminiService, pronunciationService), cache,
+                new SimpleMeterRegistry(), 0.5, Duration.ofMinutes(2));
+        PreprocessadorAudio preprocessador = new PreprocessadorAudio(new SimpleMeterRegistry(), true, 16000, -45,
+                Duration.ofMillis(250));
+        return new ProcessamentoAudioService(sessaoService, roteador, preprocessador, registroJobs, eventos, executor);
+    }
+
+    @Nested
+    @DisplayName("Testes do Áudio da Sessão de Treino")
+    class AudioSessaoTests {
+
+        @Test
+        @DisplayName("Deve concluir o job com as mensagens da finalização")
+        void deveConcluirJob() throws Exception {
+            AudioArquivo audio = audio(1, 2, 3);
+            List<String> palavras = List.of("rato", "roeu");
+            BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+            analise.setResultados(List.of(new BatchPronunciationAnalysisDTO.ResultadoPalavra("rato", "rato", true, 100.0, "ok")));
+            MensagemSessaoDtoOut feedback = MensagemSessaoDtoOut.feedbackAnalise(1L, analise);
+            MensagemSessaoDtoOut.ResumoSessao resumoSessao = new MensagemSessaoDtoOut.ResumoSessao();
+            resumoSessao.setPontuacaoGeral(50.0);
+            MensagemSessaoDtoOut resumo = MensagemSessaoDtoOut.resumoFinal(1L, resumoSessao);
+            List<MensagemSessaoDtoOut> mensagens = List.of(feedback, resumo);
+
+            when(sessaoService.iniciarProcessamento(1L)).thenReturn(palavras);
+            when(geminiService.analisar(eq(audio), eq(palavras), any())).thenReturn(analise);
+            when(sessaoService.concluirProcessamento(1L, analise)).thenReturn(mensagens);
+
+            JobAnalise job = criarService(Runnable::run).processarAudioSessao(1L, audio, true);
+
+            assertThat(job.getStatus()).isEqualTo(StatusJob.CONCLUIDO);
+            assertThat(job.getResultado()).isEqualTo(mensagens);
+            assertThat(analise.getMotorAnalise()).isEqualTo(MotorAnalise.GEMINI);
+            verify(pronunciationService, never()).analisar(any(), any(), any());
+            assertThat(registroJobs.buscar(job.getId())).contains(job);
+            verify(sessaoService, never()).reverterProcessamento(any());
+
+            // Inscritos do SSE recebem as mesmas mensagens e o stream é fechado após o resumo
+            verify(eventos).publicar(1L, feedback);
+            verify(eventos).publicar(1L, resumo);
+            verify(eventos).encerrar(1L);
+
+            // O arquivo temporário é apagado quando o job termina
+            assertThat(Files.exists(audio.getCaminho())).isFalse();
+        }
+
+        @Test
+        @DisplayName("Deve publicar o feedback parcial a cada palavra avaliada")
+        void devePublicarFeedbackParcial() throws Exception {
+            AudioArquivo audio = audio(1, 2);
+            List<String> palavras = List.of("rato", "roeu");
+            BatchPronunciationAnalysisDTO.ResultadoPalavra rato =
+                    new BatchPronunciationAnalysisDTO.ResultadoPalavra("rato", "rato", true, 100.0, "ok");
+            BatchPronunciationAnalysisDTO.ResultadoPalavra roeu =
+                    new BatchPronunciationAnalysisDTO.ResultadoPalavra("roeu", "loeu", false, 75.0, "");
+            BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+            analise.setResultados(List.of(rato, roeu));
+
+            when(sessaoService.iniciarProcessamento(1L)).thenReturn(palavras);
+            when(geminiService.analisar(eq(audio), eq(palavras), any())).thenAnswer(invocacao -> {
+                Consumer<BatchPronunciationAnalysisDTO.ResultadoPalavra> aoAvaliar = invocacao.getArgument(2);
+                aoAvaliar.accept(rato);
+                aoAvaliar.accept(roeu);
+                return analise;
+            });
+            when(sessaoService.concluirProcessamento(1L, analise)).thenReturn(List.of());
+
+            criarService(Runnable::run).processarAudioSessao(1L, audio, true);
+
+            ArgumentCaptor<MensagemSessaoDtoOut> publicadas = ArgumentCaptor.forClass(MensagemSessaoDtoOut.class);
+            verify(eventos, times(2)).publicar(eq(1L), publicadas.capture());
+            MensagemSessaoDtoOut primeira = publicadas.getAllValues().get(0);
+            MensagemSessaoDtoOut segunda = publicadas.getAllValues().get(1);
+            assertThat(primeira.getParcial()).isTrue();
+            assertThat(primeira.getAnalise().getResultados()).hasSize(1);
+            assertThat(segunda.getAnalise().getResultados()).hasSize(2);
+            assertThat(segunda.getAnalise().getTotalAcertos()).isEqualTo(1);
+            assertThat(segunda.getAnalise().getTotalPalavras()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Deve reverter a sessão quando todos os motores falharem")
+        void deveReverterQuandoAnaliseFalhar() throws Exception {
+            AudioArquivo audio = audio(1);
+            List<String> palavras = List.of("rato");
+
+            when(sessaoService.iniciarProcessamento(1L)).thenReturn(palavras);
+            when(geminiService.analisar(eq(audio), eq(palavras), any())).thenThrow(new RuntimeException("timeout"));
+            when(pronunciationService.analisar(eq(audio), eq(palavras), any())).thenThrow(new RuntimeException("timeout"));
+
+            JobAnalise job = criarService(Runnable::run).processarAudioSessao(1L, audio, true);
+
+            assertThat(job.getStatus()).isEqualTo(StatusJob.ERRO);
+            assertThat(job.getErro()).contains("timeout");
+            verify(sessaoService).reverterProcessamento(1L);
+            verify(sessaoService, never()).concluirProcessamento(any(), any());
+            verify(eventos).publicar(eq(1L), argThat(m -> m.getTipo() == MensagemSessaoDtoOut.TipoMensagem.ERRO));
+            verify(eventos, never()).encerrar(any());
+            assertThat(Files.exists(audio.getCaminho())).isFalse();
+        }
+
+        @Test
+        @DisplayName("Deve avisar quando tentar de novo se o upstream estiver recusando chamadas")
+        void deveAvisarQuandoUpstreamIndisponivel() throws Exception {
+            AudioArquivo audio = audio(1);
+            List<String> palavras = List.of("rato");
+            UpstreamIndisponivelException recusa = new UpstreamIndisponivelException("gemini",
+                    "disjuntor aberto", Duration.ofSeconds(20));
+
+            when(sessaoService.iniciarProcessamento(1L)).thenReturn(palavras);
+            when(geminiService.analisar(eq(audio), eq(palavras), any()))
+                    .thenThrow(new RuntimeException("Falha na análise", recusa));
+            when(pronunciationService.analisar(eq(audio), eq(palavras), any()))
+                    .thenThrow(new RuntimeException("Falha na análise", recusa));
+
+            JobAnalise job = criarService(Runnable::run).processarAudioSessao(1L, audio, true);
+
+            assertThat(job.getStatus()).isEqualTo(StatusJob.ERRO);
+            assertThat(job.getErro()).contains("instável").contains("20 segundos");
+            verify(sessaoService).reverterProcessamento(1L);
+        }
+
+        @Test
+        @DisplayName("Deve reverter a sessão e descartar o job quando o executor estiver lotado")
+        void deveReverterQuandoExecutorLotado() throws Exception {
+            when(sessaoService.iniciarProcessamento(1L)).thenReturn(List.of("rato"));
+            TaskExecutor lotado = tarefa -> {
+                throw new TaskRejectedException("fila cheia");
+            };
+
+            AudioArquivo audio = audio(1);
+
+            assertThatThrownBy(() -> criarService(lotado).processarAudioSessao(1L, audio, true))
+                    .isInstanceOf(TaskRejectedException.class);
+
+            verify(sessaoService).reverterProcessamento(1L);
+            assertThat(Files.exists(audio.getCaminho())).isFalse();
+            verify(geminiService, never()).analisar(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Não deve agendar análise quando a sessão não aguarda áudio")
+        void naoDeveAgendarQuandoSessaoNaoAguardaAudio() throws Exception {
+            when(sessaoService.iniciarProcessamento(1L))
+                    .thenThrow(new IllegalStateException("Sessão não está aguardando áudio. Status atual: FINALIZADA"));
+
+            AudioArquivo audio = audio(1);
+
+            assertThatThrownBy(() -> criarService(Runnable::run).processarAudioSessao(1L, audio, true))
+                    .isInstanceOf(IllegalStateException.class);
+
+            assertThat(Files.exists(audio.getCaminho())).isFalse();
+
+            verify(geminiService, never()).analisar(any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes do Cache de Resultados")
+    class CacheTests {
+
+        @Test
+        @DisplayName("Deve reaproveitar o resultado quando o mesmo áudio é reenviado")
+        void deveReaproveitarResultado() throws Exception {
+            AudioArquivo audio = audio(7, 7, 7);
+            List<String> palavras = List.of("rato", "roeu");
+            BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+            analise.setResultados(List.of(new BatchPronunciationAnalysisDTO.ResultadoPalavra("rato", "rato", true, 100.0, "ok")));
+            analise.setTotalAcertos(1);
+
+            when(pronunciationService.analisar(eq(audio), eq(palavras), any())).thenReturn(analise);
+            ProcessamentoAudioService service = criarService(Runnable::run);
+
+            JobAnalise primeiro = service.analisarDeepgram(audio, palavras);
+            JobAnalise segundo = service.analisarDeepgram(audio(7, 7, 7), List.of("Rato", "roeu!"));
+
+            verify(pronunciationService, times(1)).analisar(any(), any(), any());
+            assertThat(segundo.getStatus()).isEqualTo(StatusJob.CONCLUIDO);
+            assertThat(((BatchPronunciationAnalysisDTO) segundo.getResultado()).getTotalAcertos()).isEqualTo(1);
+            assertThat(segundo.getResultado()).isNotSameAs(primeiro.getResultado());
+        }
+
+        @Test
+        @DisplayName("Não deve misturar resultados de motores diferentes")
+        void naoDeveMisturarMotores() throws Exception {
+            try (AudioArquivo audio = audio(1, 2)) {
+                List<String> palavras = List.of("rato");
+
+                assertThat(cache.chave(audio, palavras, MotorAnalise.GEMINI))
+                        .isNotEqualTo(cache.chave(audio, palavras, MotorAnalise.DEEPGRAM));
+            }
+        }
+
+        @Test
+        @DisplayName("Não deve guardar análise sem palavras avaliadas")
+        void naoDeveGuardarAnaliseVazia() throws Exception {
+            String chave = cache.chave(audio(1), List.of("rato"), MotorAnalise.GEMINI);
+            BatchPronunciationAnalysisDTO erro = new BatchPronunciationAnalysisDTO();
+            erro.setResultados(List.of());
+
+            cache.guardar(chave, MotorAnalise.GEMINI, erro);
+
+            assertThat(cache.buscar(chave)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Deve descartar entradas vencidas")
+        void deveDescartarEntradasVencidas() throws Exception {
+            CacheResultadosAnalise semValidade = new CacheResultadosAnalise(new NormalizadorFonetico(), cacheRepository,
+                    new SimpleMeterRegistry(), 100, Duration.ZERO, false, Duration.ofDays(7));
+            BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+            analise.setResultados(List.of(new BatchPronunciationAnalysisDTO.ResultadoPalavra("rato", "rato", true, 100.0, "ok")));
+            String chave = semValidade.chave(audio(1), List.of("rato"), MotorAnalise.GEMINI);
+
+            semValidade.guardar(chave, MotorAnalise.GEMINI, analise);
+
+            assertThat(semValidade.buscar(chave)).isEmpty();
+            verifyNoInteractions(cacheRepository);
+        }
+    }
+}
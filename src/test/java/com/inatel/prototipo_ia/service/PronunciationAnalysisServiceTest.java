@@ -0,0 +1,271 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.audio.AudioArquivo;
+import com.inatel.prototipo_ia.audio.SegmentadorVoz;
+import com.inatel.prototipo_ia.audio.TrechoAudio;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - PronunciationAnalysisService
+ *
+ * Cobre só a parte local da análise (comparação da transcrição com as palavras esperadas).
+ * A chamada ao Deepgram fica de fora: aqui a transcrição é passada pronta.
+ */
+class PronunciationAnalysisServiceTest {
+
+    private PronunciationAnalysisService service;
+    private AlinhadorPalavras alinhador;
+    private NormalizadorFonetico normalizador;
+
+    @BeforeEach
+    void setUp() {
+        alinhador = new AlinhadorPalavras();
+        normalizador = new NormalizadorFonetico();
+        service = new PronunciationAnalysisService(new OkHttpClient(), alinhador, normalizador,
+                SegmentadorVoz.desligado(), Runnable::run);
+    }
+
+    @Nested
+    @DisplayName("Testes do Alinhamento de Palavras")
+    class AlinhamentoTests {
+
+        @Test
+        @DisplayName("Deve parear na ordem da frase quando a matriz é diagonal")
+        void deveParearNaOrdem() {
+            int[] similaridades = {
+                    1000, 0, 0,
+                    0, 1000, 0,
+                    0, 0, 1000
+            };
+
+            int[] pares = alinhador.alinhar(similaridades, 3, 3, 600);
+
+            assertThat(pares).containsExactly(0, 1, 2);
+        }
+
+        @Test
+        @DisplayName("Deve deixar sem par a palavra abaixo do mínimo")
+        void deveDeixarSemParAbaixoDoMinimo() {
+            int[] similaridades = {
+                    1000, 0,
+                    0, 500
+            };
+
+            int[] pares = alinhador.alinhar(similaridades, 2, 2, 600);
+
+            assertThat(pares).containsExactly(0, AlinhadorPalavras.SEM_PAR);
+        }
+
+        @Test
+        @DisplayName("Deve pular palavra extra falada no meio da frase")
+        void devePularPalavraExtra() {
+            // esperado: rato roeu | falado: rato hum roeu
+            int[] similaridades = {
+                    1000, 0, 0,
+                    0, 0, 1000
+            };
+
+            int[] pares = alinhador.alinhar(similaridades, 2, 3, 600);
+
+            assertThat(pares).containsExactly(0, 2);
+        }
+
+        @Test
+        @DisplayName("Deve retornar tudo sem par quando não há transcrição")
+        void deveRetornarSemParSemTranscricao() {
+            int[] pares = alinhador.alinhar(new int[0], 2, 0, 600);
+
+            assertThat(pares).containsExactly(AlinhadorPalavras.SEM_PAR, AlinhadorPalavras.SEM_PAR);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes do Núcleo de Similaridade")
+    class SimilaridadeTests {
+
+        @Test
+        @DisplayName("Deve retornar similaridade máxima para palavras iguais")
+        void deveRetornarMaximaParaIguais() {
+            int score = SimilaridadeLevenshtein.similaridade("rato".toCharArray(), "rato".toCharArray(), 500);
+
+            assertThat(score).isEqualTo(SimilaridadeLevenshtein.ESCALA);
+        }
+
+        @Test
+        @DisplayName("Deve calcular a similaridade acima do mínimo")
+        void deveCalcularAcimaDoMinimo() {
+            // 1 substituição em 4 letras
+            int score = SimilaridadeLevenshtein.similaridade("rato".toCharArray(), "gato".toCharArray(), 500);
+
+            assertThat(score).isEqualTo(750);
+        }
+
+        @Test
+        @DisplayName("Deve retornar zero quando a similaridade fica abaixo do mínimo")
+        void deveRetornarZeroAbaixoDoMinimo() {
+            int score = SimilaridadeLevenshtein.similaridade("rato".toCharArray(), "paralelepipedo".toCharArray(), 500);
+
+            assertThat(score).isZero();
+        }
+
+        @Test
+        @DisplayName("Deve respeitar o limite da distância")
+        void deveRespeitarLimiteDaDistancia() {
+            assertThat(SimilaridadeLevenshtein.distanciaLimitada("carro".toCharArray(), "caro".toCharArray(), 2)).isEqualTo(1);
+            assertThat(SimilaridadeLevenshtein.distanciaLimitada("carro".toCharArray(), "barco".toCharArray(), 1)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Deve manter o maior valor ao preencher a matriz duas vezes")
+        void deveManterMaiorValorNaMatriz() {
+            char[][] esperadas = {"chuva".toCharArray()};
+            int[] matriz = new int[1];
+
+            SimilaridadeLevenshtein.preencherMatriz(esperadas, new char[][]{"xuva".toCharArray()}, 500, matriz);
+            int ortografica = matriz[0];
+            SimilaridadeLevenshtein.preencherMatriz(new char[][]{"xuva".toCharArray()}, new char[][]{"xuva".toCharArray()}, 500, matriz);
+
+            assertThat(ortografica).isEqualTo(600);
+            assertThat(matriz[0]).isEqualTo(SimilaridadeLevenshtein.ESCALA);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Normalização e Fonetização")
+    class NormalizacaoTests {
+
+        @Test
+        @DisplayName("Deve remover acentos, pontuação e maiúsculas")
+        void deveNormalizarTexto() {
+            assertThat(normalizador.normalizar("  Ação, Café!  ")).isEqualTo("acao cafe");
+        }
+
+        @Test
+        @DisplayName("Deve aplicar os dígrafos na forma fonética")
+        void deveAplicarDigrafos() {
+            assertThat(normalizador.fonetizar("Chuva")).isEqualTo("xuva");
+            assertThat(normalizador.fonetizar("palha")).isEqualTo("palia");
+            assertThat(normalizador.fonetizar("ninho")).isEqualTo("ninio");
+            assertThat(normalizador.fonetizar("caça")).isEqualTo("casa");
+            assertThat(normalizador.fonetizar("massa")).isEqualTo("masa");
+        }
+
+        @Test
+        @DisplayName("Deve extrair as palavras do trava-língua mantendo acentos")
+        void deveExtrairPalavras() {
+            assertThat(normalizador.extrairPalavras("O sabiá sabia assobiar!"))
+                    .containsExactly("o", "sabiá", "sabia", "assobiar");
+        }
+
+        @Test
+        @DisplayName("Deve devolver a mesma instância para a mesma palavra")
+        void deveReaproveitarCache() {
+            assertThat(normalizador.normalizar("Rato")).isSameAs(normalizador.normalizar("Rato"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Avaliação da Transcrição")
+    class AvaliacaoTests {
+
+        @Test
+        @DisplayName("Deve acertar todas as palavras quando a fala é idêntica")
+        void deveAcertarFalaIdentica() {
+            List<String> esperadas = List.of("o", "rato", "roeu", "a", "roupa");
+
+            BatchPronunciationAnalysisDTO resultado = service.avaliarTranscricao("O rato roeu a roupa.", esperadas);
+
+            assertThat(resultado.getTotalAcertos()).isEqualTo(5);
+            assertThat(resultado.getPontuacaoGeral()).isEqualTo(100.0);
+        }
+
+        @Test
+        @DisplayName("Deve parear palavra repetida com a ocorrência correta")
+        void deveParearPalavraRepetida() {
+            List<String> esperadas = List.of("rato", "roeu", "rato");
+
+            // A segunda ocorrência de "rato" saiu errada
+            BatchPronunciationAnalysisDTO resultado = service.avaliarTranscricao("rato roeu gato", esperadas);
+
+            List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = resultado.getResultados();
+            assertThat(resultados.get(0).getPalavraTranscrita()).isEqualTo("rato");
+            assertThat(resultados.get(0).getAcertou()).isTrue();
+            assertThat(resultados.get(2).getPalavraTranscrita()).isEqualTo("gato");
+            assertThat(resultados.get(2).getAcertou()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Deve marcar como não identificada a palavra que não foi falada")
+        void deveMarcarPalavraNaoFalada() {
+            List<String> esperadas = List.of("carro", "terra");
+
+            BatchPronunciationAnalysisDTO resultado = service.avaliarTranscricao("carro", esperadas);
+
+            assertThat(resultado.getResultados().get(1).getPalavraTranscrita()).isEqualTo("(não identifiquei)");
+            assertThat(resultado.getResultados().get(1).getSimilaridade()).isZero();
+            assertThat(resultado.getTotalAcertos()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Deve informar a nota exata da palavra falada bem diferente da esperada")
+        void deveInformarNotaExataAbaixoDoCorte() {
+            List<String> esperadas = List.of("rato", "gato");
+
+            BatchPronunciationAnalysisDTO resultado = service.avaliarTranscricao("rato bolo", esperadas);
+
+            BatchPronunciationAnalysisDTO.ResultadoPalavra gato = resultado.getResultados().get(1);
+            assertThat(gato.getPalavraTranscrita()).isEqualTo("bolo");
+            assertThat(gato.getSimilaridade()).isEqualTo(25.0);
+            assertThat(gato.getAcertou()).isFalse();
+            assertThat(gato.getFeedback()).isEqualTo("Tente novamente (ouvi: bolo)");
+            assertThat(resultado.getPontuacaoGeral()).isEqualTo(62.5);
+        }
+
+        @Test
+        @DisplayName("Deve marcar cada palavra com o tempo do trecho em que foi dita")
+        void deveMarcarTempoDoTrecho() throws Exception {
+            List<String> esperadas = List.of("o", "rato", "roeu", "a", "roupa");
+
+            try (TrechoAudio primeiro = new TrechoAudio(AudioArquivo.de(new byte[]{1}), 0, 900);
+                 TrechoAudio segundo = new TrechoAudio(AudioArquivo.de(new byte[]{1}), 1400, 2300)) {
+                BatchPronunciationAnalysisDTO resultado = service.avaliarTranscricao(
+                        List.of("O rato", "roeu a roupa"), List.of(primeiro, segundo), esperadas);
+
+                List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = resultado.getResultados();
+                assertThat(resultado.getTotalAcertos()).isEqualTo(5);
+                assertThat(resultado.getTranscricaoCompleta()).isEqualTo("O rato roeu a roupa");
+                assertThat(resultados.get(1).getInicioMs()).isZero();
+                assertThat(resultados.get(1).getFimMs()).isEqualTo(900);
+                assertThat(resultados.get(2).getInicioMs()).isEqualTo(1400);
+                assertThat(resultados.get(4).getFimMs()).isEqualTo(2300);
+            }
+        }
+
+        @Test
+        @DisplayName("Deve deixar sem tempo a análise do áudio inteiro")
+        void deveDeixarSemTempoSemTrechos() {
+            BatchPronunciationAnalysisDTO resultado = service.avaliarTranscricao("rato", List.of("rato"));
+
+            assertThat(resultado.getResultados().get(0).getInicioMs()).isNull();
+        }
+
+        @Test
+        @DisplayName("Deve ignorar acentos e pontuação na comparação")
+        void deveIgnorarAcentos() {
+            List<String> esperadas = List.of("café", "pão");
+
+            BatchPronunciationAnalysisDTO resultado = service.avaliarTranscricao("cafe, pao!", esperadas);
+
+            assertThat(resultado.getTotalAcertos()).isEqualTo(2);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.inatel.prototipo_ia.entity.ChatEntity;
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.RelatorioRepository;
+import com.inatel.prototipo_ia.repository.RelatorioRepository.RelatorioResumo;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import jakarta.persistence.EntityNotFoundException;
@@ -18,9 +19,11 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -296,15 +299,10 @@ class RelatorioServiceTest {
         @Test
         @DisplayName("Deve buscar relatórios por cliente e especialista")
         void deveBuscarRelatoriosPorClienteEEspecialista() {
-            ChatEntity chat = new ChatEntity();
-            chat.setId(9L);
-            RelatorioEntity r = new RelatorioEntity();
-            r.setId(300L);
-            r.setChat(chat);
-            r.setAnaliseFono("A");
-            r.setAcuracia(0.6f);
-
-            when(relatorioRepository.findByChatClienteIdAndEspecialistaId(10L, 20L))
+            RelatorioResumo r = new SpelAwareProxyProjectionFactory().createProjection(RelatorioResumo.class,
+                    Map.of("id", 300L, "chatId", 9L, "analiseFono", "A", "acuracia", 0.6f));
+
+            when(relatorioRepository.findResumosByChatClienteIdAndEspecialistaId(10L, 20L))
                     .thenReturn(Arrays.asList(r));
 
             List<RelatorioDtoOut> resultados = relatorioService.buscarPorClienteIdEEspecialistaId(10L, 20L);
@@ -312,7 +310,7 @@ class RelatorioServiceTest {
             assertThat(resultados).hasSize(1);
             assertThat(resultados.get(0).getId()).isEqualTo(300L);
             assertThat(resultados.get(0).getChatId()).isEqualTo(9L);
-            verify(relatorioRepository, times(1)).findByChatClienteIdAndEspecialistaId(10L, 20L);
+            verify(relatorioRepository, times(1)).findResumosByChatClienteIdAndEspecialistaId(10L, 20L);
         }
     }
 
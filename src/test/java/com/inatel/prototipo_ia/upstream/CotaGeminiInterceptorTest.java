@@ -0,0 +1,158 @@
+package com.inatel.prototipo_ia.upstream;
+
+import com.inatel.prototipo_ia.upstream.CotaGemini.Prioridade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - CotaGeminiInterceptor
+ * Valida que cada tentativa física reserva a sua cota e que as falhas devolvem os tokens
+ * (sem rede: a chain é um mock e o relógio da cota fica parado)
+ */
+class CotaGeminiInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private CotaGemini cota;
+    private CotaGeminiInterceptor interceptor;
+    private Interceptor.Chain chain;
+    private CotaGemini.Pedido pedido;
+    private Request request;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // 10 requisições e 1000 tokens por minuto, relógio parado: nada reabastece durante o teste
+        AtomicLong relogio = new AtomicLong();
+        cota = new CotaGemini(registry, "chave-teste", true, 10, 1000, 0.2,
+                Duration.ZERO, Duration.ZERO, relogio::get);
+        interceptor = new CotaGeminiInterceptor();
+        pedido = cota.pedido(CotaGemini.MODELO_PADRAO, Prioridade.INTERATIVA, 100);
+        request = new Request.Builder()
+                .url("https://exemplo.com/api")
+                .tag(CotaGemini.Pedido.class, pedido)
+                .build();
+
+        chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.call()).thenReturn(mock(Call.class));
+    }
+
+    private Response resposta(int codigo) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(codigo)
+                .message("status " + codigo)
+                .body(ResponseBody.create("", MediaType.parse("application/json")))
+                .build();
+    }
+
+    private double disponivel(String recurso) {
+        return registry.get("gemini.cota.disponivel").tag("recurso", recurso).gauge().value();
+    }
+
+    @Nested
+    @DisplayName("Testes da Reserva por Tentativa")
+    class ReservaTests {
+
+        @Test
+        @DisplayName("Deve passar direto quando a requisição não tem pedido de cota")
+        void devePassarSemPedido() throws Exception {
+            Request semPedido = new Request.Builder().url("https://exemplo.com/api").build();
+            when(chain.request()).thenReturn(semPedido);
+            when(chain.proceed(semPedido)).thenReturn(resposta(200));
+
+            assertThat(interceptor.intercept(chain).code()).isEqualTo(200);
+            assertThat(registry.find("gemini.cota.disponivel").gauges()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Deve reservar uma requisição a cada tentativa repetida pela retentativa")
+        void deveReservarACadaTentativa() throws Exception {
+            RetentativaInterceptor retentativa = new RetentativaInterceptor(UpstreamHttpConfigurations.GEMINI, 3,
+                    Duration.ZERO, Duration.ofSeconds(10), registry);
+            Interceptor.Chain externa = mock(Interceptor.Chain.class);
+            when(externa.request()).thenReturn(request);
+            when(externa.call()).thenReturn(mock(Call.class));
+            when(externa.proceed(any())).thenAnswer(inv -> interceptor.intercept(chain));
+            when(chain.proceed(request)).thenReturn(resposta(429), resposta(503), resposta(200));
+
+            Response response = retentativa.intercept(externa);
+
+            assertThat(response.code()).isEqualTo(200);
+            assertThat(disponivel("requisicoes")).isEqualTo(7.0);
+            // Só a tentativa que deu certo fica com a estimativa
+            assertThat(disponivel("tokens")).isEqualTo(900.0);
+        }
+
+        @Test
+        @DisplayName("Deve corrigir pelo consumo real a reserva da tentativa que deu certo")
+        void deveRegistrarUsoDaTentativaAtendida() throws Exception {
+            when(chain.proceed(request)).thenReturn(resposta(200));
+
+            interceptor.intercept(chain);
+            pedido.registrarUso("250");
+
+            assertThat(disponivel("tokens")).isEqualTo(750.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes da Devolução")
+    class DevolucaoTests {
+
+        @Test
+        @DisplayName("Deve devolver os tokens quando a resposta é de erro")
+        void deveDevolverTokensEmErro() throws Exception {
+            when(chain.proceed(request)).thenReturn(resposta(500));
+
+            interceptor.intercept(chain);
+            pedido.registrarUso("250");
+
+            assertThat(disponivel("requisicoes")).isEqualTo(9.0);
+            assertThat(disponivel("tokens")).isEqualTo(1000.0);
+        }
+
+        @Test
+        @DisplayName("Deve devolver os tokens quando a rede falha")
+        void deveDevolverTokensEmFalhaDeRede() throws Exception {
+            when(chain.proceed(request)).thenThrow(new IOException("conexão recusada"));
+
+            assertThatThrownBy(() -> interceptor.intercept(chain)).isInstanceOf(IOException.class);
+
+            assertThat(disponivel("requisicoes")).isEqualTo(9.0);
+            assertThat(disponivel("tokens")).isEqualTo(1000.0);
+        }
+
+        @Test
+        @DisplayName("Deve devolver a requisição quando a chamada nem conseguiu vaga")
+        void deveDesfazerSemVaga() throws Exception {
+            when(chain.proceed(request)).thenThrow(new UpstreamIndisponivelException(
+                    UpstreamHttpConfigurations.GEMINI, "sem vaga", Duration.ZERO));
+
+            assertThatThrownBy(() -> interceptor.intercept(chain)).isInstanceOf(UpstreamIndisponivelException.class);
+
+            assertThat(disponivel("requisicoes")).isEqualTo(10.0);
+            assertThat(disponivel("tokens")).isEqualTo(1000.0);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.inatel.prototipo_ia.upstream;
+
+import com.inatel.prototipo_ia.upstream.CotaGemini.Prioridade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes Unitários - CotaGemini
+ * Valida os baldes e as prioridades com um relógio controlado pelo teste (sem espera na fila)
+ */
+class CotaGeminiTest {
+
+    private static final String MODELO = CotaGemini.MODELO_PADRAO;
+
+    private AtomicLong relogio;
+    private SimpleMeterRegistry registry;
+    private CotaGemini cota;
+
+    @BeforeEach
+    void setUp() {
+        relogio = new AtomicLong();
+        registry = new SimpleMeterRegistry();
+        // 10 requisições e 1000 tokens por minuto, 20% reservados aos interativos, recusa na hora
+        cota = new CotaGemini(registry, "chave-teste", true, 10, 1000, 0.2,
+                Duration.ZERO, Duration.ZERO, relogio::get);
+    }
+
+    private double disponivel(String recurso) {
+        return registry.get("gemini.cota.disponivel").tag("recurso", recurso).gauge().value();
+    }
+
+    @Nested
+    @DisplayName("Testes do Balde de Requisições")
+    class RequisicoesTests {
+
+        @Test
+        @DisplayName("Deve recusar depois de gastar as requisições do minuto")
+        void deveRecusarSemRequisicoes() throws Exception {
+            for (int i = 0; i < 10; i++) {
+                cota.reservar(MODELO, Prioridade.INTERATIVA, 10);
+            }
+
+            assertThatThrownBy(() -> cota.reservar(MODELO, Prioridade.INTERATIVA, 10))
+                    .isInstanceOf(UpstreamIndisponivelException.class)
+                    .satisfies(e -> assertThat(((UpstreamIndisponivelException) e).getTentarNovamenteEm().toMillis())
+                            .isBetween(5_900L, 6_100L));
+        }
+
+        @Test
+        @DisplayName("Deve reabastecer com o passar do tempo")
+        void deveReabastecer() throws Exception {
+            for (int i = 0; i < 10; i++) {
+                cota.reservar(MODELO, Prioridade.INTERATIVA, 10);
+            }
+
+            relogio.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+            cota.reservar(MODELO, Prioridade.INTERATIVA, 10);
+            assertThat(disponivel("requisicoes")).isLessThan(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Prioridade")
+    class PrioridadeTests {
+
+        @Test
+        @DisplayName("Deve deixar a reserva interativa fora do alcance da geração")
+        void deveGuardarReservaInterativa() throws Exception {
+            for (int i = 0; i < 8; i++) {
+                cota.reservar(MODELO, Prioridade.FUNDO, 10);
+            }
+
+            assertThatThrownBy(() -> cota.reservar(MODELO, Prioridade.FUNDO, 10))
+                    .isInstanceOf(UpstreamIndisponivelException.class);
+
+            cota.reservar(MODELO, Prioridade.INTERATIVA, 10);
+            cota.reservar(MODELO, Prioridade.INTERATIVA, 10);
+            assertThat(registry.get("gemini.cota.recusas").tag("prioridade", "fundo").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Deve recusar a geração quando os tokens chegam à reserva")
+        void deveRecusarFundoSemTokens() throws Exception {
+            cota.reservar(MODELO, Prioridade.FUNDO, 800);
+
+            assertThatThrownBy(() -> cota.reservar(MODELO, Prioridade.FUNDO, 1))
+                    .isInstanceOf(UpstreamIndisponivelException.class);
+            cota.reservar(MODELO, Prioridade.INTERATIVA, 150);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes do Consumo Real")
+    class ConsumoTests {
+
+        @Test
+        @DisplayName("Deve trocar a estimativa pelo total de tokens da resposta")
+        void deveCorrigirEstimativa() throws Exception {
+            CotaGemini.Reserva reserva = cota.reservar(MODELO, Prioridade.INTERATIVA, 100);
+            assertThat(disponivel("tokens")).isEqualTo(900.0);
+
+            reserva.registrarUso("600");
+
+            assertThat(disponivel("tokens")).isEqualTo(400.0);
+        }
+
+        @Test
+        @DisplayName("Deve devolver os tokens estimados a mais")
+        void deveDevolverExcesso() throws Exception {
+            CotaGemini.Reserva reserva = cota.reservar(MODELO, Prioridade.INTERATIVA, 500);
+
+            reserva.registrarUso(200);
+            reserva.registrarUso(300);
+
+            assertThat(disponivel("tokens")).isEqualTo(800.0);
+        }
+
+        @Test
+        @DisplayName("Deve manter a estimativa quando a resposta não traz o consumo")
+        void deveManterEstimativaSemConsumo() throws Exception {
+            CotaGemini.Reserva reserva = cota.reservar(MODELO, Prioridade.INTERATIVA, 100);
+
+            reserva.registrarUso((String) null);
+            reserva.registrarUso("abc");
+
+            assertThat(disponivel("tokens")).isEqualTo(900.0);
+        }
+
+        @Test
+        @DisplayName("Deve liberar tudo quando a cota está desligada")
+        void deveLiberarSemLimite() throws Exception {
+            CotaGemini semLimite = CotaGemini.semLimite();
+
+            for (int i = 0; i < 100; i++) {
+                semLimite.reservar(MODELO, Prioridade.FUNDO, 1_000_000).registrarUso(1_000_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.inatel.prototipo_ia.upstream;
+
+import com.inatel.prototipo_ia.upstream.DisjuntorInterceptor.Estado;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes Unitários - DisjuntorInterceptor
+ * Valida as transições de estado com um relógio controlado pelo teste
+ */
+class DisjuntorInterceptorTest {
+
+    private AtomicLong relogio;
+    private DisjuntorInterceptor disjuntor;
+
+    @BeforeEach
+    void setUp() {
+        relogio = new AtomicLong();
+        // Janela de 4, abre com 50% de falhas depois de 4 chamadas, 2 chamadas de teste
+        disjuntor = new DisjuntorInterceptor("gemini", 4, 4, 50, Duration.ofSeconds(30), 2, relogio::get);
+    }
+
+    private void chamar(boolean falha) throws Exception {
+        disjuntor.permitir();
+        disjuntor.registrar(falha);
+    }
+
+    /**
+     * Chamada que termina em IOException, cancelada ou não pelo cliente (ex.: hedge perdedor).
+     */
+    private void chamarComErro(boolean cancelada) throws Exception {
+        Call call = mock(Call.class);
+        when(call.isCanceled()).thenReturn(cancelada);
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.call()).thenReturn(call);
+        when(chain.proceed(any())).thenThrow(new IOException(cancelada ? "Canceled" : "timeout"));
+
+        assertThatThrownBy(() -> disjuntor.intercept(chain)).isInstanceOf(IOException.class);
+    }
+
+    private void abrir() throws Exception {
+        chamar(true);
+        chamar(true);
+        chamar(false);
+        chamar(false);
+    }
+
+    @Nested
+    @DisplayName("Testes de Abertura")
+    class AberturaTests {
+
+        @Test
+        @DisplayName("Deve continuar fechado abaixo do mínimo de chamadas")
+        void deveContinuarFechadoAbaixoDoMinimo() throws Exception {
+            chamar(true);
+            chamar(true);
+            chamar(true);
+
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+        }
+
+        @Test
+        @DisplayName("Deve abrir quando a taxa de falhas chega ao limite")
+        void deveAbrirNaTaxaDeFalha() throws Exception {
+            abrir();
+
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.ABERTO);
+            assertThat(disjuntor.estadoNumerico()).isEqualTo(2.0);
+        }
+
+        @Test
+        @DisplayName("Deve recusar na hora informando quando tentar de novo")
+        void deveRecusarComTempoRestante() throws Exception {
+            abrir();
+            relogio.addAndGet(Duration.ofSeconds(10).toNanos());
+
+            assertThatThrownBy(() -> disjuntor.permitir())
+                    .isInstanceOf(UpstreamIndisponivelException.class)
+                    .satisfies(e -> assertThat(((UpstreamIndisponivelException) e).getTentarNovamenteEm())
+                            .isEqualTo(Duration.ofSeconds(20)));
+        }
+
+        @Test
+        @DisplayName("Deve esquecer as falhas que saíram da janela")
+        void deveEsquecerFalhasAntigas() throws Exception {
+            chamar(true);
+            chamar(false);
+            chamar(false);
+            chamar(false);
+            // A falha inicial sai da janela; ficam 1 falha em 4
+            chamar(true);
+
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+        }
+
+        @Test
+        @DisplayName("Não deve contar chamada cancelada pelo cliente como falha")
+        void naoDeveContarChamadaCancelada() throws Exception {
+            chamarComErro(true);
+            chamarComErro(true);
+            chamar(false);
+            chamar(false);
+
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+
+            // Erro de rede de verdade continua contando
+            chamarComErro(false);
+            chamarComErro(false);
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.ABERTO);
+        }
+
+        @Test
+        @DisplayName("Deve considerar 429 e 5xx como falha")
+        void deveClassificarCodigos() {
+            assertThat(DisjuntorInterceptor.falhou(429)).isTrue();
+            assertThat(DisjuntorInterceptor.falhou(503)).isTrue();
+            assertThat(DisjuntorInterceptor.falhou(400)).isFalse();
+            assertThat(DisjuntorInterceptor.falhou(200)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes do Estado Meio Aberto")
+    class MeioAbertoTests {
+
+        @BeforeEach
+        void abrirEEsperar() throws Exception {
+            abrir();
+            relogio.addAndGet(Duration.ofSeconds(30).toNanos());
+        }
+
+        @Test
+        @DisplayName("Deve ficar meio aberto depois do tempo aberto")
+        void deveFicarMeioAberto() {
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.MEIO_ABERTO);
+        }
+
+        @Test
+        @DisplayName("Deve liberar só as chamadas de teste")
+        void deveLiberarSoChamadasDeTeste() throws Exception {
+            disjuntor.permitir();
+            disjuntor.permitir();
+
+            assertThatThrownBy(() -> disjuntor.permitir()).isInstanceOf(UpstreamIndisponivelException.class);
+        }
+
+        @Test
+        @DisplayName("Deve fechar quando todas as chamadas de teste dão certo")
+        void deveFecharComTestesOk() throws Exception {
+            chamar(false);
+            chamar(false);
+
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+            // Janela zerada: uma falha sozinha não reabre
+            chamar(true);
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+        }
+
+        @Test
+        @DisplayName("Deve devolver a vaga de teste quando a chamada é cancelada")
+        void deveDevolverVagaDeTesteAoCancelar() throws Exception {
+            chamarComErro(true);
+            chamar(false);
+            chamar(false);
+
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+        }
+
+        @Test
+        @DisplayName("Deve reabrir quando uma chamada de teste falha")
+        void deveReabrirComFalha() throws Exception {
+            chamar(false);
+            chamar(true);
+
+            assertThat(disjuntor.getEstado()).isEqualTo(Estado.ABERTO);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.inatel.prototipo_ia.upstream;
+
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - LeitorJsonStreaming
+ * Valida a extração por caminho nas respostas do Gemini e do Deepgram
+ */
+class LeitorJsonStreamingTest {
+
+    private static final String RESPOSTA_GEMINI = "{\"candidates\": [{\"content\": {\"role\": \"model\", \"parts\": "
+            + "[{\"text\": \"{\\\"pontuacaoGeral\\\": 90}\"}]}, \"finishReason\": \"STOP\"}], "
+            + "\"usageMetadata\": {\"promptTokenCount\": 10, \"totalTokenCount\": 42}}";
+
+    private static final String RESPOSTA_DEEPGRAM = "{\"metadata\": {\"channels\": 1}, \"results\": {\"channels\": "
+            + "[{\"alternatives\": [{\"transcript\": \"o rato roeu\", \"confidence\": 0.9}, {\"transcript\": \"outro\"}]}]}}";
+
+    @Nested
+    @DisplayName("Testes de Extração por Caminho")
+    class ExtracaoTests {
+
+        @Test
+        @DisplayName("Deve extrair o texto do primeiro candidato do Gemini")
+        void deveExtrairTextoGemini() throws Exception {
+            String texto = LeitorJsonStreaming.extrairTexto(new StringReader(RESPOSTA_GEMINI),
+                    "candidates", 0, "content", "parts", 0, "text");
+
+            assertThat(texto).isEqualTo("{\"pontuacaoGeral\": 90}");
+        }
+
+        @Test
+        @DisplayName("Deve extrair a transcrição do Deepgram pulando os outros campos")
+        void deveExtrairTranscricaoDeepgram() throws Exception {
+            String transcricao = LeitorJsonStreaming.extrairTexto(new StringReader(RESPOSTA_DEEPGRAM),
+                    "results", "channels", 0, "alternatives", 0, "transcript");
+
+            assertThat(transcricao).isEqualTo("o rato roeu");
+        }
+
+        @Test
+        @DisplayName("Deve respeitar a posição pedida no array")
+        void deveRespeitarPosicaoNoArray() throws Exception {
+            String transcricao = LeitorJsonStreaming.extrairTexto(new StringReader(RESPOSTA_DEEPGRAM),
+                    "results", "channels", 0, "alternatives", 1, "transcript");
+
+            assertThat(transcricao).isEqualTo("outro");
+        }
+
+        @Test
+        @DisplayName("Deve extrair o texto e o total de tokens numa só passada")
+        void deveExtrairVariosCaminhos() throws Exception {
+            String[] valores = LeitorJsonStreaming.extrairTextos(new StringReader(RESPOSTA_GEMINI),
+                    new Object[]{"candidates", 0, "content", "parts", 0, "text"},
+                    new Object[]{"usageMetadata", "totalTokenCount"},
+                    new Object[]{"modelVersion"});
+
+            assertThat(valores).containsExactly("{\"pontuacaoGeral\": 90}", "42", null);
+        }
+
+        @Test
+        @DisplayName("Deve retornar nulo quando o caminho não existe")
+        void deveRetornarNuloSemCaminho() throws Exception {
+            assertThat(LeitorJsonStreaming.extrairTexto(new StringReader("{\"results\": {}}"),
+                    "results", "channels", 0, "alternatives", 0, "transcript")).isNull();
+            assertThat(LeitorJsonStreaming.extrairTexto(new StringReader("{\"candidates\": []}"),
+                    "candidates", 0, "content")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes do Texto Gerado pelo Modelo")
+    class TextoGeradoTests {
+
+        @Test
+        @DisplayName("Deve pular a cerca de markdown antes do objeto")
+        void devePularCercaMarkdown() throws Exception {
+            JsonReader leitor = LeitorJsonStreaming.leitorDoPrimeiroObjeto("```json\n{\"nota\": \"10\"}\n```");
+
+            leitor.beginObject();
+            assertThat(leitor.nextName()).isEqualTo("nota");
+            assertThat(LeitorJsonStreaming.lerNumero(leitor, 0.0)).isEqualTo(10.0);
+        }
+
+        @Test
+        @DisplayName("Deve retornar nulo quando não há objeto no texto")
+        void deveRetornarNuloSemObjeto() throws Exception {
+            assertThat(LeitorJsonStreaming.leitorDoPrimeiroObjeto("não consegui analisar")).isNull();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.inatel.prototipo_ia.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - RetentativaInterceptor
+ * Valida o cálculo da espera e quais falhas são repetidas (sem rede: a chain é um mock)
+ */
+class RetentativaInterceptorTest {
+
+    private static final Request REQUEST = new Request.Builder().url("https://exemplo.com/api").build();
+
+    private SimpleMeterRegistry registry;
+    private RetentativaInterceptor retentativa;
+    private Interceptor.Chain chain;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // Espera base zero: os testes não dormem
+        retentativa = new RetentativaInterceptor("deepgram", 3, Duration.ZERO, Duration.ofSeconds(10), registry);
+        chain = mock(Interceptor.Chain.class);
+        Call call = mock(Call.class);
+        when(chain.request()).thenReturn(REQUEST);
+        when(chain.call()).thenReturn(call);
+    }
+
+    private static Response resposta(int codigo, String retryAfter) {
+        Response.Builder builder = new Response.Builder()
+                .request(REQUEST)
+                .protocol(Protocol.HTTP_1_1)
+                .code(codigo)
+                .message("status " + codigo)
+                .body(ResponseBody.create("", MediaType.parse("application/json")));
+        if (retryAfter != null) {
+            builder.header("Retry-After", retryAfter);
+        }
+        return builder.build();
+    }
+
+    private double retentativas(String motivo) {
+        return registry.counter("upstream.http.retentativas", "upstream", "deepgram", "motivo", motivo).count();
+    }
+
+    @Nested
+    @DisplayName("Testes do Cálculo da Espera")
+    class EsperaTests {
+
+        @Test
+        @DisplayName("Deve ler o Retry-After em segundos")
+        void deveLerRetryAfterEmSegundos() {
+            assertThat(RetentativaInterceptor.lerRetryAfter("3")).isEqualTo(3000L);
+            assertThat(RetentativaInterceptor.lerRetryAfter(" 0 ")).isEqualTo(0L);
+        }
+
+        @Test
+        @DisplayName("Deve ler o Retry-After como data HTTP")
+        void deveLerRetryAfterComoData() {
+            String daquiAPouco = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(5));
+
+            assertThat(RetentativaInterceptor.lerRetryAfter(daquiAPouco)).isBetween(3000L, 5000L);
+        }
+
+        @Test
+        @DisplayName("Deve ignorar Retry-After ausente ou inválido")
+        void deveIgnorarRetryAfterInvalido() {
+            assertThat(RetentativaInterceptor.lerRetryAfter(null)).isNull();
+            assertThat(RetentativaInterceptor.lerRetryAfter("logo")).isNull();
+        }
+
+        @Test
+        @DisplayName("Deve limitar o backoff exponencial à espera máxima")
+        void deveLimitarBackoff() {
+            RetentativaInterceptor comEspera = new RetentativaInterceptor("deepgram", 5,
+                    Duration.ofMillis(500), Duration.ofSeconds(2), registry);
+
+            for (int i = 0; i < 50; i++) {
+                assertThat(comEspera.calcularEspera(1, null)).isBetween(0L, 500L);
+                assertThat(comEspera.calcularEspera(10, null)).isBetween(0L, 2000L);
+            }
+        }
+
+        @Test
+        @DisplayName("Deve desistir quando o Retry-After passa da espera máxima")
+        void deveDesistirComRetryAfterLongo() {
+            assertThat(retentativa.calcularEspera(1, "60")).isEqualTo(-1L);
+            assertThat(retentativa.calcularEspera(1, "2")).isEqualTo(2000L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes das Tentativas")
+    class TentativasTests {
+
+        @Test
+        @DisplayName("Deve repetir 503 e devolver a resposta de sucesso")
+        void deveRepetir503() throws Exception {
+            when(chain.proceed(REQUEST)).thenReturn(resposta(503, "0"), resposta(200, null));
+
+            Response response = retentativa.intercept(chain);
+
+            assertThat(response.code()).isEqualTo(200);
+            verify(chain, times(2)).proceed(REQUEST);
+            assertThat(retentativas("503")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Deve devolver a última resposta depois de esgotar as tentativas")
+        void deveEsgotarTentativas() throws Exception {
+            when(chain.proceed(REQUEST)).thenReturn(resposta(429, null));
+
+            Response response = retentativa.intercept(chain);
+
+            assertThat(response.code()).isEqualTo(429);
+            verify(chain, times(3)).proceed(REQUEST);
+        }
+
+        @Test
+        @DisplayName("Não deve repetir erro do cliente")
+        void naoDeveRepetirErroDoCliente() throws Exception {
+            when(chain.proceed(REQUEST)).thenReturn(resposta(400, null));
+
+            assertThat(retentativa.intercept(chain).code()).isEqualTo(400);
+            verify(chain, times(1)).proceed(REQUEST);
+        }
+
+        @Test
+        @DisplayName("Deve repetir erro de rede")
+        void deveRepetirErroDeRede() throws Exception {
+            when(chain.proceed(REQUEST)).thenThrow(new IOException("conexão recusada")).thenReturn(resposta(200, null));
+
+            assertThat(retentativa.intercept(chain).code()).isEqualTo(200);
+            assertThat(retentativas("erro_rede")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Não deve repetir quando o disjuntor recusa a chamada")
+        void naoDeveRepetirComDisjuntorAberto() throws Exception {
+            when(chain.proceed(REQUEST)).thenThrow(new UpstreamIndisponivelException("deepgram", "aberto", Duration.ofSeconds(5)));
+
+            assertThatThrownBy(() -> retentativa.intercept(chain)).isInstanceOf(UpstreamIndisponivelException.class);
+            verify(chain, times(1)).proceed(REQUEST);
+        }
+    }
+}